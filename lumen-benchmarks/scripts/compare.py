@@ -0,0 +1,88 @@
+#!/usr/bin/env python3
+"""Compare two JMH JSON result files (baseline vs. current).
+
+Reports primary score (ops/time) and normalized allocation
+(gc.alloc.rate.norm, bytes/op) for every benchmark present in both files.
+Exits with status 1 when any benchmark regresses by more than the
+threshold on throughput, or grows its allocation beyond the threshold.
+
+Usage: compare.py baseline.json current.json [--threshold 10]
+"""
+import argparse
+import json
+import sys
+
+ALLOC_KEY = "gc.alloc.rate.norm"
+
+
+def key_of(entry):
+    params = entry.get("params") or {}
+    suffix = ",".join(f"{k}={v}" for k, v in sorted(params.items()))
+    name = entry["benchmark"].rsplit(".", 2)
+    short = ".".join(name[-2:])
+    return f"{short}({suffix})" if suffix else short
+
+
+def load(path):
+    with open(path, encoding="utf-8") as fh:
+        data = json.load(fh)
+    results = {}
+    for entry in data:
+        primary = entry["primaryMetric"]
+        alloc = entry.get("secondaryMetrics", {}).get(ALLOC_KEY)
+        results[key_of(entry)] = {
+            "score": primary["score"],
+            "unit": primary["scoreUnit"],
+            "mode": entry.get("mode", "thrpt"),
+            "alloc": alloc["score"] if alloc else None,
+        }
+    return results
+
+
+def pct(old, new):
+    if old == 0:
+        return 0.0
+    return (new - old) / old * 100.0
+
+
+def main():
+    parser = argparse.ArgumentParser(description=__doc__, formatter_class=argparse.RawDescriptionHelpFormatter)
+    parser.add_argument("baseline")
+    parser.add_argument("current")
+    parser.add_argument("--threshold", type=float, default=10.0,
+                        help="allowed regression in percent (default: 10)")
+    args = parser.parse_args()
+
+    baseline = load(args.baseline)
+    current = load(args.current)
+    regressions = []
+
+    header = f"{'benchmark':<52} {'base':>12} {'current':>12} {'delta':>8} {'B/op base':>11} {'B/op cur':>11}"
+    print(header)
+    print("-" * len(header))
+    for name in sorted(set(baseline) & set(current)):
+        old, new = baseline[name], current[name]
+        delta = pct(old["score"], new["score"])
+        # Throughput: higher is better; average/sample time: lower is better.
+        worse = -delta if old["mode"] == "thrpt" else delta
+        if worse > args.threshold:
+            regressions.append(f"{name}: score {delta:+.1f}%")
+        old_alloc = "-" if old["alloc"] is None else f"{old['alloc']:.0f}"
+        new_alloc = "-" if new["alloc"] is None else f"{new['alloc']:.0f}"
+        if old["alloc"] and new["alloc"] is not None and pct(old["alloc"], new["alloc"]) > args.threshold:
+            regressions.append(f"{name}: alloc {pct(old['alloc'], new['alloc']):+.1f}%")
+        print(f"{name:<52} {old['score']:>12.1f} {new['score']:>12.1f} {delta:>+7.1f}% {old_alloc:>11} {new_alloc:>11}")
+
+    for name in sorted(set(current) - set(baseline)):
+        print(f"{name:<52} {'(new)':>12} {current[name]['score']:>12.1f}")
+
+    if regressions:
+        print("\nRegressions beyond {:.0f}%:".format(args.threshold))
+        for line in regressions:
+            print("  " + line)
+        return 1
+    return 0
+
+
+if __name__ == "__main__":
+    sys.exit(main())
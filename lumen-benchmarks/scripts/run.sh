@@ -0,0 +1,17 @@
+#!/usr/bin/env bash
+# Run the LumenORM JMH suite with the GC profiler and write JSON results.
+#
+# Usage: scripts/run.sh [output.json] [extra JMH args...]
+#   scripts/run.sh target/current.json SqlRenderer
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+OUT="${1:-target/jmh-result.json}"
+shift || true
+
+if [[ ! -f target/benchmarks.jar ]]; then
+  mvn -B -q package -DskipTests
+fi
+
+java -jar target/benchmarks.jar -prof gc -rf json -rff "$OUT" "$@"
+echo "Results written to $OUT"
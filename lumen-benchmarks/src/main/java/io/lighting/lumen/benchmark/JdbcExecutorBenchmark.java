@@ -0,0 +1,107 @@
+package io.lighting.lumen.benchmark;
+
+import io.lighting.lumen.jdbc.JdbcExecutor;
+import io.lighting.lumen.jdbc.RowMapper;
+import io.lighting.lumen.sql.Bind;
+import io.lighting.lumen.sql.RenderedSql;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link JdbcExecutor} 在 H2 内存库上的 fetch / executeBatch 基准，包含驱动与连接获取开销。
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JdbcExecutorBenchmark {
+    private static final RenderedSql FETCH_SQL = new RenderedSql(
+        "SELECT id, status, total FROM orders WHERE id > ? ORDER BY id LIMIT ?",
+        List.of(new Bind.Value(100L, 0), new Bind.Value(50, 0))
+    );
+    private static final RenderedSql INSERT_SQL = new RenderedSql(
+        "INSERT INTO batch_orders(id, status, total) VALUES (?, ?, ?)",
+        List.of()
+    );
+    private static final RowMapper<Object[]> ROW_MAPPER =
+        rs -> new Object[] {rs.getLong(1), rs.getString(2), rs.getInt(3)};
+
+    @Param({"100"})
+    public int batchRows;
+
+    private JdbcDataSource dataSource;
+    private Connection keepAlive;
+    private JdbcExecutor executor;
+    private List<List<Bind>> batchBinds;
+
+    @Setup
+    public void setup() throws SQLException {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:lumen_bench;DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        keepAlive = dataSource.getConnection();
+        try (Statement statement = keepAlive.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS orders");
+            statement.execute("DROP TABLE IF EXISTS batch_orders");
+            statement.execute("CREATE TABLE orders (id BIGINT PRIMARY KEY, status VARCHAR(32), total INT)");
+            statement.execute("CREATE TABLE batch_orders (id BIGINT, status VARCHAR(32), total INT)");
+            statement.execute(
+                "INSERT INTO orders SELECT X, 'PAID', CAST(X AS INT) FROM SYSTEM_RANGE(1, 10000)"
+            );
+        }
+        executor = new JdbcExecutor(dataSource);
+        batchBinds = new ArrayList<>(batchRows);
+        for (int i = 0; i < batchRows; i++) {
+            batchBinds.add(List.of(
+                new Bind.Value((long) i, 0),
+                new Bind.Value("NEW", 0),
+                new Bind.Value(i, 0)
+            ));
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void truncateBatchTable() throws SQLException {
+        try (Statement statement = keepAlive.createStatement()) {
+            statement.execute("TRUNCATE TABLE batch_orders");
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        try (Statement statement = keepAlive.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        keepAlive.close();
+    }
+
+    @Benchmark
+    public List<Object[]> fetch() throws SQLException {
+        return executor.fetch(FETCH_SQL, ROW_MAPPER);
+    }
+
+    @Benchmark
+    public int[] executeBatch() throws SQLException {
+        return executor.executeBatch(INSERT_SQL, batchBinds, 50);
+    }
+}
@@ -0,0 +1,92 @@
+package io.lighting.lumen.benchmark;
+
+import io.lighting.lumen.jdbc.RowMapper;
+import io.lighting.lumen.jdbc.RowMappers;
+import io.lighting.lumen.meta.Column;
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.concurrent.TimeUnit;
+import org.h2.tools.SimpleResultSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * {@link RowMappers#auto} 在 Bean 与 Record 上的逐行映射基准；结果集为内存中的 {@link SimpleResultSet}，
+ * 不涉及驱动 I/O。
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RowMapperBenchmark {
+    static final int ROWS = 1000;
+
+    private SimpleResultSet resultSet;
+    private RowMapper<OrderBean> beanMapper;
+    private RowMapper<OrderRecord> recordMapper;
+
+    @Setup
+    public void setup() {
+        resultSet = new SimpleResultSet();
+        resultSet.setAutoClose(false);
+        resultSet.addColumn("ID", Types.BIGINT, 19, 0);
+        resultSet.addColumn("STATUS", Types.VARCHAR, 32, 0);
+        resultSet.addColumn("TOTAL", Types.DECIMAL, 12, 2);
+        resultSet.addColumn("CUSTOMER_NAME", Types.VARCHAR, 64, 0);
+        resultSet.addColumn("QUANTITY", Types.INTEGER, 10, 0);
+        for (int i = 0; i < ROWS; i++) {
+            resultSet.addRow((long) i, "PAID", BigDecimal.valueOf(i, 2), "customer-" + i, i % 17);
+        }
+        beanMapper = RowMappers.auto(OrderBean.class);
+        recordMapper = RowMappers.auto(OrderRecord.class);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void mapBean(Blackhole blackhole) throws SQLException {
+        resultSet.beforeFirst();
+        while (resultSet.next()) {
+            blackhole.consume(beanMapper.map(resultSet));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void mapRecord(Blackhole blackhole) throws SQLException {
+        resultSet.beforeFirst();
+        while (resultSet.next()) {
+            blackhole.consume(recordMapper.map(resultSet));
+        }
+    }
+
+    public static class OrderBean {
+        private Long id;
+        private String status;
+        private BigDecimal total;
+        @Column(name = "customer_name")
+        private String customerName;
+        private int quantity;
+    }
+
+    public record OrderRecord(
+        Long id,
+        String status,
+        BigDecimal total,
+        @Column(name = "customer_name") String customerName,
+        int quantity
+    ) {
+    }
+}
@@ -0,0 +1,130 @@
+package io.lighting.lumen.benchmark;
+
+import io.lighting.lumen.sql.Bindings;
+import io.lighting.lumen.sql.RenderedSql;
+import io.lighting.lumen.sql.SqlRenderer;
+import io.lighting.lumen.sql.ast.Expr;
+import io.lighting.lumen.sql.ast.InsertStmt;
+import io.lighting.lumen.sql.ast.Join;
+import io.lighting.lumen.sql.ast.JoinType;
+import io.lighting.lumen.sql.ast.OrderItem;
+import io.lighting.lumen.sql.ast.Paging;
+import io.lighting.lumen.sql.ast.SelectItem;
+import io.lighting.lumen.sql.ast.SelectStmt;
+import io.lighting.lumen.sql.ast.TableRef;
+import io.lighting.lumen.sql.ast.UpdateItem;
+import io.lighting.lumen.sql.ast.UpdateStmt;
+import io.lighting.lumen.sql.dialect.LimitOffsetDialect;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link SqlRenderer#render} 在 Select / Insert / Update 三类语句上的吞吐量基准。
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SqlRendererBenchmark {
+    private SqlRenderer renderer;
+    private SelectStmt select;
+    private Bindings selectBindings;
+    private UpdateStmt update;
+    private Bindings updateBindings;
+
+    @Setup
+    public void setup() {
+        renderer = new SqlRenderer(new LimitOffsetDialect("\""));
+        select = new SelectStmt(
+            List.of(
+                new SelectItem(new Expr.Column("o", "id"), "order_id"),
+                new SelectItem(new Expr.Column("o", "status"), null),
+                new SelectItem(new Expr.Column("o", "total"), null),
+                new SelectItem(new Expr.Column("c", "name"), "customer_name")
+            ),
+            new TableRef("sales.orders", "o"),
+            List.of(new Join(
+                JoinType.LEFT_JOIN,
+                new TableRef("customers", "c"),
+                new Expr.Compare(new Expr.Column("c", "id"), Expr.Op.EQ, new Expr.Column("o", "customer_id"))
+            )),
+            new Expr.And(List.of(
+                new Expr.Compare(new Expr.Column("o", "status"), Expr.Op.EQ, new Expr.Param("status")),
+                new Expr.Compare(new Expr.Column("o", "total"), Expr.Op.GE, new Expr.Param("minTotal")),
+                new Expr.In(new Expr.Column("o", "id"), List.of(
+                    new Expr.Literal(1L), new Expr.Literal(2L), new Expr.Literal(3L), new Expr.Literal(4L)
+                )),
+                new Expr.Like(new Expr.Column("c", "name"), new Expr.Param("kw"))
+            )),
+            List.of(),
+            null,
+            List.of(
+                new OrderItem(new Expr.Column("o", "created_at"), false),
+                new OrderItem(new Expr.Column("o", "id"), true)
+            ),
+            new Paging(2, 20)
+        );
+        selectBindings = Bindings.of("status", "PAID", "minTotal", 100, "kw", "%lamp%");
+
+        update = new UpdateStmt(
+            new TableRef("orders", null),
+            List.of(
+                new UpdateItem(new Expr.Column(null, "status"), new Expr.Param("status")),
+                new UpdateItem(new Expr.Column(null, "total"), new Expr.Param("total"))
+            ),
+            new Expr.Compare(new Expr.Column(null, "id"), Expr.Op.EQ, new Expr.Param("id"))
+        );
+        updateBindings = Bindings.of("status", "PAID", "total", 42, "id", 7L);
+    }
+
+    @Benchmark
+    public RenderedSql renderSelect() {
+        return renderer.render(select, selectBindings);
+    }
+
+    @Benchmark
+    public RenderedSql renderInsert(InsertState state) {
+        return renderer.render(state.insert, Bindings.empty());
+    }
+
+    @Benchmark
+    public RenderedSql renderUpdate() {
+        return renderer.render(update, updateBindings);
+    }
+
+    @State(Scope.Benchmark)
+    public static class InsertState {
+        @Param({"1", "50"})
+        public int rows;
+
+        InsertStmt insert;
+
+        @Setup
+        public void setup() {
+            List<List<Expr>> values = new ArrayList<>(rows);
+            for (int i = 0; i < rows; i++) {
+                values.add(List.of(
+                    new Expr.Literal((long) i),
+                    new Expr.Literal("NEW"),
+                    new Expr.Literal(i * 10),
+                    new Expr.Literal("customer-" + i)
+                ));
+            }
+            insert = new InsertStmt(new TableRef("orders", null), List.of("id", "status", "total", "customer"), values);
+        }
+    }
+}
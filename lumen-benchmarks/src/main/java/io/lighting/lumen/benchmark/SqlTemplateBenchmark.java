@@ -0,0 +1,101 @@
+package io.lighting.lumen.benchmark;
+
+import io.lighting.lumen.meta.Column;
+import io.lighting.lumen.meta.Id;
+import io.lighting.lumen.meta.ReflectionEntityMetaRegistry;
+import io.lighting.lumen.meta.Table;
+import io.lighting.lumen.sql.Bindings;
+import io.lighting.lumen.sql.RenderedSql;
+import io.lighting.lumen.sql.dialect.LimitOffsetDialect;
+import io.lighting.lumen.template.EntityNameResolver;
+import io.lighting.lumen.template.EntityNameResolvers;
+import io.lighting.lumen.template.SqlTemplate;
+import io.lighting.lumen.template.TemplateContext;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link SqlTemplate} 解析与渲染基准，覆盖 {@code @where/@if/@in/@for/@orderBy/@page} 指令。
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SqlTemplateBenchmark {
+    static final String TEMPLATE = """
+        SELECT o.id, o.status, o.total
+        FROM @table(Order) o
+        @where {
+          @if(status != null) { o.status = :status }
+          @if(minTotal != null && minTotal > 100) { AND o.total >= :minTotal }
+          @if(ids) { AND o.id IN @in(:ids) }
+          @if(tags) { AND ( @for(tag : tags) { @or { o.tag = :tag } } ) }
+        }
+        @orderBy(:sort, allowed = { ID_ASC : o.id ASC, ID_DESC : o.id DESC, TOTAL_DESC : o.total DESC }, default = ID_ASC)
+        @page(:page, :pageSize)
+        """;
+
+    private SqlTemplate parsed;
+    private TemplateContext context;
+
+    @Setup
+    public void setup() {
+        parsed = SqlTemplate.parse(TEMPLATE);
+        EntityNameResolver resolver = EntityNameResolvers.from(Map.of("Order", OrderEntity.class));
+        Bindings bindings = Bindings.of(
+            "status", "PAID",
+            "minTotal", 250,
+            "ids", List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L),
+            "tags", List.of("a", "b", "c"),
+            "sort", "TOTAL_DESC",
+            "page", 3,
+            "pageSize", 20
+        );
+        context = new TemplateContext(
+            bindings.asMap(),
+            new LimitOffsetDialect("\""),
+            new ReflectionEntityMetaRegistry(),
+            resolver
+        );
+    }
+
+    @Benchmark
+    public SqlTemplate parse() {
+        return SqlTemplate.parse(TEMPLATE);
+    }
+
+    @Benchmark
+    public RenderedSql render() {
+        return parsed.render(context);
+    }
+
+    @Benchmark
+    public RenderedSql parseAndRender() {
+        return SqlTemplate.parse(TEMPLATE).render(context);
+    }
+
+    @Table(name = "orders")
+    public static class OrderEntity {
+        @Id
+        private Long id;
+
+        @Column(name = "status")
+        private String status;
+
+        @Column(name = "total")
+        private Integer total;
+    }
+}
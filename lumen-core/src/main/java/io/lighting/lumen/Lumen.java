@@ -3,22 +3,32 @@ package io.lighting.lumen;
 import io.lighting.lumen.db.Db;
 import io.lighting.lumen.db.DbObserver;
 import io.lighting.lumen.db.DefaultDb;
+import io.lighting.lumen.db.QueryExecutors;
+import io.lighting.lumen.db.ReplicaBalancer;
+import io.lighting.lumen.db.ReplicaRoutingDb;
+import io.lighting.lumen.db.TransactionManager;
 import io.lighting.lumen.dsl.Dsl;
+import io.lighting.lumen.id.IdGeneratorProvider;
+import io.lighting.lumen.id.IdGenerators;
 import io.lighting.lumen.jdbc.JdbcExecutor;
+import io.lighting.lumen.meta.EntityMetaRegistries;
 import io.lighting.lumen.meta.EntityMetaRegistry;
-import io.lighting.lumen.meta.ReflectionEntityMetaRegistry;
 import io.lighting.lumen.sql.Dialect;
 import io.lighting.lumen.sql.SqlRenderer;
 import io.lighting.lumen.sql.dialect.DialectResolver;
 import io.lighting.lumen.sql.dialect.LimitOffsetDialect;
 import io.lighting.lumen.template.EntityNameResolver;
 import io.lighting.lumen.template.EntityNameResolvers;
+import io.lighting.lumen.template.SqlTemplateCache;
 import java.lang.reflect.Constructor;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import javax.sql.DataSource;
 
 /**
@@ -43,6 +53,9 @@ public final class Lumen {
     private final EntityMetaRegistry metaRegistry;
     private final EntityNameResolver entityNameResolver;
     private final SqlRenderer renderer;
+    private final SqlTemplateCache templateCache;
+    private final TransactionManager transactionManager;
+    private final IdGeneratorProvider idGeneratorProvider;
     private final Map<Class<?>, Object> daoCache = new ConcurrentHashMap<>();
 
     private Lumen(
@@ -51,7 +64,10 @@ public final class Lumen {
         Dialect dialect,
         EntityMetaRegistry metaRegistry,
         EntityNameResolver entityNameResolver,
-        SqlRenderer renderer
+        SqlRenderer renderer,
+        SqlTemplateCache templateCache,
+        TransactionManager transactionManager,
+        IdGeneratorProvider idGeneratorProvider
     ) {
         this.db = db;
         this.dsl = dsl;
@@ -59,6 +75,9 @@ public final class Lumen {
         this.metaRegistry = metaRegistry;
         this.entityNameResolver = entityNameResolver;
         this.renderer = renderer;
+        this.templateCache = templateCache;
+        this.transactionManager = transactionManager;
+        this.idGeneratorProvider = idGeneratorProvider;
     }
 
     /**
@@ -99,6 +118,19 @@ public final class Lumen {
         String implName = daoType.getName() + "_Impl";
         try {
             Class<?> implClass = Class.forName(implName, true, daoType.getClassLoader());
+            try {
+                Constructor<?> ctor = implClass.getConstructor(
+                    Db.class,
+                    Dialect.class,
+                    EntityMetaRegistry.class,
+                    EntityNameResolver.class,
+                    SqlRenderer.class,
+                    IdGeneratorProvider.class
+                );
+                return ctor.newInstance(db, dialect, metaRegistry, entityNameResolver, renderer, idGeneratorProvider);
+            } catch (NoSuchMethodException ignored) {
+                // 旧版本生成的实现类没有 IdGeneratorProvider 参数
+            }
             try {
                 Constructor<?> ctor = implClass.getConstructor(
                     Db.class,
@@ -176,11 +208,40 @@ public final class Lumen {
         return renderer;
     }
 
+    /**
+     * 获取 SQL 模板解析缓存（命中统计见 {@link SqlTemplateCache#stats()}）。
+     */
+    public SqlTemplateCache templateCache() {
+        return templateCache;
+    }
+
+    /**
+     * 获取非 AUTO 主键的生成器来源。
+     */
+    public IdGeneratorProvider idGeneratorProvider() {
+        return idGeneratorProvider;
+    }
+
+    /**
+     * 获取基于主数据源的事务管理器。配置了副本时事务始终在主库执行。
+     *
+     * @throws IllegalStateException 如果通过 {@link Builder#db(Db)} 提供了自定义 Db 而未设置数据源
+     */
+    public TransactionManager transactionManager() {
+        if (transactionManager == null) {
+            throw new IllegalStateException("TransactionManager requires Lumen.Builder.dataSource");
+        }
+        return transactionManager;
+    }
+
     /**
      * Lumen 构建器。
      */
     public static final class Builder {
         private DataSource dataSource;
+        private final List<DataSource> replicas = new ArrayList<>();
+        private ReplicaBalancer replicaBalancer = ReplicaBalancer.roundRobin();
+        private Duration replicaStickyWindow = ReplicaRoutingDb.DEFAULT_STICKY_WINDOW;
         private Db db;
         private Dialect dialect;
         private EntityMetaRegistry metaRegistry;
@@ -188,7 +249,11 @@ public final class Lumen {
         private final Map<String, Class<?>> entityNameMappings = new LinkedHashMap<>();
         private SqlRenderer renderer;
         private List<DbObserver> observers = List.of();
+        private SqlTemplateCache templateCache;
         private boolean startupLogEnabled = true;
+        private boolean concurrentPageCount;
+        private Executor queryExecutor;
+        private IdGeneratorProvider idGeneratorProvider;
 
         private Builder() {
         }
@@ -201,6 +266,42 @@ public final class Lumen {
             return this;
         }
 
+        /**
+         * 添加只读副本数据源。配置副本后 {@link Lumen#db()} 为 {@link ReplicaRoutingDb}：
+         * 只读查询分发到副本，写操作与事务走 {@link #dataSource(DataSource)} 设置的主库。
+         */
+        public Builder addReplica(DataSource replica) {
+            replicas.add(Objects.requireNonNull(replica, "replica"));
+            return this;
+        }
+
+        /**
+         * 添加多个只读副本数据源，见 {@link #addReplica(DataSource)}。
+         */
+        public Builder replicas(List<DataSource> replicas) {
+            Objects.requireNonNull(replicas, "replicas");
+            for (DataSource replica : replicas) {
+                addReplica(replica);
+            }
+            return this;
+        }
+
+        /**
+         * 设置副本负载均衡策略。默认轮询。
+         */
+        public Builder replicaBalancer(ReplicaBalancer replicaBalancer) {
+            this.replicaBalancer = Objects.requireNonNull(replicaBalancer, "replicaBalancer");
+            return this;
+        }
+
+        /**
+         * 设置写入后当前线程读取继续走主库的时长。默认 1 秒，{@link Duration#ZERO} 表示关闭。
+         */
+        public Builder replicaStickyWindow(Duration replicaStickyWindow) {
+            this.replicaStickyWindow = Objects.requireNonNull(replicaStickyWindow, "replicaStickyWindow");
+            return this;
+        }
+
         /**
          * 设置自定义 Db 实现。
          */
@@ -273,6 +374,40 @@ public final class Lumen {
             return this;
         }
 
+        /**
+         * 设置 SQL 模板解析缓存。默认容量 {@value SqlTemplateCache#DEFAULT_MAX_SIZE}，不过期。
+         */
+        public Builder templateCache(SqlTemplateCache templateCache) {
+            this.templateCache = Objects.requireNonNull(templateCache, "templateCache");
+            return this;
+        }
+
+        /**
+         * 分页时并发执行数据查询与 count 查询（默认关闭）。开启后事务外的每次分页同时占用两个连接，
+         * 延迟从两者之和降为两者中的较大值。count 查询提交到 {@link #queryExecutor(Executor)}。
+         */
+        public Builder concurrentPageCount(boolean enabled) {
+            this.concurrentPageCount = enabled;
+            return this;
+        }
+
+        /**
+         * 设置并发 count 查询使用的执行器。默认 {@link QueryExecutors.pageCount()}。
+         */
+        public Builder queryExecutor(Executor queryExecutor) {
+            this.queryExecutor = Objects.requireNonNull(queryExecutor, "queryExecutor");
+            return this;
+        }
+
+        /**
+         * 设置 DAO 生成非 AUTO 主键所用的生成器来源。默认在设置了数据源时为
+         * {@link IdGenerators#segments(DataSource)}（SEGMENT 号段存放在主库），否则为 {@link IdGenerators#forStrategy}。
+         */
+        public Builder idGeneratorProvider(IdGeneratorProvider idGeneratorProvider) {
+            this.idGeneratorProvider = Objects.requireNonNull(idGeneratorProvider, "idGeneratorProvider");
+            return this;
+        }
+
         /**
          * 启用/禁用启动日志。
          */
@@ -289,32 +424,94 @@ public final class Lumen {
             EntityNameResolver resolvedEntityNameResolver = resolveEntityNameResolver();
             SqlRenderer finalRenderer = renderer == null ? new SqlRenderer(resolvedDialect) : renderer;
             EntityMetaRegistry finalMetaRegistry = resolveMetaRegistry();
+            SqlTemplateCache finalTemplateCache = templateCache == null ? SqlTemplateCache.builder().build() : templateCache;
+            if (db != null && !replicas.isEmpty()) {
+                throw new IllegalStateException("Replicas require Lumen.Builder.dataSource instead of a custom Db");
+            }
+            IdGeneratorProvider finalIdGeneratorProvider = idGeneratorProvider;
+            if (finalIdGeneratorProvider == null) {
+                finalIdGeneratorProvider = dataSource == null
+                    ? IdGenerators::forStrategy
+                    : IdGenerators.segments(dataSource);
+            }
             Db finalDb = db;
             if (finalDb == null) {
                 Objects.requireNonNull(dataSource, "dataSource");
-                JdbcExecutor executor = new JdbcExecutor(dataSource);
-                finalDb = new DefaultDb(
-                    executor,
+                finalDb = newDefaultDb(dataSource, finalRenderer, resolvedDialect, finalMetaRegistry,
+                    resolvedEntityNameResolver, finalTemplateCache, finalIdGeneratorProvider);
+                if (!replicas.isEmpty()) {
+                    ReplicaRoutingDb.Builder routing = ReplicaRoutingDb.builder(finalDb, finalRenderer)
+                        .metaRegistry(finalMetaRegistry)
+                        .balancer(replicaBalancer)
+                        .stickyWindow(replicaStickyWindow);
+                    for (DataSource replica : replicas) {
+                        routing.addReplica(newDefaultDb(replica, finalRenderer, resolvedDialect, finalMetaRegistry,
+                            resolvedEntityNameResolver, finalTemplateCache, finalIdGeneratorProvider));
+                    }
+                    finalDb = routing.build();
+                }
+            }
+            TransactionManager transactionManager = dataSource == null ? null : TransactionManager.builder(
+                    dataSource,
                     finalRenderer,
                     resolvedDialect,
                     finalMetaRegistry,
-                    resolvedEntityNameResolver,
-                    observers
-                );
-            }
+                    resolvedEntityNameResolver
+                )
+                .observers(observers)
+                .templateCache(finalTemplateCache)
+                .idGeneratorProvider(finalIdGeneratorProvider)
+                .build();
             Dsl dsl = new Dsl(finalMetaRegistry);
-            Lumen lumen = new Lumen(finalDb, dsl, resolvedDialect, finalMetaRegistry, resolvedEntityNameResolver, finalRenderer);
+            Lumen lumen = new Lumen(
+                finalDb,
+                dsl,
+                resolvedDialect,
+                finalMetaRegistry,
+                resolvedEntityNameResolver,
+                finalRenderer,
+                finalTemplateCache,
+                transactionManager,
+                finalIdGeneratorProvider
+            );
             if (startupLogEnabled) {
                 logStartup(lumen);
             }
             return lumen;
         }
 
+        private DefaultDb newDefaultDb(
+            DataSource source,
+            SqlRenderer finalRenderer,
+            Dialect resolvedDialect,
+            EntityMetaRegistry finalMetaRegistry,
+            EntityNameResolver resolvedEntityNameResolver,
+            SqlTemplateCache finalTemplateCache,
+            IdGeneratorProvider finalIdGeneratorProvider
+        ) {
+            Executor pageCountExecutor = null;
+            if (concurrentPageCount) {
+                pageCountExecutor = queryExecutor == null ? QueryExecutors.pageCount() : queryExecutor;
+            }
+            return DefaultDb.builder(
+                    new JdbcExecutor(source),
+                    finalRenderer,
+                    resolvedDialect,
+                    finalMetaRegistry,
+                    resolvedEntityNameResolver
+                )
+                .observers(observers)
+                .templateCache(finalTemplateCache)
+                .pageCountExecutor(pageCountExecutor)
+                .idGeneratorProvider(finalIdGeneratorProvider)
+                .build();
+        }
+
         private EntityMetaRegistry resolveMetaRegistry() {
             if (metaRegistry != null) {
                 return metaRegistry;
             }
-            return new ReflectionEntityMetaRegistry();
+            return EntityMetaRegistries.defaults();
         }
 
         private Dialect resolveDialect() {
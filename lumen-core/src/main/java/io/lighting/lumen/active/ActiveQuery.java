@@ -239,7 +239,7 @@ public final class ActiveQuery<T extends Model<T>> {
         }
         UpdateStmt stmt = builder.where(applyLogicalDelete(where)).build();
         RenderedSql rendered = config.renderer().render(stmt, Bindings.empty());
-        return config.db().execute(Command.of(rendered));
+        return executeWrite(rendered);
     }
 
     public boolean remove() throws SQLException {
@@ -410,7 +410,18 @@ public final class ActiveQuery<T extends Model<T>> {
                 Bindings.empty()
             );
         }
-        return config.db().execute(Command.of(rendered));
+        return executeWrite(rendered);
+    }
+
+    /**
+     * 条件更新与删除无法确定受影响的主键，执行后使该实体类型的缓存全部失效。
+     */
+    private int executeWrite(RenderedSql rendered) throws SQLException {
+        try {
+            return config.db().execute(Command.of(rendered));
+        } finally {
+            config.entityCache().evictAll(type);
+        }
     }
 
     private IdMeta requireId() {
@@ -1,5 +1,6 @@
 package io.lighting.lumen.active;
 
+import io.lighting.lumen.cache.EntityCache;
 import io.lighting.lumen.db.Db;
 import io.lighting.lumen.dsl.Dsl;
 import io.lighting.lumen.id.EntityIdGenerator;
@@ -16,6 +17,7 @@ public final class ActiveRecordConfig {
     private final EntityIdGenerator idGenerator;
     private final Dsl dsl;
     private final boolean filterLogicalDelete;
+    private final EntityCache entityCache;
 
     private ActiveRecordConfig(Builder builder) {
         this.db = Objects.requireNonNull(builder.db, "db");
@@ -24,6 +26,7 @@ public final class ActiveRecordConfig {
         this.idGenerator = new EntityIdGenerator(metaRegistry, builder.idGeneratorProvider);
         this.dsl = new Dsl(metaRegistry);
         this.filterLogicalDelete = builder.filterLogicalDelete;
+        this.entityCache = builder.entityCache != null ? builder.entityCache : EntityCache.forDb(db);
     }
 
     public static Builder builder() {
@@ -54,12 +57,17 @@ public final class ActiveRecordConfig {
         return filterLogicalDelete;
     }
 
+    public EntityCache entityCache() {
+        return entityCache;
+    }
+
     public static final class Builder {
         private Db db;
         private SqlRenderer renderer;
         private EntityMetaRegistry metaRegistry;
         private IdGeneratorProvider idGeneratorProvider = IdGenerators::forStrategy;
         private boolean filterLogicalDelete = true;
+        private EntityCache entityCache;
 
         public Builder db(Db db) {
             this.db = db;
@@ -86,6 +94,14 @@ public final class ActiveRecordConfig {
             return this;
         }
 
+        /**
+         * 按主键查询使用的实体缓存；未设置时使用 {@link EntityCache#forDb} 与同一 {@link Db} 上的 DAO 共享。
+         */
+        public Builder entityCache(EntityCache entityCache) {
+            this.entityCache = Objects.requireNonNull(entityCache, "entityCache");
+            return this;
+        }
+
         public ActiveRecordConfig build() {
             return new ActiveRecordConfig(this);
         }
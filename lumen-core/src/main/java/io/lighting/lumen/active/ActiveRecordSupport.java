@@ -7,6 +7,8 @@ import io.lighting.lumen.dsl.Dsl;
 import io.lighting.lumen.dsl.PropertyNames;
 import io.lighting.lumen.dsl.PropertyRef;
 import io.lighting.lumen.dsl.Table;
+import io.lighting.lumen.meta.EntityBinder;
+import io.lighting.lumen.meta.EntityBinders;
 import io.lighting.lumen.meta.EntityMeta;
 import io.lighting.lumen.meta.IdMeta;
 import io.lighting.lumen.meta.IdStrategy;
@@ -17,19 +19,15 @@ import io.lighting.lumen.sql.ast.Expr;
 import io.lighting.lumen.sql.ast.SelectStmt;
 import io.lighting.lumen.sql.ast.UpdateItem;
 import io.lighting.lumen.sql.ast.UpdateStmt;
-import java.lang.reflect.Field;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicReference;
 
 public abstract class ActiveRecordSupport<T extends ActiveRecordSupport<T>> {
     private static final AtomicReference<ActiveRecordConfig> CONFIG = new AtomicReference<>();
-    private static final ConcurrentMap<Class<?>, Map<String, Field>> FIELD_CACHE = new ConcurrentHashMap<>();
 
     public static void configure(ActiveRecordConfig config) {
         CONFIG.set(Objects.requireNonNull(config, "config"));
@@ -169,7 +167,7 @@ public abstract class ActiveRecordSupport<T extends ActiveRecordSupport<T>> {
         }
         UpdateStmt stmt = new UpdateStmt(table.ref(), assignments, where);
         RenderedSql rendered = config.renderer().render(stmt, Bindings.empty());
-        int rows = config.db().execute(Command.of(rendered));
+        int rows = execute(config, rendered, idValue);
         afterUpdate(rows);
         return rows;
     }
@@ -196,7 +194,7 @@ public abstract class ActiveRecordSupport<T extends ActiveRecordSupport<T>> {
             dsl.deleteFrom(table).where(table.col(idMeta.fieldName()).eq(idValue)).build(),
             Bindings.empty()
         );
-        int rows = config.db().execute(Command.of(rendered));
+        int rows = execute(config, rendered, idValue);
         afterDelete(rows, false);
         return rows;
     }
@@ -217,7 +215,7 @@ public abstract class ActiveRecordSupport<T extends ActiveRecordSupport<T>> {
             dsl.logicalDeleteFrom(table).where(where).build(),
             Bindings.empty()
         );
-        int rows = config.db().execute(Command.of(rendered));
+        int rows = execute(config, rendered, idValue);
         afterDelete(rows, true);
         return rows;
     }
@@ -233,8 +231,16 @@ public abstract class ActiveRecordSupport<T extends ActiveRecordSupport<T>> {
         return rows;
     }
 
+    /**
+     * 按主键查询；实体标注 {@link io.lighting.lumen.meta.Cacheable} 时先查 {@link ActiveRecordConfig#entityCache()}。
+     */
     public static <E> E findById(Class<E> type, Object id) throws SQLException {
-        return list(type, idCondition(type, id)).stream().findFirst().orElse(null);
+        ActiveRecordConfig config = requireConfig();
+        Expr where = idCondition(type, id);
+        if (config.filterLogicalDelete() || config.metaRegistry().metaOf(type).logicDeleteMeta().isEmpty()) {
+            return config.entityCache().get(type, id, () -> list(type, where).stream().findFirst().orElse(null));
+        }
+        return list(type, where).stream().findFirst().orElse(null);
     }
 
     public static <E> List<E> list(Class<E> type) throws SQLException {
@@ -298,6 +304,14 @@ public abstract class ActiveRecordSupport<T extends ActiveRecordSupport<T>> {
         return hasMany(targetType, foreignKey).stream().findFirst().orElse(null);
     }
 
+    private int execute(ActiveRecordConfig config, RenderedSql rendered, Object idValue) throws SQLException {
+        try {
+            return config.db().execute(Command.of(rendered));
+        } finally {
+            config.entityCache().evict(entityType(), idValue);
+        }
+    }
+
     protected static Expr and(Expr left, Expr right) {
         return new Expr.And(List.of(left, right));
     }
@@ -344,33 +358,21 @@ public abstract class ActiveRecordSupport<T extends ActiveRecordSupport<T>> {
         return true;
     }
 
-    private Field fieldFor(String fieldName) {
-        Map<String, Field> fields = FIELD_CACHE.computeIfAbsent(entityType(), ActiveRecordSupport::scanFields);
-        Field field = fields.get(fieldName);
-        if (field == null) {
-            throw new IllegalArgumentException("Unknown field: " + fieldName);
-        }
-        return field;
+    @SuppressWarnings("unchecked")
+    private EntityBinder<Object> binder() {
+        return (EntityBinder<Object>) EntityBinders.of(entityType());
     }
 
     protected Object readFieldValue(String fieldName) {
-        try {
-            return fieldFor(fieldName).get(this);
-        } catch (IllegalAccessException ex) {
-            throw new IllegalStateException("Failed to read field " + fieldName, ex);
-        }
+        return binder().get(this, fieldName);
     }
 
     protected void setFieldValue(String fieldName, Object value) {
-        try {
-            fieldFor(fieldName).set(this, value);
-        } catch (IllegalAccessException ex) {
-            throw new IllegalStateException("Failed to set field " + fieldName, ex);
-        }
+        binder().set(this, fieldName, value);
     }
 
     private Class<?> fieldType(String fieldName) {
-        return fieldFor(fieldName).getType();
+        return binder().fieldType(fieldName);
     }
 
     private Object coerceValue(Object value, Class<?> targetType) {
@@ -400,17 +402,6 @@ public abstract class ActiveRecordSupport<T extends ActiveRecordSupport<T>> {
         return value;
     }
 
-    private static Map<String, Field> scanFields(Class<?> type) {
-        Map<String, Field> fields = new ConcurrentHashMap<>();
-        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
-            for (Field field : current.getDeclaredFields()) {
-                field.setAccessible(true);
-                fields.putIfAbsent(field.getName(), field);
-            }
-        }
-        return fields;
-    }
-
     private static SelectStmt buildSelect(
         Dsl dsl,
         Table table,
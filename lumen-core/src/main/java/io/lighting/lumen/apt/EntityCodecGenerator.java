@@ -0,0 +1,661 @@
+package io.lighting.lumen.apt;
+
+import io.lighting.lumen.meta.Column;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.RecordComponentElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+/**
+ * 为 {@code @Table} 实体生成 {@code *_RowMapper} 与 {@code *_Binder}。
+ * <p>
+ * 生成类与实体同包，字段按以下顺序选择访问方式：可见字段直接读写 → 可见的 getter/setter（含 record 访问器）
+ * → 运行时 {@code FieldAccessor}。数值类型（含包装类型）、{@code String} 与 {@code BigDecimal} 在未注册
+ * {@code JdbcTypeAdapter} 时直接调用对应的 {@code ResultSet.getXxx}，注册了适配器的类型以及 {@code boolean}
+ * 等其他类型交给 {@code JdbcTypeAdapters.read}，与 {@code RowMappers} 的转换规则一致。写入基本类型字段时只接受
+ * 拓宽转换，与 {@code FieldAccessor.set} 一致。
+ * 实体不可从同包访问（private 嵌套类、非静态内部类）或带类型参数时不生成。
+ */
+final class EntityCodecGenerator {
+    private static final String RESULT_SET = "java.sql.ResultSet";
+    private static final String SQL_EXCEPTION = "java.sql.SQLException";
+    private static final String ENTITY_ACCESSORS = "io.lighting.lumen.meta.EntityAccessors";
+    private static final String FIELD_ACCESSOR = "io.lighting.lumen.meta.FieldAccessor";
+    private static final String TYPE_ADAPTERS = "io.lighting.lumen.jdbc.JdbcTypeAdapters";
+    private static final String ENTITY_BINDERS = "io.lighting.lumen.meta.EntityBinders";
+
+    private final ProcessingEnvironment env;
+    private final Types types;
+    private final Elements elements;
+
+    EntityCodecGenerator(ProcessingEnvironment env) {
+        this.env = env;
+        this.types = env.getTypeUtils();
+        this.elements = env.getElementUtils();
+    }
+
+    void generate(TypeElement type) {
+        if (!isAccessibleFromPackage(type) || !type.getTypeParameters().isEmpty()) {
+            return;
+        }
+        String packageName = elements.getPackageOf(type).getQualifiedName().toString();
+        String localName = localName(type, packageName);
+        List<Property> properties = collectProperties(type, packageName);
+        generateBinder(type, packageName, localName, properties);
+        if (!type.getModifiers().contains(Modifier.ABSTRACT)) {
+            generateRowMapper(type, packageName, localName, properties);
+        }
+    }
+
+    // ========== 字段收集 ==========
+
+    private List<Property> collectProperties(TypeElement type, String packageName) {
+        DeclaredType owner = (DeclaredType) type.asType();
+        Map<String, Property> byName = new LinkedHashMap<>();
+        TypeMirror current = type.asType();
+        while (current.getKind() == TypeKind.DECLARED) {
+            TypeElement currentType = (TypeElement) types.asElement(current);
+            if (currentType.getQualifiedName().contentEquals("java.lang.Object")) {
+                break;
+            }
+            for (VariableElement field : ElementFilter.fieldsIn(currentType.getEnclosedElements())) {
+                Set<Modifier> modifiers = field.getModifiers();
+                String name = field.getSimpleName().toString();
+                if (modifiers.contains(Modifier.STATIC) || byName.containsKey(name)) {
+                    continue;
+                }
+                TypeMirror fieldType = types.asMemberOf(owner, field);
+                Column column = field.getAnnotation(Column.class);
+                String columnName = column != null && !column.name().isBlank() ? column.name() : name;
+                boolean visible = isVisible(field, currentType, packageName);
+                boolean isFinal = modifiers.contains(Modifier.FINAL);
+                byName.put(name, new Property(
+                    name,
+                    columnName.toLowerCase(Locale.ROOT),
+                    fieldType,
+                    modifiers.contains(Modifier.TRANSIENT),
+                    visible ? "entity." + name : getterCall(type, name, fieldType, packageName),
+                    visible && !isFinal ? "entity." + name + " = %s;" : setterCall(type, name, fieldType, packageName)
+                ));
+            }
+            current = currentType.getSuperclass();
+        }
+        return new ArrayList<>(byName.values());
+    }
+
+    private String getterCall(TypeElement type, String name, TypeMirror fieldType, String packageName) {
+        String capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        List<String> candidates = new ArrayList<>();
+        if (type.getKind() == ElementKind.RECORD) {
+            candidates.add(name);
+        }
+        candidates.add("get" + capitalized);
+        if (fieldType.getKind() == TypeKind.BOOLEAN) {
+            candidates.add("is" + capitalized);
+        }
+        for (String candidate : candidates) {
+            for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(type))) {
+                if (method.getSimpleName().contentEquals(candidate)
+                    && method.getParameters().isEmpty()
+                    && !method.getModifiers().contains(Modifier.STATIC)
+                    && isVisible(method, (TypeElement) method.getEnclosingElement(), packageName)
+                    && types.isSameType(returnType(type, method), fieldType)) {
+                    return "entity." + candidate + "()";
+                }
+            }
+        }
+        return null;
+    }
+
+    private String setterCall(TypeElement type, String name, TypeMirror fieldType, String packageName) {
+        if (type.getKind() == ElementKind.RECORD) {
+            return null;
+        }
+        String candidate = "set" + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(type))) {
+            if (method.getSimpleName().contentEquals(candidate)
+                && method.getParameters().size() == 1
+                && !method.getModifiers().contains(Modifier.STATIC)
+                && isVisible(method, (TypeElement) method.getEnclosingElement(), packageName)) {
+                ExecutableType executable = (ExecutableType) types.asMemberOf((DeclaredType) type.asType(), method);
+                TypeMirror parameter = executable.getParameterTypes().get(0);
+                if (types.isSameType(parameter, fieldType)) {
+                    return "entity." + candidate + "(%s);";
+                }
+            }
+        }
+        return null;
+    }
+
+    private TypeMirror returnType(TypeElement type, ExecutableElement method) {
+        return ((ExecutableType) types.asMemberOf((DeclaredType) type.asType(), method)).getReturnType();
+    }
+
+    private boolean isVisible(Element member, TypeElement declaringType, String packageName) {
+        Set<Modifier> modifiers = member.getModifiers();
+        if (modifiers.contains(Modifier.PRIVATE) || !isAccessibleFromPackage(declaringType)) {
+            return false;
+        }
+        if (modifiers.contains(Modifier.PUBLIC) && isPublicType(declaringType)) {
+            return true;
+        }
+        return elements.getPackageOf(declaringType).getQualifiedName().contentEquals(packageName);
+    }
+
+    private boolean isPublicType(TypeElement type) {
+        for (Element current = type; current instanceof TypeElement; current = current.getEnclosingElement()) {
+            if (!current.getModifiers().contains(Modifier.PUBLIC)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static boolean isAccessibleFromPackage(TypeElement type) {
+        Element current = type;
+        while (current instanceof TypeElement typeElement) {
+            if (typeElement.getModifiers().contains(Modifier.PRIVATE)) {
+                return false;
+            }
+            if (typeElement.getNestingKind() == NestingKind.MEMBER
+                && !typeElement.getModifiers().contains(Modifier.STATIC)
+                && typeElement.getKind() == ElementKind.CLASS) {
+                return false;
+            }
+            if (typeElement.getNestingKind() == NestingKind.LOCAL
+                || typeElement.getNestingKind() == NestingKind.ANONYMOUS) {
+                return false;
+            }
+            current = typeElement.getEnclosingElement();
+        }
+        return true;
+    }
+
+    // ========== Binder ==========
+
+    private void generateBinder(TypeElement type, String packageName, String localName, List<Property> properties) {
+        String entity = type.getQualifiedName().toString();
+        String className = localName + "_Binder";
+        StringBuilder content = new StringBuilder();
+        content.append(AptCodegenUtils.packageLine(packageName));
+        content.append("/**\n");
+        content.append(" * APT 生成的 {@link ").append(entity).append("} 字段读写器。\n");
+        content.append(" */\n");
+        content.append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+        content.append("public final class ").append(className)
+            .append(" implements io.lighting.lumen.meta.EntityBinder<").append(entity).append("> {\n");
+        appendFallbackFields(content, entity, properties, true);
+        content.append("    @Override\n");
+        content.append("    public Class<").append(entity).append("> entityType() {\n");
+        content.append("        return ").append(entity).append(".class;\n");
+        content.append("    }\n\n");
+
+        content.append("    @Override\n");
+        content.append("    public Object get(").append(entity).append(" entity, String fieldName) {\n");
+        content.append("        return switch (fieldName) {\n");
+        for (Property property : properties) {
+            content.append("            case \"").append(property.name).append("\" -> ")
+                .append(readExpression(property)).append(";\n");
+        }
+        content.append("            default -> ").append(ENTITY_ACCESSORS).append(".of(").append(entity)
+            .append(".class).field(fieldName).get(entity);\n");
+        content.append("        };\n");
+        content.append("    }\n\n");
+
+        content.append("    @Override\n");
+        content.append("    public void set(").append(entity).append(" entity, String fieldName, Object value) {\n");
+        content.append("        try {\n");
+        content.append("            switch (fieldName) {\n");
+        for (Property property : properties) {
+            content.append("                case \"").append(property.name).append("\" -> ")
+                .append(writeStatement(property, convertFromObject(property.type, "value"))).append("\n");
+        }
+        content.append("                default -> ").append(ENTITY_ACCESSORS).append(".of(").append(entity)
+            .append(".class).field(fieldName).set(entity, value);\n");
+        content.append("            }\n");
+        content.append("        } catch (ClassCastException | NullPointerException ex) {\n");
+        content.append("            throw new IllegalArgumentException(\"Can not set field \" + fieldName + \" to \"\n");
+        content.append("                + (value == null ? \"null\" : value.getClass().getName()), ex);\n");
+        content.append("        }\n");
+        content.append("    }\n\n");
+
+        content.append("    @Override\n");
+        content.append("    public Class<?> fieldType(String fieldName) {\n");
+        content.append("        return switch (fieldName) {\n");
+        for (Property property : properties) {
+            content.append("            case \"").append(property.name).append("\" -> ")
+                .append(erasure(property.type)).append(".class;\n");
+        }
+        content.append("            default -> ").append(ENTITY_ACCESSORS).append(".of(").append(entity)
+            .append(".class).field(fieldName).type();\n");
+        content.append("        };\n");
+        content.append("    }\n");
+        content.append("}\n");
+        AptCodegenUtils.writeSourceFile(
+            env.getFiler(),
+            env.getMessager(),
+            type,
+            qualified(packageName, className),
+            content.toString(),
+            "Failed to generate entity binder: "
+        );
+    }
+
+    // ========== RowMapper ==========
+
+    private void generateRowMapper(
+        TypeElement type,
+        String packageName,
+        String localName,
+        List<Property> properties
+    ) {
+        boolean record = type.getKind() == ElementKind.RECORD;
+        List<Property> mapped = new ArrayList<>();
+        String construction;
+        if (record) {
+            Map<String, Property> byName = new LinkedHashMap<>();
+            for (Property property : properties) {
+                byName.put(property.name, property);
+            }
+            for (RecordComponentElement component : type.getRecordComponents()) {
+                Property property = byName.get(component.getSimpleName().toString());
+                if (property == null) {
+                    return;
+                }
+                mapped.add(property);
+            }
+            construction = canonicalConstructorVisible(type, packageName) ? "new" : "accessor";
+        } else {
+            Set<String> columns = new LinkedHashSet<>();
+            for (Property property : properties) {
+                if (!property.transientField && columns.add(property.column)) {
+                    mapped.add(property);
+                }
+            }
+            ExecutableElement noArg = noArgConstructor(type);
+            if (noArg == null) {
+                return;
+            }
+            construction = isVisible(noArg, type, packageName) ? "new" : "factory";
+        }
+
+        String entity = type.getQualifiedName().toString();
+        String className = localName + "_RowMapper";
+        StringBuilder content = new StringBuilder();
+        content.append(AptCodegenUtils.packageLine(packageName));
+        content.append("/**\n");
+        content.append(" * APT 生成的 {@link ").append(entity).append("} 行映射器。\n");
+        content.append(" */\n");
+        content.append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+        content.append("public final class ").append(className)
+            .append(" extends io.lighting.lumen.jdbc.ColumnPlanRowMapper<").append(entity).append("> {\n");
+        if (!record) {
+            appendFallbackFields(content, entity, mapped, false);
+        }
+        for (int i = 0; i < mapped.size(); i++) {
+            Property property = mapped.get(i);
+            if (directGetter(property.type) != null) {
+                content.append("    private static final boolean DIRECT_").append(i).append(" = !")
+                    .append(TYPE_ADAPTERS).append(".hasAdapter(").append(erasure(property.type))
+                    .append(".class);\n");
+            } else if (needsTypeRef(property.type)) {
+                content.append("    private static final java.lang.reflect.Type TYPE_").append(i)
+                    .append(" = new io.lighting.lumen.jdbc.TypeRef<").append(property.type)
+                    .append(">() { }.type();\n");
+            }
+        }
+        if (construction.equals("factory")) {
+            content.append("    private static final java.util.function.Supplier<").append(entity)
+                .append("> FACTORY = ").append(ENTITY_ACCESSORS).append(".of(").append(entity)
+                .append(".class).factory();\n");
+        } else if (construction.equals("accessor")) {
+            content.append("    private static final io.lighting.lumen.meta.ConstructorAccessor<").append(entity)
+                .append("> CONSTRUCTOR = ").append(ENTITY_ACCESSORS).append(".of(").append(entity)
+                .append(".class).constructor(");
+            for (int i = 0; i < mapped.size(); i++) {
+                if (i > 0) {
+                    content.append(", ");
+                }
+                content.append(erasure(mapped.get(i).type)).append(".class");
+            }
+            content.append(");\n");
+        }
+        content.append("\n");
+        content.append("    public ").append(className).append("() {\n");
+        content.append("        super(");
+        for (int i = 0; i < mapped.size(); i++) {
+            if (i > 0) {
+                content.append(", ");
+            }
+            content.append('"').append(AptCodegenUtils.escapeJava(mapped.get(i).column)).append('"');
+        }
+        content.append(");\n");
+        content.append("    }\n\n");
+        content.append("    @Override\n");
+        content.append("    protected ").append(entity).append(" mapRow(").append(RESULT_SET)
+            .append(" rs, int[] indexes) throws ").append(SQL_EXCEPTION).append(" {\n");
+        content.append("        int index;\n");
+        if (record) {
+            appendRecordBody(content, entity, mapped, construction.equals("new"));
+        } else {
+            appendBeanBody(content, entity, mapped, construction.equals("new"));
+        }
+        content.append("    }\n");
+        content.append("}\n");
+        AptCodegenUtils.writeSourceFile(
+            env.getFiler(),
+            env.getMessager(),
+            type,
+            qualified(packageName, className),
+            content.toString(),
+            "Failed to generate row mapper: "
+        );
+    }
+
+    private void appendBeanBody(StringBuilder content, String entity, List<Property> mapped, boolean direct) {
+        content.append("        ").append(entity).append(" entity = ")
+            .append(direct ? "new " + entity + "()" : "FACTORY.get()").append(";\n");
+        for (int i = 0; i < mapped.size(); i++) {
+            Property property = mapped.get(i);
+            content.append("        index = indexes[").append(i).append("];\n");
+            content.append("        if (index > 0) {\n");
+            String getter = directGetter(property.type);
+            String indent = "            ";
+            if (getter != null) {
+                content.append("            if (DIRECT_").append(i).append(") {\n");
+                indent = "                ";
+                if (property.type.getKind().isPrimitive()) {
+                    content.append(indent).append(property.type).append(" value = rs.").append(getter)
+                        .append("(index);\n");
+                    content.append(indent).append("if (!rs.wasNull()) {\n");
+                    content.append(indent).append("    ").append(writeStatement(property, "value")).append("\n");
+                    content.append(indent).append("}\n");
+                } else {
+                    String read = readDirect(property.type, getter, "value", indent);
+                    content.append(indent).append(property.type)
+                        .append(read.indexOf('\n') < 0 ? " " + read : " value;\n" + indent + read).append("\n");
+                    content.append(indent).append(writeStatement(property, "value")).append("\n");
+                }
+                content.append("            } else {\n");
+            }
+            content.append(indent).append("Object value = ").append(adapterRead(property, i)).append(";\n");
+            if (property.type.getKind().isPrimitive()) {
+                content.append(indent).append("if (value != null) {\n");
+                content.append(indent).append("    ")
+                    .append(writeStatement(property, convertFromObject(property.type, "value"))).append("\n");
+                content.append(indent).append("}\n");
+            } else {
+                content.append(indent)
+                    .append(writeStatement(property, convertFromObject(property.type, "value"))).append("\n");
+            }
+            if (getter != null) {
+                content.append("            }\n");
+            }
+            content.append("        }\n");
+        }
+        content.append("        return entity;\n");
+    }
+
+    private void appendRecordBody(StringBuilder content, String entity, List<Property> mapped, boolean direct) {
+        for (int i = 0; i < mapped.size(); i++) {
+            Property property = mapped.get(i);
+            String variable = "a" + i;
+            content.append("        ").append(property.type).append(' ').append(variable).append(" = ")
+                .append(defaultValue(property.type)).append(";\n");
+            content.append("        index = indexes[").append(i).append("];\n");
+            content.append("        if (index > 0) {\n");
+            String getter = directGetter(property.type);
+            String indent = "            ";
+            if (getter != null) {
+                indent = "                ";
+                content.append("            if (DIRECT_").append(i).append(") {\n");
+                content.append(indent).append(readDirect(property.type, getter, variable, indent)).append("\n");
+                content.append("            } else {\n");
+            }
+            content.append(indent).append("Object value = ").append(adapterRead(property, i)).append(";\n");
+            if (property.type.getKind().isPrimitive()) {
+                content.append(indent).append("if (value != null) {\n");
+                content.append(indent).append("    ").append(variable).append(" = ")
+                    .append(convertFromObject(property.type, "value")).append(";\n");
+                content.append(indent).append("}\n");
+            } else {
+                content.append(indent).append(variable).append(" = ")
+                    .append(convertFromObject(property.type, "value")).append(";\n");
+            }
+            if (getter != null) {
+                content.append("            }\n");
+            }
+            content.append("        }\n");
+        }
+        StringBuilder args = new StringBuilder();
+        for (int i = 0; i < mapped.size(); i++) {
+            if (i > 0) {
+                args.append(", ");
+            }
+            args.append('a').append(i);
+        }
+        if (direct) {
+            content.append("        return new ").append(entity).append('(').append(args).append(");\n");
+        } else {
+            content.append("        try {\n");
+            content.append("            return CONSTRUCTOR.newInstance(").append(args).append(");\n");
+            content.append("        } catch (RuntimeException ex) {\n");
+            content.append("            throw new IllegalStateException(\"Failed to map row to ")
+                .append(AptCodegenUtils.escapeJava(entity)).append("\", ex);\n");
+            content.append("        }\n");
+        }
+    }
+
+    /**
+     * 为无法直接访问的字段生成 {@code FieldAccessor} 常量。
+     */
+    private void appendFallbackFields(StringBuilder content, String entity, List<Property> properties, boolean read) {
+        boolean any = false;
+        for (Property property : properties) {
+            if ((read && property.getter == null) || property.setter == null) {
+                content.append("    private static final ").append(FIELD_ACCESSOR).append(' ')
+                    .append(fallbackName(property)).append(" = ").append(ENTITY_ACCESSORS).append(".of(")
+                    .append(entity).append(".class).field(\"").append(property.name).append("\");\n");
+                any = true;
+            }
+        }
+        if (any) {
+            content.append("\n");
+        }
+    }
+
+    private String readExpression(Property property) {
+        if (property.getter != null) {
+            return property.getter;
+        }
+        return fallbackName(property) + ".get(entity)";
+    }
+
+    private String writeStatement(Property property, String value) {
+        if (property.setter == null) {
+            String primitive = primitiveSetter(property.type);
+            if (primitive != null && value.equals("value")) {
+                return fallbackName(property) + "." + primitive + "(entity, " + value + ");";
+            }
+            return fallbackName(property) + ".set(entity, " + value + ");";
+        }
+        return String.format(property.setter, value);
+    }
+
+    private String fallbackName(Property property) {
+        return "FIELD_" + AptCodegenUtils.toConstantName(property.name);
+    }
+
+    /**
+     * 生成把当前列读入 {@code target} 的语句；包装类型按 {@code wasNull()} 还原为 {@code null}。
+     */
+    private String readDirect(TypeMirror type, String getter, String target, String indent) {
+        String name = type.getKind() == TypeKind.DECLARED ? types.erasure(type).toString() : null;
+        if (name == null || name.equals("java.lang.String") || name.equals("java.math.BigDecimal")) {
+            return target + " = rs." + getter + "(index);";
+        }
+        String primitive = types.unboxedType(type).toString();
+        return primitive + " raw = rs." + getter + "(index);\n"
+            + indent + target + " = rs.wasNull() ? null : raw;";
+    }
+
+    private String adapterRead(Property property, int index) {
+        String typeExpression = needsTypeRef(property.type) ? "TYPE_" + index : erasure(property.type) + ".class";
+        return TYPE_ADAPTERS + ".read(rs, index, " + typeExpression + ")";
+    }
+
+    private boolean needsTypeRef(TypeMirror type) {
+        if (type instanceof DeclaredType declared) {
+            return !declared.getTypeArguments().isEmpty();
+        }
+        if (type instanceof ArrayType array) {
+            return needsTypeRef(array.getComponentType());
+        }
+        return false;
+    }
+
+    /**
+     * 可直接用 {@code ResultSet.getXxx} 读取的类型；其他类型返回 {@code null}。
+     * <p>
+     * {@code boolean} 不在其列：{@code JdbcTypeAdapters} 会把 {@code "yes"}、{@code "1"} 等文本转换为布尔值，
+     * 而 {@code getBoolean} 的行为由驱动决定。
+     */
+    private String directGetter(TypeMirror type) {
+        TypeKind kind = type.getKind();
+        if (kind == TypeKind.DECLARED) {
+            String name = types.erasure(type).toString();
+            if (name.equals("java.lang.String")) {
+                return "getString";
+            }
+            if (name.equals("java.math.BigDecimal")) {
+                return "getBigDecimal";
+            }
+            try {
+                kind = types.unboxedType(type).getKind();
+            } catch (IllegalArgumentException ex) {
+                return null;
+            }
+        }
+        return switch (kind) {
+            case LONG -> "getLong";
+            case INT -> "getInt";
+            case SHORT -> "getShort";
+            case BYTE -> "getByte";
+            case DOUBLE -> "getDouble";
+            case FLOAT -> "getFloat";
+            default -> null;
+        };
+    }
+
+    private String primitiveSetter(TypeMirror type) {
+        return switch (type.getKind()) {
+            case LONG -> "setLong";
+            case INT -> "setInt";
+            case SHORT -> "setShort";
+            case BYTE -> "setByte";
+            case DOUBLE -> "setDouble";
+            case FLOAT -> "setFloat";
+            case BOOLEAN -> "setBoolean";
+            default -> null;
+        };
+    }
+
+    private String convertFromObject(TypeMirror type, String value) {
+        return switch (type.getKind()) {
+            case LONG -> ENTITY_BINDERS + ".unboxLong(" + value + ")";
+            case INT -> ENTITY_BINDERS + ".unboxInt(" + value + ")";
+            case SHORT -> ENTITY_BINDERS + ".unboxShort(" + value + ")";
+            case BYTE -> ENTITY_BINDERS + ".unboxByte(" + value + ")";
+            case DOUBLE -> ENTITY_BINDERS + ".unboxDouble(" + value + ")";
+            case FLOAT -> ENTITY_BINDERS + ".unboxFloat(" + value + ")";
+            case BOOLEAN -> "(Boolean) " + value;
+            case CHAR -> "(Character) " + value;
+            default -> "(" + erasure(type) + ") " + value;
+        };
+    }
+
+    private String defaultValue(TypeMirror type) {
+        return switch (type.getKind()) {
+            case LONG -> "0L";
+            case INT, SHORT, BYTE -> "0";
+            case DOUBLE -> "0d";
+            case FLOAT -> "0f";
+            case BOOLEAN -> "false";
+            case CHAR -> "'\\0'";
+            default -> "null";
+        };
+    }
+
+    private String erasure(TypeMirror type) {
+        return types.erasure(type).toString();
+    }
+
+    private ExecutableElement noArgConstructor(TypeElement type) {
+        for (ExecutableElement ctor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (ctor.getParameters().isEmpty()) {
+                return ctor;
+            }
+        }
+        return null;
+    }
+
+    private boolean canonicalConstructorVisible(TypeElement type, String packageName) {
+        List<? extends RecordComponentElement> components = type.getRecordComponents();
+        for (ExecutableElement ctor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (ctor.getParameters().size() != components.size()) {
+                continue;
+            }
+            boolean matches = true;
+            for (int i = 0; i < components.size(); i++) {
+                if (!types.isSameType(ctor.getParameters().get(i).asType(), components.get(i).asType())) {
+                    matches = false;
+                    break;
+                }
+            }
+            if (matches) {
+                return isVisible(ctor, type, packageName);
+            }
+        }
+        return false;
+    }
+
+    private static String localName(TypeElement type, String packageName) {
+        String qualified = type.getQualifiedName().toString();
+        String local = packageName.isEmpty() ? qualified : qualified.substring(packageName.length() + 1);
+        return local.replace('.', '_');
+    }
+
+    private static String qualified(String packageName, String className) {
+        return packageName.isEmpty() ? className : packageName + "." + className;
+    }
+
+    private record Property(
+        String name,
+        String column,
+        TypeMirror type,
+        boolean transientField,
+        String getter,
+        String setter
+    ) {
+    }
+}
@@ -4,10 +4,13 @@ import io.lighting.lumen.meta.Column;
 import io.lighting.lumen.meta.Id;
 import io.lighting.lumen.meta.LogicDelete;
 import io.lighting.lumen.meta.Table;
+import java.io.IOException;
+import java.io.Writer;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import javax.annotation.processing.AbstractProcessor;
 import javax.annotation.processing.RoundEnvironment;
 import javax.annotation.processing.SupportedAnnotationTypes;
@@ -22,12 +25,18 @@ import javax.lang.model.type.TypeKind;
 import javax.lang.model.type.TypeMirror;
 import javax.lang.model.util.Types;
 import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
 
 /**
  * 实体元数据处理器。
  * <p>
  * 解析 {@link Table}/{@link Column}/{@link Id}/{@link LogicDelete} 注解并生成 UserMeta 类，
- * 便于在 DSL 中安全引用表名与列名。
+ * 便于在 DSL 中安全引用表名与列名；同时在实体所在包生成 {@code User_RowMapper} 与 {@code User_Binder}，
+ * 由 {@code RowMappers.auto} 与 DAO 读写路径自动使用（见 {@link EntityCodecGenerator}）。
+ * 所有实体的 {@code EntityMeta} 还会汇总到按包生成的注册表类并写入 ServiceLoader 索引，
+ * 运行时由 {@code EntityMetaRegistries.defaults()} 直接加载（见 {@link EntityMetaRegistryGenerator}）。
+ * 实体简单名与类名写入 {@code META-INF/lumen/entities.idx}，模板中的短实体名据此解析，无需扫描类路径。
  * <p>
  * 生成的 UserMeta 类包含：
  * <ul>
@@ -43,7 +52,11 @@ import javax.tools.Diagnostic;
 @SupportedSourceVersion(SourceVersion.RELEASE_17)
 public final class EntityMetaProcessor extends AbstractProcessor {
 
+    static final String ENTITY_INDEX = "META-INF/lumen/entities.idx";
+
     private String logicDeleteFieldName;
+    private EntityMetaRegistryGenerator registryGenerator;
+    private final Map<String, String> entityIndex = new TreeMap<>();
 
     /**
      * 处理入口：扫描 @Table 标注的类型并生成对应的 UserMeta 类。
@@ -52,7 +65,12 @@ public final class EntityMetaProcessor extends AbstractProcessor {
      */
     @Override
     public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (registryGenerator == null) {
+            registryGenerator = new EntityMetaRegistryGenerator(processingEnv);
+        }
         if (roundEnv.processingOver()) {
+            registryGenerator.writeServiceIndex();
+            writeEntityIndex();
             return false;
         }
         for (Element element : roundEnv.getElementsAnnotatedWith(Table.class)) {
@@ -78,10 +96,40 @@ public final class EntityMetaProcessor extends AbstractProcessor {
                 continue;
             }
             generateUserMetaClass(type, tableName, fieldToColumn);
+            new EntityCodecGenerator(processingEnv).generate(type);
+            registryGenerator.add(type, tableName, fieldToColumn);
+            entityIndex.put(
+                processingEnv.getElementUtils().getBinaryName(type).toString(),
+                type.getSimpleName().toString()
+            );
         }
+        registryGenerator.flushRound();
         return true;
     }
 
+    /**
+     * 写出实体索引（{@code 简单名=二进制类名}），供 {@code EntityNameResolvers.auto()} 免扫描解析短名。
+     */
+    private void writeEntityIndex() {
+        if (entityIndex.isEmpty()) {
+            return;
+        }
+        try {
+            FileObject resource = processingEnv.getFiler()
+                .createResource(StandardLocation.CLASS_OUTPUT, "", ENTITY_INDEX);
+            try (Writer writer = resource.openWriter()) {
+                for (Map.Entry<String, String> entry : entityIndex.entrySet()) {
+                    writer.write(entry.getValue() + "=" + entry.getKey() + "\n");
+                }
+            }
+        } catch (IOException ex) {
+            processingEnv.getMessager().printMessage(
+                Diagnostic.Kind.ERROR,
+                "Failed to write " + ENTITY_INDEX + ": " + ex.getMessage()
+            );
+        }
+    }
+
     /**
      * 收集字段到列名的映射。
      * <p>
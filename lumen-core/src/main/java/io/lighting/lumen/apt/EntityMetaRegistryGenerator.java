@@ -0,0 +1,253 @@
+package io.lighting.lumen.apt;
+
+import io.lighting.lumen.meta.Id;
+import io.lighting.lumen.meta.LogicDelete;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * 编译期实体元数据注册表生成器。
+ * <p>
+ * 每轮处理结束后按包生成 {@code Lumen_EntityMetaRegistry_<hash>}（继承 {@code GeneratedEntityMetaRegistry}），
+ * 以字面量构造 {@code EntityMeta}；处理结束时写出 {@link #SERVICE_FILE} 供运行时通过 ServiceLoader 发现。
+ * 私有或非静态内部类等无法在包内引用的实体不生成，运行时回退到反射解析。
+ */
+final class EntityMetaRegistryGenerator {
+    static final String SERVICE_FILE = "META-INF/services/io.lighting.lumen.meta.GeneratedEntityMetaRegistry";
+
+    private static final String CLASS_PREFIX = "Lumen_EntityMetaRegistry_";
+    private static final String META = "io.lighting.lumen.meta.";
+
+    private final ProcessingEnvironment env;
+    private final Map<String, List<Entry>> pending = new TreeMap<>();
+    private final Set<String> generated = new LinkedHashSet<>();
+
+    EntityMetaRegistryGenerator(ProcessingEnvironment env) {
+        this.env = env;
+    }
+
+    /**
+     * 登记实体；字段映射已由处理器校验，这里补充主键与逻辑删除信息。
+     */
+    void add(TypeElement type, String tableName, Map<String, String> fieldToColumn) {
+        if (!EntityCodecGenerator.isAccessibleFromPackage(type)) {
+            return;
+        }
+        String idLiteral = "null";
+        String logicDeleteLiteral = "null";
+        for (TypeElement current = type; current != null; current = superclassOf(current)) {
+            for (Element member : current.getEnclosedElements()) {
+                if (member.getKind() != ElementKind.FIELD
+                    || member.getModifiers().contains(Modifier.STATIC)
+                    || member.getModifiers().contains(Modifier.TRANSIENT)) {
+                    continue;
+                }
+                VariableElement field = (VariableElement) member;
+                String fieldName = field.getSimpleName().toString();
+                String columnName = fieldToColumn.get(fieldName);
+                if (columnName == null) {
+                    continue;
+                }
+                Id id = field.getAnnotation(Id.class);
+                if (id != null) {
+                    if (!"null".equals(idLiteral)) {
+                        error(field, "Duplicate @Id on " + type.getQualifiedName());
+                        return;
+                    }
+                    idLiteral = "new " + META + "IdMeta(" + quote(fieldName) + ", " + quote(columnName)
+                        + ", " + META + "IdStrategy." + id.strategy().name() + ")";
+                }
+                LogicDelete logicDelete = field.getAnnotation(LogicDelete.class);
+                if (logicDelete != null) {
+                    String active = logicValue(logicDelete.active(), field, "active");
+                    String deleted = logicValue(logicDelete.deleted(), field, "deleted");
+                    if (active == null || deleted == null) {
+                        return;
+                    }
+                    logicDeleteLiteral = "new " + META + "LogicDeleteMeta(" + quote(fieldName) + ", "
+                        + quote(columnName) + ", " + active + ", " + deleted + ")";
+                }
+            }
+        }
+        String entries = fieldToColumn.entrySet().stream()
+            .map(entry -> "java.util.Map.entry(" + quote(entry.getKey()) + ", " + quote(entry.getValue()) + ")")
+            .collect(Collectors.joining(",\n                    "));
+        String metaLiteral = "new " + META + "EntityMeta(\n"
+            + "                " + quote(tableName) + ",\n"
+            + "                java.util.Map.ofEntries(\n"
+            + "                    " + entries + "\n"
+            + "                ),\n"
+            + "                " + idLiteral + ",\n"
+            + "                " + logicDeleteLiteral + "\n"
+            + "            )";
+        String packageName = env.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        pending.computeIfAbsent(packageName, key -> new ArrayList<>()).add(new Entry(type, metaLiteral));
+    }
+
+    /**
+     * 为本轮登记的实体按包生成注册表类。
+     */
+    void flushRound() {
+        for (Map.Entry<String, List<Entry>> entry : pending.entrySet()) {
+            generateRegistry(entry.getKey(), entry.getValue());
+        }
+        pending.clear();
+    }
+
+    /**
+     * 写出服务索引；在最后一轮调用。
+     */
+    void writeServiceIndex() {
+        if (generated.isEmpty()) {
+            return;
+        }
+        try {
+            FileObject resource = env.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+            try (Writer writer = resource.openWriter()) {
+                for (String name : generated) {
+                    writer.write(name);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException ex) {
+            env.getMessager().printMessage(
+                Diagnostic.Kind.ERROR,
+                "Failed to write " + SERVICE_FILE + ": " + ex.getMessage()
+            );
+        }
+    }
+
+    private void generateRegistry(String packageName, List<Entry> entries) {
+        String signature = entries.stream()
+            .map(entry -> entry.type().getQualifiedName().toString())
+            .sorted()
+            .collect(Collectors.joining(","));
+        String className = CLASS_PREFIX + String.format("%08x", signature.hashCode());
+        String qualifiedName = packageName.isEmpty() ? className : packageName + "." + className;
+        StringBuilder content = new StringBuilder();
+        content.append(AptCodegenUtils.packageLine(packageName));
+        content.append("/**\n");
+        content.append(" * APT 生成的实体元数据注册表，由 EntityMetaRegistries 通过 ServiceLoader 加载。\n");
+        content.append(" */\n");
+        content.append("public final class ").append(className)
+            .append(" extends ").append(META).append("GeneratedEntityMetaRegistry {\n");
+        content.append("    public ").append(className).append("() {\n");
+        for (Entry entry : entries) {
+            content.append("        register(\n");
+            content.append("            ").append(entry.type().getQualifiedName()).append(".class,\n");
+            content.append("            ").append(entry.metaLiteral()).append("\n");
+            content.append("        );\n");
+        }
+        content.append("    }\n");
+        content.append("}\n");
+        Element[] origins = entries.stream().map(Entry::type).toArray(Element[]::new);
+        try {
+            JavaFileObject sourceFile = env.getFiler().createSourceFile(qualifiedName, origins);
+            try (Writer writer = sourceFile.openWriter()) {
+                writer.write(content.toString());
+            }
+            generated.add(qualifiedName);
+        } catch (IOException ex) {
+            error(origins[0], "Failed to generate entity meta registry: " + ex.getMessage());
+        }
+    }
+
+    /**
+     * 按字段类型生成逻辑删除值字面量，规则与 ReflectionEntityMetaRegistry 一致。
+     */
+    private String logicValue(String raw, VariableElement field, String label) {
+        if (raw == null || raw.isBlank()) {
+            error(field, "LogicDelete " + label + " value must not be blank");
+            return null;
+        }
+        String kind = primitiveKind(field.asType());
+        String trimmed = raw.trim();
+        try {
+            switch (kind) {
+                case "boolean" -> {
+                    String normalized = trimmed.toLowerCase();
+                    if ("1".equals(normalized) || "true".equals(normalized) || "yes".equals(normalized)) {
+                        return "Boolean.TRUE";
+                    }
+                    if ("0".equals(normalized) || "false".equals(normalized) || "no".equals(normalized)) {
+                        return "Boolean.FALSE";
+                    }
+                    error(field, "Invalid boolean value: " + raw);
+                    return null;
+                }
+                case "int" -> {
+                    return "Integer.valueOf(" + Integer.parseInt(trimmed) + ")";
+                }
+                case "long" -> {
+                    return "Long.valueOf(" + Long.parseLong(trimmed) + "L)";
+                }
+                default -> {
+                    return quote(raw);
+                }
+            }
+        } catch (NumberFormatException ex) {
+            error(field, "Invalid @LogicDelete " + label + " value: " + raw);
+            return null;
+        }
+    }
+
+    private String primitiveKind(TypeMirror type) {
+        if (type.getKind() == TypeKind.BOOLEAN) {
+            return "boolean";
+        }
+        if (type.getKind() == TypeKind.INT) {
+            return "int";
+        }
+        if (type.getKind() == TypeKind.LONG) {
+            return "long";
+        }
+        return switch (type.toString()) {
+            case "java.lang.Boolean" -> "boolean";
+            case "java.lang.Integer" -> "int";
+            case "java.lang.Long" -> "long";
+            default -> "";
+        };
+    }
+
+    private TypeElement superclassOf(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        TypeElement element = (TypeElement) env.getTypeUtils().asElement(superclass);
+        if (element == null || element.getQualifiedName().contentEquals("java.lang.Object")) {
+            return null;
+        }
+        return element;
+    }
+
+    private static String quote(String value) {
+        return "\"" + AptCodegenUtils.escapeJava(value) + "\"";
+    }
+
+    private void error(Element element, String message) {
+        env.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private record Entry(TypeElement type, String metaLiteral) {
+    }
+}
@@ -265,14 +265,32 @@ public final class SqlTemplateProcessor extends AbstractProcessor {
                     io.lighting.lumen.sql.Dialect dialect,
                     io.lighting.lumen.meta.EntityMetaRegistry metaRegistry,
                     io.lighting.lumen.template.EntityNameResolver entityNameResolver,
-                    io.lighting.lumen.sql.SqlRenderer renderer
+                    io.lighting.lumen.sql.SqlRenderer renderer,
+                    io.lighting.lumen.id.IdGeneratorProvider idGeneratorProvider
                 ) {
                     this.db = java.util.Objects.requireNonNull(db, "db");
                     this.dialect = java.util.Objects.requireNonNull(dialect, "dialect");
                     this.metaRegistry = java.util.Objects.requireNonNull(metaRegistry, "metaRegistry");
                     this.entityNameResolver = java.util.Objects.requireNonNull(entityNameResolver, "entityNameResolver");
                     this.renderer = java.util.Objects.requireNonNull(renderer, "renderer");
-                    this.daoContext = io.lighting.lumen.dao.DaoContext.of(db, renderer, metaRegistry);
+                    this.daoContext = io.lighting.lumen.dao.DaoContext.of(db, renderer, metaRegistry, idGeneratorProvider);
+                }
+
+                public %s(
+                    io.lighting.lumen.db.Db db,
+                    io.lighting.lumen.sql.Dialect dialect,
+                    io.lighting.lumen.meta.EntityMetaRegistry metaRegistry,
+                    io.lighting.lumen.template.EntityNameResolver entityNameResolver,
+                    io.lighting.lumen.sql.SqlRenderer renderer
+                ) {
+                    this(
+                        db,
+                        dialect,
+                        metaRegistry,
+                        entityNameResolver,
+                        renderer,
+                        io.lighting.lumen.id.IdGenerators::forStrategy
+                    );
                 }
 
                 public %s(
@@ -295,7 +313,7 @@ public final class SqlTemplateProcessor extends AbstractProcessor {
                     return daoContext;
                 }
 
-            """, simpleName, typeParamsDecl, targetType, simpleName, simpleName));
+            """, simpleName, typeParamsDecl, targetType, simpleName, simpleName, simpleName));
 
         String templatesClass = (packageName.isEmpty() ? "" : packageName + ".")
             + type.getSimpleName() + "_SqlTemplates";
@@ -793,13 +811,13 @@ public final class SqlTemplateProcessor extends AbstractProcessor {
                 builder.append("        io.lighting.lumen.sql.RenderedSql paged = pageExpression == null\n")
                     .append("            ? applyPagination(rendered, values.page(), values.pageSize())\n")
                     .append("            : rendered;\n");
-                builder.append("        java.util.List<").append(descriptor.resultTypeName()).append("> items = ")
-                    .append("db.fetch(io.lighting.lumen.db.Query.of(paged), ").append(mapperExpr).append(");\n");
-                builder.append("        long total = values.searchCount()\n")
-                    .append("            ? fetchCount(renderCount(").append(templateRef).append(", bindings))\n")
-                    .append("            : io.lighting.lumen.page.PageResult.TOTAL_UNKNOWN;\n");
-                builder.append("        return new io.lighting.lumen.page.PageResult<>(items, ")
-                    .append("values.page(), values.pageSize(), total);\n");
+                builder.append("        io.lighting.lumen.db.Query countQuery = values.searchCount()\n")
+                    .append("            ? io.lighting.lumen.db.Query.of(renderCount(").append(templateRef).append(", bindings))\n")
+                    .append("            : null;\n");
+                builder.append("        return db.page(io.lighting.lumen.db.Query.of(paged), countQuery,\n")
+                    .append("            io.lighting.lumen.page.PageRequest.of(values.page(), values.pageSize(), null, ")
+                    .append("values.searchCount()),\n")
+                    .append("            ").append(mapperExpr).append(");\n");
             }
             case INT -> {
                 if (descriptor.selectLike()) {
@@ -892,15 +910,6 @@ public final class SqlTemplateProcessor extends AbstractProcessor {
                     return io.lighting.lumen.page.PageSql.wrapCount(base);
                 }
 
-                private long fetchCount(io.lighting.lumen.sql.RenderedSql rendered) throws java.sql.SQLException {
-                    java.util.List<Long> rows =
-                        db.fetch(io.lighting.lumen.db.Query.of(rendered), rs -> rs.getLong(1));
-                    if (rows.isEmpty()) {
-                        return 0L;
-                    }
-                    return rows.get(0);
-                }
-
                 private io.lighting.lumen.sql.RenderedSql applyPagination(
                     io.lighting.lumen.sql.RenderedSql rendered,
                     int page,
@@ -0,0 +1,352 @@
+package io.lighting.lumen.cache;
+
+import io.lighting.lumen.db.Db;
+import io.lighting.lumen.db.TransactionManager;
+import io.lighting.lumen.meta.Cacheable;
+import io.lighting.lumen.meta.EntityAccessors;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * 按主键查询的二级实体缓存，以实体类型与主键为键。
+ * <p>
+ * 只有标注 {@link Cacheable} 的实体类型会被缓存，容量与过期时间取自注解；其余类型直接调用加载器。
+ * 缓存中保存实体的浅拷贝，读取时再复制一份返回，调用方修改返回的实体不会影响缓存；
+ * record 或含 final 字段的类型按原实例共享。
+ * <p>
+ * 写操作通过 {@link #evict} 使条目失效，并使失效前已开始的加载结果不再写入缓存，
+ * 避免并发读把旧值放回。查询结果为 {@code null} 时不缓存。
+ * <p>
+ * 当前线程处于 {@link TransactionManager#inTransaction} 中时，{@link #get} 直接调用加载器，既不读也不写缓存，
+ * 以免未提交的数据进入共享缓存；事务内的失效操作立即执行一次，并在事务结束后再执行一次，
+ * 清除提交前被并发读放回的旧值。
+ * <p>
+ * 超出容量时按 CLOCK 近似 LRU 淘汰：条目按写入顺序排队，命中只设置访问标记；淘汰时从队首取出，
+ * 有访问标记的清除标记后放回队尾，否则移除，均摊每次写入 O(1)。
+ */
+public final class EntityCache {
+    private static final Map<Object, EntityCache> BY_DATA_SOURCE = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final boolean enabled;
+    private final LongSupplier ticker;
+    private final ConcurrentHashMap<Class<?>, Optional<Region>> regions = new ConcurrentHashMap<>();
+
+    private EntityCache(Builder builder) {
+        this.enabled = builder.enabled;
+        this.ticker = builder.ticker;
+    }
+
+    /**
+     * 与 {@code db} 的数据源（{@link Db#dataSourceKey()}）绑定的默认实例，未显式配置缓存的 {@code DaoContext}
+     * 与 {@code ActiveRecordConfig} 使用该实例。同一数据源上的 DAO、ActiveRecord 与事务内的 Db 共享条目，
+     * 不同数据源互不影响。
+     */
+    public static EntityCache forDb(Db db) {
+        Objects.requireNonNull(db, "db");
+        return BY_DATA_SOURCE.computeIfAbsent(db.dataSourceKey(), ignored -> builder().build());
+    }
+
+    public static EntityCache disabled() {
+        return builder().enabled(false).build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 该实体类型的按主键查询是否经过缓存。
+     */
+    public boolean isCached(Class<?> type) {
+        return region(type) != null;
+    }
+
+    /**
+     * 返回缓存中的实体；未命中或已过期时调用 {@code loader} 加载并缓存。
+     */
+    public <T> T get(Class<T> type, Object id, EntityLoader<T> loader) throws SQLException {
+        Objects.requireNonNull(type, "type");
+        Objects.requireNonNull(loader, "loader");
+        Region region = region(type);
+        if (region == null || TransactionManager.isActive()) {
+            return loader.load();
+        }
+        Object key = key(id);
+        long now = ticker.getAsLong();
+        Entry entry = region.entries.get(key);
+        if (entry != null) {
+            if (!region.isExpired(entry, now)) {
+                if (!entry.referenced) {
+                    entry.referenced = true;
+                }
+                region.hits.increment();
+                return type.cast(region.copier.apply(entry.value));
+            }
+            if (region.entries.remove(key, entry)) {
+                region.evictions.increment();
+            }
+        }
+        region.misses.increment();
+        long version = region.version.get();
+        T loaded = loader.load();
+        if (loaded == null || region.version.get() != version) {
+            return loaded;
+        }
+        Entry fresh = new Entry(key, region.copier.apply(loaded), now);
+        region.entries.put(key, fresh);
+        region.enqueue(fresh);
+        if (region.version.get() != version) {
+            region.entries.remove(key, fresh);
+        } else if (region.entries.size() > region.maxSize) {
+            region.evict(now);
+        }
+        return loaded;
+    }
+
+    /**
+     * 使指定主键的条目失效；在事务中调用时，事务结束后再失效一次。
+     */
+    public void evict(Class<?> type, Object id) {
+        Region region = region(type);
+        if (region == null || id == null) {
+            return;
+        }
+        invalidate(region, id);
+        if (TransactionManager.isActive()) {
+            TransactionManager.afterCompletion(() -> invalidate(region, id));
+        }
+    }
+
+    private static void invalidate(Region region, Object id) {
+        region.version.incrementAndGet();
+        if (region.entries.remove(key(id)) != null) {
+            region.invalidations.increment();
+        }
+    }
+
+    /**
+     * 使该实体类型的全部条目失效，用于条件更新、条件删除等无法确定主键的写操作；在事务中调用时，事务结束后再失效一次。
+     */
+    public void evictAll(Class<?> type) {
+        Region region = region(type);
+        if (region == null) {
+            return;
+        }
+        invalidateAll(region);
+        if (TransactionManager.isActive()) {
+            TransactionManager.afterCompletion(() -> invalidateAll(region));
+        }
+    }
+
+    private static void invalidateAll(Region region) {
+        region.version.incrementAndGet();
+        int size = region.entries.size();
+        region.entries.clear();
+        region.invalidations.add(size);
+    }
+
+    public void clear() {
+        for (Optional<Region> region : regions.values()) {
+            region.ifPresent(value -> {
+                value.version.incrementAndGet();
+                value.entries.clear();
+            });
+        }
+    }
+
+    /**
+     * 所有实体类型的统计累计值。
+     */
+    public EntityCacheStats stats() {
+        EntityCacheStats total = EntityCacheStats.EMPTY;
+        for (Optional<Region> region : regions.values()) {
+            if (region.isPresent()) {
+                total = total.plus(region.get().stats());
+            }
+        }
+        return total;
+    }
+
+    public EntityCacheStats stats(Class<?> type) {
+        Region region = region(type);
+        return region == null ? EntityCacheStats.EMPTY : region.stats();
+    }
+
+    private Region region(Class<?> type) {
+        if (!enabled) {
+            return null;
+        }
+        Objects.requireNonNull(type, "type");
+        return regions.computeIfAbsent(type, EntityCache::createRegion).orElse(null);
+    }
+
+    private static Optional<Region> createRegion(Class<?> type) {
+        Cacheable cacheable = type.getAnnotation(Cacheable.class);
+        if (cacheable == null) {
+            return Optional.empty();
+        }
+        if (cacheable.maxSize() < 1) {
+            throw new IllegalArgumentException("@Cacheable maxSize must be >= 1 on " + type.getName());
+        }
+        if (cacheable.ttlSeconds() < 0) {
+            throw new IllegalArgumentException("@Cacheable ttlSeconds must be >= 0 on " + type.getName());
+        }
+        return Optional.of(new Region(
+            cacheable.maxSize(),
+            TimeUnit.SECONDS.toNanos(cacheable.ttlSeconds()),
+            copier(type)
+        ));
+    }
+
+    private static Object key(Object id) {
+        if (id == null) {
+            throw new IllegalArgumentException("id must not be null");
+        }
+        if (id instanceof Integer || id instanceof Short || id instanceof Byte) {
+            return ((Number) id).longValue();
+        }
+        return id;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static UnaryOperator<Object> copier(Class<?> type) {
+        return (UnaryOperator<Object>) EntityAccessors.of(type).shallowCopier();
+    }
+
+    private static final class Region {
+        private final int maxSize;
+        private final long ttlNanos;
+        private final UnaryOperator<Object> copier;
+        private final ConcurrentHashMap<Object, Entry> entries = new ConcurrentHashMap<>();
+        private final ConcurrentLinkedQueue<Entry> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicLong version = new AtomicLong();
+        private final Object evictionLock = new Object();
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder evictions = new LongAdder();
+        private final LongAdder invalidations = new LongAdder();
+
+        private Region(int maxSize, long ttlNanos, UnaryOperator<Object> copier) {
+            this.maxSize = maxSize;
+            this.ttlNanos = ttlNanos;
+            this.copier = copier;
+        }
+
+        private boolean isExpired(Entry entry, long now) {
+            return ttlNanos > 0 && now - entry.created > ttlNanos;
+        }
+
+        private void enqueue(Entry entry) {
+            queue.offer(entry);
+            if (queued.incrementAndGet() > maxSize * 2 + 16) {
+                purgeStale();
+            }
+        }
+
+        /**
+         * 从队首开始淘汰，直到条目数不超过上限；已被替换或失效的队列元素直接丢弃。
+         * 每个条目最多因访问标记被放回一次，单次调用最多处理两轮队列。
+         */
+        private void evict(long now) {
+            synchronized (evictionLock) {
+                int budget = queued.get() * 2 + 1;
+                while (entries.size() > maxSize && budget-- > 0) {
+                    Entry candidate = queue.poll();
+                    if (candidate == null) {
+                        return;
+                    }
+                    queued.decrementAndGet();
+                    if (entries.get(candidate.key) != candidate) {
+                        continue;
+                    }
+                    if (candidate.referenced && !isExpired(candidate, now)) {
+                        candidate.referenced = false;
+                        queue.offer(candidate);
+                        queued.incrementAndGet();
+                        continue;
+                    }
+                    if (entries.remove(candidate.key, candidate)) {
+                        evictions.increment();
+                    }
+                }
+            }
+        }
+
+        /**
+         * 失效与过期只移除映射中的条目，队列中留下的旧元素在队列超过容量两倍时集中清理，均摊到每次写入。
+         */
+        private void purgeStale() {
+            synchronized (evictionLock) {
+                for (Iterator<Entry> it = queue.iterator(); it.hasNext(); ) {
+                    Entry entry = it.next();
+                    if (entries.get(entry.key) != entry) {
+                        it.remove();
+                        queued.decrementAndGet();
+                    }
+                }
+            }
+        }
+
+        private EntityCacheStats stats() {
+            return new EntityCacheStats(
+                hits.sum(),
+                misses.sum(),
+                evictions.sum(),
+                invalidations.sum(),
+                entries.size()
+            );
+        }
+    }
+
+    private static final class Entry {
+        private final Object key;
+        private final Object value;
+        private final long created;
+        private volatile boolean referenced;
+
+        private Entry(Object key, Object value, long created) {
+            this.key = key;
+            this.value = value;
+            this.created = created;
+        }
+    }
+
+    public static final class Builder {
+        private boolean enabled = true;
+        private LongSupplier ticker = System::nanoTime;
+
+        private Builder() {
+        }
+
+        public Builder enabled(boolean enabled) {
+            this.enabled = enabled;
+            return this;
+        }
+
+        /**
+         * 纳秒时钟，用于过期判断，默认 {@link System#nanoTime()}。
+         */
+        public Builder ticker(LongSupplier ticker) {
+            this.ticker = Objects.requireNonNull(ticker, "ticker");
+            return this;
+        }
+
+        public EntityCache build() {
+            return new EntityCache(this);
+        }
+    }
+}
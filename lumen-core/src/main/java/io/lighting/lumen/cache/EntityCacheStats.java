@@ -0,0 +1,29 @@
+package io.lighting.lumen.cache;
+
+/**
+ * {@link EntityCache} 的统计快照。
+ * <p>
+ * {@code evictions} 为容量与过期淘汰次数，{@code invalidations} 为写操作引起的失效次数。
+ */
+public record EntityCacheStats(long hits, long misses, long evictions, long invalidations, int size) {
+    public static final EntityCacheStats EMPTY = new EntityCacheStats(0, 0, 0, 0, 0);
+
+    public long requests() {
+        return hits + misses;
+    }
+
+    public double hitRate() {
+        long requests = requests();
+        return requests == 0 ? 0d : (double) hits / requests;
+    }
+
+    public EntityCacheStats plus(EntityCacheStats other) {
+        return new EntityCacheStats(
+            hits + other.hits,
+            misses + other.misses,
+            evictions + other.evictions,
+            invalidations + other.invalidations,
+            size + other.size
+        );
+    }
+}
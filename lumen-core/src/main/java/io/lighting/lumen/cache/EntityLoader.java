@@ -0,0 +1,8 @@
+package io.lighting.lumen.cache;
+
+import java.sql.SQLException;
+
+@FunctionalInterface
+public interface EntityLoader<T> {
+    T load() throws SQLException;
+}
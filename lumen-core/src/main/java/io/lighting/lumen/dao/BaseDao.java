@@ -1,9 +1,12 @@
 package io.lighting.lumen.dao;
 
+import io.lighting.lumen.page.KeysetPage;
+import io.lighting.lumen.page.KeysetPageRequest;
 import io.lighting.lumen.page.PageRequest;
 import io.lighting.lumen.page.PageResult;
 import io.lighting.lumen.sql.ast.Expr;
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -16,18 +19,34 @@ public interface BaseDao<T> {
         return DaoSupport.insert(context(), entityType(), entity);
     }
 
+    default int insertBatch(Collection<T> entities) throws SQLException {
+        return DaoSupport.insertBatch(context(), entityType(), entities);
+    }
+
     default int updateById(T entity) throws SQLException {
         return DaoSupport.updateById(context(), entityType(), entity);
     }
 
+    default int updateBatchById(Collection<T> entities) throws SQLException {
+        return DaoSupport.updateBatchById(context(), entityType(), entities);
+    }
+
     default int deleteById(Object id) throws SQLException {
         return DaoSupport.deleteById(context(), entityType(), id);
     }
 
+    default int deleteBatchIds(Collection<?> ids) throws SQLException {
+        return DaoSupport.deleteBatchIds(context(), entityType(), ids);
+    }
+
     default T selectById(Object id) throws SQLException {
         return DaoSupport.selectById(context(), entityType(), id);
     }
 
+    default List<T> selectBatchIds(Collection<?> ids) throws SQLException {
+        return DaoSupport.selectBatchIds(context(), entityType(), ids);
+    }
+
     default List<T> selectList() throws SQLException {
         return DaoSupport.selectList(context(), entityType(), null);
     }
@@ -44,6 +63,14 @@ public interface BaseDao<T> {
         return DaoSupport.selectPage(context(), entityType(), pageRequest, where);
     }
 
+    default KeysetPage<T> selectKeysetPage(KeysetPageRequest request) throws SQLException {
+        return DaoSupport.selectKeysetPage(context(), entityType(), request, null);
+    }
+
+    default KeysetPage<T> selectKeysetPage(KeysetPageRequest request, Expr where) throws SQLException {
+        return DaoSupport.selectKeysetPage(context(), entityType(), request, where);
+    }
+
     default DaoContext context() {
         return DaoSupport.context(this);
     }
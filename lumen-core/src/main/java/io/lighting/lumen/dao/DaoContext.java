@@ -1,8 +1,11 @@
 package io.lighting.lumen.dao;
 
+import io.lighting.lumen.cache.EntityCache;
 import io.lighting.lumen.db.Db;
 import io.lighting.lumen.dsl.Dsl;
 import io.lighting.lumen.id.EntityIdGenerator;
+import io.lighting.lumen.id.IdGeneratorProvider;
+import io.lighting.lumen.id.IdGenerators;
 import io.lighting.lumen.meta.EntityMetaRegistry;
 import io.lighting.lumen.sql.SqlRenderer;
 import java.util.Objects;
@@ -17,23 +20,39 @@ public final class DaoContext {
     private final EntityIdGenerator idGenerator;
     private final Dsl dsl;
     private final boolean filterLogicalDelete;
+    private final EntityCache entityCache;
 
     private DaoContext(
         Db db,
         SqlRenderer renderer,
         EntityMetaRegistry metaRegistry,
-        boolean filterLogicalDelete
+        boolean filterLogicalDelete,
+        EntityCache entityCache,
+        IdGeneratorProvider idGeneratorProvider
     ) {
         this.db = Objects.requireNonNull(db, "db");
         this.renderer = Objects.requireNonNull(renderer, "renderer");
         this.metaRegistry = Objects.requireNonNull(metaRegistry, "metaRegistry");
-        this.idGenerator = new EntityIdGenerator(metaRegistry);
+        this.idGenerator = new EntityIdGenerator(metaRegistry, idGeneratorProvider);
         this.dsl = new Dsl(metaRegistry);
         this.filterLogicalDelete = filterLogicalDelete;
+        this.entityCache = Objects.requireNonNull(entityCache, "entityCache");
     }
 
     public static DaoContext of(Db db, SqlRenderer renderer, EntityMetaRegistry metaRegistry) {
-        return new DaoContext(db, renderer, metaRegistry, true);
+        return new DaoContext(db, renderer, metaRegistry, true, EntityCache.forDb(db), IdGenerators::forStrategy);
+    }
+
+    /**
+     * @param idGeneratorProvider 非 AUTO 主键的生成器来源，例如 {@link IdGenerators#segments(javax.sql.DataSource)}
+     */
+    public static DaoContext of(
+        Db db,
+        SqlRenderer renderer,
+        EntityMetaRegistry metaRegistry,
+        IdGeneratorProvider idGeneratorProvider
+    ) {
+        return new DaoContext(db, renderer, metaRegistry, true, EntityCache.forDb(db), idGeneratorProvider);
     }
 
     public static DaoContext of(
@@ -42,7 +61,24 @@ public final class DaoContext {
         EntityMetaRegistry metaRegistry,
         boolean filterLogicalDelete
     ) {
-        return new DaoContext(db, renderer, metaRegistry, filterLogicalDelete);
+        return new DaoContext(
+            db, renderer, metaRegistry, filterLogicalDelete, EntityCache.forDb(db), IdGenerators::forStrategy
+        );
+    }
+
+    /**
+     * @param entityCache 按主键查询使用的实体缓存，传入 {@link EntityCache#disabled()} 可关闭缓存
+     */
+    public static DaoContext of(
+        Db db,
+        SqlRenderer renderer,
+        EntityMetaRegistry metaRegistry,
+        boolean filterLogicalDelete,
+        EntityCache entityCache
+    ) {
+        return new DaoContext(
+            db, renderer, metaRegistry, filterLogicalDelete, entityCache, IdGenerators::forStrategy
+        );
     }
 
     public Db db() {
@@ -68,4 +104,8 @@ public final class DaoContext {
     public boolean filterLogicalDelete() {
         return filterLogicalDelete;
     }
+
+    public EntityCache entityCache() {
+        return entityCache;
+    }
 }
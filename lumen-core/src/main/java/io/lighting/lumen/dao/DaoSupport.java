@@ -6,26 +6,35 @@ import io.lighting.lumen.db.Query;
 import io.lighting.lumen.dsl.ColumnRef;
 import io.lighting.lumen.dsl.Dsl;
 import io.lighting.lumen.dsl.Table;
+import io.lighting.lumen.id.IdGenerator;
 import io.lighting.lumen.jdbc.RowMappers;
+import io.lighting.lumen.meta.EntityBinder;
+import io.lighting.lumen.meta.EntityBinders;
 import io.lighting.lumen.meta.EntityMeta;
 import io.lighting.lumen.meta.EntityMetaRegistry;
 import io.lighting.lumen.meta.IdMeta;
 import io.lighting.lumen.meta.IdStrategy;
 import io.lighting.lumen.meta.LogicDeleteMeta;
+import io.lighting.lumen.page.KeysetPage;
+import io.lighting.lumen.page.KeysetPageRequest;
 import io.lighting.lumen.page.PageRequest;
 import io.lighting.lumen.page.PageResult;
 import io.lighting.lumen.page.Sort;
 import io.lighting.lumen.page.SortDirection;
 import io.lighting.lumen.page.SortItem;
+import io.lighting.lumen.sql.BatchSql;
+import io.lighting.lumen.sql.Bind;
 import io.lighting.lumen.sql.Bindings;
 import io.lighting.lumen.sql.RenderedSql;
 import io.lighting.lumen.sql.SqlRenderer;
 import io.lighting.lumen.sql.Dialect;
 import io.lighting.lumen.sql.ast.Expr;
+import io.lighting.lumen.sql.ast.InsertStmt;
 import io.lighting.lumen.sql.ast.OrderItem;
 import io.lighting.lumen.sql.ast.Paging;
 import io.lighting.lumen.sql.ast.SelectItem;
 import io.lighting.lumen.sql.ast.SelectStmt;
+import io.lighting.lumen.sql.ast.Stmt;
 import io.lighting.lumen.sql.ast.UpdateItem;
 import io.lighting.lumen.sql.ast.UpdateStmt;
 import java.lang.reflect.Field;
@@ -33,11 +42,15 @@ import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
@@ -49,7 +62,8 @@ import java.util.concurrent.ConcurrentMap;
  */
 final class DaoSupport {
     private static final ConcurrentMap<Class<?>, Class<?>> ENTITY_TYPE_CACHE = new ConcurrentHashMap<>();
-    private static final ConcurrentMap<Class<?>, Map<String, Field>> FIELD_CACHE = new ConcurrentHashMap<>();
+    private static final int MAX_IN_LIST_SIZE = 1000;
+    private static final int RESERVED_BIND_PARAMETERS = 4;
 
     private DaoSupport() {
     }
@@ -90,12 +104,140 @@ final class DaoSupport {
         Objects.requireNonNull(entityType, "entityType");
         Objects.requireNonNull(entity, "entity");
         EntityMeta meta = context.metaRegistry().metaOf(entityType);
+        IdMeta idMeta = meta.idMeta().orElse(null);
+        boolean databaseId = prepareInsert(context, entityType, meta, entity, null);
+        List<String> fields = insertFields(meta, databaseId);
+        Command command = Command.of(
+            insertStmt(context, entityType, fields, insertValues(meta, entityType, fields, entity)),
+            Bindings.empty()
+        );
+        if (databaseId) {
+            Object generated = context.db().executeAndReturnGeneratedKey(
+                command,
+                idMeta.columnName(),
+                rs -> rs.getObject(1)
+            );
+            if (generated != null) {
+                setFieldValue(entity, entityType, idMeta.fieldName(), coerceValue(generated, fieldType(entityType, idMeta.fieldName())));
+            }
+            return 1;
+        }
+        return context.db().execute(command);
+    }
+
+    /**
+     * 批量插入：按列集合分组后以多行 VALUES 执行（见 {@link BatchSql#multiRowInsert()}），
+     * 每条语句的行数受方言的绑定参数上限约束。
+     * <p>
+     * 非 AUTO 主键会先为未赋值的实体生成（Snowflake 按缺少主键的实体数一次租出，见 {@link io.lighting.lumen.id.EntityIdGenerator#batch}）；未赋值的 AUTO 主键行单独成批，按方言批量获取生成主键后依次回填到实体
+     * （见 {@link Db#executeBatchAndReturnGeneratedKeys}）。
+     */
+    static <T> int insertBatch(DaoContext context, Class<T> entityType, Collection<? extends T> entities)
+        throws SQLException {
+        Objects.requireNonNull(context, "context");
+        Objects.requireNonNull(entityType, "entityType");
+        Objects.requireNonNull(entities, "entities");
+        if (entities.isEmpty()) {
+            return 0;
+        }
+        EntityMeta meta = context.metaRegistry().metaOf(entityType);
+        IdMeta generatedId = meta.idMeta().filter(idMeta -> idMeta.strategy() != IdStrategy.AUTO).orElse(null);
+        IdGenerator<?> ids = null;
+        if (generatedId != null) {
+            int missing = 0;
+            for (T entity : entities) {
+                Objects.requireNonNull(entity, "entity");
+                if (!hasIdValue(generatedId, readFieldValue(entity, entityType, generatedId.fieldName()))) {
+                    missing++;
+                }
+            }
+            // 只为未赋值的实体租号，已带主键的实体不占用号段
+            ids = missing == 0 ? null : context.idGenerator().batch(entityType, missing);
+        }
+        List<T> withId = new ArrayList<>();
+        List<T> databaseId = new ArrayList<>();
+        for (T entity : entities) {
+            Objects.requireNonNull(entity, "entity");
+            if (prepareInsert(context, entityType, meta, entity, ids)) {
+                databaseId.add(entity);
+            } else {
+                withId.add(entity);
+            }
+        }
+        return insertRows(context, entityType, meta, withId, false)
+            + insertRows(context, entityType, meta, databaseId, true);
+    }
+
+    private static <T> int insertRows(
+        DaoContext context,
+        Class<T> entityType,
+        EntityMeta meta,
+        List<T> entities,
+        boolean databaseId
+    ) throws SQLException {
+        if (entities.isEmpty()) {
+            return 0;
+        }
+        List<String> fields = insertFields(meta, databaseId);
+        List<Object> firstValues = insertValues(meta, entityType, fields, entities.get(0));
+        BatchSql.Builder batch = BatchSql.builder(
+                context.renderer().render(insertStmt(context, entityType, fields, firstValues), Bindings.empty())
+            )
+            .multiRowInsert(!databaseId);
+        batch.add(toBinds(firstValues));
+        for (int i = 1; i < entities.size(); i++) {
+            batch.add(toBinds(insertValues(meta, entityType, fields, entities.get(i))));
+        }
+        if (!databaseId) {
+            return sumCounts(context.db().executeBatch(batch.build()));
+        }
+        IdMeta idMeta = meta.idMeta().orElseThrow();
+        Class<?> idType = fieldType(entityType, idMeta.fieldName());
+        List<Object> keys = context.db().executeBatchAndReturnGeneratedKeys(
+            batch.build(),
+            idMeta.columnName(),
+            rs -> rs.getObject(1)
+        );
+        for (int i = 0; i < entities.size(); i++) {
+            setFieldValue(entities.get(i), entityType, idMeta.fieldName(), coerceValue(keys.get(i), idType));
+        }
+        return entities.size();
+    }
+
+    /**
+     * 汇总批处理结果；驱动返回 {@link Statement#SUCCESS_NO_INFO} 时按 1 行计。
+     */
+    private static int sumCounts(int[] counts) {
+        int total = 0;
+        for (int count : counts) {
+            if (count > 0) {
+                total += count;
+            } else if (count == Statement.SUCCESS_NO_INFO) {
+                total++;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 插入前的实体准备：生成非 AUTO 主键、补齐逻辑删除初始值。
+     *
+     * @param ids 批量插入时的批次生成器；为 null 时按实体类型单独取号
+     * @return 主键是否留给数据库生成（AUTO 策略且实体未赋值）
+     */
+    private static boolean prepareInsert(
+        DaoContext context,
+        Class<?> entityType,
+        EntityMeta meta,
+        Object entity,
+        IdGenerator<?> ids
+    ) {
         IdMeta idMeta = meta.idMeta().orElse(null);
         LogicDeleteMeta logicDeleteMeta = meta.logicDeleteMeta().orElse(null);
         boolean hasIdValue = idMeta != null && hasIdValue(idMeta, readFieldValue(entity, entityType, idMeta.fieldName()));
 
         if (idMeta != null && idMeta.strategy() != IdStrategy.AUTO && !hasIdValue) {
-            Object generated = context.idGenerator().generate(entityType).orElse(null);
+            Object generated = ids != null ? ids.nextId() : context.idGenerator().generate(entityType).orElse(null);
             if (generated != null) {
                 setFieldValue(entity, entityType, idMeta.fieldName(), coerceValue(generated, fieldType(entityType, idMeta.fieldName())));
                 hasIdValue = true;
@@ -108,43 +250,60 @@ final class DaoSupport {
                 setFieldValue(entity, entityType, logicDeleteMeta.fieldName(), logicDeleteMeta.activeValue());
             }
         }
+        return idMeta != null && idMeta.strategy() == IdStrategy.AUTO && !hasIdValue;
+    }
 
-        Dsl dsl = context.dsl();
-        Table table = dsl.table(entityType);
-        List<ColumnRef> columns = new ArrayList<>();
-        List<Object> values = new ArrayList<>();
-        for (Map.Entry<String, String> entry : meta.fieldToColumn().entrySet()) {
-            String fieldName = entry.getKey();
-            if (idMeta != null && fieldName.equals(idMeta.fieldName()) && idMeta.strategy() == IdStrategy.AUTO && !hasIdValue) {
-                continue;
+    private static List<String> insertFields(EntityMeta meta, boolean databaseId) {
+        String idField = databaseId ? meta.idMeta().map(IdMeta::fieldName).orElse(null) : null;
+        List<String> fields = new ArrayList<>(meta.fieldToColumn().size());
+        for (String fieldName : meta.fieldToColumn().keySet()) {
+            if (!fieldName.equals(idField)) {
+                fields.add(fieldName);
             }
+        }
+        return fields;
+    }
+
+    private static List<Object> insertValues(EntityMeta meta, Class<?> entityType, List<String> fields, Object entity) {
+        LogicDeleteMeta logicDeleteMeta = meta.logicDeleteMeta().orElse(null);
+        List<Object> values = new ArrayList<>(fields.size());
+        for (String fieldName : fields) {
             Object value = readFieldValue(entity, entityType, fieldName);
             if (logicDeleteMeta != null && fieldName.equals(logicDeleteMeta.fieldName()) && value == null) {
                 value = logicDeleteMeta.activeValue();
             }
-            columns.add(table.col(fieldName));
             values.add(value);
         }
+        return values;
+    }
 
-        RenderedSql rendered = context.renderer().render(
-            dsl.insertInto(table)
-                .columns(columns.toArray(new ColumnRef[0]))
-                .row(values.toArray())
-                .build(),
-            Bindings.empty()
-        );
-        if (idMeta != null && idMeta.strategy() == IdStrategy.AUTO && !hasIdValue) {
-            Object generated = context.db().executeAndReturnGeneratedKey(
-                Command.of(rendered),
-                idMeta.columnName(),
-                rs -> rs.getObject(1)
-            );
-            if (generated != null) {
-                setFieldValue(entity, entityType, idMeta.fieldName(), coerceValue(generated, fieldType(entityType, idMeta.fieldName())));
-            }
-            return 1;
+    private static InsertStmt insertStmt(
+        DaoContext context,
+        Class<?> entityType,
+        List<String> fields,
+        List<Object> values
+    ) {
+        Dsl dsl = context.dsl();
+        Table table = dsl.table(entityType);
+        ColumnRef[] columns = new ColumnRef[fields.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = table.col(fields.get(i));
+        }
+        return dsl.insertInto(table)
+            .columns(columns)
+            .row(values.toArray())
+            .build();
+    }
+
+    /**
+     * 与 {@code SqlRenderer} 渲染字面量的方式一致：每个值一个占位符，{@code null} 使用 {@link Bind.NullValue}。
+     */
+    private static List<Bind> toBinds(List<Object> values) {
+        List<Bind> binds = new ArrayList<>(values.size());
+        for (Object value : values) {
+            binds.add(value == null ? new Bind.NullValue(0) : new Bind.Value(value, 0));
         }
-        return context.db().execute(Command.of(rendered));
+        return binds;
     }
 
     static <T> int updateById(DaoContext context, Class<T> entityType, T entity) throws SQLException {
@@ -153,32 +312,109 @@ final class DaoSupport {
         Objects.requireNonNull(entity, "entity");
         EntityMeta meta = context.metaRegistry().metaOf(entityType);
         IdMeta idMeta = requireId(meta);
-        LogicDeleteMeta logicDeleteMeta = meta.logicDeleteMeta().orElse(null);
         Object idValue = requireIdValue(entity, entityType, idMeta);
-        Dsl dsl = context.dsl();
-        Table table = dsl.table(entityType);
-        List<UpdateItem> assignments = new ArrayList<>();
-        for (Map.Entry<String, String> entry : meta.fieldToColumn().entrySet()) {
-            String fieldName = entry.getKey();
-            if (fieldName.equals(idMeta.fieldName())) {
-                continue;
+        List<String> fields = updateFields(meta, idMeta, entityType);
+        UpdateStmt stmt = updateStmt(
+            context,
+            entityType,
+            meta,
+            idMeta,
+            fields,
+            updateValues(entityType, fields, entity),
+            idValue
+        );
+        try {
+            return context.db().execute(Command.of(stmt, Bindings.empty()));
+        } finally {
+            context.entityCache().evict(entityType, idValue);
+        }
+    }
+
+    /**
+     * 批量按主键更新：所有实体共用一条 UPDATE 模板，以 JDBC 批处理执行。
+     * <p>
+     * 模板以第一个实体渲染，其余实体只替换 SET 与主键的绑定参数，逻辑删除过滤条件的参数沿用模板。
+     */
+    static <T> int updateBatchById(DaoContext context, Class<T> entityType, Collection<? extends T> entities)
+        throws SQLException {
+        Objects.requireNonNull(context, "context");
+        Objects.requireNonNull(entityType, "entityType");
+        Objects.requireNonNull(entities, "entities");
+        if (entities.isEmpty()) {
+            return 0;
+        }
+        EntityMeta meta = context.metaRegistry().metaOf(entityType);
+        IdMeta idMeta = requireId(meta);
+        List<String> fields = updateFields(meta, idMeta, entityType);
+        BatchSql.Builder batch = null;
+        List<Bind> whereTail = List.of();
+        List<Object> ids = new ArrayList<>(entities.size());
+        for (T entity : entities) {
+            Objects.requireNonNull(entity, "entity");
+            Object idValue = requireIdValue(entity, entityType, idMeta);
+            ids.add(idValue);
+            List<Object> values = updateValues(entityType, fields, entity);
+            values.add(idValue);
+            if (batch == null) {
+                RenderedSql template = context.renderer().render(
+                    updateStmt(context, entityType, meta, idMeta, fields, values.subList(0, fields.size()), idValue),
+                    Bindings.empty()
+                );
+                whereTail = template.binds().subList(values.size(), template.binds().size());
+                batch = BatchSql.builder(template);
             }
-            if (logicDeleteMeta != null && fieldName.equals(logicDeleteMeta.fieldName())) {
-                continue;
+            List<Bind> binds = toBinds(values);
+            binds.addAll(whereTail);
+            batch.add(binds);
+        }
+        try {
+            return sumCounts(context.db().executeBatch(batch.build()));
+        } finally {
+            evict(context, entityType, ids);
+        }
+    }
+
+    private static List<String> updateFields(EntityMeta meta, IdMeta idMeta, Class<?> entityType) {
+        String logicDeleteField = meta.logicDeleteMeta().map(LogicDeleteMeta::fieldName).orElse(null);
+        List<String> fields = new ArrayList<>(meta.fieldToColumn().size());
+        for (String fieldName : meta.fieldToColumn().keySet()) {
+            if (!fieldName.equals(idMeta.fieldName()) && !fieldName.equals(logicDeleteField)) {
+                fields.add(fieldName);
             }
-            Object value = readFieldValue(entity, entityType, fieldName);
-            assignments.add(new UpdateItem(table.col(fieldName).expr(), new Expr.Literal(value)));
         }
-        if (assignments.isEmpty()) {
+        if (fields.isEmpty()) {
             throw new IllegalStateException("No updatable fields on " + entityType.getName());
         }
+        return fields;
+    }
+
+    private static List<Object> updateValues(Class<?> entityType, List<String> fields, Object entity) {
+        List<Object> values = new ArrayList<>(fields.size() + 1);
+        for (String fieldName : fields) {
+            values.add(readFieldValue(entity, entityType, fieldName));
+        }
+        return values;
+    }
+
+    private static UpdateStmt updateStmt(
+        DaoContext context,
+        Class<?> entityType,
+        EntityMeta meta,
+        IdMeta idMeta,
+        List<String> fields,
+        List<Object> values,
+        Object idValue
+    ) {
+        Table table = context.dsl().table(entityType);
+        List<UpdateItem> assignments = new ArrayList<>(fields.size());
+        for (int i = 0; i < fields.size(); i++) {
+            assignments.add(new UpdateItem(table.col(fields.get(i)).expr(), new Expr.Literal(values.get(i))));
+        }
         Expr where = table.col(idMeta.fieldName()).eq(idValue);
-        if (logicDeleteMeta != null && context.filterLogicalDelete()) {
+        if (meta.logicDeleteMeta().isPresent() && context.filterLogicalDelete()) {
             where = and(where, table.notDeleted());
         }
-        UpdateStmt stmt = new UpdateStmt(table.ref(), assignments, where);
-        RenderedSql rendered = context.renderer().render(stmt, Bindings.empty());
-        return context.db().execute(Command.of(rendered));
+        return new UpdateStmt(table.ref(), assignments, where);
     }
 
     static int deleteById(DaoContext context, Class<?> entityType, Object id) throws SQLException {
@@ -190,12 +426,56 @@ final class DaoSupport {
             throw new IllegalArgumentException("Missing id value for " + entityType.getName());
         }
         LogicDeleteMeta logicDeleteMeta = meta.logicDeleteMeta().orElse(null);
-        if (logicDeleteMeta != null) {
-            return logicalDeleteById(context, entityType, idMeta, id);
+        try {
+            if (logicDeleteMeta != null) {
+                return logicalDeleteById(context, entityType, idMeta, id);
+            }
+            return hardDeleteById(context, entityType, idMeta, id);
+        } finally {
+            context.entityCache().evict(entityType, id);
+        }
+    }
+
+    /**
+     * 按主键批量删除；存在逻辑删除字段时执行逻辑删除。主键去重后分段生成 IN 条件。
+     */
+    static int deleteBatchIds(DaoContext context, Class<?> entityType, Collection<?> ids) throws SQLException {
+        Objects.requireNonNull(context, "context");
+        Objects.requireNonNull(entityType, "entityType");
+        EntityMeta meta = context.metaRegistry().metaOf(entityType);
+        IdMeta idMeta = requireId(meta);
+        List<Object> distinctIds = distinctIds(entityType, idMeta, ids);
+        boolean logical = meta.logicDeleteMeta().isPresent();
+        Dsl dsl = context.dsl();
+        Table table = dsl.table(entityType);
+        int deleted = 0;
+        int chunkSize = inChunkSize(context);
+        try {
+            for (int from = 0; from < distinctIds.size(); from += chunkSize) {
+                List<Object> chunk = distinctIds.subList(from, Math.min(from + chunkSize, distinctIds.size()));
+                Expr where = table.col(idMeta.fieldName()).in(chunk);
+                Stmt stmt;
+                if (logical) {
+                    if (context.filterLogicalDelete()) {
+                        where = and(where, table.notDeleted());
+                    }
+                    stmt = dsl.logicalDeleteFrom(table).where(where).build();
+                } else {
+                    stmt = dsl.deleteFrom(table).where(where).build();
+                }
+                deleted += context.db().execute(Command.of(stmt, Bindings.empty()));
+            }
+        } finally {
+            evict(context, entityType, distinctIds);
         }
-        return hardDeleteById(context, entityType, idMeta, id);
+        return deleted;
     }
 
+    /**
+     * 按主键查询；实体标注 {@link io.lighting.lumen.meta.Cacheable} 时先查 {@link DaoContext#entityCache()}。
+     * 关闭逻辑删除过滤的上下文查询逻辑删除实体时不经过缓存，以免把已删除的行放入缓存；
+     * 事务内的查询同样不经过缓存，见 {@link io.lighting.lumen.cache.EntityCache}。
+     */
     static <T> T selectById(DaoContext context, Class<T> entityType, Object id) throws SQLException {
         Objects.requireNonNull(context, "context");
         Objects.requireNonNull(entityType, "entityType");
@@ -204,6 +484,19 @@ final class DaoSupport {
         if (!hasIdValue(idMeta, id)) {
             throw new IllegalArgumentException("Missing id value for " + entityType.getName());
         }
+        if (context.filterLogicalDelete() || meta.logicDeleteMeta().isEmpty()) {
+            return context.entityCache().get(entityType, id, () -> loadById(context, entityType, meta, idMeta, id));
+        }
+        return loadById(context, entityType, meta, idMeta, id);
+    }
+
+    private static <T> T loadById(
+        DaoContext context,
+        Class<T> entityType,
+        EntityMeta meta,
+        IdMeta idMeta,
+        Object id
+    ) throws SQLException {
         Dsl dsl = context.dsl();
         Table table = dsl.table(entityType);
         List<ColumnRef> columns = columnsFor(meta, table);
@@ -214,6 +507,32 @@ final class DaoSupport {
         return rows.isEmpty() ? null : rows.get(0);
     }
 
+    /**
+     * 按主键批量查询；主键去重后分段生成 IN 条件，结果按分段顺序拼接，不保证与入参顺序一致。
+     */
+    static <T> List<T> selectBatchIds(DaoContext context, Class<T> entityType, Collection<?> ids) throws SQLException {
+        Objects.requireNonNull(context, "context");
+        Objects.requireNonNull(entityType, "entityType");
+        EntityMeta meta = context.metaRegistry().metaOf(entityType);
+        IdMeta idMeta = requireId(meta);
+        List<Object> distinctIds = distinctIds(entityType, idMeta, ids);
+        if (distinctIds.isEmpty()) {
+            return List.of();
+        }
+        Dsl dsl = context.dsl();
+        Table table = dsl.table(entityType);
+        List<ColumnRef> columns = columnsFor(meta, table);
+        List<T> rows = new ArrayList<>(distinctIds.size());
+        int chunkSize = inChunkSize(context);
+        for (int from = 0; from < distinctIds.size(); from += chunkSize) {
+            List<Object> chunk = distinctIds.subList(from, Math.min(from + chunkSize, distinctIds.size()));
+            Expr where = applyLogicalDeleteFilter(context, meta, table, table.col(idMeta.fieldName()).in(chunk));
+            SelectStmt stmt = buildSelect(dsl, table, columns, where, List.of(), null);
+            rows.addAll(context.db().fetch(Query.of(stmt, Bindings.empty()), RowMappers.auto(entityType)));
+        }
+        return rows;
+    }
+
     static <T> List<T> selectList(DaoContext context, Class<T> entityType, Expr where) throws SQLException {
         Objects.requireNonNull(context, "context");
         Objects.requireNonNull(entityType, "entityType");
@@ -255,6 +574,38 @@ final class DaoSupport {
         return context.db().page(pageQuery, countQuery, pageRequest, RowMappers.auto(entityType));
     }
 
+    /**
+     * 键集分页；排序键未包含主键时追加主键（与最后一个排序键同向）作为唯一的决胜键。
+     */
+    static <T> KeysetPage<T> selectKeysetPage(
+        DaoContext context,
+        Class<T> entityType,
+        KeysetPageRequest request,
+        Expr where
+    ) throws SQLException {
+        Objects.requireNonNull(context, "context");
+        Objects.requireNonNull(entityType, "entityType");
+        Objects.requireNonNull(request, "request");
+        EntityMeta meta = context.metaRegistry().metaOf(entityType);
+        Dsl dsl = context.dsl();
+        Table table = dsl.table(entityType);
+        List<OrderItem> orderItems = new ArrayList<>(resolveSort(request.sort(), table, meta));
+        IdMeta idMeta = meta.idMeta().orElse(null);
+        if (idMeta != null) {
+            Expr idColumn = table.col(idMeta.fieldName()).expr();
+            boolean ordered = orderItems.stream().anyMatch(item -> item.expr().equals(idColumn));
+            if (!ordered) {
+                boolean asc = orderItems.isEmpty() || orderItems.get(orderItems.size() - 1).asc();
+                orderItems.add(new OrderItem(idColumn, asc));
+            }
+        } else if (orderItems.isEmpty()) {
+            throw new IllegalArgumentException("Keyset pagination of " + entityType.getName() + " requires a sort");
+        }
+        Expr finalWhere = applyLogicalDeleteFilter(context, meta, table, where);
+        SelectStmt stmt = buildSelect(dsl, table, columnsFor(meta, table), finalWhere, orderItems, null);
+        return context.db().keysetPage(stmt, Bindings.empty(), request, RowMappers.auto(entityType));
+    }
+
     private static int hardDeleteById(
         DaoContext context,
         Class<?> entityType,
@@ -263,11 +614,10 @@ final class DaoSupport {
     ) throws SQLException {
         Dsl dsl = context.dsl();
         Table table = dsl.table(entityType);
-        RenderedSql rendered = context.renderer().render(
+        return context.db().execute(Command.of(
             dsl.deleteFrom(table).where(table.col(idMeta.fieldName()).eq(id)).build(),
             Bindings.empty()
-        );
-        return context.db().execute(Command.of(rendered));
+        ));
     }
 
     private static int logicalDeleteById(
@@ -282,11 +632,7 @@ final class DaoSupport {
         if (context.filterLogicalDelete()) {
             where = and(where, table.notDeleted());
         }
-        RenderedSql rendered = context.renderer().render(
-            dsl.logicalDeleteFrom(table).where(where).build(),
-            Bindings.empty()
-        );
-        return context.db().execute(Command.of(rendered));
+        return context.db().execute(Command.of(dsl.logicalDeleteFrom(table).where(where).build(), Bindings.empty()));
     }
 
     private static Expr applyLogicalDeleteFilter(
@@ -364,6 +710,36 @@ final class DaoSupport {
         throw new IllegalArgumentException("Unknown sort key: " + key);
     }
 
+    private static List<Object> distinctIds(Class<?> entityType, IdMeta idMeta, Collection<?> ids) {
+        Objects.requireNonNull(ids, "ids");
+        Set<Object> distinct = new LinkedHashSet<>();
+        for (Object id : ids) {
+            if (!hasIdValue(idMeta, id)) {
+                throw new IllegalArgumentException("Missing id value for " + entityType.getName());
+            }
+            distinct.add(id);
+        }
+        return new ArrayList<>(distinct);
+    }
+
+    /**
+     * IN 列表每段的主键个数：不超过 {@value #MAX_IN_LIST_SIZE}（Oracle 的 IN 列表上限），
+     * 并为逻辑删除等附加条件预留 {@value #RESERVED_BIND_PARAMETERS} 个绑定参数。
+     */
+    private static int inChunkSize(DaoContext context) {
+        int byParams = context.renderer().dialect().maxBindParameters() - RESERVED_BIND_PARAMETERS;
+        return Math.max(1, Math.min(MAX_IN_LIST_SIZE, byParams));
+    }
+
+    /**
+     * 使批量写操作涉及的主键在实体缓存中失效。
+     */
+    private static void evict(DaoContext context, Class<?> entityType, List<Object> ids) {
+        for (Object id : ids) {
+            context.entityCache().evict(entityType, id);
+        }
+    }
+
     private static IdMeta requireId(EntityMeta meta) {
         return meta.idMeta()
             .orElseThrow(() -> new IllegalArgumentException("Missing @Id on " + meta.table()));
@@ -388,25 +764,15 @@ final class DaoSupport {
     }
 
     private static Object readFieldValue(Object entity, Class<?> entityType, String fieldName) {
-        Field field = fieldFor(entityType, fieldName);
-        try {
-            return field.get(entity);
-        } catch (IllegalAccessException ex) {
-            throw new IllegalStateException("Failed to read field " + fieldName, ex);
-        }
+        return binderFor(entityType).get(entity, fieldName);
     }
 
     private static void setFieldValue(Object entity, Class<?> entityType, String fieldName, Object value) {
-        Field field = fieldFor(entityType, fieldName);
-        try {
-            field.set(entity, value);
-        } catch (IllegalAccessException ex) {
-            throw new IllegalStateException("Failed to set field " + fieldName, ex);
-        }
+        binderFor(entityType).set(entity, fieldName, value);
     }
 
     private static Class<?> fieldType(Class<?> entityType, String fieldName) {
-        return fieldFor(entityType, fieldName).getType();
+        return binderFor(entityType).fieldType(fieldName);
     }
 
     private static Object coerceValue(Object value, Class<?> targetType) {
@@ -437,24 +803,9 @@ final class DaoSupport {
         return value;
     }
 
-    private static Field fieldFor(Class<?> entityType, String fieldName) {
-        Map<String, Field> fields = FIELD_CACHE.computeIfAbsent(entityType, DaoSupport::scanFields);
-        Field field = fields.get(fieldName);
-        if (field == null) {
-            throw new IllegalArgumentException("Unknown field: " + fieldName);
-        }
-        return field;
-    }
-
-    private static Map<String, Field> scanFields(Class<?> type) {
-        Map<String, Field> fields = new ConcurrentHashMap<>();
-        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
-            for (Field field : current.getDeclaredFields()) {
-                field.setAccessible(true);
-                fields.putIfAbsent(field.getName(), field);
-            }
-        }
-        return fields;
+    @SuppressWarnings("unchecked")
+    private static EntityBinder<Object> binderFor(Class<?> entityType) {
+        return (EntityBinder<Object>) EntityBinders.of(entityType);
     }
 
     private static Class<?> resolveEntityType(Class<?> daoClass) {
@@ -0,0 +1,370 @@
+package io.lighting.lumen.db;
+
+import io.lighting.lumen.sql.RenderedSql;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 异步分发的观察器。
+ * <p>
+ * 查询线程只把事件写入定长的无锁环形队列（多生产者、单消费者），由后台守护线程按顺序转发给被包装的观察器，
+ * 日志格式化、指标聚合等开销因此移出查询路径。队列满时按 {@link OverflowPolicy} 丢弃事件或退回调用线程执行，
+ * 各项计数见 {@link #stats()}。
+ * <p>
+ * 被包装的观察器在后台线程上运行：依赖 {@link ThreadLocal}（如 MDC、事务上下文）的观察器不应异步化；
+ * {@code source} 与 {@link RenderedSql} 会在语句返回后才被读取，调用方不应复用可变的 source 对象。
+ * <pre>{@code
+ * AsyncDbObserver async = AsyncDbObserver.builder(sqlLog, metrics).capacity(16384).build();
+ * Lumen lumen = Lumen.builder().dataSource(ds).observers(List.of(async)).build();
+ * ...
+ * async.close(); // 投递剩余事件并停止后台线程
+ * }</pre>
+ */
+public final class AsyncDbObserver implements DbObserver, AutoCloseable {
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    /**
+     * 队列已满时的处理方式。
+     */
+    public enum OverflowPolicy {
+        /**
+         * 丢弃新事件并计数，查询线程从不阻塞。
+         */
+        DROP,
+        /**
+         * 在调用线程上同步通知观察器，不丢事件，但此时顺序不再保证。
+         */
+        CALLER_RUNS
+    }
+
+    private static final int SPINS = 64;
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private static final int BEFORE_RENDER = 0;
+    private static final int AFTER_RENDER = 1;
+    private static final int RENDER_ERROR = 2;
+    private static final int BEFORE_EXECUTE = 3;
+    private static final int AFTER_EXECUTE = 4;
+    private static final int EXECUTE_ERROR = 5;
+    private static final int BULK_LOAD = 6;
+
+    private final List<DbObserver> observers;
+    private final OverflowPolicy overflowPolicy;
+    private final int mask;
+    private final AtomicReferenceArray<Event> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+    private final LongAdder published = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder callerRuns = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    /**
+     * 正在执行 {@link #publish} 的线程数；{@link #close()} 等它归零后再做最后一次投递，
+     * 避免检查 {@code closed} 之后才入队的事件留在队列里。
+     */
+    private final AtomicInteger publishing = new AtomicInteger();
+    private final Thread worker;
+    private volatile boolean closed;
+    /**
+     * 后台线程是否已（或即将）挂起；生产者入队后据此决定是否唤醒。
+     */
+    private volatile boolean parked;
+
+    private AsyncDbObserver(Builder builder) {
+        this.observers = List.copyOf(builder.observers);
+        this.overflowPolicy = builder.overflowPolicy;
+        int capacity = builder.capacity;
+        this.mask = capacity - 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        this.worker = new Thread(this::drain, "lumen-observer-" + THREAD_COUNTER.incrementAndGet());
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    public static Builder builder(DbObserver... observers) {
+        return builder(List.of(observers));
+    }
+
+    public static Builder builder(List<DbObserver> observers) {
+        return new Builder(observers);
+    }
+
+    @Override
+    public void beforeRender(DbOperation operation, Object source) {
+        publish(new Event(BEFORE_RENDER, operation, source, null, 0L, 0, null, null));
+    }
+
+    @Override
+    public void afterRender(DbOperation operation, Object source, RenderedSql rendered, long elapsedNanos) {
+        publish(new Event(AFTER_RENDER, operation, source, rendered, elapsedNanos, 0, null, null));
+    }
+
+    @Override
+    public void onRenderError(DbOperation operation, Object source, Exception error, long elapsedNanos) {
+        publish(new Event(RENDER_ERROR, operation, source, null, elapsedNanos, 0, error, null));
+    }
+
+    @Override
+    public void beforeExecute(DbOperation operation, Object source, RenderedSql rendered) {
+        publish(new Event(BEFORE_EXECUTE, operation, source, rendered, 0L, 0, null, null));
+    }
+
+    @Override
+    public void afterExecute(
+        DbOperation operation,
+        Object source,
+        RenderedSql rendered,
+        long elapsedNanos,
+        int rowCount
+    ) {
+        publish(new Event(AFTER_EXECUTE, operation, source, rendered, elapsedNanos, rowCount, null, null));
+    }
+
+    @Override
+    public void onExecuteError(
+        DbOperation operation,
+        Object source,
+        RenderedSql rendered,
+        long elapsedNanos,
+        Exception error
+    ) {
+        publish(new Event(EXECUTE_ERROR, operation, source, rendered, elapsedNanos, 0, error, null));
+    }
+
+    @Override
+    public void onBulkLoad(BulkLoadStats stats) {
+        publish(new Event(BULK_LOAD, null, null, null, 0L, 0, null, stats));
+    }
+
+    /**
+     * 当前计数快照。
+     */
+    public AsyncObserverStats stats() {
+        return new AsyncObserverStats(
+            published.sum(),
+            dropped.sum(),
+            callerRuns.sum(),
+            failures.sum(),
+            Math.max(0L, tail.get() - head.get())
+        );
+    }
+
+    /**
+     * 停止接收事件，等待后台线程投递完队列中剩余的事件后返回。
+     * 关闭之后到达的事件在调用线程上同步分发。应在 {@link Db} 不再使用后调用。
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        while (publishing.get() != 0) {
+            Thread.onSpinWait();
+        }
+        LockSupport.unpark(worker);
+        boolean interrupted = false;
+        while (worker.isAlive()) {
+            try {
+                worker.join();
+            } catch (InterruptedException ex) {
+                interrupted = true;
+            }
+        }
+        drainRemaining();
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void publish(Event event) {
+        publishing.incrementAndGet();
+        try {
+            if (closed) {
+                dispatch(event);
+                return;
+            }
+            if (offer(event)) {
+                published.increment();
+                if (parked) {
+                    LockSupport.unpark(worker);
+                }
+                return;
+            }
+            if (overflowPolicy == OverflowPolicy.CALLER_RUNS) {
+                callerRuns.increment();
+                dispatch(event);
+            } else {
+                dropped.increment();
+            }
+        } finally {
+            publishing.decrementAndGet();
+        }
+    }
+
+    /**
+     * 有界 MPSC 队列入队：每个槽位的序号表示它可被哪一轮的生产者或消费者使用。
+     */
+    private boolean offer(Event event) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.set(index, event);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * 仅由单个消费者调用。
+     */
+    private boolean isEmpty() {
+        long position = head.get();
+        return sequences.get((int) (position & mask)) != position + 1;
+    }
+
+    /**
+     * 仅由单个消费者调用。
+     */
+    private Event poll() {
+        long position = head.get();
+        int index = (int) (position & mask);
+        if (sequences.get(index) != position + 1) {
+            return null;
+        }
+        Event event = slots.get(index);
+        slots.set(index, null);
+        sequences.set(index, position + mask + 1);
+        head.set(position + 1);
+        return event;
+    }
+
+    private void drain() {
+        int idle = 0;
+        while (true) {
+            Event event = poll();
+            if (event != null) {
+                dispatch(event);
+                idle = 0;
+            } else if (closed) {
+                return;
+            } else if (++idle < SPINS) {
+                Thread.onSpinWait();
+            } else {
+                // 先公布挂起再复查队列：与生产者“先入队再读 parked”配对，入队的事件总能唤醒后台线程
+                parked = true;
+                if (isEmpty() && !closed) {
+                    LockSupport.park(this);
+                }
+                parked = false;
+            }
+        }
+    }
+
+    private void drainRemaining() {
+        Event event;
+        while ((event = poll()) != null) {
+            dispatch(event);
+        }
+    }
+
+    private void dispatch(Event event) {
+        for (DbObserver observer : observers) {
+            try {
+                deliver(observer, event);
+            } catch (RuntimeException ex) {
+                failures.increment();
+            }
+        }
+    }
+
+    private static void deliver(DbObserver observer, Event event) {
+        switch (event.type) {
+            case BEFORE_RENDER -> observer.beforeRender(event.operation, event.source);
+            case AFTER_RENDER -> observer.afterRender(event.operation, event.source, event.rendered, event.elapsedNanos);
+            case RENDER_ERROR -> observer.onRenderError(event.operation, event.source, event.error, event.elapsedNanos);
+            case BEFORE_EXECUTE -> observer.beforeExecute(event.operation, event.source, event.rendered);
+            case AFTER_EXECUTE -> observer.afterExecute(
+                event.operation, event.source, event.rendered, event.elapsedNanos, event.rowCount
+            );
+            case EXECUTE_ERROR -> observer.onExecuteError(
+                event.operation, event.source, event.rendered, event.elapsedNanos, event.error
+            );
+            case BULK_LOAD -> observer.onBulkLoad(event.stats);
+            default -> throw new IllegalStateException("Unknown event type: " + event.type);
+        }
+    }
+
+    private record Event(
+        int type,
+        DbOperation operation,
+        Object source,
+        RenderedSql rendered,
+        long elapsedNanos,
+        int rowCount,
+        Exception error,
+        BulkLoadStats stats
+    ) {
+    }
+
+    public static final class Builder {
+        private final List<DbObserver> observers;
+        private int capacity = DEFAULT_CAPACITY;
+        private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+
+        private Builder(List<DbObserver> observers) {
+            Objects.requireNonNull(observers, "observers");
+            if (observers.isEmpty()) {
+                throw new IllegalArgumentException("observers must not be empty");
+            }
+            this.observers = observers;
+        }
+
+        /**
+         * 队列容量，向上取整为 2 的幂，默认 {@value AsyncDbObserver#DEFAULT_CAPACITY}。
+         */
+        public Builder capacity(int capacity) {
+            if (capacity < 2 || capacity > (1 << 30)) {
+                throw new IllegalArgumentException("capacity must be between 2 and 2^30");
+            }
+            this.capacity = Integer.highestOneBit(capacity - 1) << 1;
+            return this;
+        }
+
+        /**
+         * 队列满时的处理方式，默认 {@link OverflowPolicy#DROP}。
+         */
+        public Builder overflowPolicy(OverflowPolicy overflowPolicy) {
+            this.overflowPolicy = Objects.requireNonNull(overflowPolicy, "overflowPolicy");
+            return this;
+        }
+
+        /**
+         * 构建实例并启动后台线程。
+         */
+        public AsyncDbObserver build() {
+            return new AsyncDbObserver(this);
+        }
+    }
+}
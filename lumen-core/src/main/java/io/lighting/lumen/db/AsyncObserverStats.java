@@ -0,0 +1,19 @@
+package io.lighting.lumen.db;
+
+/**
+ * {@link AsyncDbObserver} 的计数快照。
+ *
+ * @param published  成功入队的事件数
+ * @param dropped    队列已满被丢弃的事件数
+ * @param callerRuns 队列已满改在调用线程上分发的事件数
+ * @param failures   被包装观察器抛出异常的次数
+ * @param pending    尚未投递的事件数
+ */
+public record AsyncObserverStats(long published, long dropped, long callerRuns, long failures, long pending) {
+    /**
+     * 已投递给观察器的入队事件数。
+     */
+    public long delivered() {
+        return published - pending;
+    }
+}
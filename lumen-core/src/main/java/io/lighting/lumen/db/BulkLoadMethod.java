@@ -0,0 +1,23 @@
+package io.lighting.lumen.db;
+
+/**
+ * {@link BulkLoader} 实际采用的导入通道。
+ */
+public enum BulkLoadMethod {
+    /**
+     * PostgreSQL {@code COPY ... FROM STDIN}。
+     */
+    COPY,
+    /**
+     * MySQL/MariaDB {@code LOAD DATA LOCAL INFILE}，数据来自内存流。
+     */
+    LOAD_DATA,
+    /**
+     * H2 {@code INSERT ... SELECT * FROM CSVREAD(...)}，数据先写入临时文件。
+     */
+    CSVREAD,
+    /**
+     * 多行 {@code INSERT ... VALUES} 批量执行。
+     */
+    MULTI_ROW_VALUES
+}
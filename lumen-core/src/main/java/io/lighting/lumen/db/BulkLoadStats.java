@@ -0,0 +1,31 @@
+package io.lighting.lumen.db;
+
+import java.util.Objects;
+
+/**
+ * 一次批量导入的统计结果。
+ *
+ * @param table        目标表
+ * @param method       实际采用的导入通道
+ * @param rows         导入行数
+ * @param bytes        传输给数据库的数据字节数；{@link BulkLoadMethod#MULTI_ROW_VALUES} 不经过文本编码，恒为 0
+ * @param elapsedNanos 耗时（纳秒）
+ */
+public record BulkLoadStats(String table, BulkLoadMethod method, long rows, long bytes, long elapsedNanos) {
+    public BulkLoadStats {
+        Objects.requireNonNull(table, "table");
+        Objects.requireNonNull(method, "method");
+    }
+
+    public double rowsPerSecond() {
+        return perSecond(rows);
+    }
+
+    public double bytesPerSecond() {
+        return perSecond(bytes);
+    }
+
+    private double perSecond(long amount) {
+        return elapsedNanos <= 0 ? 0.0 : amount * 1_000_000_000.0 / elapsedNanos;
+    }
+}
@@ -0,0 +1,662 @@
+package io.lighting.lumen.db;
+
+import io.lighting.lumen.id.EntityIdGenerator;
+import io.lighting.lumen.id.IdGenerator;
+import io.lighting.lumen.id.IdGeneratorProvider;
+import io.lighting.lumen.id.IdGenerators;
+import io.lighting.lumen.jdbc.JdbcExecutor;
+import io.lighting.lumen.meta.EntityBinder;
+import io.lighting.lumen.meta.EntityBinders;
+import io.lighting.lumen.meta.EntityMeta;
+import io.lighting.lumen.meta.EntityMetaRegistry;
+import io.lighting.lumen.meta.IdMeta;
+import io.lighting.lumen.meta.IdStrategy;
+import io.lighting.lumen.meta.LogicDeleteMeta;
+import io.lighting.lumen.sql.Bind;
+import io.lighting.lumen.sql.Dialect;
+import io.lighting.lumen.sql.RenderedSql;
+import io.lighting.lumen.sql.StreamingBatch;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * 批量导入：按方言选择最快的导入通道，逐行从迭代器读取数据，内存占用与总行数无关。
+ * <ul>
+ *   <li>PostgreSQL：{@code COPY ... FROM STDIN}（通过驱动的 CopyManager）。</li>
+ *   <li>MySQL/MariaDB：{@code LOAD DATA LOCAL INFILE}，数据来自内存流；连接需开启 {@code allowLoadLocalInfile}。</li>
+ *   <li>H2 嵌入式连接：数据写入临时 CSV 文件后执行 {@code INSERT ... SELECT * FROM CSVREAD(...)}；
+ *   {@code tcp}/{@code ssl} 远程连接读不到客户端文件，走多行 VALUES。</li>
+ *   <li>其他数据库或驱动 API 不可用时：多行 {@code INSERT ... VALUES} 批量执行。</li>
+ * </ul>
+ * 文本通道中布尔值写为 {@code 1/0}，日期时间按 ISO 格式显式输出（{@code yyyy-MM-dd HH:mm:ss[.f]}，
+ * 带时区的值附加偏移量），暂不支持 {@code byte[]}。
+ * 导入完成后通过 {@link DbObserver#onBulkLoad} 上报行数、字节数与耗时。
+ */
+public final class BulkLoader {
+    static final int DEFAULT_BATCH_SIZE = 1000;
+    private static final String PG_CONNECTION = "org.postgresql.PGConnection";
+    private static final DateTimeFormatter LOCAL_DATE_TIME = new DateTimeFormatterBuilder()
+        .append(DateTimeFormatter.ISO_LOCAL_DATE)
+        .appendLiteral(' ')
+        .append(DateTimeFormatter.ISO_LOCAL_TIME)
+        .toFormatter(Locale.ROOT);
+    private static final DateTimeFormatter OFFSET_DATE_TIME = new DateTimeFormatterBuilder()
+        .append(LOCAL_DATE_TIME)
+        .appendOffset("+HH:MM", "+00:00")
+        .toFormatter(Locale.ROOT);
+    private static final List<String> LOCAL_INFILE_STATEMENTS = List.of(
+        "com.mysql.cj.jdbc.JdbcStatement",
+        "org.mariadb.jdbc.Statement"
+    );
+
+    private final Db db;
+    private final JdbcExecutor executor;
+    private final Dialect dialect;
+    private final EntityMetaRegistry metaRegistry;
+    private final List<DbObserver> observers;
+    private final int batchSize;
+    private final IdGeneratorProvider idGeneratorProvider;
+    private final Consumer<String> tableGuard;
+
+    BulkLoader(
+        Db db,
+        JdbcExecutor executor,
+        Dialect dialect,
+        EntityMetaRegistry metaRegistry,
+        List<DbObserver> observers,
+        int batchSize,
+        IdGeneratorProvider idGeneratorProvider
+    ) {
+        this(db, executor, dialect, metaRegistry, observers, batchSize, idGeneratorProvider, table -> {
+        });
+    }
+
+    private BulkLoader(
+        Db db,
+        JdbcExecutor executor,
+        Dialect dialect,
+        EntityMetaRegistry metaRegistry,
+        List<DbObserver> observers,
+        int batchSize,
+        IdGeneratorProvider idGeneratorProvider,
+        Consumer<String> tableGuard
+    ) {
+        this.db = Objects.requireNonNull(db, "db");
+        this.executor = Objects.requireNonNull(executor, "executor");
+        this.dialect = Objects.requireNonNull(dialect, "dialect");
+        this.metaRegistry = Objects.requireNonNull(metaRegistry, "metaRegistry");
+        this.observers = List.copyOf(Objects.requireNonNull(observers, "observers"));
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be >= 1");
+        }
+        this.batchSize = batchSize;
+        this.idGeneratorProvider = Objects.requireNonNull(idGeneratorProvider, "idGeneratorProvider");
+        this.tableGuard = Objects.requireNonNull(tableGuard, "tableGuard");
+    }
+
+    BulkLoader(
+        Db db,
+        JdbcExecutor executor,
+        Dialect dialect,
+        EntityMetaRegistry metaRegistry,
+        List<DbObserver> observers
+    ) {
+        this(db, executor, dialect, metaRegistry, observers, DEFAULT_BATCH_SIZE, IdGenerators::forStrategy);
+    }
+
+    /**
+     * 追加一个只作用于本导入器的观察器，供 {@link Db} 装饰器感知导入的表。
+     */
+    BulkLoader observedBy(DbObserver observer) {
+        List<DbObserver> combined = new ArrayList<>(observers);
+        combined.add(Objects.requireNonNull(observer, "observer"));
+        return new BulkLoader(db, executor, dialect, metaRegistry, combined, batchSize, idGeneratorProvider, tableGuard);
+    }
+
+    /**
+     * 每次导入前以表名调用 {@code guard}，由其抛出异常拒绝导入，供 {@link ShardingDb} 拒绝分片表。
+     */
+    BulkLoader guardedBy(Consumer<String> guard) {
+        return new BulkLoader(db, executor, dialect, metaRegistry, observers, batchSize, idGeneratorProvider, guard);
+    }
+
+    /**
+     * 多行 VALUES 通道每块的行数。
+     */
+    public BulkLoader batchSize(int size) {
+        return new BulkLoader(db, executor, dialect, metaRegistry, observers, size, idGeneratorProvider, tableGuard);
+    }
+
+    /**
+     * 非 AUTO 空主键的生成器来源，例如 {@link IdGenerators#segments(javax.sql.DataSource)}；默认
+     * {@link IdGenerators#forStrategy}。
+     */
+    public BulkLoader idGeneratorProvider(IdGeneratorProvider provider) {
+        return new BulkLoader(db, executor, dialect, metaRegistry, observers, batchSize, provider, tableGuard);
+    }
+
+    /**
+     * 导入实体，列顺序取自 {@link EntityMeta}。
+     * <p>
+     * AUTO 主键在首个实体未赋值时不写入（由数据库生成），其他策略的空主键会先生成；
+     * 逻辑删除字段为空时写入未删除值。
+     */
+    public <T> BulkLoadStats load(Class<T> entityType, Iterator<? extends T> entities) throws SQLException {
+        Objects.requireNonNull(entityType, "entityType");
+        Objects.requireNonNull(entities, "entities");
+        EntityMeta meta = metaRegistry.metaOf(entityType);
+        tableGuard.accept(meta.table());
+        if (!entities.hasNext()) {
+            return load(meta.table(), List.copyOf(meta.fieldToColumn().values()), Collections.emptyIterator());
+        }
+        @SuppressWarnings("unchecked")
+        EntityBinder<Object> binder = (EntityBinder<Object>) EntityBinders.of(entityType);
+        IdMeta idMeta = meta.idMeta().orElse(null);
+        LogicDeleteMeta logicDeleteMeta = meta.logicDeleteMeta().orElse(null);
+        T first = entities.next();
+        boolean databaseId = idMeta != null
+            && idMeta.strategy() == IdStrategy.AUTO
+            && binder.get(first, idMeta.fieldName()) == null;
+        List<String> fields = new ArrayList<>(meta.fieldToColumn().size());
+        List<String> columns = new ArrayList<>(meta.fieldToColumn().size());
+        for (var entry : meta.fieldToColumn().entrySet()) {
+            if (databaseId && entry.getKey().equals(idMeta.fieldName())) {
+                continue;
+            }
+            fields.add(entry.getKey());
+            columns.add(entry.getValue());
+        }
+        IdGenerator<?> ids = idMeta != null && idMeta.strategy() != IdStrategy.AUTO
+            ? new EntityIdGenerator(metaRegistry, idGeneratorProvider).batch(entityType, batchSize)
+            : null;
+        Iterator<Object[]> rows = new Iterator<>() {
+            private Object pending = first;
+
+            @Override
+            public boolean hasNext() {
+                return pending != null || entities.hasNext();
+            }
+
+            @Override
+            public Object[] next() {
+                Object entity = pending != null ? pending : entities.next();
+                pending = null;
+                Object[] values = new Object[fields.size()];
+                for (int i = 0; i < values.length; i++) {
+                    String field = fields.get(i);
+                    Object value = binder.get(entity, field);
+                    if (value != null) {
+                        values[i] = value;
+                    } else if (idMeta != null && field.equals(idMeta.fieldName())
+                        && idMeta.strategy() != IdStrategy.AUTO) {
+                        values[i] = ids.nextId();
+                    } else if (logicDeleteMeta != null && field.equals(logicDeleteMeta.fieldName())) {
+                        values[i] = logicDeleteMeta.activeValue();
+                    }
+                }
+                return values;
+            }
+        };
+        return load(meta.table(), columns, rows);
+    }
+
+    /**
+     * 按给定列导入数据行，每行值的个数须与列数一致。
+     */
+    public BulkLoadStats load(String table, List<String> columns, Iterator<Object[]> rows) throws SQLException {
+        Objects.requireNonNull(table, "table");
+        Objects.requireNonNull(columns, "columns");
+        Objects.requireNonNull(rows, "rows");
+        if (columns.isEmpty()) {
+            throw new IllegalArgumentException("columns must not be empty");
+        }
+        tableGuard.accept(table);
+        long start = System.nanoTime();
+        BulkLoadStats stats = switch (dialect.id()) {
+            case "postgres" -> copy(table, columns, rows, start);
+            case "mysql", "mariadb" -> loadData(table, columns, rows, start);
+            case "h2" -> csvRead(table, columns, rows, start);
+            default -> null;
+        };
+        if (stats == null) {
+            stats = multiRowValues(table, columns, rows, start);
+        }
+        for (DbObserver observer : observers) {
+            observer.onBulkLoad(stats);
+        }
+        return stats;
+    }
+
+    private BulkLoadStats copy(String table, List<String> columns, Iterator<Object[]> rows, long start)
+        throws SQLException {
+        String sql = "COPY " + dialect.quoteIdent(table) + " (" + columnList(columns) + ") FROM STDIN";
+        return executor.withConnection(conn -> {
+            Class<?> pgConnection = loadClass(PG_CONNECTION, conn);
+            if (pgConnection == null || !conn.isWrapperFor(pgConnection)) {
+                return null;
+            }
+            RowEncoder encoder = new RowEncoder(Format.TEXT, rows, columns.size());
+            return execute(BulkLoadMethod.COPY, table, sql, encoder, start, () -> {
+                Object copyApi = pgConnection.getMethod("getCopyAPI").invoke(conn.unwrap(pgConnection));
+                Method copyIn = copyApi.getClass().getMethod("copyIn", String.class, InputStream.class);
+                copyIn.invoke(copyApi, sql, encoder);
+            });
+        });
+    }
+
+    private BulkLoadStats loadData(String table, List<String> columns, Iterator<Object[]> rows, long start)
+        throws SQLException {
+        String sql = "LOAD DATA LOCAL INFILE 'lumen-bulk' INTO TABLE " + dialect.quoteIdent(table)
+            + " CHARACTER SET utf8mb4 (" + columnList(columns) + ")";
+        return executor.withConnection(conn -> {
+            try (Statement statement = conn.createStatement()) {
+                for (String className : LOCAL_INFILE_STATEMENTS) {
+                    Class<?> type = loadClass(className, conn);
+                    if (type == null || !statement.isWrapperFor(type)) {
+                        continue;
+                    }
+                    Object target = statement.unwrap(type);
+                    Method setter;
+                    try {
+                        setter = type.getMethod("setLocalInfileInputStream", InputStream.class);
+                    } catch (NoSuchMethodException ex) {
+                        continue;
+                    }
+                    RowEncoder encoder = new RowEncoder(Format.TEXT, rows, columns.size());
+                    return execute(BulkLoadMethod.LOAD_DATA, table, sql, encoder, start, () -> {
+                        setter.invoke(target, encoder);
+                        statement.executeUpdate(sql);
+                    });
+                }
+                return null;
+            }
+        });
+    }
+
+    private BulkLoadStats csvRead(String table, List<String> columns, Iterator<Object[]> rows, long start)
+        throws SQLException {
+        return executor.withConnection(conn -> {
+            if (!isEmbeddedH2(conn.getMetaData().getURL())) {
+                return null;
+            }
+            Path file;
+            try {
+                file = Files.createTempFile("lumen-bulk", ".csv");
+            } catch (IOException ex) {
+                throw new SQLException("Failed to create bulk load file", ex);
+            }
+            StringBuilder csvColumns = new StringBuilder();
+            for (int i = 1; i <= columns.size(); i++) {
+                csvColumns.append(i > 1 ? "," : "").append('C').append(i);
+            }
+            // H2 在解析阶段读取 CSVREAD 的参数，文件名与列名只能以字面量传入
+            String sql = "INSERT INTO " + dialect.quoteIdent(table) + " (" + columnList(columns) + ")"
+                + " SELECT * FROM CSVREAD(" + literal(file.toAbsolutePath().toString())
+                + ", " + literal(csvColumns.toString()) + ", 'charset=UTF-8')";
+            try {
+                RowEncoder encoder = new RowEncoder(Format.CSV, rows, columns.size());
+                return execute(BulkLoadMethod.CSVREAD, table, sql, encoder, start, () -> {
+                    try (InputStream in = encoder) {
+                        Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+                    }
+                    try (Statement statement = conn.createStatement()) {
+                        statement.executeUpdate(sql);
+                    }
+                });
+            } finally {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException ignored) {
+                    // temp file cleanup failure should not hide the load result
+                }
+            }
+        });
+    }
+
+    /**
+     * CSVREAD 由数据库进程读取文件，只有嵌入式连接（含 {@code AUTO_SERVER} 的本机连接）能读到客户端写入的临时文件。
+     */
+    static boolean isEmbeddedH2(String url) {
+        if (url == null) {
+            return false;
+        }
+        String lower = url.toLowerCase(Locale.ROOT);
+        return lower.startsWith("jdbc:h2:")
+            && !lower.startsWith("jdbc:h2:tcp:")
+            && !lower.startsWith("jdbc:h2:ssl:");
+    }
+
+    private static String literal(String value) {
+        return "'" + value.replace("'", "''") + "'";
+    }
+
+    private BulkLoadStats multiRowValues(String table, List<String> columns, Iterator<Object[]> rows, long start)
+        throws SQLException {
+        StringBuilder sql = new StringBuilder("INSERT INTO ")
+            .append(dialect.quoteIdent(table))
+            .append(" (")
+            .append(columnList(columns))
+            .append(") VALUES (");
+        for (int i = 0; i < columns.size(); i++) {
+            sql.append(i > 0 ? ", ?" : "?");
+        }
+        sql.append(')');
+        StreamingBatch batch = StreamingBatch.builder(new RenderedSql(sql.toString(), List.of()))
+            .rows(rows, row -> toBinds(row, columns.size()))
+            .batchSize(batchSize)
+            .multiRowInsert(true)
+            .build();
+        long loaded = db.executeBatch(batch);
+        return new BulkLoadStats(table, BulkLoadMethod.MULTI_ROW_VALUES, loaded, 0L, System.nanoTime() - start);
+    }
+
+    private BulkLoadStats execute(
+        BulkLoadMethod method,
+        String table,
+        String sql,
+        RowEncoder encoder,
+        long start,
+        LoadAction action
+    ) throws SQLException {
+        RenderedSql rendered = new RenderedSql(sql, List.of());
+        for (DbObserver observer : observers) {
+            observer.beforeExecute(DbOperation.COMMAND, this, rendered);
+        }
+        try {
+            action.run();
+        } catch (InvocationTargetException ex) {
+            SQLException error = toSqlException(ex.getCause());
+            notifyError(rendered, start, error);
+            throw error;
+        } catch (SQLException ex) {
+            notifyError(rendered, start, ex);
+            throw ex;
+        } catch (IOException | ReflectiveOperationException ex) {
+            SQLException error = new SQLException("Bulk load failed: " + ex.getMessage(), ex);
+            notifyError(rendered, start, error);
+            throw error;
+        }
+        long elapsed = System.nanoTime() - start;
+        int rowCount = (int) Math.min(encoder.rows(), Integer.MAX_VALUE);
+        for (DbObserver observer : observers) {
+            observer.afterExecute(DbOperation.COMMAND, this, rendered, elapsed, rowCount);
+        }
+        return new BulkLoadStats(table, method, encoder.rows(), encoder.bytes(), elapsed);
+    }
+
+    private void notifyError(RenderedSql rendered, long start, SQLException error) {
+        long elapsed = System.nanoTime() - start;
+        for (DbObserver observer : observers) {
+            observer.onExecuteError(DbOperation.COMMAND, this, rendered, elapsed, error);
+        }
+    }
+
+    private static SQLException toSqlException(Throwable cause) {
+        if (cause instanceof SQLException sqlException) {
+            return sqlException;
+        }
+        if (cause instanceof RuntimeException runtime) {
+            throw runtime;
+        }
+        return new SQLException("Bulk load failed: " + cause.getMessage(), cause);
+    }
+
+    private String columnList(List<String> columns) {
+        StringBuilder list = new StringBuilder();
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                list.append(", ");
+            }
+            list.append(dialect.quoteIdent(columns.get(i)));
+        }
+        return list.toString();
+    }
+
+    private static List<Bind> toBinds(Object[] row, int columns) {
+        checkWidth(row, columns);
+        List<Bind> binds = new ArrayList<>(row.length);
+        for (Object value : row) {
+            binds.add(value == null ? new Bind.NullValue(0) : new Bind.Value(value, 0));
+        }
+        return binds;
+    }
+
+    private static void checkWidth(Object[] row, int columns) {
+        Objects.requireNonNull(row, "row");
+        if (row.length != columns) {
+            throw new IllegalArgumentException("Bulk row expects " + columns + " values but got " + row.length);
+        }
+    }
+
+    private static Class<?> loadClass(String name, Connection conn) {
+        ClassLoader loader = conn.getClass().getClassLoader();
+        try {
+            return Class.forName(name, false, loader != null ? loader : BulkLoader.class.getClassLoader());
+        } catch (ClassNotFoundException | LinkageError ex) {
+            return null;
+        }
+    }
+
+    @FunctionalInterface
+    private interface LoadAction {
+        void run() throws SQLException, IOException, ReflectiveOperationException;
+    }
+
+    /**
+     * 行数据的文本编码。
+     */
+    enum Format {
+        /**
+         * PostgreSQL COPY / MySQL LOAD DATA 默认文本格式：制表符分隔，反斜杠转义，{@code \N} 表示 NULL。
+         */
+        TEXT {
+            @Override
+            void appendValue(StringBuilder line, String value) {
+                if (value == null) {
+                    line.append("\\N");
+                    return;
+                }
+                for (int i = 0; i < value.length(); i++) {
+                    char ch = value.charAt(i);
+                    switch (ch) {
+                        case '\\' -> line.append("\\\\");
+                        case '\t' -> line.append("\\t");
+                        case '\n' -> line.append("\\n");
+                        case '\r' -> line.append("\\r");
+                        default -> line.append(ch);
+                    }
+                }
+            }
+
+            @Override
+            char separator() {
+                return '\t';
+            }
+        },
+        /**
+         * CSV：逗号分隔，非空值一律加双引号，未加引号的空字段表示 NULL。
+         */
+        CSV {
+            @Override
+            void appendValue(StringBuilder line, String value) {
+                if (value == null) {
+                    return;
+                }
+                line.append('"').append(value.replace("\"", "\"\"")).append('"');
+            }
+
+            @Override
+            char separator() {
+                return ',';
+            }
+        };
+
+        abstract void appendValue(StringBuilder line, String value);
+
+        abstract char separator();
+
+        void appendRow(StringBuilder line, Object[] row) {
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) {
+                    line.append(separator());
+                }
+                appendValue(line, text(row[i]));
+            }
+            line.append('\n');
+        }
+
+        private static String text(Object value) {
+            if (value == null) {
+                return null;
+            }
+            if (value instanceof Boolean bool) {
+                return bool ? "1" : "0";
+            }
+            if (value instanceof Enum<?> constant) {
+                return constant.name();
+            }
+            if (value instanceof byte[]) {
+                throw new IllegalArgumentException("Unsupported bulk value type: byte[]");
+            }
+            if (value instanceof java.util.Date date) {
+                return temporalText(date);
+            }
+            if (value instanceof TemporalAccessor temporal) {
+                return temporalText(temporal);
+            }
+            return value.toString();
+        }
+
+        private static String temporalText(java.util.Date value) {
+            if (value instanceof java.sql.Date date) {
+                return DateTimeFormatter.ISO_LOCAL_DATE.format(date.toLocalDate());
+            }
+            if (value instanceof java.sql.Time time) {
+                return DateTimeFormatter.ISO_LOCAL_TIME.format(time.toLocalTime());
+            }
+            if (value instanceof java.sql.Timestamp timestamp) {
+                return LOCAL_DATE_TIME.format(timestamp.toLocalDateTime());
+            }
+            return LOCAL_DATE_TIME.format(LocalDateTime.ofInstant(value.toInstant(), ZoneId.systemDefault()));
+        }
+
+        private static String temporalText(TemporalAccessor value) {
+            if (value instanceof LocalDate date) {
+                return DateTimeFormatter.ISO_LOCAL_DATE.format(date);
+            }
+            if (value instanceof LocalTime time) {
+                return DateTimeFormatter.ISO_LOCAL_TIME.format(time);
+            }
+            if (value instanceof LocalDateTime dateTime) {
+                return LOCAL_DATE_TIME.format(dateTime);
+            }
+            if (value instanceof OffsetDateTime dateTime) {
+                return OFFSET_DATE_TIME.format(dateTime);
+            }
+            if (value instanceof ZonedDateTime dateTime) {
+                return OFFSET_DATE_TIME.format(dateTime.toOffsetDateTime());
+            }
+            if (value instanceof Instant instant) {
+                return OFFSET_DATE_TIME.format(instant.atOffset(ZoneOffset.UTC));
+            }
+            return value.toString();
+        }
+    }
+
+    /**
+     * 按需编码行数据的输入流，缓冲区只保留当前一行。
+     */
+    static final class RowEncoder extends InputStream {
+        private final Format format;
+        private final Iterator<Object[]> rows;
+        private final int columns;
+        private final StringBuilder line = new StringBuilder();
+        private byte[] buffer = new byte[0];
+        private int position;
+        private long rowCount;
+        private long byteCount;
+
+        RowEncoder(Format format, Iterator<Object[]> rows, int columns) {
+            this.format = format;
+            this.rows = rows;
+            this.columns = columns;
+        }
+
+        long rows() {
+            return rowCount;
+        }
+
+        long bytes() {
+            return byteCount;
+        }
+
+        @Override
+        public int read() {
+            if (position >= buffer.length && !fill()) {
+                return -1;
+            }
+            return buffer[position++] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] target, int offset, int length) {
+            Objects.checkFromIndexSize(offset, length, target.length);
+            if (length == 0) {
+                return 0;
+            }
+            int copied = 0;
+            while (copied < length) {
+                if (position >= buffer.length && !fill()) {
+                    break;
+                }
+                int chunk = Math.min(length - copied, buffer.length - position);
+                System.arraycopy(buffer, position, target, offset + copied, chunk);
+                position += chunk;
+                copied += chunk;
+            }
+            return copied == 0 ? -1 : copied;
+        }
+
+        private boolean fill() {
+            if (!rows.hasNext()) {
+                return false;
+            }
+            Object[] row = rows.next();
+            checkWidth(row, columns);
+            line.setLength(0);
+            format.appendRow(line, row);
+            buffer = line.toString().getBytes(StandardCharsets.UTF_8);
+            position = 0;
+            rowCount++;
+            byteCount += buffer.length;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,604 @@
+package io.lighting.lumen.db;
+
+import io.lighting.lumen.dsl.DbDsl;
+import io.lighting.lumen.jdbc.GeneratedKeyMapper;
+import io.lighting.lumen.jdbc.ResultStream;
+import io.lighting.lumen.jdbc.RowMapper;
+import io.lighting.lumen.jdbc.RowMappers;
+import io.lighting.lumen.meta.EntityAccessors;
+import io.lighting.lumen.meta.EntityMetaRegistry;
+import io.lighting.lumen.meta.FieldAccessor;
+import io.lighting.lumen.sql.BatchChunkListener;
+import io.lighting.lumen.sql.BatchSql;
+import io.lighting.lumen.sql.Bind;
+import io.lighting.lumen.sql.Bindings;
+import io.lighting.lumen.sql.RenderedSql;
+import io.lighting.lumen.sql.SqlRenderer;
+import io.lighting.lumen.sql.SqlTables;
+import io.lighting.lumen.sql.StreamingBatch;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.LongSupplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * 查询结果缓存装饰器。
+ * <p>
+ * {@link #fetch} 的结果以渲染后的 SQL、绑定参数与映射标识为键缓存，每个条目按 SQL 中引用的表打标签
+ * （见 {@link SqlTables}）。AST 的 {@code TableRef} 与模板的 {@code @table} 都会渲染为 SQL 中的表名，
+ * 读写两侧因此使用同一套标签。经由本实例执行的写操作（{@code execute}、{@code executeBatch}、
+ * 批量导入、非查询的 {@code fetch}）结束后使相关表的条目失效，无法识别表名的写操作清空整个缓存。
+ * <p>
+ * 缓存同时受条目数与估算字节数约束，超出时淘汰最久未访问的条目；可选按写入时间过期。
+ * 带锁读（{@code FOR UPDATE} 等）、{@code fetchStream} 与 {@code run} 不缓存。
+ * 绕过本实例的写入（事务内的 {@link Db}、其他进程）只能依靠过期时间或 {@link #invalidate} 收敛。
+ * <p>
+ * 映射标识依次取：{@link #fetch(Query, Class)} 的结果类型、{@link RowMappers#auto} 映射器对应的结果类型、
+ * 无实例字段的映射器（不捕获变量的 lambda、方法引用）的类，或 {@link #fetch(Query, String, RowMapper)} 显式给出的 id。
+ * 其余映射器（捕获变量的 lambda、每次新建的实例）无法判断是否等价，查询直接交给被装饰的 {@link Db}，不缓存。
+ * <p>
+ * 可缓存的查询返回不可修改的列表。缓存保存结果行的副本，命中时再复制一份返回：实体按字段浅拷贝，
+ * {@code Map}、集合、数组与 {@link Date} 复制外层，不可变值（字符串、数值、{@code java.time}、枚举、record）
+ * 以及含 final 字段的类型共享原实例。
+ */
+public final class CachingDb implements Db {
+    public static final int DEFAULT_MAX_ENTRIES = 1024;
+    public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+    private static final long ENTRY_OVERHEAD = 128L;
+    private static final ClassValue<Boolean> STATELESS = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return !hasInstanceFields(type);
+        }
+    };
+    private static final ClassValue<UnaryOperator<Object>> COPIERS = new ClassValue<>() {
+        @Override
+        protected UnaryOperator<Object> computeValue(Class<?> type) {
+            return copier(type);
+        }
+    };
+
+    private final Db delegate;
+    private final SqlRenderer renderer;
+    private final EntityMetaRegistry metaRegistry;
+    private final int maxEntries;
+    private final long maxBytes;
+    private final long expireAfterWriteNanos;
+    private final LongSupplier ticker;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Set<Key>> keysByTable = new HashMap<>();
+    private final DbObserver bulkLoadObserver = new BulkLoadObserver();
+    private long generation;
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+    private volatile DbDsl dsl;
+
+    private CachingDb(Builder builder) {
+        this.delegate = builder.delegate;
+        this.renderer = builder.renderer;
+        this.metaRegistry = builder.metaRegistry;
+        this.maxEntries = builder.maxEntries;
+        this.maxBytes = builder.maxBytes;
+        this.expireAfterWriteNanos = builder.expireAfterWrite == null ? 0L : builder.expireAfterWrite.toNanos();
+        this.ticker = builder.ticker;
+    }
+
+    /**
+     * @param renderer 用于把 AST 查询渲染为缓存键，应与被装饰 {@link Db} 的渲染器一致
+     */
+    public static Builder builder(Db delegate, SqlRenderer renderer) {
+        return new Builder(delegate, renderer);
+    }
+
+    @Override
+    public <T> List<T> fetch(Query query, RowMapper<T> mapper) throws SQLException {
+        Objects.requireNonNull(mapper, "mapper");
+        return cachedFetch(query, mapperId(mapper), mapper);
+    }
+
+    @Override
+    public <T> List<T> fetch(Query query, Class<T> type) throws SQLException {
+        Objects.requireNonNull(type, "type");
+        return cachedFetch(query, type, RowMappers.auto(type));
+    }
+
+    /**
+     * 以 {@code mapperId} 标识映射方式缓存查询结果，用于捕获变量的 lambda 等无法自动识别的映射器；
+     * 调用方保证同一 SQL 与绑定参数下，相同的 {@code mapperId} 产生相同的结果。
+     */
+    public <T> List<T> fetch(Query query, String mapperId, RowMapper<T> mapper) throws SQLException {
+        Objects.requireNonNull(mapperId, "mapperId");
+        Objects.requireNonNull(mapper, "mapper");
+        return cachedFetch(query, mapperId, mapper);
+    }
+
+    private <T> List<T> cachedFetch(Query query, Object mapperId, RowMapper<T> mapper) throws SQLException {
+        Objects.requireNonNull(query, "query");
+        RenderedSql rendered = query.render(renderer);
+        Query target = Query.of(rendered);
+        String sql = rendered.sql();
+        if (!ReadStatements.isRead(sql)) {
+            try {
+                return delegate.fetch(target, mapper);
+            } finally {
+                invalidateSql(sql);
+            }
+        }
+        Set<String> tables = SqlTables.of(sql);
+        if (mapperId == null || tables.isEmpty() || ReadStatements.isLockingRead(sql) || hasArrayBind(rendered.binds())) {
+            return delegate.fetch(target, mapper);
+        }
+        Key key = new Key(sql, rendered.binds(), mapperId);
+        long observed;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (!isExpired(entry, ticker.getAsLong())) {
+                    hits++;
+                    @SuppressWarnings("unchecked")
+                    List<T> rows = (List<T>) copyRows(entry.rows);
+                    return rows;
+                }
+                remove(key, entry);
+                evictions++;
+            }
+            misses++;
+            observed = generation;
+        }
+        List<T> rows = delegate.fetch(target, mapper);
+        long size = estimate(key, rows);
+        synchronized (this) {
+            if (observed == generation && size <= maxBytes) {
+                Entry previous = entries.get(key);
+                if (previous != null) {
+                    remove(key, previous);
+                }
+                entries.put(key, new Entry(copyRows(rows), tables, size, ticker.getAsLong()));
+                bytes += size;
+                for (String table : tables) {
+                    keysByTable.computeIfAbsent(table, ignored -> new HashSet<>()).add(key);
+                }
+                trim();
+            }
+        }
+        return Collections.unmodifiableList(rows);
+    }
+
+    @Override
+    public int execute(Command command) throws SQLException {
+        Objects.requireNonNull(command, "command");
+        RenderedSql rendered = command.render(renderer);
+        try {
+            return delegate.execute(Command.of(rendered));
+        } finally {
+            invalidateSql(rendered.sql());
+        }
+    }
+
+    @Override
+    public int[] executeBatch(BatchSql batchSql) throws SQLException {
+        Objects.requireNonNull(batchSql, "batchSql");
+        try {
+            return delegate.executeBatch(batchSql);
+        } finally {
+            invalidateSql(batchSql.template().sql());
+        }
+    }
+
+    @Override
+    public long executeBatch(StreamingBatch batch, BatchChunkListener listener) throws SQLException {
+        Objects.requireNonNull(batch, "batch");
+        try {
+            return delegate.executeBatch(batch, listener);
+        } finally {
+            invalidateSql(batch.template().sql());
+        }
+    }
+
+    @Override
+    public <T> ResultStream<T> fetchStream(Query query, RowMapper<T> mapper, int fetchSize) throws SQLException {
+        Objects.requireNonNull(query, "query");
+        RenderedSql rendered = query.render(renderer);
+        try {
+            return delegate.fetchStream(Query.of(rendered), mapper, fetchSize);
+        } finally {
+            if (!ReadStatements.isRead(rendered.sql())) {
+                invalidateSql(rendered.sql());
+            }
+        }
+    }
+
+    @Override
+    public <T> List<T> run(String sqlText, Bindings bindings, RowMapper<T> mapper) throws SQLException {
+        Objects.requireNonNull(sqlText, "sqlText");
+        try {
+            return delegate.run(sqlText, bindings, mapper);
+        } finally {
+            if (!ReadStatements.isRead(sqlText)) {
+                invalidateSql(sqlText);
+            }
+        }
+    }
+
+    @Override
+    public <T> T executeAndReturnGeneratedKey(Command command, String columnLabel, GeneratedKeyMapper<T> mapper)
+        throws SQLException {
+        Objects.requireNonNull(command, "command");
+        RenderedSql rendered = command.render(renderer);
+        try {
+            return delegate.executeAndReturnGeneratedKey(Command.of(rendered), columnLabel, mapper);
+        } finally {
+            invalidateSql(rendered.sql());
+        }
+    }
+
+    @Override
+    public <T> List<T> executeBatchAndReturnGeneratedKeys(
+        BatchSql batchSql,
+        String columnLabel,
+        GeneratedKeyMapper<T> mapper
+    ) throws SQLException {
+        Objects.requireNonNull(batchSql, "batchSql");
+        try {
+            return delegate.executeBatchAndReturnGeneratedKeys(batchSql, columnLabel, mapper);
+        } finally {
+            invalidateSql(batchSql.template().sql());
+        }
+    }
+
+    @Override
+    public BulkLoader bulkLoader() {
+        return delegate.bulkLoader().observedBy(bulkLoadObserver);
+    }
+
+    @Override
+    public Object dataSourceKey() {
+        return delegate.dataSourceKey();
+    }
+
+    @Override
+    public DbDsl dsl() {
+        if (metaRegistry == null) {
+            throw new UnsupportedOperationException("Db DSL requires CachingDb.Builder.metaRegistry");
+        }
+        DbDsl current = dsl;
+        if (current == null) {
+            synchronized (this) {
+                if (dsl == null) {
+                    dsl = new DbDsl(this, metaRegistry);
+                }
+                current = dsl;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 使引用该表的条目失效。
+     */
+    public synchronized void invalidate(String table) {
+        Objects.requireNonNull(table, "table");
+        generation++;
+        Set<Key> keys = keysByTable.remove(SqlTables.normalize(table));
+        if (keys == null) {
+            return;
+        }
+        for (Key key : keys) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                remove(key, entry);
+                invalidations++;
+            }
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        invalidations += entries.size();
+        entries.clear();
+        keysByTable.clear();
+        bytes = 0L;
+    }
+
+    public synchronized QueryCacheStats stats() {
+        return new QueryCacheStats(hits, misses, evictions, invalidations, entries.size(), bytes);
+    }
+
+    private void invalidateSql(String sql) {
+        Set<String> tables = SqlTables.of(sql);
+        if (tables.isEmpty()) {
+            invalidateAll();
+            return;
+        }
+        synchronized (this) {
+            for (String table : tables) {
+                invalidate(table);
+            }
+        }
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        return expireAfterWriteNanos > 0 && now - entry.created > expireAfterWriteNanos;
+    }
+
+    private void remove(Key key, Entry entry) {
+        entries.remove(key);
+        bytes -= entry.bytes;
+        for (String table : entry.tables) {
+            Set<Key> keys = keysByTable.get(table);
+            if (keys != null) {
+                keys.remove(key);
+                if (keys.isEmpty()) {
+                    keysByTable.remove(table);
+                }
+            }
+        }
+    }
+
+    private void trim() {
+        while ((entries.size() > maxEntries || bytes > maxBytes) && !entries.isEmpty()) {
+            Map.Entry<Key, Entry> eldest = entries.entrySet().iterator().next();
+            remove(eldest.getKey(), eldest.getValue());
+            evictions++;
+        }
+    }
+
+    private static Object mapperId(RowMapper<?> mapper) {
+        Class<?> autoType = RowMappers.autoType(mapper);
+        if (autoType != null) {
+            return autoType;
+        }
+        return STATELESS.get(mapper.getClass()) ? mapper.getClass() : null;
+    }
+
+    private static boolean hasInstanceFields(Class<?> type) {
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static List<Object> copyRows(List<?> rows) {
+        List<Object> copy = new ArrayList<>(rows.size());
+        for (Object row : rows) {
+            copy.add(copyValue(row));
+        }
+        return Collections.unmodifiableList(copy);
+    }
+
+    private static Object copyValue(Object value) {
+        if (value == null) {
+            return null;
+        }
+        return COPIERS.get(value.getClass()).apply(value);
+    }
+
+    private static UnaryOperator<Object> copier(Class<?> type) {
+        if (type.isArray()) {
+            return value -> {
+                int length = Array.getLength(value);
+                Object copy = Array.newInstance(type.getComponentType(), length);
+                System.arraycopy(value, 0, copy, 0, length);
+                return copy;
+            };
+        }
+        if (Date.class.isAssignableFrom(type)) {
+            return value -> ((Date) value).clone();
+        }
+        if (Map.class.isAssignableFrom(type)) {
+            return value -> new LinkedHashMap<>((Map<?, ?>) value);
+        }
+        if (Set.class.isAssignableFrom(type)) {
+            return value -> new LinkedHashSet<>((Set<?>) value);
+        }
+        if (Collection.class.isAssignableFrom(type)) {
+            return value -> new ArrayList<>((Collection<?>) value);
+        }
+        if (type.isEnum() || type.isRecord() || type.getName().startsWith("java.")) {
+            return UnaryOperator.identity();
+        }
+        @SuppressWarnings("unchecked")
+        UnaryOperator<Object> entity = (UnaryOperator<Object>) EntityAccessors.of(type).shallowCopier();
+        return entity;
+    }
+
+    private static boolean hasArrayBind(List<Bind> binds) {
+        for (Bind bind : binds) {
+            if (bind instanceof Bind.Value value && value.value().getClass().isArray()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long estimate(Key key, List<?> rows) {
+        long size = ENTRY_OVERHEAD + 2L * key.sql.length() + 32L * key.binds.size() + 16L * rows.size();
+        for (Object row : rows) {
+            size += sizeOf(row, 2);
+        }
+        return size;
+    }
+
+    private static long sizeOf(Object value, int depth) {
+        if (value == null || value instanceof Enum<?> || value instanceof Boolean) {
+            return 0L;
+        }
+        if (value instanceof CharSequence text) {
+            return 40L + 2L * text.length();
+        }
+        if (value instanceof BigDecimal || value instanceof BigInteger) {
+            return 48L;
+        }
+        if (value instanceof Number || value instanceof Character) {
+            return 16L;
+        }
+        if (value instanceof Temporal || value instanceof Date) {
+            return 32L;
+        }
+        if (value instanceof byte[] data) {
+            return 16L + data.length;
+        }
+        if (value.getClass().isArray()) {
+            int length = Array.getLength(value);
+            long size = 16L + 8L * length;
+            if (depth > 0 && !value.getClass().getComponentType().isPrimitive()) {
+                for (int i = 0; i < length; i++) {
+                    size += sizeOf(Array.get(value, i), depth - 1);
+                }
+            }
+            return size;
+        }
+        if (value instanceof Map<?, ?> map) {
+            long size = 48L + 32L * map.size();
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                size += sizeOf(entry.getKey(), depth - 1) + sizeOf(entry.getValue(), depth - 1);
+            }
+            return size;
+        }
+        if (value instanceof Collection<?> collection) {
+            long size = 32L + 8L * collection.size();
+            for (Object element : collection) {
+                size += sizeOf(element, depth - 1);
+            }
+            return size;
+        }
+        if (depth <= 0 || value.getClass().getName().startsWith("java.")) {
+            return 32L;
+        }
+        try {
+            long size = 16L;
+            for (FieldAccessor field : EntityAccessors.of(value.getClass()).fields()) {
+                size += 8L + sizeOf(field.get(value), depth - 1);
+            }
+            return size;
+        } catch (RuntimeException ex) {
+            return 64L;
+        }
+    }
+
+    private record Key(String sql, List<Bind> binds, Object mapperId) {
+    }
+
+    private static final class Entry {
+        private final List<?> rows;
+        private final Set<String> tables;
+        private final long bytes;
+        private final long created;
+
+        private Entry(List<?> rows, Set<String> tables, long bytes, long created) {
+            this.rows = rows;
+            this.tables = tables;
+            this.bytes = bytes;
+            this.created = created;
+        }
+    }
+
+    private final class BulkLoadObserver implements DbObserver {
+        @Override
+        public void onExecuteError(
+            DbOperation operation,
+            Object source,
+            RenderedSql rendered,
+            long elapsedNanos,
+            Exception error
+        ) {
+            invalidateSql(rendered.sql());
+        }
+
+        @Override
+        public void onBulkLoad(BulkLoadStats stats) {
+            invalidate(stats.table());
+        }
+    }
+
+    public static final class Builder {
+        private final Db delegate;
+        private final SqlRenderer renderer;
+        private EntityMetaRegistry metaRegistry;
+        private int maxEntries = DEFAULT_MAX_ENTRIES;
+        private long maxBytes = DEFAULT_MAX_BYTES;
+        private Duration expireAfterWrite;
+        private LongSupplier ticker = System::nanoTime;
+
+        private Builder(Db delegate, SqlRenderer renderer) {
+            this.delegate = Objects.requireNonNull(delegate, "delegate");
+            this.renderer = Objects.requireNonNull(renderer, "renderer");
+        }
+
+        /**
+         * 提供后 {@link CachingDb#dsl()} 可用，DSL 查询同样经过缓存。
+         */
+        public Builder metaRegistry(EntityMetaRegistry metaRegistry) {
+            this.metaRegistry = Objects.requireNonNull(metaRegistry, "metaRegistry");
+            return this;
+        }
+
+        public Builder maxEntries(int maxEntries) {
+            if (maxEntries < 1) {
+                throw new IllegalArgumentException("maxEntries must be >= 1");
+            }
+            this.maxEntries = maxEntries;
+            return this;
+        }
+
+        /**
+         * 所有条目估算字节数之和的上限；单个结果超过该值时不缓存。
+         */
+        public Builder maxBytes(long maxBytes) {
+            if (maxBytes < 1) {
+                throw new IllegalArgumentException("maxBytes must be >= 1");
+            }
+            this.maxBytes = maxBytes;
+            return this;
+        }
+
+        /**
+         * 条目写入后超过该时长即过期；{@code null} 表示只依靠写操作失效。
+         */
+        public Builder expireAfterWrite(Duration expireAfterWrite) {
+            if (expireAfterWrite != null && (expireAfterWrite.isNegative() || expireAfterWrite.isZero())) {
+                throw new IllegalArgumentException("expireAfterWrite must be positive");
+            }
+            this.expireAfterWrite = expireAfterWrite;
+            return this;
+        }
+
+        /**
+         * 纳秒时钟，用于过期判断，默认 {@link System#nanoTime()}。
+         */
+        public Builder ticker(LongSupplier ticker) {
+            this.ticker = Objects.requireNonNull(ticker, "ticker");
+            return this;
+        }
+
+        public CachingDb build() {
+            return new CachingDb(this);
+        }
+    }
+}
@@ -1,17 +1,50 @@
 package io.lighting.lumen.db;
 
+import io.lighting.lumen.sql.Bindings;
 import io.lighting.lumen.sql.RenderedSql;
 import io.lighting.lumen.sql.SqlRenderer;
+import io.lighting.lumen.sql.ast.Stmt;
 import java.util.Objects;
 
-public sealed interface Command permits RenderedCommand {
+public sealed interface Command permits AstCommand, RenderedCommand {
     RenderedSql render(SqlRenderer renderer);
 
+    /**
+     * 以 AST 表示的写语句，执行时由 {@link Db} 的渲染器渲染；{@link ShardingDb} 据此按分片键路由。
+     */
+    static Command of(Stmt stmt, Bindings bindings) {
+        return new AstCommand(stmt, bindings);
+    }
+
     static Command of(RenderedSql renderedSql) {
         return new RenderedCommand(renderedSql);
     }
 }
 
+final class AstCommand implements Command {
+    private final Stmt stmt;
+    private final Bindings bindings;
+
+    AstCommand(Stmt stmt, Bindings bindings) {
+        this.stmt = Objects.requireNonNull(stmt, "stmt");
+        this.bindings = Objects.requireNonNull(bindings, "bindings");
+    }
+
+    @Override
+    public RenderedSql render(SqlRenderer renderer) {
+        Objects.requireNonNull(renderer, "renderer");
+        return renderer.render(stmt, bindings);
+    }
+
+    Stmt stmt() {
+        return stmt;
+    }
+
+    Bindings bindings() {
+        return bindings;
+    }
+}
+
 final class RenderedCommand implements Command {
     private final RenderedSql renderedSql;
 
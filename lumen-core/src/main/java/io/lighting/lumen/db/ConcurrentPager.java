@@ -0,0 +1,45 @@
+package io.lighting.lumen.db;
+
+import io.lighting.lumen.jdbc.RowMapper;
+import io.lighting.lumen.page.PageRequest;
+import io.lighting.lumen.page.PageResult;
+import io.lighting.lumen.page.PageSql;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+/**
+ * 并发分页：count 查询在 {@code executor} 上与数据查询同时执行，各自从连接池获取连接。
+ */
+final class ConcurrentPager {
+    private ConcurrentPager() {
+    }
+
+    static <T> PageResult<T> page(
+        Db db,
+        Executor executor,
+        Query pageQuery,
+        Query countQuery,
+        PageRequest pageRequest,
+        RowMapper<T> mapper
+    ) throws SQLException {
+        FutureTask<List<Long>> count = new FutureTask<>(() -> db.fetch(countQuery, rs -> rs.getLong(1)));
+        executor.execute(count);
+        List<T> items;
+        try {
+            items = db.fetch(pageQuery, mapper);
+        } catch (SQLException | RuntimeException | Error ex) {
+            count.cancel(false);
+            throw ex;
+        }
+        long known = PageSql.knownTotal(pageRequest.page(), pageRequest.pageSize(), items.size());
+        if (known != PageResult.TOTAL_UNKNOWN) {
+            count.cancel(false);
+            return new PageResult<>(items, pageRequest.page(), pageRequest.pageSize(), known);
+        }
+        List<Long> totals = QueryExecutors.await(count, "count query");
+        long total = totals.isEmpty() ? 0L : totals.get(0);
+        return new PageResult<>(items, pageRequest.page(), pageRequest.pageSize(), total);
+    }
+}
@@ -5,11 +5,21 @@ import io.lighting.lumen.jdbc.ResultStream;
 import io.lighting.lumen.jdbc.GeneratedKeyMapper;
 import io.lighting.lumen.jdbc.RowMappers;
 import io.lighting.lumen.dsl.DbDsl;
+import io.lighting.lumen.page.KeysetPage;
+import io.lighting.lumen.page.KeysetPageRequest;
 import io.lighting.lumen.page.PageRequest;
 import io.lighting.lumen.page.PageResult;
+import io.lighting.lumen.page.PageSql;
+import io.lighting.lumen.sql.BatchChunkListener;
 import io.lighting.lumen.sql.BatchSql;
+import io.lighting.lumen.sql.Bind;
 import io.lighting.lumen.sql.Bindings;
+import io.lighting.lumen.sql.RenderedSql;
+import io.lighting.lumen.sql.StreamingBatch;
+import io.lighting.lumen.sql.ast.SelectStmt;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 
@@ -33,6 +43,37 @@ public interface Db {
 
     int[] executeBatch(BatchSql batchSql) throws SQLException;
 
+    default long executeBatch(StreamingBatch batch) throws SQLException {
+        return executeBatch(batch, BatchChunkListener.none());
+    }
+
+    /**
+     * 流式批量执行：每攒满 {@link StreamingBatch#batchSize()} 行提交一次并回调 {@code listener}。
+     * <p>
+     * 默认实现把每块行物化为 {@link BatchSql} 后调用 {@link #executeBatch(BatchSql)}，内存占用不超过一块。
+     *
+     * @return 提交的总行数
+     */
+    default long executeBatch(StreamingBatch batch, BatchChunkListener listener) throws SQLException {
+        Objects.requireNonNull(batch, "batch");
+        Objects.requireNonNull(listener, "listener");
+        Iterator<? extends List<Bind>> rows = batch.rows();
+        long submitted = 0L;
+        while (rows.hasNext()) {
+            BatchSql.Builder chunk = BatchSql.builder(batch.template())
+                .batchSize(batch.batchSize())
+                .multiRowInsert(batch.multiRowInsert());
+            int size = 0;
+            while (size < batch.batchSize() && rows.hasNext()) {
+                chunk.add(rows.next());
+                size++;
+            }
+            listener.onChunk(submitted, executeBatch(chunk.build()));
+            submitted += size;
+        }
+        return submitted;
+    }
+
     <T> ResultStream<T> fetchStream(Query query, RowMapper<T> mapper, int fetchSize) throws SQLException;
 
     <T> List<T> run(String sqlText, Bindings bindings, RowMapper<T> mapper) throws SQLException;
@@ -41,7 +82,31 @@ public interface Db {
         throws SQLException;
 
     /**
-     * 执行分页查询，按需执行 count 查询。
+     * 批量执行 INSERT 并按行顺序返回数据库生成的主键。
+     * <p>
+     * 默认实现逐行调用 {@link #executeAndReturnGeneratedKey}；具体实现可按方言批量获取。
+     *
+     * @param batchSql    单行 INSERT 模板与各行绑定参数
+     * @param columnLabel 生成主键的列名（未加引号）
+     * @param mapper      主键映射器
+     * @return 与 {@link BatchSql#batches()} 一一对应的主键
+     */
+    default <T> List<T> executeBatchAndReturnGeneratedKeys(
+        BatchSql batchSql,
+        String columnLabel,
+        GeneratedKeyMapper<T> mapper
+    ) throws SQLException {
+        Objects.requireNonNull(batchSql, "batchSql");
+        List<T> keys = new ArrayList<>(batchSql.totalBatches());
+        for (List<Bind> binds : batchSql.batches()) {
+            RenderedSql rendered = new RenderedSql(batchSql.template().sql(), binds);
+            keys.add(executeAndReturnGeneratedKey(Command.of(rendered), columnLabel, mapper));
+        }
+        return keys;
+    }
+
+    /**
+     * 执行分页查询，按需执行 count 查询；当前页未取满时总数已可确定，跳过 count 查询。
      *
      * @param pageQuery  已包含分页的查询
      * @param countQuery count 查询（当 {@link PageRequest#searchCount()} 为 true 时必须提供）
@@ -67,12 +132,52 @@ public interface Db {
         if (countQuery == null) {
             throw new IllegalArgumentException("countQuery is required when searchCount is true");
         }
+        long known = PageSql.knownTotal(pageRequest.page(), pageRequest.pageSize(), items.size());
+        if (known != PageResult.TOTAL_UNKNOWN) {
+            return new PageResult<>(items, pageRequest.page(), pageRequest.pageSize(), known);
+        }
         List<Long> totals = fetch(countQuery, rs -> rs.getLong(1));
         long total = totals.isEmpty() ? 0L : totals.get(0);
         return new PageResult<>(items, pageRequest.page(), pageRequest.pageSize(), total);
     }
 
+    /**
+     * 执行键集分页查询：排序键取自 {@code stmt} 的 {@code ORDER BY}，{@code stmt} 不能带分页。
+     * 多取一行判断是否还有下一页，排序键不在查询列中时附加到查询列末尾读取。
+     *
+     * @param stmt     带 {@code ORDER BY} 的查询
+     * @param bindings 参数绑定
+     * @param request  键集分页请求，其 {@link KeysetPageRequest#sort()} 在此忽略
+     * @param mapper   行映射器
+     * @param <T>      结果类型
+     * @return 键集分页结果
+     * @throws SQLException 数据库访问异常
+     */
+    default <T> KeysetPage<T> keysetPage(
+        SelectStmt stmt,
+        Bindings bindings,
+        KeysetPageRequest request,
+        RowMapper<T> mapper
+    ) throws SQLException {
+        return KeysetPager.fetch(this, stmt, bindings, request, mapper);
+    }
+
+    /**
+     * 按方言选择导入通道的批量导入器，见 {@link BulkLoader}。
+     */
+    default BulkLoader bulkLoader() {
+        throw new UnsupportedOperationException("Bulk loading is not available for this implementation");
+    }
+
     default DbDsl dsl() {
         throw new UnsupportedOperationException("Db DSL is not available for this implementation");
     }
+
+    /**
+     * 标识该 Db 背后的数据源，供 {@link io.lighting.lumen.cache.EntityCache#forDb} 等按数据源共享的状态使用：
+     * 事务内的 Db 与同一数据源上的非事务 Db 返回同一个键。默认返回自身。
+     */
+    default Object dataSourceKey() {
+        return this;
+    }
 }
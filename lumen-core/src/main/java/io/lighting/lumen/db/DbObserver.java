@@ -96,4 +96,12 @@ public interface DbObserver {
         Exception error
     ) {
     }
+
+    /**
+     * 批量导入完成回调，见 {@link BulkLoader}。
+     *
+     * @param stats 导入行数、字节数与耗时，可据此计算行/秒与字节/秒
+     */
+    default void onBulkLoad(BulkLoadStats stats) {
+    }
 }
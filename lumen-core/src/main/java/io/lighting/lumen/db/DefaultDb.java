@@ -1,22 +1,33 @@
 package io.lighting.lumen.db;
 
+import io.lighting.lumen.id.IdGeneratorProvider;
+import io.lighting.lumen.id.IdGenerators;
 import io.lighting.lumen.jdbc.JdbcExecutor;
 import io.lighting.lumen.jdbc.GeneratedKeyMapper;
 import io.lighting.lumen.jdbc.RowMapper;
 import io.lighting.lumen.jdbc.ResultStream;
 import io.lighting.lumen.meta.EntityMetaRegistry;
+import io.lighting.lumen.page.PageRequest;
+import io.lighting.lumen.page.PageResult;
+import io.lighting.lumen.sql.BatchChunkListener;
 import io.lighting.lumen.sql.BatchSql;
+import io.lighting.lumen.sql.Bind;
 import io.lighting.lumen.sql.Bindings;
 import io.lighting.lumen.sql.Dialect;
+import io.lighting.lumen.sql.GeneratedKeyStrategy;
+import io.lighting.lumen.sql.MultiRowInsert;
 import io.lighting.lumen.sql.RenderedSql;
 import io.lighting.lumen.sql.SqlRenderer;
+import io.lighting.lumen.sql.StreamingBatch;
 import io.lighting.lumen.dsl.DbDsl;
 import io.lighting.lumen.template.EntityNameResolver;
-import io.lighting.lumen.template.SqlTemplate;
+import io.lighting.lumen.template.SqlTemplateCache;
 import io.lighting.lumen.template.TemplateContext;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.Executor;
 import java.util.function.Supplier;
 
 public final class DefaultDb implements Db {
@@ -26,6 +37,10 @@ public final class DefaultDb implements Db {
     private final EntityMetaRegistry metaRegistry;
     private final EntityNameResolver entityNameResolver;
     private final List<DbObserver> observers;
+    private final SqlTemplateCache templateCache;
+    private final Executor pageCountExecutor;
+    private final IdGeneratorProvider idGeneratorProvider;
+    private final Object dataSourceKey;
     private volatile DbDsl dsl;
 
     public DefaultDb(
@@ -35,7 +50,7 @@ public final class DefaultDb implements Db {
         EntityMetaRegistry metaRegistry,
         EntityNameResolver entityNameResolver
     ) {
-        this(executor, renderer, dialect, metaRegistry, entityNameResolver, List.of());
+        this(builder(executor, renderer, dialect, metaRegistry, entityNameResolver));
     }
 
     public DefaultDb(
@@ -46,12 +61,52 @@ public final class DefaultDb implements Db {
         EntityNameResolver entityNameResolver,
         List<DbObserver> observers
     ) {
-        this.executor = Objects.requireNonNull(executor, "executor");
-        this.renderer = Objects.requireNonNull(renderer, "renderer");
-        this.dialect = Objects.requireNonNull(dialect, "dialect");
-        this.metaRegistry = Objects.requireNonNull(metaRegistry, "metaRegistry");
-        this.entityNameResolver = Objects.requireNonNull(entityNameResolver, "entityNameResolver");
-        this.observers = List.copyOf(Objects.requireNonNull(observers, "observers"));
+        this(builder(executor, renderer, dialect, metaRegistry, entityNameResolver).observers(observers));
+    }
+
+    private DefaultDb(Builder builder) {
+        this.executor = builder.executor;
+        this.renderer = builder.renderer;
+        this.dialect = builder.dialect;
+        this.metaRegistry = builder.metaRegistry;
+        this.entityNameResolver = builder.entityNameResolver;
+        this.observers = builder.observers;
+        this.templateCache = builder.templateCache == null ? SqlTemplateCache.builder().build() : builder.templateCache;
+        this.pageCountExecutor = builder.pageCountExecutor;
+        this.idGeneratorProvider = builder.idGeneratorProvider;
+        if (builder.dataSourceKey != null) {
+            this.dataSourceKey = builder.dataSourceKey;
+        } else {
+            this.dataSourceKey = executor.dataSource() != null ? executor.dataSource() : this;
+        }
+    }
+
+    /**
+     * 以必需的组件创建构建器，其余选项均有默认值。
+     */
+    public static Builder builder(
+        JdbcExecutor executor,
+        SqlRenderer renderer,
+        Dialect dialect,
+        EntityMetaRegistry metaRegistry,
+        EntityNameResolver entityNameResolver
+    ) {
+        return new Builder(executor, renderer, dialect, metaRegistry, entityNameResolver);
+    }
+
+    /**
+     * 默认为执行器的数据源；绑定单个连接的执行器默认为自身，可通过 {@link Builder#dataSourceKey} 指定。
+     */
+    @Override
+    public Object dataSourceKey() {
+        return dataSourceKey;
+    }
+
+    /**
+     * {@link #run} 使用的模板解析缓存。
+     */
+    public SqlTemplateCache templateCache() {
+        return templateCache;
     }
 
     @Override
@@ -61,6 +116,26 @@ public final class DefaultDb implements Db {
         return executeFetch(DbOperation.QUERY, query, rendered, mapper);
     }
 
+    @Override
+    public <T> PageResult<T> page(
+        Query pageQuery,
+        Query countQuery,
+        PageRequest pageRequest,
+        RowMapper<T> mapper
+    ) throws SQLException {
+        if (pageCountExecutor == null
+            || countQuery == null
+            || pageRequest == null
+            || !pageRequest.searchCount()
+            || executor.isConnectionBound()
+            || TransactionManager.isActive()) {
+            return Db.super.page(pageQuery, countQuery, pageRequest, mapper);
+        }
+        Objects.requireNonNull(pageQuery, "pageQuery");
+        Objects.requireNonNull(mapper, "mapper");
+        return ConcurrentPager.page(this, pageCountExecutor, pageQuery, countQuery, pageRequest, mapper);
+    }
+
     @Override
     public int execute(Command command) throws SQLException {
         Objects.requireNonNull(command, "command");
@@ -75,11 +150,13 @@ public final class DefaultDb implements Db {
         notifyBeforeExecute(DbOperation.COMMAND, batchSql, template);
         long start = System.nanoTime();
         try {
-            int[] results = executor.executeBatch(
-                template,
-                batchSql.batches(),
-                batchSql.batchSize()
-            );
+            MultiRowInsert insert = batchSql.multiRowInsert() ? MultiRowInsert.parse(template.sql()) : null;
+            int rowsPerStatement = insert == null
+                ? 1
+                : insert.rowsPerStatement(dialect.maxBindParameters(), dialect.maxInsertRows(), batchSql.batchSize());
+            int[] results = rowsPerStatement > 1
+                ? executor.executeMultiRowInsert(insert, batchSql.batches(), rowsPerStatement)
+                : executor.executeBatch(template, batchSql.batches(), batchSql.batchSize());
             notifyAfterExecute(DbOperation.COMMAND, batchSql, template, start, results.length);
             return results;
         } catch (SQLException ex) {
@@ -88,6 +165,29 @@ public final class DefaultDb implements Db {
         }
     }
 
+    @Override
+    public long executeBatch(StreamingBatch batch, BatchChunkListener listener) throws SQLException {
+        Objects.requireNonNull(batch, "batch");
+        Objects.requireNonNull(listener, "listener");
+        RenderedSql template = batch.template();
+        notifyBeforeExecute(DbOperation.COMMAND, batch, template);
+        long start = System.nanoTime();
+        try {
+            MultiRowInsert insert = batch.multiRowInsert() ? MultiRowInsert.parse(template.sql()) : null;
+            int rowsPerStatement = insert == null
+                ? 1
+                : insert.rowsPerStatement(dialect.maxBindParameters(), dialect.maxInsertRows(), batch.batchSize());
+            long submitted = rowsPerStatement > 1
+                ? executor.executeMultiRowInsert(insert, batch.rows(), rowsPerStatement, listener)
+                : executor.executeBatch(template, batch.rows(), batch.batchSize(), listener);
+            notifyAfterExecute(DbOperation.COMMAND, batch, template, start, (int) Math.min(submitted, Integer.MAX_VALUE));
+            return submitted;
+        } catch (SQLException ex) {
+            notifyExecuteError(DbOperation.COMMAND, batch, template, start, ex);
+            throw ex;
+        }
+    }
+
     @Override
     public <T> ResultStream<T> fetchStream(Query query, RowMapper<T> mapper, int fetchSize) throws SQLException {
         Objects.requireNonNull(query, "query");
@@ -125,6 +225,73 @@ public final class DefaultDb implements Db {
         }
     }
 
+    /**
+     * 按 {@link Dialect#generatedKeyStrategy()} 批量获取生成主键；RETURNING/OUTPUT 改写不适用的模板
+     * 以及 {@link GeneratedKeyStrategy#PER_ROW} 逐行执行。
+     */
+    @Override
+    public <T> List<T> executeBatchAndReturnGeneratedKeys(
+        BatchSql batchSql,
+        String columnLabel,
+        GeneratedKeyMapper<T> mapper
+    ) throws SQLException {
+        Objects.requireNonNull(batchSql, "batchSql");
+        Objects.requireNonNull(columnLabel, "columnLabel");
+        Objects.requireNonNull(mapper, "mapper");
+        RenderedSql template = batchSql.template();
+        notifyBeforeExecute(DbOperation.COMMAND, batchSql, template);
+        long start = System.nanoTime();
+        try {
+            List<T> keys = executeReturningKeys(batchSql, columnLabel, mapper);
+            notifyAfterExecute(DbOperation.COMMAND, batchSql, template, start, keys.size());
+            return keys;
+        } catch (SQLException ex) {
+            notifyExecuteError(DbOperation.COMMAND, batchSql, template, start, ex);
+            throw ex;
+        }
+    }
+
+    private <T> List<T> executeReturningKeys(
+        BatchSql batchSql,
+        String columnLabel,
+        GeneratedKeyMapper<T> mapper
+    ) throws SQLException {
+        RenderedSql template = batchSql.template();
+        GeneratedKeyStrategy strategy = dialect.generatedKeyStrategy();
+        if (strategy == GeneratedKeyStrategy.JDBC_BATCH) {
+            return executor.executeBatchAndReturnGeneratedKeys(
+                template,
+                batchSql.batches(),
+                batchSql.batchSize(),
+                columnLabel,
+                mapper
+            );
+        }
+        MultiRowInsert insert = strategy == GeneratedKeyStrategy.PER_ROW ? null : MultiRowInsert.parse(template.sql());
+        if (insert != null) {
+            int rowsPerStatement = insert.rowsPerStatement(
+                dialect.maxBindParameters(),
+                dialect.maxInsertRows(),
+                batchSql.batchSize()
+            );
+            return executor.executeReturningInsert(
+                insert.returning(strategy, dialect.quoteIdent(columnLabel)),
+                batchSql.batches(),
+                rowsPerStatement,
+                mapper
+            );
+        }
+        List<T> keys = new ArrayList<>(batchSql.totalBatches());
+        for (List<Bind> binds : batchSql.batches()) {
+            keys.add(executor.executeAndReturnGeneratedKey(
+                new RenderedSql(template.sql(), binds),
+                columnLabel,
+                mapper
+            ));
+        }
+        return keys;
+    }
+
     @Override
     public <T> List<T> run(String sqlText, Bindings bindings, RowMapper<T> mapper) throws SQLException {
         Objects.requireNonNull(sqlText, "sqlText");
@@ -133,19 +300,31 @@ public final class DefaultDb implements Db {
             DbOperation.TEMPLATE,
             sqlText,
             () -> {
-                SqlTemplate template = SqlTemplate.parse(sqlText);
                 TemplateContext context = new TemplateContext(
                     bindings.asMap(),
                     dialect,
                     metaRegistry,
                     entityNameResolver
                 );
-                return template.render(context);
+                return templateCache.get(sqlText).render(context);
             }
         );
         return executeFetch(DbOperation.TEMPLATE, sqlText, rendered, mapper);
     }
 
+    @Override
+    public BulkLoader bulkLoader() {
+        return new BulkLoader(
+            this,
+            executor,
+            dialect,
+            metaRegistry,
+            observers,
+            BulkLoader.DEFAULT_BATCH_SIZE,
+            idGeneratorProvider
+        );
+    }
+
     @Override
     public DbDsl dsl() {
         DbDsl current = dsl;
@@ -269,4 +448,74 @@ public final class DefaultDb implements Db {
             observer.onExecuteError(operation, source, rendered, elapsed, error);
         }
     }
+
+    public static final class Builder {
+        private final JdbcExecutor executor;
+        private final SqlRenderer renderer;
+        private final Dialect dialect;
+        private final EntityMetaRegistry metaRegistry;
+        private final EntityNameResolver entityNameResolver;
+        private List<DbObserver> observers = List.of();
+        private SqlTemplateCache templateCache;
+        private Executor pageCountExecutor;
+        private IdGeneratorProvider idGeneratorProvider = IdGenerators::forStrategy;
+        private Object dataSourceKey;
+
+        private Builder(
+            JdbcExecutor executor,
+            SqlRenderer renderer,
+            Dialect dialect,
+            EntityMetaRegistry metaRegistry,
+            EntityNameResolver entityNameResolver
+        ) {
+            this.executor = Objects.requireNonNull(executor, "executor");
+            this.renderer = Objects.requireNonNull(renderer, "renderer");
+            this.dialect = Objects.requireNonNull(dialect, "dialect");
+            this.metaRegistry = Objects.requireNonNull(metaRegistry, "metaRegistry");
+            this.entityNameResolver = Objects.requireNonNull(entityNameResolver, "entityNameResolver");
+        }
+
+        public Builder observers(List<DbObserver> observers) {
+            this.observers = List.copyOf(Objects.requireNonNull(observers, "observers"));
+            return this;
+        }
+
+        /**
+         * {@link DefaultDb#run} 使用的模板解析缓存，可与其他 Db 共用同一实例；默认每个 Db 新建一个。
+         */
+        public Builder templateCache(SqlTemplateCache templateCache) {
+            this.templateCache = Objects.requireNonNull(templateCache, "templateCache");
+            return this;
+        }
+
+        /**
+         * 非 {@code null} 时 {@link DefaultDb#page} 在事务外把 count 查询提交到该执行器，与数据查询并发执行，
+         * 两者各占一个连接；默认 {@code null}，即顺序执行。绑定单连接的执行器始终顺序执行。
+         */
+        public Builder pageCountExecutor(Executor pageCountExecutor) {
+            this.pageCountExecutor = pageCountExecutor;
+            return this;
+        }
+
+        /**
+         * {@link DefaultDb#bulkLoader()} 为非 AUTO 空主键取号的生成器来源，应与 DAO 使用的一致；默认 {@link IdGenerators#forStrategy}。
+         */
+        public Builder idGeneratorProvider(IdGeneratorProvider idGeneratorProvider) {
+            this.idGeneratorProvider = Objects.requireNonNull(idGeneratorProvider, "idGeneratorProvider");
+            return this;
+        }
+
+        /**
+         * {@link DefaultDb#dataSourceKey()} 的返回值，绑定单个连接的执行器应传入该连接所属的数据源，
+         * 使其与同一数据源上的其他 Db 共享按数据源划分的状态。
+         */
+        public Builder dataSourceKey(Object dataSourceKey) {
+            this.dataSourceKey = Objects.requireNonNull(dataSourceKey, "dataSourceKey");
+            return this;
+        }
+
+        public DefaultDb build() {
+            return new DefaultDb(this);
+        }
+    }
 }
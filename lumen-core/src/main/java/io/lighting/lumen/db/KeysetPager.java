@@ -0,0 +1,122 @@
+package io.lighting.lumen.db;
+
+import io.lighting.lumen.jdbc.RowMapper;
+import io.lighting.lumen.page.KeysetCursor;
+import io.lighting.lumen.page.KeysetPage;
+import io.lighting.lumen.page.KeysetPageRequest;
+import io.lighting.lumen.page.KeysetSql;
+import io.lighting.lumen.sql.Bindings;
+import io.lighting.lumen.sql.ast.Expr;
+import io.lighting.lumen.sql.ast.OrderItem;
+import io.lighting.lumen.sql.ast.Paging;
+import io.lighting.lumen.sql.ast.SelectItem;
+import io.lighting.lumen.sql.ast.SelectStmt;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * {@link Db#keysetPage} 的实现：追加游标条件与 {@code pageSize + 1} 的限制，并从最后一行读取下一页游标。
+ */
+final class KeysetPager {
+    private static final String KEY_ALIAS = "lumen_key_";
+
+    private KeysetPager() {
+    }
+
+    static <T> KeysetPage<T> fetch(
+        Db db,
+        SelectStmt stmt,
+        Bindings bindings,
+        KeysetPageRequest request,
+        RowMapper<T> mapper
+    ) throws SQLException {
+        Objects.requireNonNull(stmt, "stmt");
+        Objects.requireNonNull(bindings, "bindings");
+        Objects.requireNonNull(request, "request");
+        Objects.requireNonNull(mapper, "mapper");
+        List<OrderItem> orderBy = stmt.orderBy();
+        if (orderBy.isEmpty()) {
+            throw new IllegalArgumentException("Keyset pagination requires ORDER BY");
+        }
+        if (stmt.paging() != null) {
+            throw new IllegalArgumentException("Keyset pagination query must not set paging");
+        }
+        Expr where = stmt.where();
+        if (!request.isFirst()) {
+            Expr seek = KeysetSql.seek(orderBy, KeysetCursor.decode(request.cursor()));
+            where = where == null ? seek : new Expr.And(List.of(where, seek));
+        }
+        List<SelectItem> items = new ArrayList<>(stmt.select());
+        int[] keyColumns = new int[orderBy.size()];
+        for (int i = 0; i < keyColumns.length; i++) {
+            Expr key = orderBy.get(i).expr();
+            int index = selectIndex(stmt.select(), key);
+            if (index < 0) {
+                items.add(new SelectItem(key, KEY_ALIAS + i));
+                index = items.size() - 1;
+            }
+            keyColumns[i] = index + 1;
+        }
+        SelectStmt pageStmt = new SelectStmt(
+            items,
+            stmt.from(),
+            stmt.joins(),
+            where,
+            stmt.groupBy(),
+            stmt.having(),
+            orderBy,
+            new Paging(1, request.pageSize() + 1)
+        );
+        List<Keyed<T>> rows = db.fetch(Query.of(pageStmt, bindings), new KeyedMapper<>(mapper, keyColumns));
+        int size = Math.min(rows.size(), request.pageSize());
+        List<T> pageItems = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            pageItems.add(rows.get(i).row());
+        }
+        String nextCursor = rows.size() > request.pageSize()
+            ? KeysetCursor.encode(Arrays.asList(rows.get(size - 1).keys()))
+            : null;
+        return new KeysetPage<>(pageItems, request.pageSize(), nextCursor);
+    }
+
+    private static int selectIndex(List<SelectItem> items, Expr key) {
+        for (int i = 0; i < items.size(); i++) {
+            SelectItem item = items.get(i);
+            if (item.expr().equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private record Keyed<T>(T row, Object[] keys) {
+    }
+
+    private static final class KeyedMapper<T> implements RowMapper<Keyed<T>> {
+        private final RowMapper<T> mapper;
+        private final int[] keyColumns;
+
+        private KeyedMapper(RowMapper<T> mapper, int[] keyColumns) {
+            this.mapper = mapper;
+            this.keyColumns = keyColumns;
+        }
+
+        @Override
+        public Keyed<T> map(ResultSet resultSet) throws SQLException {
+            Object[] keys = new Object[keyColumns.length];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = resultSet.getObject(keyColumns[i]);
+            }
+            return new Keyed<>(mapper.map(resultSet), keys);
+        }
+
+        @Override
+        public RowMapper<Keyed<T>> forResultSet(ResultSet resultSet) throws SQLException {
+            return new KeyedMapper<>(mapper.forResultSet(resultSet), keyColumns);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package io.lighting.lumen.db;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 定长、无锁的对数-线性延迟直方图。
+ * <p>
+ * 每个 2 的幂区间再均分为 {@value #SUB_BUCKETS} 个桶，相对误差不超过 12.5%；
+ * 低于 1µs 的值归入首个桶，超过约 73 分钟的值归入末尾桶。每个实例固定占用约 2KB。
+ */
+final class LatencyHistogram {
+    private static final int SUB_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int MIN_EXPONENT = 10;
+    private static final int MAX_EXPONENT = 42;
+    /**
+     * 首个桶收纳低于 1µs 的值，随后是各 2 的幂区间的常规桶，末尾单独一个溢出桶。
+     */
+    private static final int BUCKETS = 1 + (MAX_EXPONENT - MIN_EXPONENT + 1) * SUB_BUCKETS + 1;
+    private static final int OVERFLOW = BUCKETS - 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    void record(long nanos) {
+        long value = Math.max(0L, nanos);
+        counts.incrementAndGet(index(value));
+        total.addAndGet(value);
+        long current = max.get();
+        while (value > current && !max.compareAndSet(current, value)) {
+            current = max.get();
+        }
+    }
+
+    /**
+     * 读取快照；与并发写入之间不加锁，计数与总耗时可能相差正在写入的少量样本。
+     */
+    SqlStatementStats.Latency snapshot() {
+        long[] snapshot = new long[BUCKETS];
+        long count = 0L;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            count += snapshot[i];
+        }
+        long maxNanos = max.get();
+        return new SqlStatementStats.Latency(
+            count,
+            total.get(),
+            percentile(snapshot, count, 0.50, maxNanos),
+            percentile(snapshot, count, 0.95, maxNanos),
+            percentile(snapshot, count, 0.99, maxNanos),
+            maxNanos
+        );
+    }
+
+    static int index(long nanos) {
+        if (nanos < (1L << MIN_EXPONENT)) {
+            return 0;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        if (exponent > MAX_EXPONENT) {
+            return OVERFLOW;
+        }
+        int sub = (int) (nanos >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return 1 + (exponent - MIN_EXPONENT) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * 桶的上界（含）。
+     */
+    static long upperBound(int index) {
+        if (index == 0) {
+            return (1L << MIN_EXPONENT) - 1;
+        }
+        if (index == OVERFLOW) {
+            return Long.MAX_VALUE;
+        }
+        int exponent = MIN_EXPONENT + (index - 1) / SUB_BUCKETS;
+        int sub = (index - 1) % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BITS);
+        return (1L << exponent) + (sub + 1) * width - 1;
+    }
+
+    private static long percentile(long[] counts, long count, double quantile, long maxNanos) {
+        if (count == 0) {
+            return 0L;
+        }
+        long rank = (long) Math.ceil(quantile * count);
+        long seen = 0L;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), maxNanos);
+            }
+        }
+        return maxNanos;
+    }
+}
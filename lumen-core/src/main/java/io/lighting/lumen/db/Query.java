@@ -4,8 +4,17 @@ import io.lighting.lumen.page.PageSql;
 import io.lighting.lumen.sql.Bindings;
 import io.lighting.lumen.sql.RenderedSql;
 import io.lighting.lumen.sql.SqlRenderer;
+import io.lighting.lumen.sql.ast.Expr;
+import io.lighting.lumen.sql.ast.Join;
+import io.lighting.lumen.sql.ast.JoinType;
+import io.lighting.lumen.sql.ast.SelectItem;
+import io.lighting.lumen.sql.ast.SelectStmt;
 import io.lighting.lumen.sql.ast.Stmt;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
+import java.util.Set;
 
 public sealed interface Query permits AstQuery, RenderedQuery, CountQuery {
     RenderedSql render(SqlRenderer renderer);
@@ -18,6 +27,13 @@ public sealed interface Query permits AstQuery, RenderedQuery, CountQuery {
         return new RenderedQuery(renderedSql);
     }
 
+    /**
+     * 构建 count 查询。
+     * <p>
+     * 来源为不带分页的 {@link SelectStmt} 时在 AST 上改写：去掉 {@code ORDER BY} 与未被引用的 to-one
+     * {@code LEFT JOIN}（见 {@link Join#toOne()}），没有 {@code GROUP BY}、{@code HAVING}、{@code DISTINCT}
+     * 与聚合列时直接生成 {@code SELECT COUNT(*) FROM ...}；其余情况包装为 {@code SELECT COUNT(*) FROM (...)}。
+     */
     static Query count(Query source) {
         return new CountQuery(source);
     }
@@ -37,6 +53,14 @@ final class AstQuery implements Query {
         Objects.requireNonNull(renderer, "renderer");
         return renderer.render(stmt, bindings);
     }
+
+    Stmt stmt() {
+        return stmt;
+    }
+
+    Bindings bindings() {
+        return bindings;
+    }
 }
 
 final class RenderedQuery implements Query {
@@ -59,9 +83,145 @@ final class CountQuery implements Query {
         this.source = Objects.requireNonNull(source, "source");
     }
 
+    private static final Set<String> AGGREGATES = Set.of(
+        "COUNT", "SUM", "AVG", "MIN", "MAX", "GROUP_CONCAT", "STRING_AGG", "LISTAGG", "ARRAY_AGG"
+    );
+
     @Override
     public RenderedSql render(SqlRenderer renderer) {
+        if (source instanceof AstQuery ast && ast.stmt() instanceof SelectStmt select && select.paging() == null) {
+            boolean direct = select.groupBy().isEmpty() && select.having() == null && plainSelect(select.select());
+            List<Join> joins = keptJoins(select, direct);
+            if (direct) {
+                SelectStmt count = new SelectStmt(
+                    List.of(new SelectItem(new Expr.Func("COUNT", List.of(new Expr.RawSql("*"))), null)),
+                    select.from(),
+                    joins,
+                    select.where(),
+                    List.of(),
+                    null,
+                    List.of(),
+                    null
+                );
+                return renderer.render(count, ast.bindings());
+            }
+            SelectStmt trimmed = new SelectStmt(
+                select.select(),
+                select.from(),
+                joins,
+                select.where(),
+                select.groupBy(),
+                select.having(),
+                List.of(),
+                null
+            );
+            return PageSql.wrapCount(renderer.render(trimmed, ast.bindings()));
+        }
         RenderedSql base = source.render(renderer);
         return PageSql.wrapCount(base);
     }
+
+    /**
+     * 从后往前去掉不影响行数的连接：to-one 的 {@code LEFT JOIN}，且其表未被查询列、条件、分组及其余连接引用。
+     * 无限定的列或原生 SQL 片段无法判断归属，视为引用了所有表。
+     */
+    private static List<Join> keptJoins(SelectStmt select, boolean direct) {
+        List<Join> joins = new ArrayList<>(select.joins());
+        for (int i = joins.size() - 1; i >= 0; i--) {
+            Join join = joins.get(i);
+            if (join.type() != JoinType.LEFT_JOIN || !join.toOne()) {
+                continue;
+            }
+            String qualifier = join.table().alias() == null ? join.table().tableName() : join.table().alias();
+            List<Expr> uses = new ArrayList<>();
+            if (!direct) {
+                for (SelectItem item : select.select()) {
+                    uses.add(item.expr());
+                }
+            }
+            if (select.where() != null) {
+                uses.add(select.where());
+            }
+            uses.addAll(select.groupBy());
+            if (select.having() != null) {
+                uses.add(select.having());
+            }
+            for (Join other : joins) {
+                if (other != join) {
+                    uses.add(other.on());
+                }
+            }
+            if (uses.stream().noneMatch(use -> references(use, qualifier))) {
+                joins.remove(i);
+            }
+        }
+        return joins;
+    }
+
+    private static boolean references(Expr expr, String qualifier) {
+        if (expr instanceof Expr.Column column) {
+            return column.tableAlias() == null || column.tableAlias().equals(qualifier);
+        }
+        if (expr instanceof Expr.RawSql) {
+            return true;
+        }
+        List<Expr> children;
+        if (expr instanceof Expr.And and) {
+            children = and.items();
+        } else if (expr instanceof Expr.Or or) {
+            children = or.items();
+        } else if (expr instanceof Expr.Not not) {
+            children = List.of(not.item());
+        } else if (expr instanceof Expr.Compare compare) {
+            children = List.of(compare.left(), compare.right());
+        } else if (expr instanceof Expr.In in) {
+            children = new ArrayList<>(in.rights());
+            children.add(in.left());
+        } else if (expr instanceof Expr.Like like) {
+            children = List.of(like.left(), like.pattern());
+        } else if (expr instanceof Expr.Row row) {
+            children = row.items();
+        } else if (expr instanceof Expr.Func func) {
+            children = func.args();
+        } else {
+            return false;
+        }
+        for (Expr child : children) {
+            if (references(child, qualifier)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 查询列是否逐行对应：不含聚合函数与原生 SQL 片段（可能带 {@code DISTINCT}）。
+     */
+    private static boolean plainSelect(List<SelectItem> items) {
+        for (SelectItem item : items) {
+            if (!plain(item.expr())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean plain(Expr expr) {
+        if (expr instanceof Expr.Column || expr instanceof Expr.Literal || expr instanceof Expr.Param) {
+            return true;
+        }
+        if (expr instanceof Expr.Func func && !AGGREGATES.contains(func.name().toUpperCase(Locale.ROOT))) {
+            for (Expr arg : func.args()) {
+                if (!plain(arg)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    Query source() {
+        return source;
+    }
 }
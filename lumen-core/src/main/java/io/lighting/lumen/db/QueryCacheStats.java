@@ -0,0 +1,18 @@
+package io.lighting.lumen.db;
+
+/**
+ * {@link CachingDb} 的统计快照。
+ * <p>
+ * {@code evictions} 为容量、字节上限与过期淘汰次数，{@code invalidations} 为写操作引起的失效条目数，
+ * {@code bytes} 为当前条目的估算内存占用。
+ */
+public record QueryCacheStats(long hits, long misses, long evictions, long invalidations, int size, long bytes) {
+    public long requests() {
+        return hits + misses;
+    }
+
+    public double hitRate() {
+        long requests = requests();
+        return requests == 0 ? 0d : (double) hits / requests;
+    }
+}
@@ -0,0 +1,123 @@
+package io.lighting.lumen.db;
+
+import java.lang.reflect.Method;
+import java.sql.SQLException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 并行查询使用的执行器：{@link io.lighting.lumen.Lumen.Builder#concurrentPageCount} 的 count 查询与
+ * {@link ShardingDb} 的多节点查询各用一个，互不排队。
+ * <p>
+ * 运行在 Java 21 及以上时通过反射取得 {@code Executors.newVirtualThreadPerTaskExecutor()}，每个任务一个虚拟线程，
+ * 等待 JDBC 的任务不占用平台线程；更早的运行时退回到有界守护线程池。
+ */
+public final class QueryExecutors {
+    /**
+     * 退回线程池时每个线程池的线程数上限。
+     */
+    public static final int DEFAULT_THREADS = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+
+    private QueryExecutors() {
+    }
+
+    /**
+     * 并发 count 查询的默认执行器：虚拟线程可用时每个任务一个虚拟线程，否则为最多 {@link #DEFAULT_THREADS}
+     * 个线程的守护线程池（线程名 {@code lumen-count-N}）。
+     */
+    public static Executor pageCount() {
+        return PageCount.EXECUTOR;
+    }
+
+    /**
+     * {@link ShardingDb} 多节点查询的默认执行器，与 {@link #pageCount()} 相互独立：虚拟线程可用时每个任务一个虚拟线程，
+     * 否则为最多 {@link #DEFAULT_THREADS} 个线程的守护线程池（线程名 {@code lumen-shard-N}）。
+     */
+    public static Executor sharding() {
+        return Sharding.EXECUTOR;
+    }
+
+    /**
+     * 当前运行时是否使用虚拟线程执行并行查询。
+     */
+    public static boolean virtualThreads() {
+        return VirtualThreads.FACTORY != null;
+    }
+
+    /**
+     * 等待 {@code task} 完成并还原其异常：{@link SQLException}、{@link RuntimeException} 与 {@link Error} 原样抛出，
+     * 其他异常与中断包装为 {@link SQLException}。
+     */
+    static <T> T await(Future<T> task, String description) throws SQLException {
+        try {
+            return task.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            task.cancel(true);
+            throw new SQLException("Interrupted while waiting for " + description, ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new SQLException(description + " failed", cause);
+        }
+    }
+
+    private static Executor create(String threadPrefix) {
+        if (VirtualThreads.FACTORY != null) {
+            try {
+                return (Executor) VirtualThreads.FACTORY.invoke(null);
+            } catch (ReflectiveOperationException ex) {
+                // 与启动时探测结果不一致时退回线程池
+            }
+        }
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            DEFAULT_THREADS,
+            DEFAULT_THREADS,
+            60L,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            runnable -> {
+                Thread thread = new Thread(runnable, threadPrefix + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        );
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static final class VirtualThreads {
+        private static final Method FACTORY = lookup();
+
+        private static Method lookup() {
+            try {
+                return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            } catch (NoSuchMethodException ex) {
+                return null;
+            }
+        }
+    }
+
+    private static final class PageCount {
+        private static final Executor EXECUTOR = create("lumen-count-");
+    }
+
+    private static final class Sharding {
+        private static final Executor EXECUTOR = create("lumen-shard-");
+    }
+}
@@ -0,0 +1,51 @@
+package io.lighting.lumen.db;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * 按 SQL 文本判断语句是否为只读查询，供缓存与读写分离使用。
+ */
+final class ReadStatements {
+    private static final Pattern WRITE_KEYWORD = Pattern.compile(
+        "\\b(INSERT|UPDATE|DELETE|MERGE|UPSERT|REPLACE)\\b",
+        Pattern.CASE_INSENSITIVE
+    );
+    private static final Pattern LOCKING_READ = Pattern.compile(
+        "\\bFOR\\s+(UPDATE|SHARE|NO\\s+KEY\\s+UPDATE|KEY\\s+SHARE)\\b|\\bLOCK\\s+IN\\s+SHARE\\s+MODE\\b",
+        Pattern.CASE_INSENSITIVE
+    );
+
+    private ReadStatements() {
+    }
+
+    /**
+     * 以 {@code SELECT} 开头，或以 {@code WITH} 开头且不含写关键字。
+     */
+    static boolean isRead(String sql) {
+        String keyword = firstKeyword(sql);
+        if (keyword.equals("SELECT")) {
+            return true;
+        }
+        return keyword.equals("WITH") && !WRITE_KEYWORD.matcher(sql).find();
+    }
+
+    /**
+     * {@code FOR UPDATE}、{@code FOR SHARE} 等带锁读。
+     */
+    static boolean isLockingRead(String sql) {
+        return LOCKING_READ.matcher(sql).find();
+    }
+
+    static String firstKeyword(String sql) {
+        int i = 0;
+        while (i < sql.length() && (Character.isWhitespace(sql.charAt(i)) || sql.charAt(i) == '(')) {
+            i++;
+        }
+        int start = i;
+        while (i < sql.length() && Character.isLetter(sql.charAt(i))) {
+            i++;
+        }
+        return sql.substring(start, i).toUpperCase(Locale.ROOT);
+    }
+}
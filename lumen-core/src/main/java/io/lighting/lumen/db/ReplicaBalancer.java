@@ -0,0 +1,48 @@
+package io.lighting.lumen.db;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * 副本负载均衡策略，见 {@link ReplicaRoutingDb}。
+ */
+@FunctionalInterface
+public interface ReplicaBalancer {
+    /**
+     * 选择本次读取使用的副本。
+     *
+     * @param replicaCount 副本数量，至少为 1
+     * @param inFlight     按副本下标返回当前正在执行的读取数
+     * @return 副本下标，范围 {@code [0, replicaCount)}
+     */
+    int select(int replicaCount, IntUnaryOperator inFlight);
+
+    /**
+     * 轮询。
+     */
+    static ReplicaBalancer roundRobin() {
+        AtomicInteger next = new AtomicInteger();
+        return (replicaCount, inFlight) -> Math.floorMod(next.getAndIncrement(), replicaCount);
+    }
+
+    /**
+     * 选择进行中读取最少的副本；并列时从轮询位置开始查找，避免总是落在第一个副本。
+     */
+    static ReplicaBalancer leastInFlight() {
+        AtomicInteger next = new AtomicInteger();
+        return (replicaCount, inFlight) -> {
+            int start = Math.floorMod(next.getAndIncrement(), replicaCount);
+            int best = start;
+            int bestLoad = inFlight.applyAsInt(start);
+            for (int offset = 1; offset < replicaCount && bestLoad > 0; offset++) {
+                int index = (start + offset) % replicaCount;
+                int load = inFlight.applyAsInt(index);
+                if (load < bestLoad) {
+                    best = index;
+                    bestLoad = load;
+                }
+            }
+            return best;
+        };
+    }
+}
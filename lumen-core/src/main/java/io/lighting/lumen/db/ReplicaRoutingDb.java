@@ -0,0 +1,352 @@
+package io.lighting.lumen.db;
+
+import io.lighting.lumen.dsl.DbDsl;
+import io.lighting.lumen.jdbc.GeneratedKeyMapper;
+import io.lighting.lumen.jdbc.ResultStream;
+import io.lighting.lumen.jdbc.RowMapper;
+import io.lighting.lumen.meta.EntityMetaRegistry;
+import io.lighting.lumen.page.PageRequest;
+import io.lighting.lumen.page.PageResult;
+import io.lighting.lumen.sql.BatchChunkListener;
+import io.lighting.lumen.sql.BatchSql;
+import io.lighting.lumen.sql.Bindings;
+import io.lighting.lumen.sql.RenderedSql;
+import io.lighting.lumen.sql.SqlRenderer;
+import io.lighting.lumen.sql.StreamingBatch;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * 读写分离路由。
+ * <p>
+ * 只读查询（{@code fetch}、{@code fetchStream}、{@code run}）按 {@link ReplicaBalancer} 分发到副本，
+ * 其余操作以及以下读取走主库：
+ * <ul>
+ *   <li>非 {@code SELECT} 语句与带锁读（{@code FOR UPDATE} 等）；</li>
+ *   <li>当前线程处于 {@link TransactionManager#inTransaction} 回调中；</li>
+ *   <li>当前线程在粘滞窗口内经由本实例写过数据或结束过事务（读己之写）。</li>
+ * </ul>
+ * 粘滞窗口应覆盖副本的复制延迟；跨线程、跨进程的写入不触发粘滞，需要强一致读取时使用 {@link #primary()}。
+ */
+public final class ReplicaRoutingDb implements Db {
+    public static final Duration DEFAULT_STICKY_WINDOW = Duration.ofSeconds(1);
+
+    private final Db primary;
+    private final List<Db> replicas;
+    private final SqlRenderer renderer;
+    private final EntityMetaRegistry metaRegistry;
+    private final ReplicaBalancer balancer;
+    private final long stickyWindowNanos;
+    private final AtomicIntegerArray inFlight;
+    private final ThreadLocal<Long> lastWriteNanos = new ThreadLocal<>();
+    private final DbObserver bulkLoadObserver = new BulkLoadObserver();
+    private volatile DbDsl dsl;
+
+    private ReplicaRoutingDb(Builder builder) {
+        this.primary = builder.primary;
+        this.replicas = List.copyOf(builder.replicas);
+        this.renderer = builder.renderer;
+        this.metaRegistry = builder.metaRegistry;
+        this.balancer = builder.balancer;
+        this.stickyWindowNanos = builder.stickyWindow.toNanos();
+        this.inFlight = new AtomicIntegerArray(replicas.size());
+    }
+
+    /**
+     * @param renderer 用于渲染查询以判断是否只读，应与各 {@link Db} 的渲染器一致
+     */
+    public static Builder builder(Db primary, SqlRenderer renderer) {
+        return new Builder(primary, renderer);
+    }
+
+    /**
+     * 主库；需要强一致读取时直接使用。
+     */
+    public Db primary() {
+        return primary;
+    }
+
+    public List<Db> replicas() {
+        return replicas;
+    }
+
+    /**
+     * 指定副本上正在执行的读取数（含未关闭的 {@link ResultStream}）。
+     */
+    public int inFlight(int replica) {
+        return inFlight.get(replica);
+    }
+
+    @Override
+    public <T> List<T> fetch(Query query, RowMapper<T> mapper) throws SQLException {
+        Objects.requireNonNull(query, "query");
+        RenderedSql rendered = query.render(renderer);
+        Query target = Query.of(rendered);
+        if (routeToPrimary(rendered.sql())) {
+            return write(() -> primary.fetch(target, mapper), rendered.sql());
+        }
+        int replica = acquireReplica();
+        try {
+            return replicas.get(replica).fetch(target, mapper);
+        } finally {
+            inFlight.decrementAndGet(replica);
+        }
+    }
+
+    @Override
+    public <T> ResultStream<T> fetchStream(Query query, RowMapper<T> mapper, int fetchSize) throws SQLException {
+        Objects.requireNonNull(query, "query");
+        RenderedSql rendered = query.render(renderer);
+        Query target = Query.of(rendered);
+        if (routeToPrimary(rendered.sql())) {
+            return write(() -> primary.fetchStream(target, mapper, fetchSize), rendered.sql());
+        }
+        int replica = acquireReplica();
+        ResultStream<T> stream;
+        try {
+            stream = replicas.get(replica).fetchStream(target, mapper, fetchSize);
+        } catch (SQLException | RuntimeException ex) {
+            inFlight.decrementAndGet(replica);
+            throw ex;
+        }
+        return stream.onClose(() -> inFlight.decrementAndGet(replica));
+    }
+
+    /**
+     * 数据查询与 count 查询路由到同一节点，由该节点执行分页（可能并发执行，见 {@link DefaultDb}）。
+     */
+    @Override
+    public <T> PageResult<T> page(
+        Query pageQuery,
+        Query countQuery,
+        PageRequest pageRequest,
+        RowMapper<T> mapper
+    ) throws SQLException {
+        Objects.requireNonNull(pageQuery, "pageQuery");
+        RenderedSql rendered = pageQuery.render(renderer);
+        Query target = Query.of(rendered);
+        if (routeToPrimary(rendered.sql())) {
+            return write(() -> primary.page(target, countQuery, pageRequest, mapper), rendered.sql());
+        }
+        int replica = acquireReplica();
+        try {
+            return replicas.get(replica).page(target, countQuery, pageRequest, mapper);
+        } finally {
+            inFlight.decrementAndGet(replica);
+        }
+    }
+
+    @Override
+    public <T> List<T> run(String sqlText, Bindings bindings, RowMapper<T> mapper) throws SQLException {
+        Objects.requireNonNull(sqlText, "sqlText");
+        if (routeToPrimary(sqlText)) {
+            return write(() -> primary.run(sqlText, bindings, mapper), sqlText);
+        }
+        int replica = acquireReplica();
+        try {
+            return replicas.get(replica).run(sqlText, bindings, mapper);
+        } finally {
+            inFlight.decrementAndGet(replica);
+        }
+    }
+
+    @Override
+    public int execute(Command command) throws SQLException {
+        try {
+            return primary.execute(command);
+        } finally {
+            markWrite();
+        }
+    }
+
+    @Override
+    public int[] executeBatch(BatchSql batchSql) throws SQLException {
+        try {
+            return primary.executeBatch(batchSql);
+        } finally {
+            markWrite();
+        }
+    }
+
+    @Override
+    public long executeBatch(StreamingBatch batch, BatchChunkListener listener) throws SQLException {
+        try {
+            return primary.executeBatch(batch, listener);
+        } finally {
+            markWrite();
+        }
+    }
+
+    @Override
+    public <T> T executeAndReturnGeneratedKey(Command command, String columnLabel, GeneratedKeyMapper<T> mapper)
+        throws SQLException {
+        try {
+            return primary.executeAndReturnGeneratedKey(command, columnLabel, mapper);
+        } finally {
+            markWrite();
+        }
+    }
+
+    @Override
+    public <T> List<T> executeBatchAndReturnGeneratedKeys(
+        BatchSql batchSql,
+        String columnLabel,
+        GeneratedKeyMapper<T> mapper
+    ) throws SQLException {
+        try {
+            return primary.executeBatchAndReturnGeneratedKeys(batchSql, columnLabel, mapper);
+        } finally {
+            markWrite();
+        }
+    }
+
+    @Override
+    public BulkLoader bulkLoader() {
+        return primary.bulkLoader().observedBy(bulkLoadObserver);
+    }
+
+    @Override
+    public Object dataSourceKey() {
+        return primary.dataSourceKey();
+    }
+
+    @Override
+    public DbDsl dsl() {
+        if (metaRegistry == null) {
+            throw new UnsupportedOperationException("Db DSL requires ReplicaRoutingDb.Builder.metaRegistry");
+        }
+        DbDsl current = dsl;
+        if (current == null) {
+            synchronized (this) {
+                if (dsl == null) {
+                    dsl = new DbDsl(this, metaRegistry);
+                }
+                current = dsl;
+            }
+        }
+        return current;
+    }
+
+    private boolean routeToPrimary(String sql) {
+        if (replicas.isEmpty() || TransactionManager.isActive()) {
+            return true;
+        }
+        if (!ReadStatements.isRead(sql) || ReadStatements.isLockingRead(sql)) {
+            return true;
+        }
+        return isSticky();
+    }
+
+    private boolean isSticky() {
+        if (stickyWindowNanos == 0L) {
+            return false;
+        }
+        long now = System.nanoTime();
+        Long written = lastWriteNanos.get();
+        if (written != null && now - written < stickyWindowNanos) {
+            return true;
+        }
+        Long committed = TransactionManager.lastCompletedNanos();
+        return committed != null && now - committed < stickyWindowNanos;
+    }
+
+    private int acquireReplica() {
+        int replica = balancer.select(replicas.size(), inFlight::get);
+        if (replica < 0 || replica >= replicas.size()) {
+            throw new IllegalStateException("ReplicaBalancer returned " + replica + " for " + replicas.size() + " replicas");
+        }
+        inFlight.incrementAndGet(replica);
+        return replica;
+    }
+
+    private <T> T write(PrimaryCall<T> call, String sql) throws SQLException {
+        try {
+            return call.apply();
+        } finally {
+            if (!ReadStatements.isRead(sql)) {
+                markWrite();
+            }
+        }
+    }
+
+    private void markWrite() {
+        if (stickyWindowNanos > 0L) {
+            lastWriteNanos.set(System.nanoTime());
+        }
+    }
+
+    @FunctionalInterface
+    private interface PrimaryCall<T> {
+        T apply() throws SQLException;
+    }
+
+    private final class BulkLoadObserver implements DbObserver {
+        @Override
+        public void onBulkLoad(BulkLoadStats stats) {
+            markWrite();
+        }
+    }
+
+    public static final class Builder {
+        private final Db primary;
+        private final SqlRenderer renderer;
+        private final List<Db> replicas = new ArrayList<>();
+        private EntityMetaRegistry metaRegistry;
+        private ReplicaBalancer balancer = ReplicaBalancer.roundRobin();
+        private Duration stickyWindow = DEFAULT_STICKY_WINDOW;
+
+        private Builder(Db primary, SqlRenderer renderer) {
+            this.primary = Objects.requireNonNull(primary, "primary");
+            this.renderer = Objects.requireNonNull(renderer, "renderer");
+        }
+
+        public Builder addReplica(Db replica) {
+            replicas.add(Objects.requireNonNull(replica, "replica"));
+            return this;
+        }
+
+        public Builder replicas(List<? extends Db> replicas) {
+            Objects.requireNonNull(replicas, "replicas");
+            for (Db replica : replicas) {
+                addReplica(replica);
+            }
+            return this;
+        }
+
+        /**
+         * 副本负载均衡策略，默认 {@link ReplicaBalancer#roundRobin()}。
+         */
+        public Builder balancer(ReplicaBalancer balancer) {
+            this.balancer = Objects.requireNonNull(balancer, "balancer");
+            return this;
+        }
+
+        /**
+         * 写入或事务结束后当前线程的读取继续走主库的时长，{@link Duration#ZERO} 表示关闭。
+         */
+        public Builder stickyWindow(Duration stickyWindow) {
+            Objects.requireNonNull(stickyWindow, "stickyWindow");
+            if (stickyWindow.isNegative()) {
+                throw new IllegalArgumentException("stickyWindow must be >= 0");
+            }
+            this.stickyWindow = stickyWindow;
+            return this;
+        }
+
+        /**
+         * 提供后 {@link ReplicaRoutingDb#dsl()} 可用，DSL 查询同样按读写分离路由。
+         */
+        public Builder metaRegistry(EntityMetaRegistry metaRegistry) {
+            this.metaRegistry = Objects.requireNonNull(metaRegistry, "metaRegistry");
+            return this;
+        }
+
+        public ReplicaRoutingDb build() {
+            return new ReplicaRoutingDb(this);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package io.lighting.lumen.db;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * 分片键到分片序号的映射策略，见 {@link ShardingRule}。
+ */
+@FunctionalInterface
+public interface ShardStrategy {
+    /**
+     * @param key        分片键值，非 {@code null}
+     * @param shardCount 分片数量
+     * @return 分片序号，范围 {@code [0, shardCount)}
+     */
+    int shardOf(Object key, int shardCount);
+
+    /**
+     * 取模分片：整数键（{@code byte}/{@code short}/{@code int}/{@code long}、{@link BigInteger}、
+     * 无小数部分的 {@link BigDecimal}）按数值取模，{@link String} 按 {@code hashCode()}、枚举按 {@code name()}、
+     * {@link UUID} 按高低 64 位异或后取模，结果跨 JVM 与重启保持不变。
+     * 其他类型的 {@code hashCode()} 不保证稳定，抛出 {@link IllegalArgumentException}。
+     */
+    static ShardStrategy hash() {
+        return (key, shardCount) -> {
+            if (key instanceof Long || key instanceof Integer || key instanceof Short || key instanceof Byte) {
+                return (int) Math.floorMod(((Number) key).longValue(), (long) shardCount);
+            }
+            if (key instanceof BigInteger integer) {
+                return integer.mod(BigInteger.valueOf(shardCount)).intValue();
+            }
+            if (key instanceof BigDecimal decimal && decimal.stripTrailingZeros().scale() <= 0) {
+                return decimal.toBigInteger().mod(BigInteger.valueOf(shardCount)).intValue();
+            }
+            if (key instanceof String text) {
+                return Math.floorMod(text.hashCode(), shardCount);
+            }
+            if (key instanceof Enum<?> constant) {
+                return Math.floorMod(constant.name().hashCode(), shardCount);
+            }
+            if (key instanceof UUID uuid) {
+                long bits = uuid.getMostSignificantBits() ^ uuid.getLeastSignificantBits();
+                return (int) Math.floorMod(bits, (long) shardCount);
+            }
+            throw new IllegalArgumentException("Hash shard key must be an integer, String, enum or UUID: "
+                + key.getClass().getName());
+        };
+    }
+
+    /**
+     * 范围分片：分片 {@code i} 保存小于 {@code upperBounds[i]} 且不小于前一个上界的键，最后一个分片保存其余的键，
+     * 分片数量因此为 {@code upperBounds.length + 1}。键须为整数。
+     */
+    static ShardStrategy range(long... upperBounds) {
+        Objects.requireNonNull(upperBounds, "upperBounds");
+        long[] bounds = upperBounds.clone();
+        for (int i = 1; i < bounds.length; i++) {
+            if (bounds[i] <= bounds[i - 1]) {
+                throw new IllegalArgumentException("upperBounds must be strictly increasing");
+            }
+        }
+        return (key, shardCount) -> {
+            if (shardCount != bounds.length + 1) {
+                throw new IllegalStateException(
+                    "Range strategy with " + bounds.length + " bounds needs " + (bounds.length + 1) + " shards"
+                );
+            }
+            if (!(key instanceof Number number)) {
+                throw new IllegalArgumentException("Range shard key must be a number: " + key.getClass().getName());
+            }
+            int index = Arrays.binarySearch(bounds, number.longValue());
+            return index >= 0 ? index + 1 : -index - 1;
+        };
+    }
+}
@@ -0,0 +1,1137 @@
+package io.lighting.lumen.db;
+
+import io.lighting.lumen.dsl.DbDsl;
+import io.lighting.lumen.jdbc.GeneratedKeyMapper;
+import io.lighting.lumen.jdbc.ResultStream;
+import io.lighting.lumen.jdbc.RowMapper;
+import io.lighting.lumen.meta.EntityMetaRegistry;
+import io.lighting.lumen.page.PageRequest;
+import io.lighting.lumen.page.PageResult;
+import io.lighting.lumen.page.PageSql;
+import io.lighting.lumen.sql.BatchSql;
+import io.lighting.lumen.sql.Bind;
+import io.lighting.lumen.sql.Bindings;
+import io.lighting.lumen.sql.RenderedSql;
+import io.lighting.lumen.sql.SqlRenderer;
+import io.lighting.lumen.sql.SqlTables;
+import io.lighting.lumen.sql.ast.DeleteStmt;
+import io.lighting.lumen.sql.ast.Expr;
+import io.lighting.lumen.sql.ast.InsertStmt;
+import io.lighting.lumen.sql.ast.Join;
+import io.lighting.lumen.sql.ast.OrderItem;
+import io.lighting.lumen.sql.ast.Paging;
+import io.lighting.lumen.sql.ast.SelectItem;
+import io.lighting.lumen.sql.ast.SelectStmt;
+import io.lighting.lumen.sql.ast.Stmt;
+import io.lighting.lumen.sql.ast.TableRef;
+import io.lighting.lumen.sql.ast.UpdateItem;
+import io.lighting.lumen.sql.ast.UpdateStmt;
+import io.lighting.lumen.template.EntityNameResolver;
+import io.lighting.lumen.template.EntityNameResolvers;
+import io.lighting.lumen.template.SqlTemplateCache;
+import io.lighting.lumen.template.TemplateContext;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 水平分片路由。
+ * <p>
+ * 按 {@link ShardingRule} 把逻辑表映射到（数据源，物理表）节点。AST 语句（{@link Query#of(Stmt, Bindings)}、
+ * {@link Command#of(Stmt, Bindings)}，DSL 与 DAO 的 CRUD 均使用）按 {@code WHERE} 中分片键的等值或 {@code IN}
+ * 条件与 {@code INSERT} 各行的分片键值确定节点；无法确定时发往全部节点。{@code UPDATE} 只按 {@code WHERE} 路由，
+ * 对分片键的赋值不能把已定位的行移到其他节点，否则抛出 {@link IllegalArgumentException}。
+ * 多节点查询并行执行：有 {@code ORDER BY} 时按排序键归并，分页时每个节点取前 {@code page * pageSize} 行后统一截取；
+ * 聚合与 {@code GROUP BY} 在各节点分别计算，结果不再合并（{@link #page} 的 count 除外，按节点求和）。
+ * <p>
+ * 已渲染的 SQL（批处理、模板 DAO）按表名改写：{@code INSERT} 按列清单中的分片键路由，其余语句发往全部节点。
+ * 改写替换 SQL 中与逻辑表同名的所有标识符，列名不应与逻辑表同名。未引用分片表的语句使用默认数据源。
+ * {@link #run} 先渲染模板（需要 {@link Builder#metaRegistry}），再按已渲染的 SQL 路由；
+ * {@link #bulkLoader()} 只能导入未分片的表，导入分片表时抛出 {@link UnsupportedOperationException}。
+ * <p>
+ * 多节点写操作依次执行，不构成分布式事务。
+ */
+public final class ShardingDb implements Db {
+    private static final String SORT_ALIAS = "lumen_sort_";
+    private static final Object NO_VALUE = new Object();
+    private static final Pattern INSERT_COLUMNS = Pattern.compile(
+        "^\\s*INSERT\\s+INTO\\s+\\S+\\s*\\(([^)]*)\\)\\s*VALUES",
+        Pattern.CASE_INSENSITIVE | Pattern.DOTALL
+    );
+
+    private final List<Db> dbs;
+    private final Map<String, ShardingRule> rules;
+    private final int defaultDb;
+    private final SqlRenderer renderer;
+    private final EntityMetaRegistry metaRegistry;
+    private final Executor executor;
+    private final EntityNameResolver entityNameResolver;
+    private final SqlTemplateCache templateCache = SqlTemplateCache.builder().build();
+    private volatile DbDsl dsl;
+
+    private ShardingDb(Builder builder) {
+        this.dbs = List.copyOf(builder.dbs);
+        this.rules = Map.copyOf(builder.rules);
+        this.defaultDb = builder.defaultDb;
+        this.renderer = builder.renderer;
+        this.metaRegistry = builder.metaRegistry;
+        this.executor = builder.executor;
+        this.entityNameResolver = builder.entityNameResolver;
+    }
+
+    /**
+     * @param renderer 用于渲染已改写的语句与识别已渲染 SQL 中的表，应与各 {@link Db} 的渲染器一致
+     */
+    public static Builder builder(SqlRenderer renderer) {
+        return new Builder(renderer);
+    }
+
+    public List<Db> dbs() {
+        return dbs;
+    }
+
+    @Override
+    public <T> List<T> fetch(Query query, RowMapper<T> mapper) throws SQLException {
+        Objects.requireNonNull(query, "query");
+        Objects.requireNonNull(mapper, "mapper");
+        if (query instanceof AstQuery ast && ast.stmt() instanceof SelectStmt select) {
+            Plan plan = plan(select, ast.bindings());
+            if (plan != null && plan.nodes.cardinality() > 1
+                && (!select.orderBy().isEmpty() || select.paging() != null)) {
+                return gather(select, ast.bindings(), plan, mapper);
+            }
+        }
+        List<Routed<Query>> routes = route(query);
+        if (routes.size() == 1) {
+            return routes.get(0).db.fetch(routes.get(0).statement, mapper);
+        }
+        List<SqlCall<List<T>>> calls = new ArrayList<>(routes.size());
+        for (Routed<Query> routed : routes) {
+            calls.add(() -> routed.db.fetch(routed.statement, mapper));
+        }
+        List<T> rows = new ArrayList<>();
+        for (List<T> part : scatter(calls)) {
+            rows.addAll(part);
+        }
+        return rows;
+    }
+
+    /**
+     * 分页查询；当前页未取满时跳过 count，否则 count 查询在各节点分别执行后求和。
+     */
+    @Override
+    public <T> PageResult<T> page(
+        Query pageQuery,
+        Query countQuery,
+        PageRequest pageRequest,
+        RowMapper<T> mapper
+    ) throws SQLException {
+        Objects.requireNonNull(pageQuery, "pageQuery");
+        Objects.requireNonNull(pageRequest, "pageRequest");
+        Objects.requireNonNull(mapper, "mapper");
+        List<T> items = fetch(pageQuery, mapper);
+        if (!pageRequest.searchCount()) {
+            return new PageResult<>(items, pageRequest.page(), pageRequest.pageSize(), PageResult.TOTAL_UNKNOWN);
+        }
+        if (countQuery == null) {
+            throw new IllegalArgumentException("countQuery is required when searchCount is true");
+        }
+        long known = PageSql.knownTotal(pageRequest.page(), pageRequest.pageSize(), items.size());
+        if (known != PageResult.TOTAL_UNKNOWN) {
+            return new PageResult<>(items, pageRequest.page(), pageRequest.pageSize(), known);
+        }
+        long total = 0L;
+        for (Long count : fetch(countQuery, rs -> rs.getLong(1))) {
+            total += count;
+        }
+        return new PageResult<>(items, pageRequest.page(), pageRequest.pageSize(), total);
+    }
+
+    @Override
+    public int execute(Command command) throws SQLException {
+        Objects.requireNonNull(command, "command");
+        int updated = 0;
+        for (Routed<Command> routed : route(command)) {
+            updated += routed.db.execute(routed.statement);
+        }
+        return updated;
+    }
+
+    @Override
+    public int[] executeBatch(BatchSql batchSql) throws SQLException {
+        Objects.requireNonNull(batchSql, "batchSql");
+        List<Routed<BatchSql>> routes = route(batchSql);
+        if (routes.size() == 1) {
+            return routes.get(0).db.executeBatch(routes.get(0).statement);
+        }
+        List<int[]> results = new ArrayList<>(routes.size());
+        for (Routed<BatchSql> routed : routes) {
+            results.add(routed.db.executeBatch(routed.statement));
+        }
+        return combine(results, isInsert(batchSql.template().sql()));
+    }
+
+    @Override
+    public <T> ResultStream<T> fetchStream(Query query, RowMapper<T> mapper, int fetchSize) throws SQLException {
+        Objects.requireNonNull(query, "query");
+        List<Routed<Query>> routes = route(query);
+        if (routes.size() != 1) {
+            throw new UnsupportedOperationException("fetchStream cannot span " + routes.size() + " shards");
+        }
+        return routes.get(0).db.fetchStream(routes.get(0).statement, mapper, fetchSize);
+    }
+
+    /**
+     * 按 {@link #renderer} 的方言渲染模板，再与其他已渲染的 SQL 一样路由。
+     */
+    @Override
+    public <T> List<T> run(String sqlText, Bindings bindings, RowMapper<T> mapper) throws SQLException {
+        Objects.requireNonNull(sqlText, "sqlText");
+        Objects.requireNonNull(bindings, "bindings");
+        if (metaRegistry == null) {
+            throw new UnsupportedOperationException("Template run requires ShardingDb.Builder.metaRegistry");
+        }
+        TemplateContext context = new TemplateContext(
+            bindings.asMap(),
+            renderer.dialect(),
+            metaRegistry,
+            entityNameResolver
+        );
+        return fetch(Query.of(templateCache.get(sqlText).render(context)), mapper);
+    }
+
+    @Override
+    public <T> T executeAndReturnGeneratedKey(Command command, String columnLabel, GeneratedKeyMapper<T> mapper)
+        throws SQLException {
+        Objects.requireNonNull(command, "command");
+        List<Routed<Command>> routes = route(command);
+        if (routes.size() != 1) {
+            throw new IllegalArgumentException("Generated key insert must target a single shard, got " + routes.size());
+        }
+        return routes.get(0).db.executeAndReturnGeneratedKey(routes.get(0).statement, columnLabel, mapper);
+    }
+
+    @Override
+    public <T> List<T> executeBatchAndReturnGeneratedKeys(
+        BatchSql batchSql,
+        String columnLabel,
+        GeneratedKeyMapper<T> mapper
+    ) throws SQLException {
+        Objects.requireNonNull(batchSql, "batchSql");
+        String sql = batchSql.template().sql();
+        List<ShardingRule> involved = rulesIn(sql);
+        if (involved.isEmpty()) {
+            return dbs.get(defaultDb).executeBatchAndReturnGeneratedKeys(batchSql, columnLabel, mapper);
+        }
+        if (!isInsert(sql)) {
+            throw new IllegalArgumentException("Generated keys on sharded tables require an INSERT");
+        }
+        Map<Integer, List<Integer>> rowsByNode = insertRowsByNode(involved, sql, batchSql.batches());
+        List<T> keys = new ArrayList<>(batchSql.totalBatches());
+        for (int i = 0; i < batchSql.totalBatches(); i++) {
+            keys.add(null);
+        }
+        for (Map.Entry<Integer, List<Integer>> entry : rowsByNode.entrySet()) {
+            int node = entry.getKey();
+            List<Integer> rows = entry.getValue();
+            BatchSql nodeBatch = subBatch(batchSql, node, involved, rows);
+            List<T> nodeKeys = db(involved.get(0), node).executeBatchAndReturnGeneratedKeys(nodeBatch, columnLabel, mapper);
+            for (int i = 0; i < rows.size(); i++) {
+                keys.set(rows.get(i), nodeKeys.get(i));
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * 默认数据源的导入器，导入分片表时抛出 {@link UnsupportedOperationException}；分片表需按节点分别导入。
+     */
+    @Override
+    public BulkLoader bulkLoader() {
+        return dbs.get(defaultDb).bulkLoader().guardedBy(table -> {
+            if (rules.containsKey(ShardingRule.key(table))) {
+                throw new UnsupportedOperationException(
+                    "Bulk load into sharded table " + table + " is not supported; load each node's Db directly"
+                );
+            }
+        });
+    }
+
+    @Override
+    public DbDsl dsl() {
+        if (metaRegistry == null) {
+            throw new UnsupportedOperationException("Db DSL requires ShardingDb.Builder.metaRegistry");
+        }
+        DbDsl current = dsl;
+        if (current == null) {
+            synchronized (this) {
+                if (dsl == null) {
+                    dsl = new DbDsl(this, metaRegistry);
+                }
+                current = dsl;
+            }
+        }
+        return current;
+    }
+
+    private List<Routed<Query>> route(Query query) {
+        if (query instanceof AstQuery ast) {
+            Plan plan = plan(ast.stmt(), ast.bindings());
+            if (plan == null) {
+                return List.of(new Routed<>(dbs.get(defaultDb), query));
+            }
+            List<Routed<Query>> routes = new ArrayList<>();
+            for (int node = plan.nodes.nextSetBit(0); node >= 0; node = plan.nodes.nextSetBit(node + 1)) {
+                routes.add(new Routed<>(plan.db(node), Query.of(rewrite(ast.stmt(), plan, node), ast.bindings())));
+            }
+            return routes;
+        }
+        if (query instanceof CountQuery count) {
+            List<Routed<Query>> routes = new ArrayList<>();
+            for (Routed<Query> routed : route(count.source())) {
+                routes.add(new Routed<>(routed.db, Query.count(routed.statement)));
+            }
+            return routes;
+        }
+        RenderedSql rendered = query.render(renderer);
+        List<Routed<Query>> routes = new ArrayList<>();
+        for (Routed<RenderedSql> routed : route(rendered)) {
+            routes.add(new Routed<>(routed.db, Query.of(routed.statement)));
+        }
+        return routes;
+    }
+
+    private List<Routed<Command>> route(Command command) {
+        if (command instanceof AstCommand ast) {
+            if (ast.stmt() instanceof InsertStmt insert) {
+                return routeInsert(insert, ast.bindings(), command);
+            }
+            Plan plan = plan(ast.stmt(), ast.bindings());
+            if (plan == null) {
+                return List.of(new Routed<>(dbs.get(defaultDb), command));
+            }
+            List<Routed<Command>> routes = new ArrayList<>();
+            for (int node = plan.nodes.nextSetBit(0); node >= 0; node = plan.nodes.nextSetBit(node + 1)) {
+                routes.add(new Routed<>(plan.db(node), Command.of(rewrite(ast.stmt(), plan, node), ast.bindings())));
+            }
+            return routes;
+        }
+        RenderedSql rendered = command.render(renderer);
+        List<Routed<Command>> routes = new ArrayList<>();
+        for (Routed<RenderedSql> routed : route(rendered)) {
+            routes.add(new Routed<>(routed.db, Command.of(routed.statement)));
+        }
+        return routes;
+    }
+
+    private List<Routed<Command>> routeInsert(InsertStmt insert, Bindings bindings, Command original) {
+        ShardingRule rule = rules.get(ShardingRule.key(insert.table().tableName()));
+        if (rule == null) {
+            return List.of(new Routed<>(dbs.get(defaultDb), original));
+        }
+        int column = columnIndex(insert.columns(), rule);
+        Map<Integer, List<List<Expr>>> rowsByNode = new LinkedHashMap<>();
+        for (List<Expr> row : insert.rows()) {
+            Object key = valueOf(row.get(column), bindings);
+            if (key == NO_VALUE) {
+                throw new IllegalArgumentException(
+                    "Shard key " + rule.shardColumn() + " must be a literal or parameter in INSERT"
+                );
+            }
+            rowsByNode.computeIfAbsent(rule.nodeOf(key), ignored -> new ArrayList<>()).add(row);
+        }
+        List<Routed<Command>> routes = new ArrayList<>(rowsByNode.size());
+        for (Map.Entry<Integer, List<List<Expr>>> entry : rowsByNode.entrySet()) {
+            int node = entry.getKey();
+            TableRef table = new TableRef(rule.table(node), insert.table().alias());
+            routes.add(new Routed<>(
+                db(rule, node),
+                Command.of(new InsertStmt(table, insert.columns(), entry.getValue()), bindings)
+            ));
+        }
+        return routes;
+    }
+
+    private List<Routed<RenderedSql>> route(RenderedSql rendered) {
+        String sql = rendered.sql();
+        List<ShardingRule> involved = rulesIn(sql);
+        if (involved.isEmpty()) {
+            return List.of(new Routed<>(dbs.get(defaultDb), rendered));
+        }
+        requireSameLayout(involved);
+        List<Routed<RenderedSql>> routes = new ArrayList<>();
+        if (isInsert(sql)) {
+            Map<Integer, List<Integer>> rowsByNode = insertRowsByNode(involved, sql, splitRows(involved, sql, rendered.binds()));
+            if (rowsByNode.size() > 1) {
+                throw new IllegalArgumentException("Multi-row INSERT spans " + rowsByNode.size() + " shards; split it per shard");
+            }
+            int node = rowsByNode.keySet().iterator().next();
+            routes.add(new Routed<>(db(involved.get(0), node), renameTables(rendered, involved, node)));
+            return routes;
+        }
+        for (int node = 0; node < involved.get(0).nodeCount(); node++) {
+            routes.add(new Routed<>(db(involved.get(0), node), renameTables(rendered, involved, node)));
+        }
+        return routes;
+    }
+
+    private List<Routed<BatchSql>> route(BatchSql batchSql) {
+        String sql = batchSql.template().sql();
+        List<ShardingRule> involved = rulesIn(sql);
+        if (involved.isEmpty()) {
+            return List.of(new Routed<>(dbs.get(defaultDb), batchSql));
+        }
+        requireSameLayout(involved);
+        List<Routed<BatchSql>> routes = new ArrayList<>();
+        if (isInsert(sql)) {
+            Map<Integer, List<Integer>> rowsByNode = insertRowsByNode(involved, sql, batchSql.batches());
+            for (Map.Entry<Integer, List<Integer>> entry : rowsByNode.entrySet()) {
+                int node = entry.getKey();
+                routes.add(new Routed<>(db(involved.get(0), node), subBatch(batchSql, node, involved, entry.getValue())));
+            }
+            return routes;
+        }
+        for (int node = 0; node < involved.get(0).nodeCount(); node++) {
+            BatchSql nodeBatch = new BatchSql(
+                renameTables(batchSql.template(), involved, node),
+                batchSql.batches(),
+                batchSql.batchSize(),
+                batchSql.multiRowInsert()
+            );
+            routes.add(new Routed<>(db(involved.get(0), node), nodeBatch));
+        }
+        return routes;
+    }
+
+    private Plan plan(Stmt stmt, Bindings bindings) {
+        List<ShardedRef> refs = new ArrayList<>();
+        Expr where;
+        if (stmt instanceof SelectStmt select) {
+            addSharded(select.from(), refs);
+            for (Join join : select.joins()) {
+                addSharded(join.table(), refs);
+            }
+            where = select.where();
+        } else if (stmt instanceof UpdateStmt update) {
+            addSharded(update.table(), refs);
+            where = update.where();
+        } else if (stmt instanceof DeleteStmt delete) {
+            addSharded(delete.table(), refs);
+            where = delete.where();
+        } else {
+            throw new IllegalArgumentException("Unsupported statement: " + stmt.getClass().getSimpleName());
+        }
+        if (refs.isEmpty()) {
+            return null;
+        }
+        List<ShardingRule> involved = new ArrayList<>(refs.size());
+        for (ShardedRef ref : refs) {
+            involved.add(ref.rule);
+        }
+        requireSameLayout(involved);
+        BitSet nodes = new BitSet();
+        nodes.set(0, refs.get(0).rule.nodeCount());
+        for (ShardedRef ref : refs) {
+            BitSet matched = where == null ? null : constrain(where, ref, refs.size() == 1, bindings);
+            if (matched != null) {
+                nodes.and(matched);
+            }
+            if (stmt instanceof UpdateStmt update && matched != null) {
+                requireSameNode(update, ref, refs.size() == 1, matched, bindings);
+            }
+        }
+        if (nodes.isEmpty()) {
+            // 条件互斥时任取一个节点，语句在该节点上同样不匹配任何行
+            nodes.set(0);
+        }
+        return new Plan(refs, nodes);
+    }
+
+    /**
+     * 节点只由 {@code WHERE} 决定；对分片键的赋值若会把已定位的行移到其他节点则拒绝，
+     * 而不是改写到目标节点（那里没有这些行）。{@code WHERE} 未约束分片键时无法判断，按原值执行。
+     */
+    private void requireSameNode(UpdateStmt update, ShardedRef ref, boolean onlyRef, BitSet matched, Bindings bindings) {
+        for (UpdateItem item : update.assignments()) {
+            if (!isShardColumn(item.column(), ref, onlyRef)) {
+                continue;
+            }
+            Object value = valueOf(item.value(), bindings);
+            if (value == NO_VALUE || value == null) {
+                continue;
+            }
+            int target = ref.rule.nodeOf(value);
+            for (int node = matched.nextSetBit(0); node >= 0; node = matched.nextSetBit(node + 1)) {
+                if (node != target) {
+                    throw new IllegalArgumentException(
+                        "UPDATE cannot move rows of " + ref.rule.logicalTable() + " across shards: "
+                            + ref.rule.shardColumn() + " = " + value + " belongs to node " + target
+                            + ", rows are on node " + node
+                    );
+                }
+            }
+        }
+    }
+
+    private void addSharded(TableRef ref, List<ShardedRef> refs) {
+        ShardingRule rule = rules.get(ShardingRule.key(ref.tableName()));
+        if (rule != null) {
+            refs.add(new ShardedRef(ref, rule));
+        }
+    }
+
+    /**
+     * 返回满足 {@code expr} 的行可能所在的节点；{@code null} 表示无法据此缩小范围。
+     */
+    private BitSet constrain(Expr expr, ShardedRef ref, boolean onlyRef, Bindings bindings) {
+        if (expr instanceof Expr.And and) {
+            BitSet result = null;
+            for (Expr item : and.items()) {
+                BitSet matched = constrain(item, ref, onlyRef, bindings);
+                if (matched != null) {
+                    if (result == null) {
+                        result = matched;
+                    } else {
+                        result.and(matched);
+                    }
+                }
+            }
+            return result;
+        }
+        if (expr instanceof Expr.Or or) {
+            if (or.items().isEmpty()) {
+                return null;
+            }
+            BitSet result = new BitSet();
+            for (Expr item : or.items()) {
+                BitSet matched = constrain(item, ref, onlyRef, bindings);
+                if (matched == null) {
+                    return null;
+                }
+                result.or(matched);
+            }
+            return result;
+        }
+        if (expr instanceof Expr.Compare compare && compare.op() == Expr.Op.EQ) {
+            Expr valueSide = isShardColumn(compare.left(), ref, onlyRef) ? compare.right()
+                : isShardColumn(compare.right(), ref, onlyRef) ? compare.left() : null;
+            if (valueSide == null) {
+                return null;
+            }
+            return nodesOf(List.of(valueSide), ref.rule, bindings);
+        }
+        if (expr instanceof Expr.In in && isShardColumn(in.left(), ref, onlyRef)) {
+            return nodesOf(in.rights(), ref.rule, bindings);
+        }
+        return null;
+    }
+
+    private BitSet nodesOf(List<Expr> values, ShardingRule rule, Bindings bindings) {
+        BitSet nodes = new BitSet();
+        for (Expr expr : values) {
+            Object value = valueOf(expr, bindings);
+            if (value == NO_VALUE) {
+                return null;
+            }
+            if (value != null) {
+                nodes.set(rule.nodeOf(value));
+            }
+        }
+        return nodes;
+    }
+
+    private static boolean isShardColumn(Expr expr, ShardedRef ref, boolean onlyRef) {
+        if (!(expr instanceof Expr.Column column)
+            || !ShardingRule.key(column.columnName()).equals(ShardingRule.key(ref.rule.shardColumn()))) {
+            return false;
+        }
+        String qualifier = column.tableAlias();
+        if (qualifier == null || qualifier.isBlank()) {
+            return onlyRef;
+        }
+        String alias = ref.ref.alias();
+        return alias != null && !alias.isBlank()
+            ? qualifier.equalsIgnoreCase(alias)
+            : ShardingRule.key(qualifier).equals(ShardingRule.key(ref.ref.tableName()));
+    }
+
+    private static Object valueOf(Expr expr, Bindings bindings) {
+        Object value;
+        if (expr instanceof Expr.Literal literal) {
+            value = literal.value();
+        } else if (expr instanceof Expr.Param param && bindings.contains(param.name())) {
+            value = bindings.require(param.name());
+        } else {
+            return NO_VALUE;
+        }
+        if (value instanceof Bind.Value bind) {
+            return bind.value();
+        }
+        if (value instanceof Bind.NullValue) {
+            return null;
+        }
+        if (value instanceof Collection<?> || (value != null && value.getClass().isArray())) {
+            return NO_VALUE;
+        }
+        return value;
+    }
+
+    private static Stmt rewrite(Stmt stmt, Plan plan, int node) {
+        if (stmt instanceof SelectStmt select) {
+            List<Join> joins = new ArrayList<>(select.joins().size());
+            for (Join join : select.joins()) {
+                joins.add(new Join(join.type(), rename(join.table(), plan, node, true), join.on(), join.toOne()));
+            }
+            return new SelectStmt(
+                select.select(),
+                rename(select.from(), plan, node, true),
+                joins,
+                select.where(),
+                select.groupBy(),
+                select.having(),
+                select.orderBy(),
+                select.paging()
+            );
+        }
+        if (stmt instanceof UpdateStmt update) {
+            return new UpdateStmt(rename(update.table(), plan, node, false), update.assignments(), update.where());
+        }
+        DeleteStmt delete = (DeleteStmt) stmt;
+        return new DeleteStmt(rename(delete.table(), plan, node, false), delete.where());
+    }
+
+    /**
+     * 替换为物理表；查询中未设别名的表以逻辑表名作别名，使按表名限定的列引用保持有效。
+     */
+    private static TableRef rename(TableRef ref, Plan plan, int node, boolean keepQualifier) {
+        for (ShardedRef sharded : plan.refs) {
+            if (sharded.ref == ref) {
+                String alias = ref.alias();
+                if ((alias == null || alias.isBlank()) && keepQualifier) {
+                    alias = ref.tableName();
+                }
+                return new TableRef(sharded.rule.table(node), alias);
+            }
+        }
+        return ref;
+    }
+
+    private <T> List<T> gather(SelectStmt select, Bindings bindings, Plan plan, RowMapper<T> mapper)
+        throws SQLException {
+        List<SelectItem> items = new ArrayList<>(select.select());
+        int[] keyColumns = new int[select.orderBy().size()];
+        for (int i = 0; i < keyColumns.length; i++) {
+            Expr expr = select.orderBy().get(i).expr();
+            int index = selectIndex(select.select(), expr);
+            if (index < 0) {
+                items.add(new SelectItem(expr, SORT_ALIAS + i));
+                index = items.size() - 1;
+            }
+            keyColumns[i] = index + 1;
+        }
+        Paging paging = select.paging();
+        Paging perShard = null;
+        if (paging != null) {
+            long limit = (long) paging.page() * paging.pageSize();
+            if (limit > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Cross-shard page window too large: " + limit);
+            }
+            perShard = new Paging(1, (int) limit);
+        }
+        SelectStmt prepared = new SelectStmt(
+            items,
+            select.from(),
+            select.joins(),
+            select.where(),
+            select.groupBy(),
+            select.having(),
+            select.orderBy(),
+            perShard
+        );
+        RowMapper<Sorted<T>> sortMapper = new SortKeyMapper<>(mapper, keyColumns);
+        List<SqlCall<List<Sorted<T>>>> calls = new ArrayList<>();
+        for (int node = plan.nodes.nextSetBit(0); node >= 0; node = plan.nodes.nextSetBit(node + 1)) {
+            Db db = plan.db(node);
+            Query query = Query.of(rewrite(prepared, plan, node), bindings);
+            calls.add(() -> db.fetch(query, sortMapper));
+        }
+        List<Sorted<T>> merged = merge(scatter(calls), select.orderBy());
+        int from = paging == null ? 0 : (int) Math.min(merged.size(), (long) (paging.page() - 1) * paging.pageSize());
+        int to = paging == null ? merged.size() : Math.min(merged.size(), from + paging.pageSize());
+        List<T> rows = new ArrayList<>(Math.max(0, to - from));
+        for (int i = from; i < to; i++) {
+            rows.add(merged.get(i).row);
+        }
+        return rows;
+    }
+
+    private static int selectIndex(List<SelectItem> items, Expr expr) {
+        for (int i = 0; i < items.size(); i++) {
+            SelectItem item = items.get(i);
+            if (item.expr().equals(expr)) {
+                return i;
+            }
+            if (expr instanceof Expr.Column column && column.tableAlias() == null
+                && item.alias() != null && item.alias().equalsIgnoreCase(column.columnName())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 各节点结果已按 {@code ORDER BY} 排序，按排序键做 k 路归并；没有排序键时按节点顺序拼接。
+     */
+    private static <T> List<Sorted<T>> merge(List<List<Sorted<T>>> parts, List<OrderItem> orderBy) {
+        int total = 0;
+        for (List<Sorted<T>> part : parts) {
+            total += part.size();
+        }
+        List<Sorted<T>> merged = new ArrayList<>(total);
+        if (orderBy.isEmpty()) {
+            for (List<Sorted<T>> part : parts) {
+                merged.addAll(part);
+            }
+            return merged;
+        }
+        PriorityQueue<Cursor<T>> queue = new PriorityQueue<>((left, right) -> {
+            Object[] a = left.current().keys;
+            Object[] b = right.current().keys;
+            for (int i = 0; i < orderBy.size(); i++) {
+                int compared = compareValues(a[i], b[i]);
+                if (compared != 0) {
+                    return orderBy.get(i).asc() ? compared : -compared;
+                }
+            }
+            return Integer.compare(left.part, right.part);
+        });
+        for (int i = 0; i < parts.size(); i++) {
+            if (!parts.get(i).isEmpty()) {
+                queue.add(new Cursor<>(parts.get(i), i));
+            }
+        }
+        while (!queue.isEmpty()) {
+            Cursor<T> cursor = queue.poll();
+            merged.add(cursor.current());
+            cursor.index++;
+            if (cursor.index < cursor.rows.size()) {
+                queue.add(cursor);
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * 比较排序键：{@code null} 视为最小，不同类型的数值按十进制比较。
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compareValues(Object left, Object right) {
+        if (left == null || right == null) {
+            return left == null ? (right == null ? 0 : -1) : 1;
+        }
+        if (left instanceof Number a && right instanceof Number b && left.getClass() != right.getClass()) {
+            return new BigDecimal(a.toString()).compareTo(new BigDecimal(b.toString()));
+        }
+        if (left instanceof Comparable comparable && left.getClass().isInstance(right)) {
+            return comparable.compareTo(right);
+        }
+        return left.toString().compareTo(right.toString());
+    }
+
+    private <R> List<R> scatter(List<SqlCall<R>> calls) throws SQLException {
+        if (calls.size() == 1) {
+            return List.of(calls.get(0).call());
+        }
+        List<FutureTask<R>> tasks = new ArrayList<>(calls.size());
+        for (SqlCall<R> call : calls) {
+            FutureTask<R> task = new FutureTask<>(call::call);
+            tasks.add(task);
+            executor.execute(task);
+        }
+        List<R> results = new ArrayList<>(tasks.size());
+        try {
+            for (FutureTask<R> task : tasks) {
+                results.add(QueryExecutors.await(task, "shard query"));
+            }
+        } catch (SQLException | RuntimeException | Error ex) {
+            cancel(tasks);
+            throw ex;
+        }
+        return results;
+    }
+
+    private static void cancel(List<? extends FutureTask<?>> tasks) {
+        for (FutureTask<?> task : tasks) {
+            task.cancel(true);
+        }
+    }
+
+    private List<ShardingRule> rulesIn(String sql) {
+        List<ShardingRule> involved = new ArrayList<>();
+        for (String table : SqlTables.of(sql)) {
+            ShardingRule rule = rules.get(table);
+            if (rule != null) {
+                involved.add(rule);
+            }
+        }
+        return involved;
+    }
+
+    private static void requireSameLayout(List<ShardingRule> involved) {
+        ShardingRule first = involved.get(0);
+        for (ShardingRule rule : involved) {
+            if (!first.sameLayout(rule)) {
+                throw new IllegalArgumentException(
+                    "Sharded tables " + first.logicalTable() + " and " + rule.logicalTable()
+                        + " have different layouts and cannot be used in one statement"
+                );
+            }
+        }
+    }
+
+    private Db db(ShardingRule rule, int node) {
+        return dbs.get(rule.db(node));
+    }
+
+    private static boolean isInsert(String sql) {
+        return ReadStatements.firstKeyword(sql).equals("INSERT");
+    }
+
+    private static int columnIndex(List<String> columns, ShardingRule rule) {
+        String shardColumn = ShardingRule.key(rule.shardColumn());
+        for (int i = 0; i < columns.size(); i++) {
+            if (ShardingRule.key(columns.get(i).strip()).equals(shardColumn)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException(
+            "INSERT into sharded table " + rule.logicalTable() + " must set shard key " + rule.shardColumn()
+        );
+    }
+
+    private static List<String> insertColumns(String sql) {
+        Matcher matcher = INSERT_COLUMNS.matcher(sql);
+        if (!matcher.find()) {
+            throw new IllegalArgumentException("Cannot locate the column list of sharded INSERT: " + sql);
+        }
+        return List.of(matcher.group(1).split(","));
+    }
+
+    /**
+     * 已渲染的多行 INSERT 按列数切分绑定参数，要求每个值恰好一个占位符。
+     */
+    private static List<List<Bind>> splitRows(List<ShardingRule> involved, String sql, List<Bind> binds) {
+        int width = insertColumns(sql).size();
+        if (binds.isEmpty() || binds.size() % width != 0) {
+            throw new IllegalArgumentException(
+                "Sharded INSERT into " + involved.get(0).logicalTable() + " must bind one parameter per column"
+            );
+        }
+        List<List<Bind>> rows = new ArrayList<>(binds.size() / width);
+        for (int from = 0; from < binds.size(); from += width) {
+            rows.add(binds.subList(from, from + width));
+        }
+        return rows;
+    }
+
+    private static Map<Integer, List<Integer>> insertRowsByNode(
+        List<ShardingRule> involved,
+        String sql,
+        List<List<Bind>> rows
+    ) {
+        ShardingRule rule = involved.get(0);
+        List<String> columns = insertColumns(sql);
+        int column = columnIndex(columns, rule);
+        Map<Integer, List<Integer>> rowsByNode = new LinkedHashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            List<Bind> row = rows.get(i);
+            if (row.size() != columns.size()) {
+                throw new IllegalArgumentException(
+                    "Sharded INSERT into " + rule.logicalTable() + " must bind one parameter per column"
+                );
+            }
+            Bind bind = row.get(column);
+            Object key = bind instanceof Bind.Value value ? value.value() : null;
+            rowsByNode.computeIfAbsent(rule.nodeOf(key), ignored -> new ArrayList<>()).add(i);
+        }
+        return rowsByNode;
+    }
+
+    private static BatchSql subBatch(BatchSql batchSql, int node, List<ShardingRule> involved, List<Integer> rows) {
+        List<List<Bind>> batches = new ArrayList<>(rows.size());
+        for (int row : rows) {
+            batches.add(batchSql.batches().get(row));
+        }
+        return new BatchSql(
+            renameTables(batchSql.template(), involved, node),
+            batches,
+            batchSql.batchSize(),
+            batchSql.multiRowInsert()
+        );
+    }
+
+    /**
+     * 多节点批处理结果：INSERT 按节点顺序拼接，其余语句各节点执行同一批，按行累加影响行数。
+     */
+    private static int[] combine(List<int[]> results, boolean insert) {
+        if (!insert) {
+            int[] summed = results.get(0).clone();
+            boolean aligned = true;
+            for (int[] result : results) {
+                aligned &= result.length == summed.length;
+            }
+            if (aligned) {
+                for (int i = 1; i < results.size(); i++) {
+                    int[] result = results.get(i);
+                    for (int row = 0; row < summed.length; row++) {
+                        summed[row] = result[row] < 0 || summed[row] < 0
+                            ? Math.min(summed[row], result[row])
+                            : summed[row] + result[row];
+                    }
+                }
+                return summed;
+            }
+        }
+        int length = 0;
+        for (int[] result : results) {
+            length += result.length;
+        }
+        int[] combined = new int[length];
+        int offset = 0;
+        for (int[] result : results) {
+            System.arraycopy(result, 0, combined, offset, result.length);
+            offset += result.length;
+        }
+        return combined;
+    }
+
+    private static RenderedSql renameTables(RenderedSql rendered, List<ShardingRule> involved, int node) {
+        Map<String, String> physical = new HashMap<>();
+        for (ShardingRule rule : involved) {
+            physical.put(ShardingRule.key(rule.logicalTable()), rule.table(node));
+        }
+        return new RenderedSql(renameTables(rendered.sql(), physical), rendered.binds());
+    }
+
+    /**
+     * 把与逻辑表同名的标识符（含限定名中的部分）替换为物理表名，保留原有引号风格；跳过字符串与注释。
+     */
+    static String renameTables(String sql, Map<String, String> physical) {
+        StringBuilder out = new StringBuilder(sql.length() + 16);
+        int length = sql.length();
+        int i = 0;
+        while (i < length) {
+            char ch = sql.charAt(i);
+            int end;
+            if (ch == '\'') {
+                end = i + 1;
+                while (end < length) {
+                    if (sql.charAt(end) == '\'') {
+                        if (end + 1 < length && sql.charAt(end + 1) == '\'') {
+                            end += 2;
+                            continue;
+                        }
+                        end++;
+                        break;
+                    }
+                    end++;
+                }
+                out.append(sql, i, end);
+            } else if (ch == '-' && i + 1 < length && sql.charAt(i + 1) == '-') {
+                end = sql.indexOf('\n', i);
+                end = end < 0 ? length : end;
+                out.append(sql, i, end);
+            } else if (ch == '/' && i + 1 < length && sql.charAt(i + 1) == '*') {
+                end = sql.indexOf("*/", i + 2);
+                end = end < 0 ? length : end + 2;
+                out.append(sql, i, end);
+            } else if (ch == '"' || ch == '`' || ch == '[') {
+                char close = ch == '[' ? ']' : ch;
+                end = sql.indexOf(close, i + 1);
+                end = end < 0 ? length : end + 1;
+                String part = sql.substring(i, end);
+                String replacement = physical.get(SqlTables.normalize(part));
+                out.append(replacement == null ? part : ch + replacement + close);
+            } else if (Character.isLetter(ch) || ch == '_') {
+                end = i + 1;
+                while (end < length
+                    && (Character.isLetterOrDigit(sql.charAt(end)) || sql.charAt(end) == '_' || sql.charAt(end) == '$')) {
+                    end++;
+                }
+                String part = sql.substring(i, end);
+                String replacement = physical.get(part.toLowerCase(Locale.ROOT));
+                out.append(replacement == null ? part : replacement);
+            } else {
+                end = i + 1;
+                out.append(ch);
+            }
+            i = end;
+        }
+        return out.toString();
+    }
+
+    @FunctionalInterface
+    private interface SqlCall<R> {
+        R call() throws SQLException;
+    }
+
+    private record Routed<S>(Db db, S statement) {
+    }
+
+    private record ShardedRef(TableRef ref, ShardingRule rule) {
+    }
+
+    private final class Plan {
+        private final List<ShardedRef> refs;
+        private final BitSet nodes;
+
+        private Plan(List<ShardedRef> refs, BitSet nodes) {
+            this.refs = refs;
+            this.nodes = nodes;
+        }
+
+        private Db db(int node) {
+            return dbs.get(refs.get(0).rule.db(node));
+        }
+    }
+
+    private record Sorted<T>(T row, Object[] keys) {
+    }
+
+    private static final class Cursor<T> {
+        private final List<Sorted<T>> rows;
+        private final int part;
+        private int index;
+
+        private Cursor(List<Sorted<T>> rows, int part) {
+            this.rows = rows;
+            this.part = part;
+        }
+
+        private Sorted<T> current() {
+            return rows.get(index);
+        }
+    }
+
+    private static final class SortKeyMapper<T> implements RowMapper<Sorted<T>> {
+        private final RowMapper<T> mapper;
+        private final int[] keyColumns;
+
+        private SortKeyMapper(RowMapper<T> mapper, int[] keyColumns) {
+            this.mapper = mapper;
+            this.keyColumns = keyColumns;
+        }
+
+        @Override
+        public Sorted<T> map(ResultSet resultSet) throws SQLException {
+            Object[] keys = new Object[keyColumns.length];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = resultSet.getObject(keyColumns[i]);
+            }
+            return new Sorted<>(mapper.map(resultSet), keys);
+        }
+
+        @Override
+        public RowMapper<Sorted<T>> forResultSet(ResultSet resultSet) throws SQLException {
+            return new SortKeyMapper<>(mapper.forResultSet(resultSet), keyColumns);
+        }
+    }
+
+    public static final class Builder {
+        private final SqlRenderer renderer;
+        private final List<Db> dbs = new ArrayList<>();
+        private final Map<String, ShardingRule> rules = new LinkedHashMap<>();
+        private int defaultDb;
+        private EntityMetaRegistry metaRegistry;
+        private Executor executor = QueryExecutors.sharding();
+        private EntityNameResolver entityNameResolver = EntityNameResolvers.auto();
+
+        private Builder(SqlRenderer renderer) {
+            this.renderer = Objects.requireNonNull(renderer, "renderer");
+        }
+
+        /**
+         * 添加数据源，序号按添加顺序从 0 开始，供 {@link ShardingRule.Builder#node(int, String)} 引用。
+         */
+        public Builder addDb(Db db) {
+            dbs.add(Objects.requireNonNull(db, "db"));
+            return this;
+        }
+
+        public Builder rule(ShardingRule rule) {
+            Objects.requireNonNull(rule, "rule");
+            if (rules.putIfAbsent(ShardingRule.key(rule.logicalTable()), rule) != null) {
+                throw new IllegalArgumentException("Duplicate sharding rule for " + rule.logicalTable());
+            }
+            return this;
+        }
+
+        /**
+         * 未分片表使用的数据源序号，默认 0。
+         */
+        public Builder defaultDb(int defaultDb) {
+            if (defaultDb < 0) {
+                throw new IllegalArgumentException("defaultDb must be >= 0");
+            }
+            this.defaultDb = defaultDb;
+            return this;
+        }
+
+        /**
+         * 提供后 {@link ShardingDb#dsl()} 可用，DSL 查询同样按分片路由。
+         */
+        public Builder metaRegistry(EntityMetaRegistry metaRegistry) {
+            this.metaRegistry = Objects.requireNonNull(metaRegistry, "metaRegistry");
+            return this;
+        }
+
+        /**
+         * 多节点查询的执行器，默认 {@link QueryExecutors#sharding()}。
+         */
+        public Builder executor(Executor executor) {
+            this.executor = Objects.requireNonNull(executor, "executor");
+            return this;
+        }
+
+        /**
+         * {@link ShardingDb#run} 渲染模板时解析实体名，默认 {@link EntityNameResolvers#auto()}。
+         */
+        public Builder entityNameResolver(EntityNameResolver entityNameResolver) {
+            this.entityNameResolver = Objects.requireNonNull(entityNameResolver, "entityNameResolver");
+            return this;
+        }
+
+        public ShardingDb build() {
+            if (dbs.isEmpty()) {
+                throw new IllegalStateException("ShardingDb needs at least one Db");
+            }
+            if (defaultDb >= dbs.size()) {
+                throw new IllegalStateException("defaultDb " + defaultDb + " is out of range for " + dbs.size() + " dbs");
+            }
+            for (ShardingRule rule : rules.values()) {
+                for (int node = 0; node < rule.nodeCount(); node++) {
+                    if (rule.db(node) >= dbs.size()) {
+                        throw new IllegalStateException(
+                            "Rule " + rule.logicalTable() + " node " + node + " refers to missing db " + rule.db(node)
+                        );
+                    }
+                }
+            }
+            return new ShardingDb(this);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package io.lighting.lumen.db;
+
+import io.lighting.lumen.meta.EntityMeta;
+import io.lighting.lumen.sql.SqlTables;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 单个逻辑表的分片规则：按分片键列把行映射到若干物理节点，每个节点为（数据源序号，物理表名）。
+ * <p>
+ * 节点按添加顺序编号，{@link ShardStrategy} 返回的序号即节点序号。分片数量相同且节点数据源一一对应的规则可在同一条
+ * 语句中关联（绑定表），同一序号的节点一起路由。
+ */
+public final class ShardingRule {
+    private final String logicalTable;
+    private final String shardColumn;
+    private final ShardStrategy strategy;
+    private final List<Node> nodes;
+
+    private ShardingRule(Builder builder) {
+        this.logicalTable = builder.logicalTable;
+        this.shardColumn = builder.shardColumn;
+        this.strategy = builder.strategy;
+        this.nodes = List.copyOf(builder.nodes);
+    }
+
+    /**
+     * @param logicalTable 逻辑表名，与 {@code TableRef}/SQL 中出现的表名比较时忽略大小写与引号
+     * @param shardColumn  分片键列名
+     */
+    public static Builder builder(String logicalTable, String shardColumn) {
+        return new Builder(logicalTable, shardColumn);
+    }
+
+    /**
+     * 以实体的 {@link EntityMeta#table()} 为逻辑表，{@code shardField} 对应的列为分片键。
+     */
+    public static Builder builder(EntityMeta meta, String shardField) {
+        Objects.requireNonNull(meta, "meta");
+        Objects.requireNonNull(shardField, "shardField");
+        String column = meta.fieldToColumn().get(shardField);
+        if (column == null) {
+            throw new IllegalArgumentException("Unknown field " + shardField + " on table " + meta.table());
+        }
+        return new Builder(meta.table(), column);
+    }
+
+    public String logicalTable() {
+        return logicalTable;
+    }
+
+    public String shardColumn() {
+        return shardColumn;
+    }
+
+    public int nodeCount() {
+        return nodes.size();
+    }
+
+    /**
+     * 节点所在数据源在 {@link ShardingDb} 中的序号。
+     */
+    public int db(int node) {
+        return nodes.get(node).db;
+    }
+
+    /**
+     * 节点的物理表名。
+     */
+    public String table(int node) {
+        return nodes.get(node).table;
+    }
+
+    /**
+     * 分片键值所在的节点序号。
+     *
+     * @throws IllegalArgumentException 键值为 {@code null}
+     */
+    public int nodeOf(Object key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Shard key " + shardColumn + " of " + logicalTable + " must not be null");
+        }
+        int node = strategy.shardOf(key, nodes.size());
+        if (node < 0 || node >= nodes.size()) {
+            throw new IllegalStateException("ShardStrategy returned " + node + " for " + nodes.size() + " nodes");
+        }
+        return node;
+    }
+
+    boolean sameLayout(ShardingRule other) {
+        if (other.nodes.size() != nodes.size()) {
+            return false;
+        }
+        for (int i = 0; i < nodes.size(); i++) {
+            if (other.nodes.get(i).db != nodes.get(i).db) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static String key(String table) {
+        return SqlTables.normalize(table);
+    }
+
+    private record Node(int db, String table) {
+    }
+
+    public static final class Builder {
+        private final String logicalTable;
+        private final String shardColumn;
+        private ShardStrategy strategy = ShardStrategy.hash();
+        private final List<Node> nodes = new ArrayList<>();
+
+        private Builder(String logicalTable, String shardColumn) {
+            this.logicalTable = requireName(logicalTable, "logicalTable");
+            this.shardColumn = requireName(shardColumn, "shardColumn");
+        }
+
+        /**
+         * 分片策略，默认 {@link ShardStrategy#hash()}。
+         */
+        public Builder strategy(ShardStrategy strategy) {
+            this.strategy = Objects.requireNonNull(strategy, "strategy");
+            return this;
+        }
+
+        /**
+         * 添加节点：数据源序号与物理表名。
+         */
+        public Builder node(int db, String table) {
+            if (db < 0) {
+                throw new IllegalArgumentException("db must be >= 0");
+            }
+            nodes.add(new Node(db, requireName(table, "table")));
+            return this;
+        }
+
+        /**
+         * 添加与逻辑表同名的节点（只分库不分表）。
+         */
+        public Builder node(int db) {
+            return node(db, logicalTable);
+        }
+
+        public ShardingRule build() {
+            if (nodes.isEmpty()) {
+                throw new IllegalStateException("ShardingRule for " + logicalTable + " needs at least one node");
+            }
+            return new ShardingRule(this);
+        }
+
+        private static String requireName(String name, String label) {
+            Objects.requireNonNull(name, label);
+            if (name.isBlank()) {
+                throw new IllegalArgumentException(label + " must not be blank");
+            }
+            return name;
+        }
+    }
+}
@@ -2,10 +2,12 @@ package io.lighting.lumen.db;
 
 import io.lighting.lumen.sql.Bind;
 import io.lighting.lumen.sql.RenderedSql;
+import java.time.Duration;
 import java.time.temporal.TemporalAccessor;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Consumer;
 
 /**
@@ -23,6 +25,9 @@ import java.util.function.Consumer;
  *   <li>通过 {@link Builder} 进行配置，构建后为不可变对象，线程安全。</li>
  *   <li>支持仅记录渲染、仅记录执行，或两者同时记录。</li>
  *   <li>支持两种输出模式：分离（SQL + binds）或内联（将 ? 替换为格式化值）。</li>
+ *   <li>支持按比例采样与慢查询阈值：开启后执行日志在语句结束时合并为一行输出，
+ *   是否输出在格式化之前决定，未选中的语句不产生任何字符串开销。采样只作用于执行日志，
+ *   开启 {@code logOnRender} 时渲染日志照常全部输出。</li>
  * </ul>
  * 注意：内联模式仅用于日志展示，不会修改真实执行的 SQL 或参数绑定。
  */
@@ -77,6 +82,18 @@ public final class SqlLog implements DbObserver {
      * 日志输出目标，默认 System.out。
      */
     private final Consumer<String> sink;
+    /**
+     * 采样比例（0~1）。
+     */
+    private final double sampleRate;
+    /**
+     * 慢查询阈值（纳秒），小于 0 表示未设置。
+     */
+    private final long slowThresholdNanos;
+    /**
+     * 是否启用采样：启用后执行日志延迟到 afterExecute 再决定是否输出。
+     */
+    private final boolean sampling;
 
     private SqlLog(Builder builder) {
         this.enabled = builder.enabled;
@@ -88,6 +105,13 @@ public final class SqlLog implements DbObserver {
         this.mode = builder.mode;
         this.prefix = builder.prefix;
         this.sink = builder.sink;
+        this.slowThresholdNanos = builder.slowThreshold == null ? -1L : builder.slowThreshold.toNanos();
+        if (builder.sampleRate != null) {
+            this.sampleRate = builder.sampleRate;
+        } else {
+            this.sampleRate = builder.slowThreshold == null ? 1.0 : 0.0;
+        }
+        this.sampling = this.sampleRate < 1.0 || this.slowThresholdNanos >= 0;
     }
 
     /**
@@ -100,7 +124,8 @@ public final class SqlLog implements DbObserver {
     /**
      * SQL 渲染完成后的回调。
      * <p>
-     * 典型用于观察 DSL/模板解析后的 SQL 结果，不涉及执行耗时或行数。
+     * 典型用于观察 DSL/模板解析后的 SQL 结果，不涉及执行耗时或行数。渲染日志不参与采样与慢查询过滤：
+     * 渲染时尚不知道执行耗时，且同一语句的渲染与执行回调之间没有可关联的标识。
      */
     @Override
     public void afterRender(DbOperation operation, Object source, RenderedSql rendered, long elapsedNanos) {
@@ -116,11 +141,11 @@ public final class SqlLog implements DbObserver {
     /**
      * SQL 执行前回调。
      * <p>
-     * 此处输出的是即将执行的 SQL（若开启内联模式，则会格式化绑定值）。
+     * 此处输出的是即将执行的 SQL（若开启内联模式，则会格式化绑定值）；启用采样时不在此输出。
      */
     @Override
     public void beforeExecute(DbOperation operation, Object source, RenderedSql rendered) {
-        if (!enabled || !logOnExecute) {
+        if (!enabled || !logOnExecute || sampling) {
             return;
         }
         sink.accept(format(operation, rendered));
@@ -129,7 +154,7 @@ public final class SqlLog implements DbObserver {
     /**
      * SQL 执行后回调。
      * <p>
-     * 可根据配置输出耗时、影响行数等运行时统计信息。
+     * 可根据配置输出耗时、影响行数等运行时统计信息；启用采样时，慢查询或被采中的语句在此输出 SQL 与统计信息。
      */
     @Override
     public void afterExecute(
@@ -142,11 +167,33 @@ public final class SqlLog implements DbObserver {
         if (!enabled || !logOnExecute) {
             return;
         }
+        if (sampling) {
+            boolean slow = slowThresholdNanos >= 0 && elapsedNanos >= slowThresholdNanos;
+            if (!slow && !sampled()) {
+                return;
+            }
+            String line = format(operation, rendered);
+            if (includeRowCount || includeElapsed) {
+                line = line + " | " + formatDetail(elapsedNanos, rowCount);
+            }
+            sink.accept(slow ? line + " | slow" : line);
+            return;
+        }
         if (includeRowCount || includeElapsed) {
             sink.accept(formatStats(operation, elapsedNanos, rowCount));
         }
     }
 
+    /**
+     * 按采样比例决定是否输出。
+     */
+    private boolean sampled() {
+        if (sampleRate >= 1.0) {
+            return true;
+        }
+        return sampleRate > 0.0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
     /**
      * 统一的日志格式入口，决定是否包含操作类型及输出模式。
      */
@@ -206,6 +253,17 @@ public final class SqlLog implements DbObserver {
      * 输出统计信息（耗时、行数）。
      */
     private String formatStats(DbOperation operation, long elapsedNanos, int rowCount) {
+        String detail = formatDetail(elapsedNanos, rowCount);
+        if (includeOperation) {
+            return prefix + " [" + operation.name() + "] " + detail;
+        }
+        return prefix + " " + detail;
+    }
+
+    /**
+     * 统计信息正文，例如 rows=1, elapsed=1200ns。
+     */
+    private String formatDetail(long elapsedNanos, int rowCount) {
         List<String> parts = new ArrayList<>();
         if (includeRowCount) {
             parts.add("rows=" + rowCount);
@@ -213,11 +271,7 @@ public final class SqlLog implements DbObserver {
         if (includeElapsed) {
             parts.add("elapsed=" + elapsedNanos + "ns");
         }
-        String detail = String.join(", ", parts);
-        if (includeOperation) {
-            return prefix + " [" + operation.name() + "] " + detail;
-        }
-        return prefix + " " + detail;
+        return String.join(", ", parts);
     }
 
     /**
@@ -367,6 +421,8 @@ public final class SqlLog implements DbObserver {
         private Mode mode = Mode.SEPARATE;
         private String prefix = "SQL:";
         private Consumer<String> sink = System.out::println;
+        private Double sampleRate;
+        private Duration slowThreshold;
 
         /**
          * 全局开关：关闭后不输出任何日志。
@@ -443,6 +499,30 @@ public final class SqlLog implements DbObserver {
             return this;
         }
 
+        /**
+         * 执行日志的采样比例（0~1），默认 1 即全部输出；仅设置 {@link #slowThreshold(Duration)} 时默认为 0，只输出慢查询。
+         * 渲染日志不受影响。
+         */
+        public Builder sampleRate(double sampleRate) {
+            if (!(sampleRate >= 0.0 && sampleRate <= 1.0)) {
+                throw new IllegalArgumentException("sampleRate must be between 0 and 1");
+            }
+            this.sampleRate = sampleRate;
+            return this;
+        }
+
+        /**
+         * 慢查询阈值：执行耗时达到阈值的语句总会输出，并标记为 slow。
+         */
+        public Builder slowThreshold(Duration slowThreshold) {
+            Objects.requireNonNull(slowThreshold, "slowThreshold");
+            if (slowThreshold.isNegative()) {
+                throw new IllegalArgumentException("slowThreshold must not be negative");
+            }
+            this.slowThreshold = slowThreshold;
+            return this;
+        }
+
         /**
          * 构建实例。至少需要开启渲染或执行其中之一。
          */
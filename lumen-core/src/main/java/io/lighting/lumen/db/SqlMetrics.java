@@ -0,0 +1,347 @@
+package io.lighting.lumen.db;
+
+import io.lighting.lumen.sql.RenderedSql;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按语句聚合耗时的指标观察器。
+ * <p>
+ * 每条 SQL 先归一化为指纹（见 {@link #fingerprint(String)}），同一指纹共享一组定长的无锁直方图，
+ * 分别记录渲染与执行耗时，并累计行数与失败次数；通过 {@link #snapshot()} 读取 p50/p95/p99/max。
+ * <p>
+ * 内存有上限：指纹数达到 {@link Builder#maxStatements(int)} 后，新出现的语句计入 {@value #OTHER}。
+ * SQL 文本到统计项的映射会被缓存，稳定负载下每次回调只做一次哈希查找与几次原子累加；缓存按文本总字符数限额
+ * （每个指纹 {@value #CACHED_CHARS_PER_STATEMENT} 个字符），超过 {@value #MAX_CACHED_SQL_LENGTH} 个字符的 SQL 不缓存，
+ * 未命中缓存时重新计算指纹，只需一次线性扫描。
+ * <pre>{@code
+ * SqlMetrics metrics = SqlMetrics.builder().build();
+ * Lumen lumen = Lumen.builder().dataSource(ds).observers(List.of(metrics)).build();
+ * for (SqlStatementStats stats : metrics.snapshot()) {
+ *     System.out.println(stats.fingerprint() + " p99=" + stats.execute().p99Nanos());
+ * }
+ * }</pre>
+ */
+public final class SqlMetrics implements DbObserver {
+    public static final int DEFAULT_MAX_STATEMENTS = 1000;
+    /**
+     * 超出指纹上限的语句归入的指纹。
+     */
+    public static final String OTHER = "<other>";
+
+    /**
+     * 单条 SQL 文本超过该长度时不进入文本缓存。
+     */
+    static final int MAX_CACHED_SQL_LENGTH = 2048;
+    /**
+     * 文本缓存按每个指纹计的字符数限额。
+     */
+    static final int CACHED_CHARS_PER_STATEMENT = 1024;
+    private static final String COLLAPSED = "(...)";
+
+    private final int maxStatements;
+    private volatile State state = new State();
+
+    private SqlMetrics(Builder builder) {
+        this.maxStatements = builder.maxStatements;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public void afterRender(DbOperation operation, Object source, RenderedSql rendered, long elapsedNanos) {
+        entry(rendered.sql()).render.record(elapsedNanos);
+    }
+
+    @Override
+    public void onRenderError(DbOperation operation, Object source, Exception error, long elapsedNanos) {
+        state.renderErrors.increment();
+    }
+
+    @Override
+    public void afterExecute(
+        DbOperation operation,
+        Object source,
+        RenderedSql rendered,
+        long elapsedNanos,
+        int rowCount
+    ) {
+        Entry entry = entry(rendered.sql());
+        entry.execute.record(elapsedNanos);
+        entry.rows.add(rowCount);
+    }
+
+    @Override
+    public void onExecuteError(
+        DbOperation operation,
+        Object source,
+        RenderedSql rendered,
+        long elapsedNanos,
+        Exception error
+    ) {
+        Entry entry = entry(rendered.sql());
+        entry.execute.record(elapsedNanos);
+        entry.errors.increment();
+    }
+
+    /**
+     * 所有语句的统计快照，按执行总耗时降序排列。
+     */
+    public List<SqlStatementStats> snapshot() {
+        State current = state;
+        List<SqlStatementStats> stats = new ArrayList<>(current.byFingerprint.size() + 1);
+        for (Entry entry : current.byFingerprint.values()) {
+            stats.add(entry.snapshot());
+        }
+        SqlStatementStats other = current.other.snapshot();
+        if (other.executions() > 0 || other.render().count() > 0) {
+            stats.add(other);
+        }
+        stats.sort(Comparator.comparingLong((SqlStatementStats s) -> s.execute().totalNanos()).reversed());
+        return stats;
+    }
+
+    /**
+     * 单条语句的统计快照；{@code sql} 可以是原始 SQL 或指纹。
+     */
+    public Optional<SqlStatementStats> stats(String sql) {
+        Objects.requireNonNull(sql, "sql");
+        Entry entry = state.byFingerprint.get(fingerprint(sql));
+        return entry == null ? Optional.empty() : Optional.of(entry.snapshot());
+    }
+
+    /**
+     * 渲染失败次数；渲染失败时没有 SQL 文本，因此不按语句区分。
+     */
+    public long renderErrors() {
+        return state.renderErrors.sum();
+    }
+
+    /**
+     * 文本缓存当前占用的字符数。
+     */
+    long cachedSqlChars() {
+        return state.cachedChars.get();
+    }
+
+    /**
+     * 清空所有统计；正在进行的回调可能仍写入旧的统计对象。
+     */
+    public void reset() {
+        state = new State();
+    }
+
+    /**
+     * 归一化 SQL：去掉注释、合并空白，把字符串与数值字面量替换为 {@code ?}，
+     * 把仅由占位符组成的列表（{@code IN (?, ?)}、多行 {@code VALUES}）折叠为 {@code (...)}。
+     * 引号内的标识符保持原样。
+     */
+    public static String fingerprint(String sql) {
+        Objects.requireNonNull(sql, "sql");
+        StringBuilder out = new StringBuilder(sql.length());
+        int length = sql.length();
+        int i = 0;
+        boolean pendingSpace = false;
+        // 折叠在同一次扫描中完成：open 为尚未闭合、只含占位符与逗号的括号在 out 中的位置，
+        // collapsed 为最近一个 (...) 之后的位置，用于把相邻的 (...), (...) 合并为一个
+        int open = -1;
+        boolean afterValue = false;
+        int collapsed = -1;
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = true;
+                i++;
+                continue;
+            }
+            if (c == '-' && i + 1 < length && sql.charAt(i + 1) == '-') {
+                while (i < length && sql.charAt(i) != '\n') {
+                    i++;
+                }
+                pendingSpace = true;
+                continue;
+            }
+            if (c == '/' && i + 1 < length && sql.charAt(i + 1) == '*') {
+                int end = sql.indexOf("*/", i + 2);
+                i = end < 0 ? length : end + 2;
+                pendingSpace = true;
+                continue;
+            }
+            if (pendingSpace && out.length() > 0) {
+                out.append(' ');
+            }
+            pendingSpace = false;
+            boolean value = false;
+            if (c == '\'') {
+                i = skipQuoted(sql, i, '\'');
+                out.append('?');
+                value = true;
+            } else if (c == '"' || c == '`') {
+                int end = skipQuoted(sql, i, c);
+                out.append(sql, i, end);
+                i = end;
+            } else if (c == '[') {
+                int end = sql.indexOf(']', i + 1);
+                end = end < 0 ? length : end + 1;
+                out.append(sql, i, end);
+                i = end;
+            } else if (Character.isDigit(c) && (i == 0 || !isIdentifierPart(sql.charAt(i - 1)))) {
+                i++;
+                while (i < length && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+                    i++;
+                }
+                out.append('?');
+                value = true;
+            } else if (isIdentifierPart(c)) {
+                int start = i;
+                while (i < length && isIdentifierPart(sql.charAt(i))) {
+                    i++;
+                }
+                out.append(sql, start, i);
+            } else {
+                i++;
+                if (c == '(') {
+                    open = out.length();
+                    afterValue = false;
+                    out.append(c);
+                    continue;
+                }
+                if (c == ',' && open >= 0 && afterValue) {
+                    afterValue = false;
+                    out.append(c);
+                    continue;
+                }
+                if (c == ')' && open >= 0 && afterValue) {
+                    out.setLength(open);
+                    if (collapsed >= 0 && isListSeparator(out, collapsed)) {
+                        out.setLength(collapsed);
+                    } else {
+                        out.append(COLLAPSED);
+                        collapsed = out.length();
+                    }
+                    open = -1;
+                    continue;
+                }
+                value = c == '?';
+                out.append(c);
+            }
+            if (value && open >= 0 && !afterValue) {
+                afterValue = true;
+            } else {
+                open = -1;
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * {@code out} 从 {@code from} 到末尾是否只有一个逗号与空格。
+     */
+    private static boolean isListSeparator(StringBuilder out, int from) {
+        boolean comma = false;
+        for (int i = from; i < out.length(); i++) {
+            char c = out.charAt(i);
+            if (c == ',' && !comma) {
+                comma = true;
+            } else if (c != ' ') {
+                return false;
+            }
+        }
+        return comma;
+    }
+
+    private static int skipQuoted(String sql, int start, char quote) {
+        int i = start + 1;
+        while (i < sql.length()) {
+            if (sql.charAt(i) == quote) {
+                if (i + 1 < sql.length() && sql.charAt(i + 1) == quote) {
+                    i += 2;
+                    continue;
+                }
+                return i + 1;
+            }
+            i++;
+        }
+        return sql.length();
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+    }
+
+    private Entry entry(String sql) {
+        State current = state;
+        Entry entry = current.bySql.get(sql);
+        if (entry != null) {
+            return entry;
+        }
+        String fingerprint = fingerprint(sql);
+        entry = current.byFingerprint.get(fingerprint);
+        if (entry == null) {
+            entry = current.byFingerprint.size() >= maxStatements
+                ? current.other
+                : current.byFingerprint.computeIfAbsent(fingerprint, Entry::new);
+        }
+        if (sql.length() <= MAX_CACHED_SQL_LENGTH
+            && current.bySql.size() < maxStatements * 4
+            && current.cachedChars.get() + sql.length() <= (long) maxStatements * CACHED_CHARS_PER_STATEMENT
+            && current.bySql.putIfAbsent(sql, entry) == null) {
+            current.cachedChars.addAndGet(sql.length());
+        }
+        return entry;
+    }
+
+    private static final class State {
+        private final ConcurrentHashMap<String, Entry> bySql = new ConcurrentHashMap<>();
+        private final AtomicLong cachedChars = new AtomicLong();
+        private final ConcurrentHashMap<String, Entry> byFingerprint = new ConcurrentHashMap<>();
+        private final Entry other = new Entry(OTHER);
+        private final LongAdder renderErrors = new LongAdder();
+    }
+
+    private static final class Entry {
+        private final String fingerprint;
+        private final LatencyHistogram render = new LatencyHistogram();
+        private final LatencyHistogram execute = new LatencyHistogram();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+
+        private Entry(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+
+        private SqlStatementStats snapshot() {
+            return new SqlStatementStats(fingerprint, rows.sum(), errors.sum(), render.snapshot(), execute.snapshot());
+        }
+    }
+
+    public static final class Builder {
+        private int maxStatements = DEFAULT_MAX_STATEMENTS;
+
+        private Builder() {
+        }
+
+        /**
+         * 最多分别统计的语句指纹数，默认 {@value SqlMetrics#DEFAULT_MAX_STATEMENTS}；每个指纹约占 5KB。
+         */
+        public Builder maxStatements(int maxStatements) {
+            if (maxStatements < 1) {
+                throw new IllegalArgumentException("maxStatements must be >= 1");
+            }
+            this.maxStatements = maxStatements;
+            return this;
+        }
+
+        public SqlMetrics build() {
+            return new SqlMetrics(this);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package io.lighting.lumen.db;
+
+import java.util.Objects;
+
+/**
+ * {@link SqlMetrics} 中单条语句指纹的统计快照。
+ *
+ * @param fingerprint 归一化后的 SQL，见 {@link SqlMetrics#fingerprint(String)}
+ * @param rows        累计行数（查询为返回行数，写操作为影响行数）
+ * @param errors      执行失败次数
+ * @param render      渲染耗时分布
+ * @param execute     执行耗时分布（含失败的执行）
+ */
+public record SqlStatementStats(String fingerprint, long rows, long errors, Latency render, Latency execute) {
+    public SqlStatementStats {
+        Objects.requireNonNull(fingerprint, "fingerprint");
+        Objects.requireNonNull(render, "render");
+        Objects.requireNonNull(execute, "execute");
+    }
+
+    public long executions() {
+        return execute.count();
+    }
+
+    /**
+     * 耗时分布；分位数为所在直方图桶的上界，相对误差不超过 12.5%，单位均为纳秒。
+     *
+     * @param count      样本数
+     * @param totalNanos 总耗时
+     * @param p50Nanos   中位数
+     * @param p95Nanos   95 分位
+     * @param p99Nanos   99 分位
+     * @param maxNanos   最大值
+     */
+    public record Latency(long count, long totalNanos, long p50Nanos, long p95Nanos, long p99Nanos, long maxNanos) {
+        public long meanNanos() {
+            return count == 0 ? 0L : totalNanos / count;
+        }
+    }
+}
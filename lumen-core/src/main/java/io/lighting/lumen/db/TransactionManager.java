@@ -1,23 +1,40 @@
 package io.lighting.lumen.db;
 
+import io.lighting.lumen.id.IdGeneratorProvider;
+import io.lighting.lumen.id.IdGenerators;
 import io.lighting.lumen.jdbc.JdbcExecutor;
+import io.lighting.lumen.jdbc.StatementCache;
+import io.lighting.lumen.jdbc.StatementCacheStats;
 import io.lighting.lumen.meta.EntityMetaRegistry;
 import io.lighting.lumen.sql.Dialect;
 import io.lighting.lumen.sql.SqlRenderer;
 import io.lighting.lumen.template.EntityNameResolver;
+import io.lighting.lumen.template.SqlTemplateCache;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import javax.sql.DataSource;
 
 public final class TransactionManager {
+    private static final ThreadLocal<TransactionScope> SCOPE = new ThreadLocal<>();
+    /**
+     * 与 {@link #SCOPE} 分开保存：最外层事务结束时移除作用域，只留下一个时间戳。
+     */
+    private static final ThreadLocal<Long> LAST_COMPLETED = new ThreadLocal<>();
+
     private final DataSource dataSource;
     private final SqlRenderer renderer;
     private final Dialect dialect;
     private final EntityMetaRegistry metaRegistry;
     private final EntityNameResolver entityNameResolver;
     private final List<DbObserver> observers;
+    private final int statementCacheSize;
+    private final SqlTemplateCache templateCache;
+    private final IdGeneratorProvider idGeneratorProvider;
+    private StatementCacheStats statementCacheStats = StatementCacheStats.EMPTY;
 
     public TransactionManager(
         DataSource dataSource,
@@ -26,7 +43,7 @@ public final class TransactionManager {
         EntityMetaRegistry metaRegistry,
         EntityNameResolver entityNameResolver
     ) {
-        this(dataSource, renderer, dialect, metaRegistry, entityNameResolver, List.of());
+        this(builder(dataSource, renderer, dialect, metaRegistry, entityNameResolver));
     }
 
     public TransactionManager(
@@ -37,12 +54,39 @@ public final class TransactionManager {
         EntityNameResolver entityNameResolver,
         List<DbObserver> observers
     ) {
-        this.dataSource = Objects.requireNonNull(dataSource, "dataSource");
-        this.renderer = Objects.requireNonNull(renderer, "renderer");
-        this.dialect = Objects.requireNonNull(dialect, "dialect");
-        this.metaRegistry = Objects.requireNonNull(metaRegistry, "metaRegistry");
-        this.entityNameResolver = Objects.requireNonNull(entityNameResolver, "entityNameResolver");
-        this.observers = List.copyOf(Objects.requireNonNull(observers, "observers"));
+        this(builder(dataSource, renderer, dialect, metaRegistry, entityNameResolver).observers(observers));
+    }
+
+    private TransactionManager(Builder builder) {
+        this.dataSource = builder.dataSource;
+        this.renderer = builder.renderer;
+        this.dialect = builder.dialect;
+        this.metaRegistry = builder.metaRegistry;
+        this.entityNameResolver = builder.entityNameResolver;
+        this.observers = builder.observers;
+        this.statementCacheSize = builder.statementCacheSize;
+        this.templateCache = builder.templateCache == null ? SqlTemplateCache.builder().build() : builder.templateCache;
+        this.idGeneratorProvider = builder.idGeneratorProvider;
+    }
+
+    /**
+     * 以必需的组件创建构建器，其余选项均有默认值。
+     */
+    public static Builder builder(
+        DataSource dataSource,
+        SqlRenderer renderer,
+        Dialect dialect,
+        EntityMetaRegistry metaRegistry,
+        EntityNameResolver entityNameResolver
+    ) {
+        return new Builder(dataSource, renderer, dialect, metaRegistry, entityNameResolver);
+    }
+
+    /**
+     * 所有已结束事务的语句缓存统计累计值。
+     */
+    public synchronized StatementCacheStats statementCacheStats() {
+        return statementCacheStats;
     }
 
     public <T> T inTransaction(TransactionCallback<T> callback) throws SQLException {
@@ -50,15 +94,15 @@ public final class TransactionManager {
         try (Connection connection = dataSource.getConnection()) {
             boolean autoCommit = connection.getAutoCommit();
             connection.setAutoCommit(false);
-            JdbcExecutor executor = new JdbcExecutor(connection);
-            DefaultDb db = new DefaultDb(
-                executor,
-                renderer,
-                dialect,
-                metaRegistry,
-                entityNameResolver,
-                observers
-            );
+            JdbcExecutor executor = new JdbcExecutor(connection, statementCacheSize);
+            TransactionScope scope = enterScope();
+            List<Runnable> completions = scope.completions.peek();
+            DefaultDb db = DefaultDb.builder(executor, renderer, dialect, metaRegistry, entityNameResolver)
+                .observers(observers)
+                .templateCache(templateCache)
+                .idGeneratorProvider(idGeneratorProvider)
+                .dataSourceKey(dataSource)
+                .build();
             try {
                 T result = callback.apply(db);
                 connection.commit();
@@ -67,8 +111,160 @@ public final class TransactionManager {
                 connection.rollback();
                 throw ex;
             } finally {
-                connection.setAutoCommit(autoCommit);
+                exitScope(scope);
+                try {
+                    runCompletions(completions);
+                } finally {
+                    recordStatementCache(executor);
+                    connection.setAutoCommit(autoCommit);
+                }
             }
         }
     }
+
+    /**
+     * 当前线程是否处于 {@link #inTransaction} 回调中。
+     */
+    public static boolean isActive() {
+        TransactionScope scope = SCOPE.get();
+        return scope != null && scope.depth > 0;
+    }
+
+    /**
+     * 在当前线程最内层事务结束（提交或回滚）后执行 {@code action}；不在事务中时立即执行。
+     * 用于缓存失效等必须晚于提交的动作，避免并发读在提交前把旧值重新放回缓存。
+     */
+    public static void afterCompletion(Runnable action) {
+        Objects.requireNonNull(action, "action");
+        TransactionScope scope = SCOPE.get();
+        if (scope == null || scope.depth == 0) {
+            action.run();
+            return;
+        }
+        scope.completions.peek().add(action);
+    }
+
+    /**
+     * 当前线程最近一次事务结束的 {@link System#nanoTime()}；从未执行过事务时返回 {@code null}。
+     */
+    static Long lastCompletedNanos() {
+        return LAST_COMPLETED.get();
+    }
+
+    private static TransactionScope enterScope() {
+        TransactionScope scope = SCOPE.get();
+        if (scope == null) {
+            scope = new TransactionScope();
+            SCOPE.set(scope);
+        }
+        scope.depth++;
+        scope.completions.push(new ArrayList<>());
+        return scope;
+    }
+
+    private static void exitScope(TransactionScope scope) {
+        scope.completions.pop();
+        scope.depth--;
+        if (scope.depth == 0) {
+            SCOPE.remove();
+        }
+        LAST_COMPLETED.set(System.nanoTime());
+    }
+
+    private static void runCompletions(List<Runnable> completions) {
+        RuntimeException failure = null;
+        for (Runnable completion : completions) {
+            try {
+                completion.run();
+            } catch (RuntimeException ex) {
+                if (failure == null) {
+                    failure = ex;
+                } else {
+                    failure.addSuppressed(ex);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void recordStatementCache(JdbcExecutor executor) {
+        StatementCacheStats stats = executor.statementCacheStats();
+        synchronized (this) {
+            statementCacheStats = statementCacheStats.plus(stats);
+        }
+        try {
+            executor.closeStatementCache();
+        } catch (SQLException ignored) {
+            // statements are closed with the connection anyway
+        }
+    }
+
+    private static final class TransactionScope {
+        private final ArrayDeque<List<Runnable>> completions = new ArrayDeque<>();
+        private int depth;
+    }
+
+    public static final class Builder {
+        private final DataSource dataSource;
+        private final SqlRenderer renderer;
+        private final Dialect dialect;
+        private final EntityMetaRegistry metaRegistry;
+        private final EntityNameResolver entityNameResolver;
+        private List<DbObserver> observers = List.of();
+        private int statementCacheSize = StatementCache.DEFAULT_MAX_SIZE;
+        private SqlTemplateCache templateCache;
+        private IdGeneratorProvider idGeneratorProvider = IdGenerators::forStrategy;
+
+        private Builder(
+            DataSource dataSource,
+            SqlRenderer renderer,
+            Dialect dialect,
+            EntityMetaRegistry metaRegistry,
+            EntityNameResolver entityNameResolver
+        ) {
+            this.dataSource = Objects.requireNonNull(dataSource, "dataSource");
+            this.renderer = Objects.requireNonNull(renderer, "renderer");
+            this.dialect = Objects.requireNonNull(dialect, "dialect");
+            this.metaRegistry = Objects.requireNonNull(metaRegistry, "metaRegistry");
+            this.entityNameResolver = Objects.requireNonNull(entityNameResolver, "entityNameResolver");
+        }
+
+        public Builder observers(List<DbObserver> observers) {
+            this.observers = List.copyOf(Objects.requireNonNull(observers, "observers"));
+            return this;
+        }
+
+        /**
+         * 每个事务连接上缓存的 PreparedStatement 数量上限，0 表示不缓存。
+         */
+        public Builder statementCacheSize(int statementCacheSize) {
+            if (statementCacheSize < 0) {
+                throw new IllegalArgumentException("statementCacheSize must be >= 0");
+            }
+            this.statementCacheSize = statementCacheSize;
+            return this;
+        }
+
+        /**
+         * 事务内 {@link Db#run} 共享的模板解析缓存，可与非事务 Db 共用同一实例；默认新建一个。
+         */
+        public Builder templateCache(SqlTemplateCache templateCache) {
+            this.templateCache = Objects.requireNonNull(templateCache, "templateCache");
+            return this;
+        }
+
+        /**
+         * 事务内 {@link Db#bulkLoader()} 为非 AUTO 空主键取号的生成器来源；默认 {@link IdGenerators#forStrategy}。
+         */
+        public Builder idGeneratorProvider(IdGeneratorProvider idGeneratorProvider) {
+            this.idGeneratorProvider = Objects.requireNonNull(idGeneratorProvider, "idGeneratorProvider");
+            return this;
+        }
+
+        public TransactionManager build() {
+            return new TransactionManager(this);
+        }
+    }
 }
@@ -6,8 +6,12 @@ import io.lighting.lumen.jdbc.RowMapper;
 import io.lighting.lumen.jdbc.RowMappers;
 import io.lighting.lumen.meta.Column;
 import io.lighting.lumen.meta.EntityMetaRegistry;
+import io.lighting.lumen.page.KeysetPage;
+import io.lighting.lumen.page.KeysetPageRequest;
 import io.lighting.lumen.page.PageRequest;
 import io.lighting.lumen.page.PageResult;
+import io.lighting.lumen.page.SortDirection;
+import io.lighting.lumen.page.SortItem;
 import io.lighting.lumen.sql.Bindings;
 import io.lighting.lumen.sql.ast.Expr;
 import io.lighting.lumen.sql.ast.OrderItem;
@@ -266,6 +270,43 @@ public final class DbDsl {
             return db.page(pageQuery, countQuery, pageRequest, mapper);
         }
 
+        /**
+         * 执行键集分页查询，使用自动行映射器。
+         *
+         * @param request 键集分页请求
+         * @return 键集分页结果
+         * @throws SQLException 数据库访问异常
+         */
+        public KeysetPage<T> toKeysetPage(KeysetPageRequest request) throws SQLException {
+            return toKeysetPage(request, RowMappers.auto(resultType));
+        }
+
+        /**
+         * 执行键集分页查询，使用自定义行映射器。
+         * <p>
+         * 请求带排序时按其字段排序，否则使用 {@link #orderBy}/{@link #orderByDesc} 设置的排序；
+         * 排序键应唯一，通常以主键结尾。已设置的 {@link #page} 不生效。
+         *
+         * @param request 键集分页请求
+         * @param mapper  行映射器
+         * @return 键集分页结果
+         * @throws SQLException 数据库访问异常
+         */
+        public KeysetPage<T> toKeysetPage(KeysetPageRequest request, RowMapper<T> mapper) throws SQLException {
+            Objects.requireNonNull(request, "request");
+            Objects.requireNonNull(mapper, "mapper");
+            List<OrderItem> keys = new ArrayList<>(orderBy);
+            if (!request.sort().isEmpty()) {
+                keys.clear();
+                for (SortItem item : request.sort().items()) {
+                    ColumnRef column = table.col(item.key());
+                    keys.add(item.direction() == SortDirection.ASC ? column.asc() : column.desc());
+                }
+            }
+            SelectStmt stmt = new SelectStmt(selectItems, table.ref(), List.of(), where, List.of(), null, keys, null);
+            return db.keysetPage(stmt, Bindings.empty(), request, mapper);
+        }
+
         /**
          * 应用排序规则。
          *
@@ -386,6 +427,31 @@ public final class DbDsl {
             return parent.toPage(pageRequest, mapper);
         }
 
+        /**
+         * 生成 where 条件并执行键集分页查询，使用自动行映射器。
+         *
+         * @param request 键集分页请求
+         * @return 键集分页结果
+         * @throws SQLException 数据库访问异常
+         */
+        public KeysetPage<T> toKeysetPage(KeysetPageRequest request) throws SQLException {
+            parent.setWhere(build());
+            return parent.toKeysetPage(request);
+        }
+
+        /**
+         * 生成 where 条件并执行键集分页查询，使用自定义行映射器。
+         *
+         * @param request 键集分页请求
+         * @param mapper  行映射器
+         * @return 键集分页结果
+         * @throws SQLException 数据库访问异常
+         */
+        public KeysetPage<T> toKeysetPage(KeysetPageRequest request, RowMapper<T> mapper) throws SQLException {
+            parent.setWhere(build());
+            return parent.toKeysetPage(request, mapper);
+        }
+
         @Override
         protected WhereStep<T, E> self() {
             return this;
@@ -137,18 +137,41 @@ public final class SelectBuilder {
     public static final class JoinBuilder {
         private final FromBuilder parent;
         private final JoinType type;
-        private final TableRef table;
+        private final Table table;
 
         private JoinBuilder(FromBuilder parent, JoinType type, Table table) {
             this.parent = Objects.requireNonNull(parent, "parent");
-            Objects.requireNonNull(table, "table");
+            this.table = Objects.requireNonNull(table, "table");
             this.type = Objects.requireNonNull(type, "type");
-            this.table = table.ref();
         }
 
         public FromBuilder on(Expr on) {
-            parent.addJoin(new Join(type, table, Objects.requireNonNull(on, "on")));
+            Objects.requireNonNull(on, "on");
+            parent.addJoin(new Join(type, table.ref(), on, matchesId(on)));
             return parent;
         }
+
+        /**
+         * 连接条件（或其 AND 项之一）是否为 {@code 被连接表别名.主键 = 其他表达式}，即每行至多匹配一行。
+         */
+        private boolean matchesId(Expr on) {
+            ColumnRef id = table.alias() == null ? null : table.idCol();
+            if (id == null) {
+                return false;
+            }
+            List<Expr> terms = on instanceof Expr.And and ? and.items() : List.of(on);
+            for (Expr term : terms) {
+                if (term instanceof Expr.Compare compare && compare.op() == Expr.Op.EQ) {
+                    Expr other = compare.left().equals(id.expr()) ? compare.right()
+                        : compare.right().equals(id.expr()) ? compare.left() : null;
+                    if (other instanceof Expr.Column column
+                        && column.tableAlias() != null
+                        && !column.tableAlias().equals(table.alias())) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
     }
 }
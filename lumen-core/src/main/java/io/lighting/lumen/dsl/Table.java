@@ -53,6 +53,16 @@ public final class Table {
         return col(property.name());
     }
 
+    /**
+     * 主键列引用；实体未声明 {@code @Id} 时返回 {@code null}。
+     */
+    ColumnRef idCol() {
+        return macros.metaOf(entityType)
+            .idMeta()
+            .map(idMeta -> new ColumnRef(alias, idMeta.columnName()))
+            .orElse(null);
+    }
+
     public LogicalDelete logicalDelete() {
         io.lighting.lumen.meta.LogicDeleteMeta meta = macros.metaOf(entityType)
             .logicDeleteMeta()
@@ -5,6 +5,7 @@ import io.lighting.lumen.meta.EntityMetaRegistry;
 import io.lighting.lumen.meta.IdMeta;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.LongSupplier;
 
 public final class EntityIdGenerator {
     private final EntityMetaRegistry metaRegistry;
@@ -20,13 +21,30 @@ public final class EntityIdGenerator {
     }
 
     public Optional<Object> generate(Class<?> entityType) {
+        return Optional.ofNullable(generatorOf(entityType).nextId());
+    }
+
+    /**
+     * 为一批至多 {@code count} 个实体取号的生成器：Snowflake 按号段租用（见 {@link SnowflakeIdGenerator#lease(int)}），
+     * 其他策略原样返回。返回的生成器仅供当前批次在单个线程内使用。
+     */
+    public IdGenerator<?> batch(Class<?> entityType, int count) {
+        IdGenerator<?> generator = generatorOf(entityType);
+        if (generator instanceof SnowflakeIdGenerator snowflake) {
+            LongSupplier lease = snowflake.lease(count);
+            return lease::getAsLong;
+        }
+        return generator;
+    }
+
+    private IdGenerator<?> generatorOf(Class<?> entityType) {
         EntityMeta meta = metaRegistry.metaOf(entityType);
         IdMeta idMeta = meta.idMeta()
             .orElseThrow(() -> new IllegalArgumentException("Missing @Id on " + entityType.getName()));
-        IdGenerator<?> generator = provider.generator(idMeta.strategy());
+        IdGenerator<?> generator = provider.generator(idMeta.strategy(), meta.table());
         if (generator == null) {
             throw new IllegalStateException("No generator configured for " + idMeta.strategy());
         }
-        return Optional.ofNullable(generator.nextId());
+        return generator;
     }
 }
@@ -5,4 +5,11 @@ import io.lighting.lumen.meta.IdStrategy;
 @FunctionalInterface
 public interface IdGeneratorProvider {
     IdGenerator<?> generator(IdStrategy strategy);
+
+    /**
+     * 按实体表选择生成器，默认忽略表名；按表分段的策略（如 {@link IdStrategy#SEGMENT}）覆盖此方法。
+     */
+    default IdGenerator<?> generator(IdStrategy strategy, String table) {
+        return generator(strategy);
+    }
 }
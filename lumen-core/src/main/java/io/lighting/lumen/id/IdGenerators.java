@@ -3,6 +3,10 @@ package io.lighting.lumen.id;
 import io.lighting.lumen.meta.IdStrategy;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import javax.sql.DataSource;
 
 public final class IdGenerators {
     private static final IdGenerator<UUID> UUID_GENERATOR = UUID::randomUUID;
@@ -27,12 +31,47 @@ public final class IdGenerators {
             .build();
     }
 
+    /**
+     * 默认生成器；{@link IdStrategy#SEGMENT} 依赖数据源，此处返回 null，需使用 {@link #segments(DataSource)}。
+     */
     public static IdGenerator<?> forStrategy(IdStrategy strategy) {
         Objects.requireNonNull(strategy, "strategy");
         return switch (strategy) {
             case AUTO -> AUTO;
             case UUID -> uuid();
             case SNOWFLAKE -> snowflake();
+            case SEGMENT -> null;
+        };
+    }
+
+    /**
+     * 支持 {@link IdStrategy#SEGMENT} 的提供者：每张实体表在默认分配表中使用一行（行键为表名），
+     * 其余策略同 {@link #forStrategy(IdStrategy)}。
+     */
+    public static IdGeneratorProvider segments(DataSource dataSource) {
+        Objects.requireNonNull(dataSource, "dataSource");
+        return segments(table -> SegmentIdGenerator.builder(dataSource).name(table).build());
+    }
+
+    /**
+     * 支持 {@link IdStrategy#SEGMENT} 的提供者，按表名通过 {@code factory} 创建并缓存号段生成器。
+     */
+    public static IdGeneratorProvider segments(Function<String, ? extends IdGenerator<?>> factory) {
+        Objects.requireNonNull(factory, "factory");
+        ConcurrentMap<String, IdGenerator<?>> segments = new ConcurrentHashMap<>();
+        return new IdGeneratorProvider() {
+            @Override
+            public IdGenerator<?> generator(IdStrategy strategy) {
+                return generator(strategy, SegmentIdGenerator.DEFAULT_NAME);
+            }
+
+            @Override
+            public IdGenerator<?> generator(IdStrategy strategy, String table) {
+                if (strategy != IdStrategy.SEGMENT) {
+                    return forStrategy(strategy);
+                }
+                return segments.computeIfAbsent(table, factory);
+            }
         };
     }
 }
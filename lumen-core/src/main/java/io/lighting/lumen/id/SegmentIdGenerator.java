@@ -0,0 +1,281 @@
+package io.lighting.lumen.id;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.regex.Pattern;
+import javax.sql.DataSource;
+
+/**
+ * 号段（hi/lo）主键：每次在独立事务中从分配表取走 {@code step} 个连续的号，之后在内存中发放。
+ * <p>
+ * 分配表结构（表名可配置）：
+ * <pre>{@code
+ * CREATE TABLE lumen_id_segment (
+ *     id_name VARCHAR(128) PRIMARY KEY,
+ *     next_id BIGINT NOT NULL
+ * );
+ * }</pre>
+ * 首次取号时自动插入该 {@code id_name} 的行，号从 1 开始。多个节点共用同一行时各自领取互不重叠的号段，
+ * 号在单个节点内递增，跨节点只保证唯一。
+ * <p>
+ * 当前号段用掉 {@link Builder#prefetchRatio(double)}（默认 80%）时在后台预取下一段（双缓冲），
+ * 发号路径只有一次原子自增；仅在切换号段时加锁。重启或未用完的号段会留下空洞。
+ */
+public final class SegmentIdGenerator implements IdGenerator<Long>, LongSupplier {
+    public static final String DEFAULT_TABLE = "lumen_id_segment";
+    public static final String DEFAULT_NAME = "default";
+    public static final int DEFAULT_STEP = 1000;
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*(\\.[A-Za-z_][A-Za-z0-9_]*)?");
+    private static final Segment EMPTY = new Segment(0L, 0L, -1L);
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+    private static final ExecutorService PREFETCH_EXECUTOR = Executors.newCachedThreadPool(task -> {
+        Thread thread = new Thread(task, "lumen-id-segment-" + THREAD_COUNTER.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final DataSource dataSource;
+    private final String name;
+    private final int step;
+    private final double prefetchRatio;
+    private final Executor executor;
+    private final String updateSql;
+    private final String selectSql;
+    private final String insertSql;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicReference<CompletableFuture<Segment>> prefetched = new AtomicReference<>();
+    private volatile Segment current = EMPTY;
+
+    private SegmentIdGenerator(Builder builder) {
+        this.dataSource = builder.dataSource;
+        this.name = builder.name;
+        this.step = builder.step;
+        this.prefetchRatio = builder.prefetchRatio;
+        this.executor = builder.executor;
+        this.updateSql = "UPDATE " + builder.table + " SET next_id = next_id + ? WHERE id_name = ?";
+        this.selectSql = "SELECT next_id FROM " + builder.table + " WHERE id_name = ?";
+        this.insertSql = "INSERT INTO " + builder.table + " (id_name, next_id) VALUES (?, ?)";
+    }
+
+    public static Builder builder(DataSource dataSource) {
+        return new Builder(dataSource);
+    }
+
+    @Override
+    public Long nextId() {
+        return nextLong();
+    }
+
+    /**
+     * 与 {@link #nextId()} 相同，不装箱。
+     *
+     * @throws IllegalStateException 分配号段失败
+     */
+    public long nextLong() {
+        while (true) {
+            Segment segment = current;
+            long id = segment.cursor.getAndIncrement();
+            if (id < segment.end) {
+                if (id == segment.prefetchAt) {
+                    prefetch();
+                }
+                return id;
+            }
+            switchFrom(segment);
+        }
+    }
+
+    @Override
+    public long getAsLong() {
+        return nextLong();
+    }
+
+    private void prefetch() {
+        if (prefetched.get() == null) {
+            prefetched.set(CompletableFuture.supplyAsync(this::allocate, executor));
+        }
+    }
+
+    /**
+     * 当前号段耗尽：优先使用预取的号段，预取失败或尚未触发时同步分配。
+     */
+    private void switchFrom(Segment exhausted) {
+        lock.lock();
+        try {
+            if (current != exhausted) {
+                return;
+            }
+            CompletableFuture<Segment> next = prefetched.getAndSet(null);
+            Segment segment = null;
+            if (next != null) {
+                try {
+                    segment = next.join();
+                } catch (CompletionException ex) {
+                    // 预取失败时同步重新分配，错误由同步分配抛出
+                }
+            }
+            current = segment != null ? segment : allocate();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Segment allocate() {
+        SQLException failure = null;
+        for (int attempt = 0; attempt < 2; attempt++) {
+            try {
+                long end = allocateInTransaction();
+                long start = end - step;
+                long prefetchAt = prefetchRatio >= 1.0
+                    ? -1L
+                    : start + Math.min(step - 1, (long) (step * prefetchRatio));
+                return new Segment(start, end, prefetchAt);
+            } catch (SQLException ex) {
+                // 并发首次插入同一行时，失败方重试一次即可走 UPDATE 分支
+                failure = ex;
+            }
+        }
+        throw new IllegalStateException("Failed to allocate id segment '" + name + "'", failure);
+    }
+
+    /**
+     * 在独立事务中推进 next_id，返回新号段的结束值（不含）。
+     */
+    private long allocateInTransaction() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                long end = advance(connection);
+                connection.commit();
+                return end;
+            } catch (SQLException | RuntimeException ex) {
+                connection.rollback();
+                throw ex;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    private long advance(Connection connection) throws SQLException {
+        try (PreparedStatement update = connection.prepareStatement(updateSql)) {
+            update.setLong(1, step);
+            update.setString(2, name);
+            if (update.executeUpdate() == 0) {
+                long end = 1L + step;
+                try (PreparedStatement insert = connection.prepareStatement(insertSql)) {
+                    insert.setString(1, name);
+                    insert.setLong(2, end);
+                    insert.executeUpdate();
+                }
+                return end;
+            }
+        }
+        try (PreparedStatement select = connection.prepareStatement(selectSql)) {
+            select.setString(1, name);
+            try (ResultSet rs = select.executeQuery()) {
+                if (!rs.next()) {
+                    throw new SQLException("Missing id segment row: " + name);
+                }
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    private static final class Segment {
+        private final AtomicLong cursor;
+        private final long end;
+        private final long prefetchAt;
+
+        private Segment(long start, long end, long prefetchAt) {
+            this.cursor = new AtomicLong(start);
+            this.end = end;
+            this.prefetchAt = prefetchAt;
+        }
+    }
+
+    public static final class Builder {
+        private final DataSource dataSource;
+        private String table = DEFAULT_TABLE;
+        private String name = DEFAULT_NAME;
+        private int step = DEFAULT_STEP;
+        private double prefetchRatio = 0.8;
+        private Executor executor = PREFETCH_EXECUTOR;
+
+        private Builder(DataSource dataSource) {
+            this.dataSource = Objects.requireNonNull(dataSource, "dataSource");
+        }
+
+        /**
+         * 分配表名，默认 {@value SegmentIdGenerator#DEFAULT_TABLE}。
+         */
+        public Builder table(String table) {
+            Objects.requireNonNull(table, "table");
+            if (!IDENTIFIER.matcher(table).matches()) {
+                throw new IllegalArgumentException("Invalid segment table name: " + table);
+            }
+            this.table = table;
+            return this;
+        }
+
+        /**
+         * 分配表中的行键，默认 {@value SegmentIdGenerator#DEFAULT_NAME}；按实体分段时为表名。
+         */
+        public Builder name(String name) {
+            if (name == null || name.isBlank()) {
+                throw new IllegalArgumentException("name must not be blank");
+            }
+            this.name = name;
+            return this;
+        }
+
+        /**
+         * 每次领取的号数，默认 {@value SegmentIdGenerator#DEFAULT_STEP}。
+         */
+        public Builder step(int step) {
+            if (step < 1) {
+                throw new IllegalArgumentException("step must be >= 1");
+            }
+            this.step = step;
+            return this;
+        }
+
+        /**
+         * 当前号段用掉多少比例时预取下一段，默认 0.8；为 1 时不预取，耗尽后同步分配。
+         */
+        public Builder prefetchRatio(double prefetchRatio) {
+            if (!(prefetchRatio > 0.0 && prefetchRatio <= 1.0)) {
+                throw new IllegalArgumentException("prefetchRatio must be in (0, 1]");
+            }
+            this.prefetchRatio = prefetchRatio;
+            return this;
+        }
+
+        /**
+         * 执行预取的线程池，默认共享的守护线程池。
+         */
+        public Builder executor(Executor executor) {
+            this.executor = Objects.requireNonNull(executor, "executor");
+            return this;
+        }
+
+        public SegmentIdGenerator build() {
+            return new SegmentIdGenerator(this);
+        }
+    }
+}
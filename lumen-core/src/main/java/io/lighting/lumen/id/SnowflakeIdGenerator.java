@@ -1,9 +1,22 @@
 package io.lighting.lumen.id;
 
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 import java.util.function.LongSupplier;
 
-public final class SnowflakeIdGenerator implements IdGenerator<Long> {
+/**
+ * Snowflake 主键：41 位毫秒时间戳 | 5 位数据中心 | 5 位机器 | 12 位序列。
+ * <p>
+ * 最近一次发放的（相对时间戳, 序列）打包在同一个 {@link AtomicLong} 中，发号只需一次 CAS，不加锁，
+ * 不会固定虚拟线程。序列溢出时直接进位到下一毫秒，因此一次 CAS 即可租出连续的一段号段
+ * （{@link #nextIds(int)}、{@link #lease(int)}，单次至多 4096 个）。发出的时间戳最多领先已观察到的时钟一毫秒，
+ * 超出时等待时钟追上，避免超前发出的号在重启后被重复发放。
+ * <p>
+ * 时钟回拨不超过 {@code maxBackwardsMs} 时沿用上次时间戳继续发号，超过则抛出 {@link IllegalStateException}；
+ * 回拨按观察到的最大时钟值判断，因批量租号而预支的毫秒不计入回拨。
+ */
+public final class SnowflakeIdGenerator implements IdGenerator<Long>, LongSupplier {
     private static final long DEFAULT_EPOCH = 1704067200000L; // 2024-01-01 UTC
     private static final long WORKER_ID_BITS = 5L;
     private static final long DATACENTER_ID_BITS = 5L;
@@ -12,24 +25,30 @@ public final class SnowflakeIdGenerator implements IdGenerator<Long> {
     private static final long MAX_WORKER_ID = ~(-1L << WORKER_ID_BITS);
     private static final long MAX_DATACENTER_ID = ~(-1L << DATACENTER_ID_BITS);
     private static final long SEQUENCE_MASK = ~(-1L << SEQUENCE_BITS);
+    private static final int MAX_LEASE = (int) SEQUENCE_MASK + 1;
+    private static final long WAIT_NANOS = 100_000L;
 
     private static final long WORKER_ID_SHIFT = SEQUENCE_BITS;
     private static final long DATACENTER_ID_SHIFT = SEQUENCE_BITS + WORKER_ID_BITS;
     private static final long TIMESTAMP_SHIFT = SEQUENCE_BITS + WORKER_ID_BITS + DATACENTER_ID_BITS;
 
     private final long epoch;
-    private final long workerId;
-    private final long datacenterId;
+    private final long node;
     private final long maxBackwardsMs;
     private final LongSupplier clock;
 
-    private long lastTimestamp = -1L;
-    private long sequence = 0L;
+    /**
+     * (timestamp - epoch) << SEQUENCE_BITS | sequence，即最近一次发放的号；-1 表示尚未发号。
+     */
+    private final AtomicLong state = new AtomicLong(-1L);
+    /**
+     * 观察到的最大时钟值（相对 epoch），用于回拨判断。
+     */
+    private final AtomicLong clockHigh = new AtomicLong(-1L);
 
     private SnowflakeIdGenerator(Builder builder) {
         this.epoch = builder.epoch;
-        this.workerId = builder.workerId;
-        this.datacenterId = builder.datacenterId;
+        this.node = (builder.datacenterId << DATACENTER_ID_SHIFT) | (builder.workerId << WORKER_ID_SHIFT);
         this.maxBackwardsMs = builder.maxBackwardsMs;
         this.clock = builder.clock;
     }
@@ -39,31 +58,101 @@ public final class SnowflakeIdGenerator implements IdGenerator<Long> {
     }
 
     @Override
-    public synchronized Long nextId() {
-        long timestamp = clock.getAsLong();
-        if (timestamp < epoch) {
-            throw new IllegalStateException("Clock moved before epoch");
+    public Long nextId() {
+        return nextLong();
+    }
+
+    /**
+     * 与 {@link #nextId()} 相同，不装箱。
+     */
+    public long nextLong() {
+        return toId(reserve(1));
+    }
+
+    @Override
+    public long getAsLong() {
+        return nextLong();
+    }
+
+    /**
+     * 一次 CAS 租出 {@code count}（1 到 4096）个连续的号，按递增顺序返回；当前毫秒剩余不足时预支下一毫秒。
+     */
+    public long[] nextIds(int count) {
+        if (count < 1 || count > MAX_LEASE) {
+            throw new IllegalArgumentException("count must be between 1 and " + MAX_LEASE);
         }
-        if (timestamp < lastTimestamp) {
-            long diff = lastTimestamp - timestamp;
-            if (diff > maxBackwardsMs) {
-                throw new IllegalStateException("Clock moved backwards by " + diff + "ms");
-            }
-            timestamp = lastTimestamp;
+        long first = reserve(count);
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = toId(first + i);
+        }
+        return ids;
+    }
+
+    /**
+     * 返回按号段取号的 {@link LongSupplier}：每次耗尽时租出至多 {@code batchSize}（不超过 4096）个号，
+     * 段内取号无需原子操作。返回的对象不是线程安全的，应由单个线程或单次批处理持有；未用完的号直接丢弃。
+     */
+    public LongSupplier lease(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be >= 1");
         }
-        if (timestamp == lastTimestamp) {
-            sequence = (sequence + 1) & SEQUENCE_MASK;
-            if (sequence == 0) {
-                timestamp = lastTimestamp + 1;
+        int size = Math.min(batchSize, MAX_LEASE);
+        return new LongSupplier() {
+            private long next;
+            private long end;
+
+            @Override
+            public long getAsLong() {
+                if (next == end) {
+                    next = reserve(size);
+                    end = next + size;
+                }
+                return toId(next++);
             }
-        } else {
-            sequence = 0;
+        };
+    }
+
+    /**
+     * 预留 {@code count} 个连续的打包值，返回第一个；预留范围超过时钟下一毫秒时等待时钟推进。
+     */
+    private long reserve(int count) {
+        while (true) {
+            long now = tick();
+            long current = state.get();
+            long first = now > (current >> SEQUENCE_BITS) ? now << SEQUENCE_BITS : current + 1;
+            long last = first + count - 1;
+            if ((last >> SEQUENCE_BITS) > now + 1) {
+                LockSupport.parkNanos(WAIT_NANOS);
+                continue;
+            }
+            if (state.compareAndSet(current, last)) {
+                return first;
+            }
+        }
+    }
+
+    /**
+     * 读取时钟并返回观察到的最大相对时间戳；回拨超过 {@code maxBackwardsMs} 时抛出异常。
+     */
+    private long tick() {
+        // 先读最大值再读时钟：线程在两次读取之间被挂起时，其他线程推进的最大值不会被误判为回拨
+        long high = clockHigh.get();
+        long now = clock.getAsLong() - epoch;
+        if (now < 0) {
+            throw new IllegalStateException("Clock moved before epoch");
+        }
+        if (now > high) {
+            return clockHigh.accumulateAndGet(now, Math::max);
         }
-        lastTimestamp = timestamp;
-        return ((timestamp - epoch) << TIMESTAMP_SHIFT)
-            | (datacenterId << DATACENTER_ID_SHIFT)
-            | (workerId << WORKER_ID_SHIFT)
-            | sequence;
+        if (high - now > maxBackwardsMs) {
+            throw new IllegalStateException("Clock moved backwards by " + (high - now) + "ms");
+        }
+        return high;
+    }
+
+    private long toId(long packed) {
+        return ((packed >>> SEQUENCE_BITS) << TIMESTAMP_SHIFT) | node | (packed & SEQUENCE_MASK);
     }
 
     public static final class Builder {
@@ -0,0 +1,81 @@
+package io.lighting.lumen.jdbc;
+
+import java.lang.ref.WeakReference;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 按列映射计划读取行的映射器基类，{@link RowMappers} 与 APT 生成的 {@code *_RowMapper} 共用。
+ * <p>
+ * 子类在构造时声明要读取的列名（小写），{@link #mapRow} 收到的 {@code indexes[i]} 为第 i 个列名在结果集中的序号，
+ * 未命中为 0。{@link #forResultSet} 为每个结果集只计算一次计划；直接调用 {@link #map} 时复用上一次的计划，
+ * 结果集实例变化时才重新计算。
+ */
+public abstract class ColumnPlanRowMapper<T> implements RowMapper<T> {
+    private final String[] columns;
+    private volatile Plan lastPlan;
+
+    protected ColumnPlanRowMapper(String... columns) {
+        Objects.requireNonNull(columns, "columns");
+        this.columns = columns.clone();
+        for (int i = 0; i < this.columns.length; i++) {
+            this.columns[i] = normalize(Objects.requireNonNull(this.columns[i], "column"));
+        }
+    }
+
+    /**
+     * 按列计划映射当前行。
+     */
+    protected abstract T mapRow(ResultSet resultSet, int[] indexes) throws SQLException;
+
+    @Override
+    public final T map(ResultSet resultSet) throws SQLException {
+        Plan plan = lastPlan;
+        if (plan == null || plan.resultSet.get() != resultSet) {
+            plan = new Plan(new WeakReference<>(resultSet), columnPlan(resultSet, columns));
+            lastPlan = plan;
+        }
+        return mapRow(resultSet, plan.indexes);
+    }
+
+    @Override
+    public final RowMapper<T> forResultSet(ResultSet resultSet) throws SQLException {
+        int[] indexes = columnPlan(resultSet, columns);
+        return rs -> mapRow(rs, indexes);
+    }
+
+    /**
+     * 计算列映射计划：{@code plan[i]} 为 {@code columns[i]} 在结果集中的列序号（从 1 开始），未命中为 0。
+     * 同名列取第一列。
+     */
+    static int[] columnPlan(ResultSet resultSet, String[] columns) throws SQLException {
+        ResultSetMetaData meta = resultSet.getMetaData();
+        int count = meta.getColumnCount();
+        Map<String, Integer> indexes = new HashMap<>(Math.max(16, count * 2));
+        for (int i = 1; i <= count; i++) {
+            String label = meta.getColumnLabel(i);
+            if (label == null || label.isBlank()) {
+                label = meta.getColumnName(i);
+            }
+            indexes.putIfAbsent(normalize(label), i);
+        }
+        int[] plan = new int[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            Integer index = indexes.get(columns[i]);
+            plan[i] = index == null ? 0 : index;
+        }
+        return plan;
+    }
+
+    static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    private record Plan(WeakReference<ResultSet> resultSet, int[] indexes) {
+    }
+}
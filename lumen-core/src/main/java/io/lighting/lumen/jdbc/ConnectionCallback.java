@@ -0,0 +1,9 @@
+package io.lighting.lumen.jdbc;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+@FunctionalInterface
+public interface ConnectionCallback<T> {
+    T apply(Connection connection) throws SQLException;
+}
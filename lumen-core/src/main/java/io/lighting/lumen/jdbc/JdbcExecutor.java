@@ -1,13 +1,18 @@
 package io.lighting.lumen.jdbc;
 
+import io.lighting.lumen.sql.BatchChunkListener;
 import io.lighting.lumen.sql.Bind;
+import io.lighting.lumen.sql.MultiRowInsert;
 import io.lighting.lumen.sql.RenderedSql;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 import javax.sql.DataSource;
@@ -15,29 +20,89 @@ import javax.sql.DataSource;
 public final class JdbcExecutor {
     private final DataSource dataSource;
     private final Connection connection;
+    private final StatementCache statementCache;
 
     public JdbcExecutor(DataSource dataSource) {
         this.dataSource = Objects.requireNonNull(dataSource, "dataSource");
         this.connection = null;
+        this.statementCache = null;
     }
 
     public JdbcExecutor(Connection connection) {
+        this(connection, 0);
+    }
+
+    /**
+     * 绑定到单个连接的执行器；{@code statementCacheSize > 0} 时在连接生命周期内复用 PreparedStatement，
+     * 使用完毕需调用 {@link #closeStatementCache()}。
+     */
+    public JdbcExecutor(Connection connection, int statementCacheSize) {
+        if (statementCacheSize < 0) {
+            throw new IllegalArgumentException("statementCacheSize must be >= 0");
+        }
         this.connection = Objects.requireNonNull(connection, "connection");
         this.dataSource = null;
+        this.statementCache = statementCacheSize == 0 ? null : new StatementCache(statementCacheSize);
+    }
+
+    /**
+     * 构造时传入的数据源；绑定到单个连接时返回 {@code null}。
+     */
+    public DataSource dataSource() {
+        return dataSource;
+    }
+
+    /**
+     * 是否绑定到单个连接；绑定时不能在多个线程上并发使用。
+     */
+    public boolean isConnectionBound() {
+        return connection != null;
+    }
+
+    public StatementCacheStats statementCacheStats() {
+        return statementCache == null ? StatementCacheStats.EMPTY : statementCache.stats();
+    }
+
+    public void closeStatementCache() throws SQLException {
+        if (statementCache != null) {
+            statementCache.close();
+        }
+    }
+
+    /**
+     * 在执行器使用的连接上回调，供驱动专有 API（如 COPY）使用；事务执行器传入的是事务连接，不会被关闭。
+     */
+    public <T> T withConnection(ConnectionCallback<T> callback) throws SQLException {
+        Objects.requireNonNull(callback, "callback");
+        Connection conn = acquireConnection();
+        try {
+            return callback.apply(conn);
+        } finally {
+            releaseConnection(conn);
+        }
     }
 
     public <T> List<T> fetch(RenderedSql renderedSql, RowMapper<T> mapper) throws SQLException {
         Objects.requireNonNull(renderedSql, "renderedSql");
         Objects.requireNonNull(mapper, "mapper");
         Connection conn = acquireConnection();
-        try (PreparedStatement statement = conn.prepareStatement(renderedSql.sql())) {
-            bind(statement, renderedSql.binds());
-            try (ResultSet resultSet = statement.executeQuery()) {
-                List<T> results = new ArrayList<>();
-                while (resultSet.next()) {
-                    results.add(mapper.map(resultSet));
+        try {
+            PreparedStatement statement = prepare(conn, renderedSql.sql());
+            try {
+                bind(statement, renderedSql.binds());
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    List<T> results = new ArrayList<>();
+                    RowMapper<T> rowMapper = null;
+                    while (resultSet.next()) {
+                        if (rowMapper == null) {
+                            rowMapper = mapper.forResultSet(resultSet);
+                        }
+                        results.add(rowMapper.map(resultSet));
+                    }
+                    return results;
                 }
-                return results;
+            } finally {
+                releaseStatement(renderedSql.sql(), statement);
             }
         } finally {
             releaseConnection(conn);
@@ -47,9 +112,14 @@ public final class JdbcExecutor {
     public int execute(RenderedSql renderedSql) throws SQLException {
         Objects.requireNonNull(renderedSql, "renderedSql");
         Connection conn = acquireConnection();
-        try (PreparedStatement statement = conn.prepareStatement(renderedSql.sql())) {
-            bind(statement, renderedSql.binds());
-            return statement.executeUpdate();
+        try {
+            PreparedStatement statement = prepare(conn, renderedSql.sql());
+            try {
+                bind(statement, renderedSql.binds());
+                return statement.executeUpdate();
+            } finally {
+                releaseStatement(renderedSql.sql(), statement);
+            }
         } finally {
             releaseConnection(conn);
         }
@@ -78,6 +148,108 @@ public final class JdbcExecutor {
         }
     }
 
+    /**
+     * 批量执行 INSERT 并按行顺序返回生成主键：{@code prepareStatement(sql, columnNames)} 后逐块
+     * {@code executeBatch}，每块执行完读取 {@code getGeneratedKeys()}。
+     * 驱动返回的主键数量与行数不一致时抛出 {@link SQLException}，此时数据已写入，调用方应回滚事务。
+     */
+    public <T> List<T> executeBatchAndReturnGeneratedKeys(
+        RenderedSql template,
+        List<List<Bind>> batchBinds,
+        int batchSize,
+        String columnLabel,
+        GeneratedKeyMapper<T> mapper
+    ) throws SQLException {
+        Objects.requireNonNull(template, "template");
+        Objects.requireNonNull(batchBinds, "batchBinds");
+        Objects.requireNonNull(columnLabel, "columnLabel");
+        Objects.requireNonNull(mapper, "mapper");
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be >= 1");
+        }
+        List<T> keys = new ArrayList<>(batchBinds.size());
+        if (batchBinds.isEmpty()) {
+            return keys;
+        }
+        Connection conn = acquireConnection();
+        try (PreparedStatement statement = conn.prepareStatement(template.sql(), new String[] { columnLabel })) {
+            int counter = 0;
+            for (List<Bind> binds : batchBinds) {
+                bind(statement, binds);
+                statement.addBatch();
+                counter++;
+                if (counter == batchSize) {
+                    statement.executeBatch();
+                    readKeys(statement.getGeneratedKeys(), mapper, keys);
+                    counter = 0;
+                }
+            }
+            if (counter > 0) {
+                statement.executeBatch();
+                readKeys(statement.getGeneratedKeys(), mapper, keys);
+            }
+        } finally {
+            releaseConnection(conn);
+        }
+        requireKeyCount(keys.size(), batchBinds.size());
+        return keys;
+    }
+
+    /**
+     * 以带 {@code RETURNING}/{@code OUTPUT} 的多行 INSERT 执行，从结果集按行顺序读取生成主键；
+     * 供选择 {@link io.lighting.lumen.sql.GeneratedKeyStrategy#RETURNING} 或
+     * {@link io.lighting.lumen.sql.GeneratedKeyStrategy#OUTPUT_INSERTED} 的自定义方言使用。
+     */
+    public <T> List<T> executeReturningInsert(
+        MultiRowInsert insert,
+        List<List<Bind>> rows,
+        int rowsPerStatement,
+        GeneratedKeyMapper<T> mapper
+    ) throws SQLException {
+        Objects.requireNonNull(insert, "insert");
+        Objects.requireNonNull(rows, "rows");
+        Objects.requireNonNull(mapper, "mapper");
+        if (rowsPerStatement < 1) {
+            throw new IllegalArgumentException("rowsPerStatement must be >= 1");
+        }
+        List<T> keys = new ArrayList<>(rows.size());
+        if (rows.isEmpty()) {
+            return keys;
+        }
+        Connection conn = acquireConnection();
+        try {
+            for (int from = 0; from < rows.size(); from += rowsPerStatement) {
+                RenderedSql chunk = insert.render(rows.subList(from, Math.min(rows.size(), from + rowsPerStatement)));
+                PreparedStatement statement = prepare(conn, chunk.sql());
+                try {
+                    bind(statement, chunk.binds());
+                    readKeys(statement.executeQuery(), mapper, keys);
+                } finally {
+                    releaseStatement(chunk.sql(), statement);
+                }
+            }
+        } finally {
+            releaseConnection(conn);
+        }
+        requireKeyCount(keys.size(), rows.size());
+        return keys;
+    }
+
+    private static <T> void readKeys(ResultSet resultSet, GeneratedKeyMapper<T> mapper, List<T> keys)
+        throws SQLException {
+        try (ResultSet rs = resultSet) {
+            while (rs.next()) {
+                keys.add(mapper.map(rs));
+            }
+        }
+    }
+
+    private static void requireKeyCount(int actual, int expected) throws SQLException {
+        if (actual != expected) {
+            throw new SQLException("Expected " + expected + " generated keys but got " + actual);
+        }
+    }
+
     public <T> ResultStream<T> fetchStream(RenderedSql renderedSql, RowMapper<T> mapper, int fetchSize)
         throws SQLException {
         Objects.requireNonNull(renderedSql, "renderedSql");
@@ -106,42 +278,159 @@ public final class JdbcExecutor {
     }
 
     public int[] executeBatch(RenderedSql template, List<List<Bind>> batchBinds, int batchSize) throws SQLException {
-        Objects.requireNonNull(template, "template");
         Objects.requireNonNull(batchBinds, "batchBinds");
+        int[] results = new int[batchBinds.size()];
+        executeBatch(template, batchBinds.iterator(), batchSize, collectInto(results));
+        return results;
+    }
+
+    /**
+     * 流式批处理：逐行从迭代器读取绑定参数，每 {@code batchSize} 行执行一次 {@link PreparedStatement#executeBatch()}
+     * 并回调 {@code listener}，不保留已提交的行。
+     *
+     * @return 提交的总行数
+     */
+    public long executeBatch(
+        RenderedSql template,
+        Iterator<? extends List<Bind>> rows,
+        int batchSize,
+        BatchChunkListener listener
+    ) throws SQLException {
+        Objects.requireNonNull(template, "template");
+        Objects.requireNonNull(rows, "rows");
+        Objects.requireNonNull(listener, "listener");
         if (batchSize < 1) {
             throw new IllegalArgumentException("batchSize must be >= 1");
         }
-        if (batchBinds.isEmpty()) {
-            return new int[0];
+        if (!rows.hasNext()) {
+            return 0L;
         }
         Connection conn = acquireConnection();
-        try (PreparedStatement statement = conn.prepareStatement(template.sql())) {
-            List<Integer> results = new ArrayList<>();
-            int counter = 0;
-            for (List<Bind> binds : batchBinds) {
-                bind(statement, binds);
-                statement.addBatch();
-                counter++;
-                if (counter == batchSize) {
-                    appendBatchResults(results, statement.executeBatch());
-                    counter = 0;
+        try {
+            PreparedStatement statement = prepare(conn, template.sql());
+            boolean completed = false;
+            try {
+                long submitted = 0L;
+                int counter = 0;
+                while (rows.hasNext()) {
+                    bind(statement, Objects.requireNonNull(rows.next(), "binds"));
+                    statement.addBatch();
+                    counter++;
+                    if (counter == batchSize) {
+                        listener.onChunk(submitted, statement.executeBatch());
+                        submitted += counter;
+                        counter = 0;
+                    }
+                }
+                if (counter > 0) {
+                    listener.onChunk(submitted, statement.executeBatch());
+                    submitted += counter;
+                }
+                completed = true;
+                return submitted;
+            } finally {
+                if (!completed && statementCache != null) {
+                    try {
+                        statement.clearBatch();
+                    } catch (SQLException ignored) {
+                        // ignore cleanup failure, the original error wins
+                    }
                 }
+                releaseStatement(template.sql(), statement);
             }
-            if (counter > 0) {
-                appendBatchResults(results, statement.executeBatch());
+        } finally {
+            releaseConnection(conn);
+        }
+    }
+
+    /**
+     * 以多行 VALUES 执行单行 INSERT：每 {@code rowsPerStatement} 行合并为一条语句，满块共用同一条 SQL
+     * （可被语句缓存复用），尾块单独生成。
+     * <p>
+     * 返回值按行展开：语句影响行数与合并行数一致时每行记 1，否则记 {@link Statement#SUCCESS_NO_INFO}。
+     */
+    public int[] executeMultiRowInsert(MultiRowInsert insert, List<List<Bind>> rows, int rowsPerStatement)
+        throws SQLException {
+        Objects.requireNonNull(rows, "rows");
+        int[] results = new int[rows.size()];
+        executeMultiRowInsert(insert, rows.iterator(), rowsPerStatement, collectInto(results));
+        return results;
+    }
+
+    /**
+     * {@link #executeMultiRowInsert(MultiRowInsert, List, int)} 的流式版本，每条语句执行后回调一次，
+     * 内存中最多保留 {@code rowsPerStatement} 行。
+     *
+     * @return 提交的总行数
+     */
+    public long executeMultiRowInsert(
+        MultiRowInsert insert,
+        Iterator<? extends List<Bind>> rows,
+        int rowsPerStatement,
+        BatchChunkListener listener
+    ) throws SQLException {
+        Objects.requireNonNull(insert, "insert");
+        Objects.requireNonNull(rows, "rows");
+        Objects.requireNonNull(listener, "listener");
+        if (rowsPerStatement < 1) {
+            throw new IllegalArgumentException("rowsPerStatement must be >= 1");
+        }
+        if (!rows.hasNext()) {
+            return 0L;
+        }
+        List<List<Bind>> chunk = new ArrayList<>(Math.min(rowsPerStatement, 1024));
+        long submitted = 0L;
+        Connection conn = acquireConnection();
+        try {
+            while (rows.hasNext()) {
+                chunk.add(Objects.requireNonNull(rows.next(), "binds"));
+                if (chunk.size() == rowsPerStatement || !rows.hasNext()) {
+                    listener.onChunk(submitted, executeInsertChunk(conn, insert, chunk));
+                    submitted += chunk.size();
+                    chunk.clear();
+                }
             }
-            return results.stream().mapToInt(Integer::intValue).toArray();
+            return submitted;
         } finally {
             releaseConnection(conn);
         }
     }
 
-    private void appendBatchResults(List<Integer> results, int[] updates) {
-        if (updates == null) {
-            return;
+    private int[] executeInsertChunk(Connection conn, MultiRowInsert insert, List<List<Bind>> rows)
+        throws SQLException {
+        RenderedSql rendered = insert.render(rows);
+        PreparedStatement statement = prepare(conn, rendered.sql());
+        int updated;
+        try {
+            bind(statement, rendered.binds());
+            updated = statement.executeUpdate();
+        } finally {
+            releaseStatement(rendered.sql(), statement);
+        }
+        int[] counts = new int[rows.size()];
+        Arrays.fill(counts, updated == rows.size() ? 1 : Statement.SUCCESS_NO_INFO);
+        return counts;
+    }
+
+    private static BatchChunkListener collectInto(int[] results) {
+        return (firstRow, updateCounts) -> {
+            int offset = (int) firstRow;
+            System.arraycopy(updateCounts, 0, results, offset, Math.min(updateCounts.length, results.length - offset));
+        };
+    }
+
+    private PreparedStatement prepare(Connection conn, String sql) throws SQLException {
+        if (statementCache != null) {
+            return statementCache.acquire(conn, sql);
         }
-        for (int update : updates) {
-            results.add(update);
+        return conn.prepareStatement(sql);
+    }
+
+    private void releaseStatement(String sql, PreparedStatement statement) throws SQLException {
+        if (statementCache != null) {
+            statementCache.release(sql, statement);
+        } else {
+            statement.close();
         }
     }
 
@@ -69,6 +69,15 @@ public final class JdbcTypeAdapters {
         return simpleConvert(value, targetType);
     }
 
+    /**
+     * 目标类型（含基本类型对应的包装类型）是否注册了适配器；APT 生成的行映射器据此决定能否直接调用
+     * {@code ResultSet.getXxx}。
+     */
+    public static boolean hasAdapter(Type targetType) {
+        Objects.requireNonNull(targetType, "targetType");
+        return findAdapter(targetType) != null;
+    }
+
     static Object simpleRead(ResultSet resultSet, int index, Type targetType) throws SQLException {
         Class<?> raw = rawClass(targetType);
         Object value;
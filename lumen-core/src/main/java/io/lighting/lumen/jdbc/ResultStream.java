@@ -12,6 +12,8 @@ public final class ResultStream<T> implements AutoCloseable {
     private final ResultSet resultSet;
     private final RowMapper<T> mapper;
     private final boolean closeConnection;
+    private RowMapper<T> rowMapper;
+    private Runnable closeAction;
     private boolean closed;
     private boolean hasRow;
 
@@ -29,6 +31,26 @@ public final class ResultStream<T> implements AutoCloseable {
         this.closeConnection = closeConnection;
     }
 
+    /**
+     * 注册关闭时执行的回调（流读完或显式 {@link #close()} 时执行一次），可多次注册。
+     */
+    public ResultStream<T> onClose(Runnable action) {
+        Objects.requireNonNull(action, "action");
+        if (closed) {
+            action.run();
+            return this;
+        }
+        Runnable previous = closeAction;
+        closeAction = previous == null ? action : () -> {
+            try {
+                previous.run();
+            } finally {
+                action.run();
+            }
+        };
+        return this;
+    }
+
     public boolean next() throws SQLException {
         if (closed) {
             return false;
@@ -44,7 +66,10 @@ public final class ResultStream<T> implements AutoCloseable {
         if (!hasRow) {
             throw new IllegalStateException("Call next() before row()");
         }
-        return mapper.map(resultSet);
+        if (rowMapper == null) {
+            rowMapper = mapper.forResultSet(resultSet);
+        }
+        return rowMapper.map(resultSet);
     }
 
     public T nextRow() throws SQLException {
@@ -60,6 +85,16 @@ public final class ResultStream<T> implements AutoCloseable {
             return;
         }
         closed = true;
+        try {
+            closeResources();
+        } finally {
+            if (closeAction != null) {
+                closeAction.run();
+            }
+        }
+    }
+
+    private void closeResources() throws SQLException {
         SQLException error = null;
         try {
             resultSet.close();
@@ -6,4 +6,13 @@ import java.sql.SQLException;
 @FunctionalInterface
 public interface RowMapper<T> {
     T map(ResultSet resultSet) throws SQLException;
+
+    /**
+     * 返回用于遍历该结果集的映射器，遍历开始前调用一次。
+     * <p>
+     * 默认返回自身；依赖列元数据的映射器可在此预先计算列序号，避免逐行读取 {@code ResultSetMetaData}。
+     */
+    default RowMapper<T> forResultSet(ResultSet resultSet) throws SQLException {
+        return this;
+    }
 }
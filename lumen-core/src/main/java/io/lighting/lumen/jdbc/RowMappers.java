@@ -1,23 +1,25 @@
 package io.lighting.lumen.jdbc;
 
 import io.lighting.lumen.meta.Column;
-import java.lang.reflect.Constructor;
+import io.lighting.lumen.meta.ConstructorAccessor;
+import io.lighting.lumen.meta.EntityAccessors;
+import io.lighting.lumen.meta.FieldAccessor;
+import io.lighting.lumen.meta.GeneratedEntityClasses;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.RecordComponent;
 import java.lang.reflect.Type;
 import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
-import java.util.HashMap;
 import java.util.LinkedHashMap;
-import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 public final class RowMappers {
     private static final Map<Class<?>, RowMapper<?>> CACHE = new ConcurrentHashMap<>();
+    private static final Map<RowMapper<?>, Class<?>> TYPES = new ConcurrentHashMap<>();
 
     private RowMappers() {
     }
@@ -29,7 +31,30 @@ public final class RowMappers {
         return mapper;
     }
 
+    /**
+     * {@code mapper} 由 {@link #auto} 返回时给出其结果类型，否则返回 {@code null}；
+     * 查询缓存据此把同一结果类型的查询视为同一映射。
+     */
+    public static Class<?> autoType(RowMapper<?> mapper) {
+        Objects.requireNonNull(mapper, "mapper");
+        return TYPES.get(mapper);
+    }
+
     private static RowMapper<?> createMapper(Class<?> type) {
+        RowMapper<?> mapper = instantiateMapper(type);
+        TYPES.put(mapper, type);
+        return mapper;
+    }
+
+    private static RowMapper<?> instantiateMapper(Class<?> type) {
+        RowMapper<?> generated = GeneratedEntityClasses.instantiate(
+            type,
+            GeneratedEntityClasses.ROW_MAPPER_SUFFIX,
+            RowMapper.class
+        );
+        if (generated != null) {
+            return generated;
+        }
         if (type.isRecord()) {
             return recordMapper(type);
         }
@@ -56,86 +81,125 @@ public final class RowMappers {
             }
             specs[i] = new ColumnSpec(name, component.getGenericType());
         }
-        Constructor<T> ctor = constructor(type, paramTypes);
-        return resultSet -> {
-            Map<String, Integer> indexes = columnIndexes(resultSet);
+        ConstructorAccessor<T> ctor = EntityAccessors.of(type).constructor(paramTypes);
+        String[] columns = new String[specs.length];
+        for (int i = 0; i < specs.length; i++) {
+            columns[i] = normalize(specs[i].columnName);
+        }
+        return new PlannedRowMapper<>(columns, (resultSet, indexes) -> {
             Object[] args = new Object[specs.length];
             for (int i = 0; i < specs.length; i++) {
                 ColumnSpec spec = specs[i];
-                Integer index = indexes.get(normalize(spec.columnName));
+                int index = indexes[i];
                 Object value = null;
-                if (index != null) {
+                if (index > 0) {
                     value = JdbcTypeAdapters.read(resultSet, index, spec.type);
                 }
                 args[i] = defaultIfPrimitive(spec.type, value);
             }
             try {
                 return ctor.newInstance(args);
-            } catch (ReflectiveOperationException ex) {
+            } catch (RuntimeException ex) {
                 throw new IllegalStateException("Failed to map row to " + type.getSimpleName(), ex);
             }
-        };
+        });
     }
 
     private static <T> RowMapper<T> beanMapper(Class<T> type) {
-        Constructor<T> ctor = constructor(type);
-        Map<String, Field> fields = fieldMap(type);
-        return resultSet -> {
-            Map<String, Integer> indexes = columnIndexes(resultSet);
+        EntityAccessors<T> accessors = EntityAccessors.of(type);
+        Supplier<T> factory = accessors.factory();
+        Map<String, FieldAccessor> fieldMap = fieldMap(accessors);
+        String[] columns = fieldMap.keySet().toArray(new String[0]);
+        FieldAccessor[] fields = fieldMap.values().toArray(new FieldAccessor[0]);
+        boolean[] primitiveFastPath = new boolean[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            Class<?> fieldType = fields[i].type();
+            primitiveFastPath[i] = fieldType.isPrimitive() && !JdbcTypeAdapters.hasAdapter(fieldType);
+        }
+        return new PlannedRowMapper<>(columns, (resultSet, indexes) -> {
             T instance;
             try {
-                instance = ctor.newInstance();
-            } catch (ReflectiveOperationException ex) {
+                instance = factory.get();
+            } catch (RuntimeException ex) {
                 throw new IllegalStateException("Failed to map row to " + type.getSimpleName(), ex);
             }
-            for (Map.Entry<String, Field> entry : fields.entrySet()) {
-                Integer index = indexes.get(entry.getKey());
-                if (index == null) {
+            for (int i = 0; i < fields.length; i++) {
+                int index = indexes[i];
+                if (index == 0) {
                     continue;
                 }
-                Field field = entry.getValue();
-                Object value = JdbcTypeAdapters.read(resultSet, index, field.getGenericType());
-                if (value == null && field.getType().isPrimitive()) {
+                FieldAccessor field = fields[i];
+                if (primitiveFastPath[i] && readPrimitive(resultSet, index, field, instance)) {
                     continue;
                 }
-                try {
-                    field.set(instance, value);
-                } catch (IllegalAccessException ex) {
-                    throw new IllegalStateException("Failed to map row to " + type.getSimpleName(), ex);
+                Object value = JdbcTypeAdapters.read(resultSet, index, field.genericType());
+                if (value == null && field.type().isPrimitive()) {
+                    continue;
                 }
+                field.set(instance, value);
             }
             return instance;
-        };
+        });
     }
 
-    private static Map<String, Integer> columnIndexes(ResultSet resultSet) throws SQLException {
-        ResultSetMetaData meta = resultSet.getMetaData();
-        Map<String, Integer> indexes = new HashMap<>();
-        for (int i = 1; i <= meta.getColumnCount(); i++) {
-            String label = meta.getColumnLabel(i);
-            if (label == null || label.isBlank()) {
-                label = meta.getColumnName(i);
+    /**
+     * 基本类型字段直接按原生类型读取并写入，避免装箱；驱动不支持该转换时返回 {@code false}，交由通用路径处理。
+     */
+    private static boolean readPrimitive(ResultSet resultSet, int index, FieldAccessor field, Object target) {
+        Class<?> fieldType = field.type();
+        try {
+            if (fieldType == long.class) {
+                long value = resultSet.getLong(index);
+                if (!resultSet.wasNull()) {
+                    field.setLong(target, value);
+                }
+            } else if (fieldType == int.class) {
+                int value = resultSet.getInt(index);
+                if (!resultSet.wasNull()) {
+                    field.setInt(target, value);
+                }
+            } else if (fieldType == double.class) {
+                double value = resultSet.getDouble(index);
+                if (!resultSet.wasNull()) {
+                    field.setDouble(target, value);
+                }
+            } else if (fieldType == float.class) {
+                float value = resultSet.getFloat(index);
+                if (!resultSet.wasNull()) {
+                    field.setFloat(target, value);
+                }
+            } else if (fieldType == short.class) {
+                short value = resultSet.getShort(index);
+                if (!resultSet.wasNull()) {
+                    field.setShort(target, value);
+                }
+            } else if (fieldType == byte.class) {
+                byte value = resultSet.getByte(index);
+                if (!resultSet.wasNull()) {
+                    field.setByte(target, value);
+                }
+            } else {
+                return false;
             }
-            indexes.putIfAbsent(normalize(label), i);
+            return true;
+        } catch (SQLException ex) {
+            return false;
         }
-        return indexes;
     }
 
-    private static Map<String, Field> fieldMap(Class<?> type) {
-        Map<String, Field> fields = new LinkedHashMap<>();
-        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
-            for (Field field : current.getDeclaredFields()) {
-                if (Modifier.isStatic(field.getModifiers()) || Modifier.isTransient(field.getModifiers())) {
-                    continue;
-                }
-                String name = field.getName();
-                Column column = field.getAnnotation(Column.class);
-                if (column != null && !column.name().isBlank()) {
-                    name = column.name();
-                }
-                field.setAccessible(true);
-                fields.putIfAbsent(normalize(name), field);
+    private static Map<String, FieldAccessor> fieldMap(EntityAccessors<?> accessors) {
+        Map<String, FieldAccessor> fields = new LinkedHashMap<>();
+        for (FieldAccessor accessor : accessors.fields()) {
+            Field field = accessor.field();
+            if (Modifier.isTransient(field.getModifiers())) {
+                continue;
             }
+            String name = field.getName();
+            Column column = field.getAnnotation(Column.class);
+            if (column != null && !column.name().isBlank()) {
+                name = column.name();
+            }
+            fields.putIfAbsent(normalize(name), accessor);
         }
         return fields;
     }
@@ -173,17 +237,7 @@ public final class RowMappers {
     }
 
     private static String normalize(String value) {
-        return value.toLowerCase(Locale.ROOT);
-    }
-
-    private static <T> Constructor<T> constructor(Class<T> type, Class<?>... parameterTypes) {
-        try {
-            Constructor<T> ctor = type.getDeclaredConstructor(parameterTypes);
-            ctor.setAccessible(true);
-            return ctor;
-        } catch (ReflectiveOperationException ex) {
-            throw new IllegalStateException("No accessible constructor for " + type.getSimpleName(), ex);
-        }
+        return ColumnPlanRowMapper.normalize(value);
     }
 
     private static Field findField(Class<?> type, String name) {
@@ -199,4 +253,23 @@ public final class RowMappers {
 
     private record ColumnSpec(String columnName, Type type) {
     }
+
+    @FunctionalInterface
+    private interface PlannedReader<T> {
+        T read(ResultSet resultSet, int[] indexes) throws SQLException;
+    }
+
+    private static final class PlannedRowMapper<T> extends ColumnPlanRowMapper<T> {
+        private final PlannedReader<T> reader;
+
+        private PlannedRowMapper(String[] columns, PlannedReader<T> reader) {
+            super(columns);
+            this.reader = reader;
+        }
+
+        @Override
+        protected T mapRow(ResultSet resultSet, int[] indexes) throws SQLException {
+            return reader.read(resultSet, indexes);
+        }
+    }
 }
@@ -0,0 +1,98 @@
+package io.lighting.lumen.jdbc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * 绑定到单个连接的 PreparedStatement LRU 缓存，以 SQL 文本为键。
+ * <p>
+ * 语句在使用期间从缓存中“借出”，归还时重新放入；同一 SQL 的嵌套调用会各自准备新语句，
+ * 归还时多余的一份直接关闭，因此正在使用的语句不会被淘汰。
+ * 缓存的生命周期与连接（或事务）一致，结束时需调用 {@link #close()}。
+ */
+public final class StatementCache implements AutoCloseable {
+    public static final int DEFAULT_MAX_SIZE = 64;
+
+    private final int maxSize;
+    private final LinkedHashMap<String, PreparedStatement> statements;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public StatementCache(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be >= 1");
+        }
+        this.maxSize = maxSize;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    synchronized PreparedStatement acquire(Connection connection, String sql) throws SQLException {
+        PreparedStatement statement = statements.remove(sql);
+        if (statement != null && !statement.isClosed()) {
+            hits++;
+            return statement;
+        }
+        misses++;
+        return connection.prepareStatement(sql);
+    }
+
+    synchronized void release(String sql, PreparedStatement statement) throws SQLException {
+        if (statement.isClosed()) {
+            return;
+        }
+        if (statements.containsKey(sql)) {
+            statement.close();
+            return;
+        }
+        statements.put(sql, statement);
+        if (statements.size() > maxSize) {
+            Iterator<PreparedStatement> eldest = statements.values().iterator();
+            PreparedStatement evicted = eldest.next();
+            eldest.remove();
+            evictions++;
+            evicted.close();
+        }
+    }
+
+    public int maxSize() {
+        return maxSize;
+    }
+
+    public synchronized int size() {
+        return statements.size();
+    }
+
+    public synchronized StatementCacheStats stats() {
+        return new StatementCacheStats(hits, misses, evictions);
+    }
+
+    /**
+     * 关闭并清空所有缓存的语句；计数器保留。
+     */
+    @Override
+    public synchronized void close() throws SQLException {
+        List<PreparedStatement> toClose = new ArrayList<>(statements.values());
+        statements.clear();
+        SQLException error = null;
+        for (PreparedStatement statement : toClose) {
+            try {
+                statement.close();
+            } catch (SQLException ex) {
+                if (error == null) {
+                    error = ex;
+                } else {
+                    error.addSuppressed(ex);
+                }
+            }
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+}
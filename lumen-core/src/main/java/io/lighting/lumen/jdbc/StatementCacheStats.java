@@ -0,0 +1,21 @@
+package io.lighting.lumen.jdbc;
+
+/**
+ * {@link StatementCache} 的命中统计快照。
+ */
+public record StatementCacheStats(long hits, long misses, long evictions) {
+    public static final StatementCacheStats EMPTY = new StatementCacheStats(0, 0, 0);
+
+    public long requests() {
+        return hits + misses;
+    }
+
+    public double hitRate() {
+        long requests = requests();
+        return requests == 0 ? 0d : (double) hits / requests;
+    }
+
+    public StatementCacheStats plus(StatementCacheStats other) {
+        return new StatementCacheStats(hits + other.hits, misses + other.misses, evictions + other.evictions);
+    }
+}
@@ -0,0 +1,27 @@
+package io.lighting.lumen.meta;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 二级实体缓存注解。
+ * <p>
+ * 与 {@link Table} 一同标注在实体类上后，按主键查询（{@code BaseDao.selectById}、{@code ActiveRecord.findById}）
+ * 的结果以实体类型与主键为键缓存；经由 DAO 与 ActiveRecord 的按主键更新、删除会使对应条目失效。
+ * 绕过这些入口的写入（原生 SQL、DSL 语句）只能依靠过期时间收敛。
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Cacheable {
+    /**
+     * 该实体类型最多缓存的条目数，超出时淘汰最久未访问的条目。
+     */
+    int maxSize() default 1000;
+
+    /**
+     * 条目写入缓存后的存活秒数，0 表示不过期。
+     */
+    long ttlSeconds() default 300;
+}
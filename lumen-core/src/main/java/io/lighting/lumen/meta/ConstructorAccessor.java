@@ -0,0 +1,50 @@
+package io.lighting.lumen.meta;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Objects;
+
+/**
+ * 基于 {@link Constructor} 的构造器调用器，参数以数组传入，基本类型参数由反射拆箱；
+ * 构造器抛出的运行时异常原样抛出。
+ */
+public final class ConstructorAccessor<T> {
+    private final Constructor<T> constructor;
+
+    private ConstructorAccessor(Constructor<T> constructor) {
+        this.constructor = constructor;
+    }
+
+    public static <T> ConstructorAccessor<T> of(Constructor<T> constructor) {
+        Objects.requireNonNull(constructor, "constructor");
+        constructor.setAccessible(true);
+        return new ConstructorAccessor<>(constructor);
+    }
+
+    public int parameterCount() {
+        return constructor.getParameterCount();
+    }
+
+    public T newInstance(Object... args) {
+        try {
+            return constructor.newInstance(args);
+        } catch (InvocationTargetException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(
+                "Failed to create " + constructor.getDeclaringClass().getSimpleName(),
+                cause
+            );
+        } catch (InstantiationException | IllegalAccessException ex) {
+            throw new IllegalStateException(
+                "Failed to create " + constructor.getDeclaringClass().getSimpleName(),
+                ex
+            );
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package io.lighting.lumen.meta;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * 按实体类型缓存的构造器与字段访问器。
+ * <p>
+ * 无参构造器优先通过 {@link LambdaMetafactory} 生成 {@link Supplier}，无法生成时退回 {@link MethodHandle}；
+ * 字段读写使用 {@link FieldAccessor}。字段按子类到父类的声明顺序收集，同名字段以子类为准，静态字段不包含在内。
+ */
+public final class EntityAccessors<T> {
+    private static final ConcurrentMap<Class<?>, EntityAccessors<?>> CACHE = new ConcurrentHashMap<>();
+
+    private final Class<T> type;
+    private final Map<String, FieldAccessor> fields;
+    private volatile Supplier<T> factory;
+    private volatile UnaryOperator<T> shallowCopier;
+
+    private EntityAccessors(Class<T> type) {
+        this.type = type;
+        this.fields = Collections.unmodifiableMap(scanFields(type));
+    }
+
+    public static <T> EntityAccessors<T> of(Class<T> type) {
+        Objects.requireNonNull(type, "type");
+        @SuppressWarnings("unchecked")
+        EntityAccessors<T> accessors = (EntityAccessors<T>) CACHE.computeIfAbsent(type, EntityAccessors::new);
+        return accessors;
+    }
+
+    public Class<T> type() {
+        return type;
+    }
+
+    /**
+     * 通过无参构造器创建实例。
+     */
+    public T newInstance() {
+        return factory().get();
+    }
+
+    /**
+     * 无参构造器对应的实例工厂；类型没有无参构造器时抛出 {@link IllegalStateException}。
+     */
+    public Supplier<T> factory() {
+        Supplier<T> current = factory;
+        if (current == null) {
+            current = noArgFactory(type);
+            factory = current;
+        }
+        return current;
+    }
+
+    /**
+     * 逐字段复制实例的浅拷贝函数；record、含 final 字段或没有无参构造器的类型无法逐字段复制，返回原实例。
+     */
+    public UnaryOperator<T> shallowCopier() {
+        UnaryOperator<T> current = shallowCopier;
+        if (current == null) {
+            current = createShallowCopier();
+            shallowCopier = current;
+        }
+        return current;
+    }
+
+    private UnaryOperator<T> createShallowCopier() {
+        if (type.isRecord()) {
+            return UnaryOperator.identity();
+        }
+        for (FieldAccessor field : fields.values()) {
+            if (Modifier.isFinal(field.field().getModifiers())) {
+                return UnaryOperator.identity();
+            }
+        }
+        Supplier<T> create;
+        try {
+            create = factory();
+        } catch (IllegalStateException ex) {
+            return UnaryOperator.identity();
+        }
+        return source -> {
+            T copy = create.get();
+            for (FieldAccessor field : fields.values()) {
+                field.set(copy, field.get(source));
+            }
+            return copy;
+        };
+    }
+
+    /**
+     * 返回指定参数类型的构造器，参数以数组传入，适用于 record 等全参构造。
+     */
+    public ConstructorAccessor<T> constructor(Class<?>... parameterTypes) {
+        return ConstructorAccessor.of(declaredConstructor(type, parameterTypes));
+    }
+
+    public Collection<FieldAccessor> fields() {
+        return fields.values();
+    }
+
+    public FieldAccessor field(String name) {
+        FieldAccessor accessor = fields.get(name);
+        if (accessor == null) {
+            throw new IllegalArgumentException("Unknown field: " + name);
+        }
+        return accessor;
+    }
+
+    public FieldAccessor findField(String name) {
+        return fields.get(name);
+    }
+
+    private static Map<String, FieldAccessor> scanFields(Class<?> type) {
+        Map<String, FieldAccessor> fields = new LinkedHashMap<>();
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) || fields.containsKey(field.getName())) {
+                    continue;
+                }
+                fields.put(field.getName(), FieldAccessor.of(field));
+            }
+        }
+        return fields;
+    }
+
+    private static <T> Supplier<T> noArgFactory(Class<T> type) {
+        Constructor<T> ctor = declaredConstructor(type);
+        Supplier<T> generated = lambdaFactory(type, ctor);
+        if (generated != null) {
+            return generated;
+        }
+        ConstructorAccessor<T> accessor = ConstructorAccessor.of(ctor);
+        return accessor::newInstance;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Supplier<T> lambdaFactory(Class<T> type, Constructor<T> ctor) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+            MethodHandle handle = lookup.unreflectConstructor(ctor);
+            CallSite site = LambdaMetafactory.metafactory(
+                lookup,
+                "get",
+                MethodType.methodType(Supplier.class),
+                MethodType.methodType(Object.class),
+                handle,
+                MethodType.methodType(type)
+            );
+            return (Supplier<T>) site.getTarget().invoke();
+        } catch (Throwable ex) {
+            // 模块边界或类加载器限制下无法生成，退回 MethodHandle
+            return null;
+        }
+    }
+
+    private static <T> Constructor<T> declaredConstructor(Class<T> type, Class<?>... parameterTypes) {
+        try {
+            Constructor<T> ctor = type.getDeclaredConstructor(parameterTypes);
+            ctor.setAccessible(true);
+            return ctor;
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            throw new IllegalStateException("No accessible constructor for " + type.getSimpleName(), ex);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package io.lighting.lumen.meta;
+
+/**
+ * 按字段名读写实体字段值。
+ * <p>
+ * APT 为每个 {@link Table} 实体生成 {@code *_Binder} 实现（直接访问字段或 getter/setter），
+ * 未生成时由 {@link EntityBinders} 退回基于 {@link EntityAccessors} 的实现。
+ */
+public interface EntityBinder<T> {
+    Class<T> entityType();
+
+    /**
+     * 读取字段值；字段不存在时抛出 {@link IllegalArgumentException}。
+     */
+    Object get(T entity, String fieldName);
+
+    /**
+     * 写入字段值；类型不匹配或向基本类型字段写入 {@code null} 时抛出 {@link IllegalArgumentException}。
+     */
+    void set(T entity, String fieldName, Object value);
+
+    Class<?> fieldType(String fieldName);
+}
@@ -0,0 +1,132 @@
+package io.lighting.lumen.meta;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 获取实体的 {@link EntityBinder}：优先使用 APT 生成的 {@code *_Binder}，否则使用 {@link EntityAccessors}。
+ */
+public final class EntityBinders {
+    private static final ConcurrentMap<Class<?>, EntityBinder<?>> CACHE = new ConcurrentHashMap<>();
+
+    private EntityBinders() {
+    }
+
+    public static <T> EntityBinder<T> of(Class<T> entityType) {
+        Objects.requireNonNull(entityType, "entityType");
+        @SuppressWarnings("unchecked")
+        EntityBinder<T> binder = (EntityBinder<T>) CACHE.computeIfAbsent(entityType, EntityBinders::create);
+        return binder;
+    }
+
+    /**
+     * 按 {@link java.lang.reflect.Field#set} 的规则把值拆箱为 {@code long}：只接受拓宽转换，
+     * {@code BigDecimal}、{@code BigInteger} 等可能截断的值抛出 {@link ClassCastException}，{@code null} 抛出
+     * {@link NullPointerException}。供 APT 生成的 {@code *_Binder} 与 {@code *_RowMapper} 使用。
+     */
+    public static long unboxLong(Object value) {
+        if (isIntegral(value)) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof Character character) {
+            return character;
+        }
+        throw notWidening(value, long.class);
+    }
+
+    public static int unboxInt(Object value) {
+        if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).intValue();
+        }
+        if (value instanceof Character character) {
+            return character;
+        }
+        throw notWidening(value, int.class);
+    }
+
+    public static short unboxShort(Object value) {
+        if (value instanceof Short || value instanceof Byte) {
+            return ((Number) value).shortValue();
+        }
+        throw notWidening(value, short.class);
+    }
+
+    public static byte unboxByte(Object value) {
+        if (value instanceof Byte byteValue) {
+            return byteValue;
+        }
+        throw notWidening(value, byte.class);
+    }
+
+    public static double unboxDouble(Object value) {
+        if (value instanceof Double || value instanceof Float || isIntegral(value)) {
+            return ((Number) value).doubleValue();
+        }
+        if (value instanceof Character character) {
+            return character;
+        }
+        throw notWidening(value, double.class);
+    }
+
+    public static float unboxFloat(Object value) {
+        if (value instanceof Float || isIntegral(value)) {
+            return ((Number) value).floatValue();
+        }
+        if (value instanceof Character character) {
+            return character;
+        }
+        throw notWidening(value, float.class);
+    }
+
+    private static boolean isIntegral(Object value) {
+        return value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte;
+    }
+
+    private static RuntimeException notWidening(Object value, Class<?> target) {
+        if (value == null) {
+            return new NullPointerException("Can not unbox null to " + target.getName());
+        }
+        return new ClassCastException("Can not convert " + value.getClass().getName() + " to " + target.getName());
+    }
+
+    private static EntityBinder<?> create(Class<?> entityType) {
+        EntityBinder<?> generated = GeneratedEntityClasses.instantiate(
+            entityType,
+            GeneratedEntityClasses.BINDER_SUFFIX,
+            EntityBinder.class
+        );
+        if (generated != null) {
+            return generated;
+        }
+        return new AccessorBinder<>(EntityAccessors.of(entityType));
+    }
+
+    private static final class AccessorBinder<T> implements EntityBinder<T> {
+        private final EntityAccessors<T> accessors;
+
+        private AccessorBinder(EntityAccessors<T> accessors) {
+            this.accessors = accessors;
+        }
+
+        @Override
+        public Class<T> entityType() {
+            return accessors.type();
+        }
+
+        @Override
+        public Object get(T entity, String fieldName) {
+            return accessors.field(fieldName).get(entity);
+        }
+
+        @Override
+        public void set(T entity, String fieldName, Object value) {
+            accessors.field(fieldName).set(entity, value);
+        }
+
+        @Override
+        public Class<?> fieldType(String fieldName) {
+            return accessors.field(fieldName).type();
+        }
+    }
+}
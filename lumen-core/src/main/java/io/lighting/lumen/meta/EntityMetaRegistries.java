@@ -0,0 +1,72 @@
+package io.lighting.lumen.meta;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+/**
+ * 默认实体元数据注册表的装配入口。
+ * <p>
+ * 优先使用编译期生成的 {@link GeneratedEntityMetaRegistry}（通过 {@link ServiceLoader} 发现），
+ * 未被生成覆盖的实体（如未启用注解处理器的模块）回退到 {@link ReflectionEntityMetaRegistry}。
+ */
+public final class EntityMetaRegistries {
+    private EntityMetaRegistries() {
+    }
+
+    /**
+     * 使用线程上下文类加载器（缺失时使用 Lumen 自身的类加载器）装配默认注册表。
+     */
+    public static EntityMetaRegistry defaults() {
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        return defaults(loader != null ? loader : EntityMetaRegistries.class.getClassLoader());
+    }
+
+    public static EntityMetaRegistry defaults(ClassLoader classLoader) {
+        Map<Class<?>, EntityMeta> generated = loadGenerated(classLoader);
+        return new IndexedEntityMetaRegistry(generated, new ReflectionEntityMetaRegistry());
+    }
+
+    /**
+     * 加载类路径上所有生成的注册表并合并其元数据；无法实例化的条目（如增量编译残留）会被跳过。
+     */
+    public static Map<Class<?>, EntityMeta> loadGenerated(ClassLoader classLoader) {
+        Map<Class<?>, EntityMeta> metas = new HashMap<>();
+        Iterator<GeneratedEntityMetaRegistry> iterator =
+            ServiceLoader.load(GeneratedEntityMetaRegistry.class, classLoader).iterator();
+        while (true) {
+            GeneratedEntityMetaRegistry registry;
+            try {
+                if (!iterator.hasNext()) {
+                    break;
+                }
+                registry = iterator.next();
+            } catch (ServiceConfigurationError ex) {
+                continue;
+            }
+            metas.putAll(registry.entries());
+        }
+        return Map.copyOf(metas);
+    }
+
+    private static final class IndexedEntityMetaRegistry implements EntityMetaRegistry {
+        private final Map<Class<?>, EntityMeta> generated;
+        private final EntityMetaRegistry fallback;
+
+        private IndexedEntityMetaRegistry(Map<Class<?>, EntityMeta> generated, EntityMetaRegistry fallback) {
+            this.generated = generated;
+            this.fallback = fallback;
+        }
+
+        @Override
+        public EntityMeta metaOf(Class<?> entityType) {
+            if (entityType == null) {
+                throw new IllegalArgumentException("entityType must not be null");
+            }
+            EntityMeta meta = generated.get(entityType);
+            return meta != null ? meta : fallback.metaOf(entityType);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package io.lighting.lumen.meta;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.Objects;
+
+/**
+ * 实例字段读写器，基于已设为可访问的 {@link Field}。
+ * <p>
+ * 保存在实例字段中的 {@code MethodHandle} 不会被 JIT 当作常量折叠，在 JDK 17 上并不比反射快，因此直接使用反射；
+ * 基本类型字段可通过 {@link #setLong} 等方法直接写入，不经过装箱。
+ */
+public final class FieldAccessor {
+    private final Field field;
+    private final boolean writable;
+
+    private FieldAccessor(Field field, boolean writable) {
+        this.field = field;
+        this.writable = writable;
+    }
+
+    public static FieldAccessor of(Field field) {
+        Objects.requireNonNull(field, "field");
+        if (Modifier.isStatic(field.getModifiers())) {
+            throw new IllegalArgumentException("Static fields are not supported: " + field.getName());
+        }
+        field.setAccessible(true);
+        return new FieldAccessor(field, writable(field));
+    }
+
+    private static boolean writable(Field field) {
+        return !Modifier.isFinal(field.getModifiers()) || !field.getDeclaringClass().isRecord();
+    }
+
+    public Field field() {
+        return field;
+    }
+
+    public String name() {
+        return field.getName();
+    }
+
+    public Class<?> type() {
+        return field.getType();
+    }
+
+    public Type genericType() {
+        return field.getGenericType();
+    }
+
+    public Object get(Object target) {
+        try {
+            return field.get(target);
+        } catch (IllegalAccessException ex) {
+            throw new IllegalStateException("Failed to read field " + field.getName(), ex);
+        }
+    }
+
+    /**
+     * 写入字段值；类型不匹配或向基本类型字段写入 {@code null} 时抛出 {@link IllegalArgumentException}，
+     * 与 {@link Field#set} 一致。
+     */
+    public void set(Object target, Object value) {
+        if (!writable) {
+            throw new IllegalStateException("Field " + field.getName() + " is not writable");
+        }
+        Objects.requireNonNull(target, "target");
+        try {
+            field.set(target, value);
+        } catch (IllegalAccessException ex) {
+            throw new IllegalStateException("Failed to set field " + field.getName(), ex);
+        }
+    }
+
+    public void setLong(Object target, long value) {
+        requirePrimitive(long.class);
+        try {
+            field.setLong(target, value);
+        } catch (IllegalAccessException ex) {
+            throw new IllegalStateException("Failed to set field " + field.getName(), ex);
+        }
+    }
+
+    public void setInt(Object target, int value) {
+        requirePrimitive(int.class);
+        try {
+            field.setInt(target, value);
+        } catch (IllegalAccessException ex) {
+            throw new IllegalStateException("Failed to set field " + field.getName(), ex);
+        }
+    }
+
+    public void setShort(Object target, short value) {
+        requirePrimitive(short.class);
+        try {
+            field.setShort(target, value);
+        } catch (IllegalAccessException ex) {
+            throw new IllegalStateException("Failed to set field " + field.getName(), ex);
+        }
+    }
+
+    public void setByte(Object target, byte value) {
+        requirePrimitive(byte.class);
+        try {
+            field.setByte(target, value);
+        } catch (IllegalAccessException ex) {
+            throw new IllegalStateException("Failed to set field " + field.getName(), ex);
+        }
+    }
+
+    public void setDouble(Object target, double value) {
+        requirePrimitive(double.class);
+        try {
+            field.setDouble(target, value);
+        } catch (IllegalAccessException ex) {
+            throw new IllegalStateException("Failed to set field " + field.getName(), ex);
+        }
+    }
+
+    public void setFloat(Object target, float value) {
+        requirePrimitive(float.class);
+        try {
+            field.setFloat(target, value);
+        } catch (IllegalAccessException ex) {
+            throw new IllegalStateException("Failed to set field " + field.getName(), ex);
+        }
+    }
+
+    public void setBoolean(Object target, boolean value) {
+        requirePrimitive(boolean.class);
+        try {
+            field.setBoolean(target, value);
+        } catch (IllegalAccessException ex) {
+            throw new IllegalStateException("Failed to set field " + field.getName(), ex);
+        }
+    }
+
+    /**
+     * 基本类型写入要求字段类型完全一致，不做 {@link Field#setLong} 等方法允许的拓宽转换。
+     */
+    private void requirePrimitive(Class<?> primitive) {
+        if (!writable || field.getType() != primitive) {
+            throw new IllegalArgumentException(
+                "Field " + field.getName() + " is not of type " + primitive.getName()
+            );
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package io.lighting.lumen.meta;
+
+import java.util.Objects;
+
+/**
+ * 定位 APT 为实体生成的辅助类。
+ * <p>
+ * 生成类与实体位于同一包，类名为实体在包内的名字（嵌套类以 {@code _} 连接）加后缀，
+ * 例如 {@code com.acme.Order} → {@code com.acme.Order_RowMapper}，
+ * {@code com.acme.Outer.Item} → {@code com.acme.Outer_Item_RowMapper}。
+ */
+public final class GeneratedEntityClasses {
+    public static final String ROW_MAPPER_SUFFIX = "_RowMapper";
+    public static final String BINDER_SUFFIX = "_Binder";
+
+    private GeneratedEntityClasses() {
+    }
+
+    public static String nameOf(Class<?> entityType, String suffix) {
+        Objects.requireNonNull(entityType, "entityType");
+        Objects.requireNonNull(suffix, "suffix");
+        String packageName = entityType.getPackageName();
+        String name = entityType.getName();
+        String localName = packageName.isEmpty() ? name : name.substring(packageName.length() + 1);
+        String generated = localName.replace('$', '_') + suffix;
+        return packageName.isEmpty() ? generated : packageName + "." + generated;
+    }
+
+    /**
+     * 实例化生成类；类不存在时返回 {@code null}，存在但不满足约定时抛出 {@link IllegalStateException}。
+     */
+    public static <T> T instantiate(Class<?> entityType, String suffix, Class<T> contract) {
+        Objects.requireNonNull(contract, "contract");
+        String name = nameOf(entityType, suffix);
+        Class<?> generated;
+        try {
+            generated = Class.forName(name, true, entityType.getClassLoader());
+        } catch (ClassNotFoundException ex) {
+            return null;
+        }
+        if (!contract.isAssignableFrom(generated)) {
+            throw new IllegalStateException(name + " does not implement " + contract.getName());
+        }
+        try {
+            return contract.cast(generated.getConstructor().newInstance());
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException("Failed to instantiate " + name, ex);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package io.lighting.lumen.meta;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 编译期生成的实体元数据注册表基类。
+ * <p>
+ * {@code EntityMetaProcessor} 为每个实体包生成一个子类，在构造器中以字面量登记 {@link EntityMeta}，
+ * 并写入 {@code META-INF/services/io.lighting.lumen.meta.GeneratedEntityMetaRegistry}；
+ * 运行时由 {@link EntityMetaRegistries} 通过 {@link java.util.ServiceLoader} 加载，不再反射解析注解。
+ */
+public abstract class GeneratedEntityMetaRegistry implements EntityMetaRegistry {
+    private final Map<Class<?>, EntityMeta> metas = new LinkedHashMap<>();
+
+    protected GeneratedEntityMetaRegistry() {
+    }
+
+    protected final void register(Class<?> entityType, EntityMeta meta) {
+        Objects.requireNonNull(entityType, "entityType");
+        Objects.requireNonNull(meta, "meta");
+        metas.put(entityType, meta);
+    }
+
+    /**
+     * 返回已登记的元数据，未登记时返回 {@code null}。
+     */
+    public EntityMeta find(Class<?> entityType) {
+        return metas.get(entityType);
+    }
+
+    @Override
+    public EntityMeta metaOf(Class<?> entityType) {
+        if (entityType == null) {
+            throw new IllegalArgumentException("entityType must not be null");
+        }
+        EntityMeta meta = metas.get(entityType);
+        if (meta == null) {
+            throw new IllegalArgumentException("No generated metadata for " + entityType.getName());
+        }
+        return meta;
+    }
+
+    public Map<Class<?>, EntityMeta> entries() {
+        return Collections.unmodifiableMap(metas);
+    }
+}
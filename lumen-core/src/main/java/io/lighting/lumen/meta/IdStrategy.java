@@ -3,5 +3,10 @@ package io.lighting.lumen.meta;
 public enum IdStrategy {
     AUTO,
     UUID,
-    SNOWFLAKE
+    SNOWFLAKE,
+    /**
+     * 数据库号段（hi/lo），见 {@link io.lighting.lumen.id.SegmentIdGenerator}；需通过
+     * {@link io.lighting.lumen.id.IdGenerators#segments(javax.sql.DataSource)} 配置。
+     */
+    SEGMENT
 }
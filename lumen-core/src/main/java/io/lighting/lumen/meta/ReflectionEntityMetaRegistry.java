@@ -11,7 +11,8 @@ import java.util.concurrent.ConcurrentMap;
 
 /**
  * Simple EntityMetaRegistry implementation using reflection.
- * Production code should use APT-generated entity metadata classes.
+ * Production code should prefer {@link EntityMetaRegistries#defaults()}, which serves APT-generated
+ * metadata and only falls back to this registry for entities compiled without the processor.
  */
 public class ReflectionEntityMetaRegistry implements EntityMetaRegistry {
     private final ConcurrentMap<Class<?>, EntityMeta> cache = new ConcurrentHashMap<>();
@@ -71,22 +72,48 @@ public class ReflectionEntityMetaRegistry implements EntityMetaRegistry {
                     if (idMeta != null) {
                         throw new IllegalArgumentException("Multiple @Id fields in " + entityType.getName());
                     }
-                    idMeta = new IdMeta(fieldName, columnName, IdStrategy.AUTO);
+                    idMeta = new IdMeta(fieldName, columnName, id.strategy());
                 }
 
                 if (logicDelete != null) {
                     if (logicDeleteMeta != null) {
                         throw new IllegalArgumentException("Multiple @LogicDelete fields in " + entityType.getName());
                     }
-                    logicDeleteMeta = new LogicDeleteMeta(fieldName, columnName, logicDelete.active(), logicDelete.deleted());
+                    Object active = parseLogicValue(logicDelete.active(), field, "active");
+                    Object deleted = parseLogicValue(logicDelete.deleted(), field, "deleted");
+                    logicDeleteMeta = new LogicDeleteMeta(fieldName, columnName, active, deleted);
                 }
             }
         }
 
-        if (idMeta == null) {
-            throw new IllegalArgumentException("Missing @Id in " + entityType.getName());
-        }
-
         return new EntityMeta(table.name(), fieldToColumn, idMeta, logicDeleteMeta);
     }
+
+    /**
+     * 按字段类型解析逻辑删除值：布尔与 int/long 转为对应类型，其余类型保留原始字符串。
+     * 规则与 APT 生成的元数据一致。
+     */
+    private Object parseLogicValue(String raw, Field field, String label) {
+        if (raw == null || raw.isBlank()) {
+            throw new IllegalArgumentException("LogicDelete " + label + " value must not be blank");
+        }
+        Class<?> type = field.getType();
+        if (type == boolean.class || type == Boolean.class) {
+            String normalized = raw.trim().toLowerCase();
+            if ("1".equals(normalized) || "true".equals(normalized) || "yes".equals(normalized)) {
+                return true;
+            }
+            if ("0".equals(normalized) || "false".equals(normalized) || "no".equals(normalized)) {
+                return false;
+            }
+            throw new IllegalArgumentException("Invalid boolean value: " + raw);
+        }
+        if (type == int.class || type == Integer.class) {
+            return Integer.parseInt(raw.trim());
+        }
+        if (type == long.class || type == Long.class) {
+            return Long.parseLong(raw.trim());
+        }
+        return raw;
+    }
 }
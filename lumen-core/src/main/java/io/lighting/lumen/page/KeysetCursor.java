@@ -0,0 +1,188 @@
+package io.lighting.lumen.page;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * 键集分页游标的编解码。
+ * <p>
+ * 游标是排序键值的类型化二进制编码（URL 安全的 Base64），对调用方不透明。
+ * 解码后的值仍以绑定参数传给数据库，篡改游标只会改变翻页位置。
+ * 支持数值、字符串、布尔、{@link UUID}、{@code java.time} 日期时间与 {@code java.sql} 日期时间类型；键值不能为 {@code null}。
+ */
+public final class KeysetCursor {
+    private static final byte VERSION = 1;
+
+    private KeysetCursor() {
+    }
+
+    public static String encode(Object... values) {
+        Objects.requireNonNull(values, "values");
+        return encode(Arrays.asList(values));
+    }
+
+    public static String encode(List<?> values) {
+        Objects.requireNonNull(values, "values");
+        if (values.isEmpty() || values.size() > 255) {
+            throw new IllegalArgumentException("Keyset cursor needs 1 to 255 values, got " + values.size());
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 * values.size());
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeByte(values.size());
+            for (int i = 0; i < values.size(); i++) {
+                write(out, values.get(i), i);
+            }
+        } catch (IOException ex) {
+            throw new IllegalStateException("Failed to encode keyset cursor", ex);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    public static List<Object> decode(String cursor) {
+        Objects.requireNonNull(cursor, "cursor");
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(cursor)))) {
+            if (in.readByte() != VERSION) {
+                throw new IllegalArgumentException("Unsupported keyset cursor version");
+            }
+            int count = in.readUnsignedByte();
+            List<Object> values = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                values.add(read(in));
+            }
+            if (count == 0 || in.available() > 0) {
+                throw new IllegalArgumentException("Invalid keyset cursor");
+            }
+            return values;
+        } catch (IOException | IllegalArgumentException | java.time.DateTimeException ex) {
+            throw new IllegalArgumentException("Invalid keyset cursor: " + cursor, ex);
+        }
+    }
+
+    private static void write(DataOutputStream out, Object value, int index) throws IOException {
+        if (value == null) {
+            throw new IllegalArgumentException("Keyset sort key " + (index + 1) + " is null; keyset pagination requires non-null keys");
+        }
+        if (value instanceof Integer number) {
+            out.writeByte('I');
+            out.writeInt(number);
+        } else if (value instanceof Long number) {
+            out.writeByte('J');
+            out.writeLong(number);
+        } else if (value instanceof Short number) {
+            out.writeByte('S');
+            out.writeShort(number);
+        } else if (value instanceof Byte number) {
+            out.writeByte('B');
+            out.writeByte(number);
+        } else if (value instanceof Double number) {
+            out.writeByte('D');
+            out.writeDouble(number);
+        } else if (value instanceof Float number) {
+            out.writeByte('F');
+            out.writeFloat(number);
+        } else if (value instanceof BigDecimal number) {
+            out.writeByte('M');
+            writeString(out, number.toString());
+        } else if (value instanceof BigInteger number) {
+            out.writeByte('N');
+            writeString(out, number.toString());
+        } else if (value instanceof String text) {
+            out.writeByte('T');
+            writeString(out, text);
+        } else if (value instanceof Boolean flag) {
+            out.writeByte('Z');
+            out.writeBoolean(flag);
+        } else if (value instanceof UUID uuid) {
+            out.writeByte('U');
+            out.writeLong(uuid.getMostSignificantBits());
+            out.writeLong(uuid.getLeastSignificantBits());
+        } else if (value instanceof Timestamp timestamp) {
+            out.writeByte('s');
+            writeString(out, timestamp.toLocalDateTime().toString());
+        } else if (value instanceof java.sql.Date date) {
+            out.writeByte('d');
+            writeString(out, date.toLocalDate().toString());
+        } else if (value instanceof java.sql.Time time) {
+            out.writeByte('t');
+            writeString(out, time.toLocalTime().toString());
+        } else if (value instanceof LocalDateTime dateTime) {
+            out.writeByte('L');
+            writeString(out, dateTime.toString());
+        } else if (value instanceof LocalDate date) {
+            out.writeByte('A');
+            writeString(out, date.toString());
+        } else if (value instanceof LocalTime time) {
+            out.writeByte('C');
+            writeString(out, time.toString());
+        } else if (value instanceof OffsetDateTime dateTime) {
+            out.writeByte('O');
+            writeString(out, dateTime.toString());
+        } else if (value instanceof Instant instant) {
+            out.writeByte('X');
+            writeString(out, instant.toString());
+        } else {
+            throw new IllegalArgumentException("Unsupported keyset sort key type: " + value.getClass().getName());
+        }
+    }
+
+    private static Object read(DataInputStream in) throws IOException {
+        byte tag = in.readByte();
+        return switch (tag) {
+            case 'I' -> in.readInt();
+            case 'J' -> in.readLong();
+            case 'S' -> in.readShort();
+            case 'B' -> in.readByte();
+            case 'D' -> in.readDouble();
+            case 'F' -> in.readFloat();
+            case 'M' -> new BigDecimal(readString(in));
+            case 'N' -> new BigInteger(readString(in));
+            case 'T' -> readString(in);
+            case 'Z' -> in.readBoolean();
+            case 'U' -> new UUID(in.readLong(), in.readLong());
+            case 's' -> Timestamp.valueOf(LocalDateTime.parse(readString(in)));
+            case 'd' -> java.sql.Date.valueOf(LocalDate.parse(readString(in)));
+            case 't' -> java.sql.Time.valueOf(LocalTime.parse(readString(in)));
+            case 'L' -> LocalDateTime.parse(readString(in));
+            case 'A' -> LocalDate.parse(readString(in));
+            case 'C' -> LocalTime.parse(readString(in));
+            case 'O' -> OffsetDateTime.parse(readString(in));
+            case 'X' -> Instant.parse(readString(in));
+            default -> throw new IllegalArgumentException("Unknown keyset value tag: " + tag);
+        };
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > in.available()) {
+            throw new IllegalArgumentException("Invalid keyset cursor string length");
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,22 @@
+package io.lighting.lumen.page;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 键集分页结果。
+ *
+ * @param items      当前页数据
+ * @param pageSize   页大小
+ * @param nextCursor 下一页游标，没有更多数据时为 {@code null}
+ * @param <T>        元素类型
+ */
+public record KeysetPage<T>(List<T> items, int pageSize, String nextCursor) {
+    public KeysetPage {
+        Objects.requireNonNull(items, "items");
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
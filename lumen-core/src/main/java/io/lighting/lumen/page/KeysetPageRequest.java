@@ -0,0 +1,51 @@
+package io.lighting.lumen.page;
+
+import java.util.Objects;
+
+/**
+ * 键集（seek）分页请求。
+ * <p>
+ * 不使用 OFFSET，而是以上一页最后一行的排序键值作为游标，渲染为 {@code WHERE (k1, k2) > (?, ?)}，
+ * 任意深度的翻页代价相同。排序键应唯一且非空；DAO 会自动追加主键作为最后一个排序键。
+ *
+ * @param pageSize 页大小
+ * @param sort     排序键；DSL 未指定时使用已设置的 {@code orderBy}
+ * @param cursor   上一页返回的 {@link KeysetPage#nextCursor()}，首页为 {@code null}
+ */
+public record KeysetPageRequest(int pageSize, Sort sort, String cursor) {
+    public KeysetPageRequest {
+        if (pageSize < 1 || pageSize == Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("pageSize must be between 1 and " + (Integer.MAX_VALUE - 1));
+        }
+        if (sort == null) {
+            sort = Sort.unsorted();
+        }
+        if (cursor != null && cursor.isBlank()) {
+            cursor = null;
+        }
+    }
+
+    public static KeysetPageRequest first(int pageSize) {
+        return new KeysetPageRequest(pageSize, Sort.unsorted(), null);
+    }
+
+    public static KeysetPageRequest first(int pageSize, Sort sort) {
+        return new KeysetPageRequest(pageSize, sort, null);
+    }
+
+    public static KeysetPageRequest after(int pageSize, Sort sort, String cursor) {
+        return new KeysetPageRequest(pageSize, sort, cursor);
+    }
+
+    /**
+     * 以相同页大小与排序请求游标之后的一页。
+     */
+    public KeysetPageRequest next(String cursor) {
+        Objects.requireNonNull(cursor, "cursor");
+        return new KeysetPageRequest(pageSize, sort, cursor);
+    }
+
+    public boolean isFirst() {
+        return cursor == null;
+    }
+}
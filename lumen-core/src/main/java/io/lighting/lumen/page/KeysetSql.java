@@ -0,0 +1,74 @@
+package io.lighting.lumen.page;
+
+import io.lighting.lumen.sql.ast.Expr;
+import io.lighting.lumen.sql.ast.OrderItem;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Keyset pagination SQL helpers.
+ */
+public final class KeysetSql {
+    private KeysetSql() {
+    }
+
+    /**
+     * 构建“位于游标之后”的条件。
+     * <p>
+     * 排序方向一致时生成行值比较 {@code (k1, k2) > (?, ?)}（降序为 {@code <}），由方言决定原样输出或展开；
+     * 方向混合时直接展开为 {@code k1 >= ? AND (k1 > ? OR (k1 = ? AND k2 < ?))} 的形式。
+     *
+     * @param orderBy 排序键，与查询的 {@code ORDER BY} 一致
+     * @param values  上一页最后一行的排序键值，通常来自 {@link KeysetCursor#decode(String)}
+     * @return 条件表达式
+     */
+    public static Expr seek(List<OrderItem> orderBy, List<?> values) {
+        Objects.requireNonNull(orderBy, "orderBy");
+        Objects.requireNonNull(values, "values");
+        if (orderBy.isEmpty()) {
+            throw new IllegalArgumentException("Keyset pagination requires ORDER BY");
+        }
+        if (orderBy.size() != values.size()) {
+            throw new IllegalArgumentException(
+                "Keyset cursor has " + values.size() + " values but the query orders by " + orderBy.size() + " keys"
+            );
+        }
+        List<Expr> keys = new ArrayList<>(orderBy.size());
+        List<Expr> literals = new ArrayList<>(values.size());
+        boolean uniform = true;
+        for (int i = 0; i < orderBy.size(); i++) {
+            Object value = values.get(i);
+            if (value == null) {
+                throw new IllegalArgumentException("Keyset sort key " + (i + 1) + " must not be null");
+            }
+            keys.add(orderBy.get(i).expr());
+            literals.add(new Expr.Literal(value));
+            uniform &= orderBy.get(i).asc() == orderBy.get(0).asc();
+        }
+        if (uniform) {
+            Expr.Op op = orderBy.get(0).asc() ? Expr.Op.GT : Expr.Op.LT;
+            return keys.size() == 1
+                ? new Expr.Compare(keys.get(0), op, literals.get(0))
+                : new Expr.Compare(new Expr.Row(keys), op, new Expr.Row(literals));
+        }
+        List<Expr> alternatives = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            List<Expr> terms = new ArrayList<>(i + 1);
+            for (int j = 0; j < i; j++) {
+                terms.add(new Expr.Compare(keys.get(j), Expr.Op.EQ, literals.get(j)));
+            }
+            terms.add(new Expr.Compare(keys.get(i), after(orderBy.get(i)), literals.get(i)));
+            alternatives.add(terms.size() == 1 ? terms.get(0) : new Expr.And(terms));
+        }
+        Expr.Op leading = orderBy.get(0).asc() ? Expr.Op.GE : Expr.Op.LE;
+        return new Expr.And(List.of(
+            new Expr.Compare(keys.get(0), leading, literals.get(0)),
+            new Expr.Or(alternatives)
+        ));
+    }
+
+    private static Expr.Op after(OrderItem item) {
+        return item.asc() ? Expr.Op.GT : Expr.Op.LT;
+    }
+}
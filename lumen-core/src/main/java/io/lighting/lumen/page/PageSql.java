@@ -26,4 +26,20 @@ public final class PageSql {
         String wrapped = "SELECT COUNT(*) FROM (" + trimmed + ") AS count_src";
         return new RenderedSql(wrapped, rendered.binds());
     }
+
+    /**
+     * Infer the total from the fetched page: a page shorter than {@code pageSize} ends the result set,
+     * so the total is known without a COUNT query, unless a later page came back empty.
+     *
+     * @param page     1-based page number
+     * @param pageSize page size
+     * @param fetched  number of rows fetched for the page
+     * @return the total, or {@link PageResult#TOTAL_UNKNOWN} when a COUNT query is still needed
+     */
+    public static long knownTotal(int page, int pageSize, int fetched) {
+        if (fetched >= pageSize || (fetched == 0 && page > 1)) {
+            return PageResult.TOTAL_UNKNOWN;
+        }
+        return (long) (page - 1) * pageSize + fetched;
+    }
 }
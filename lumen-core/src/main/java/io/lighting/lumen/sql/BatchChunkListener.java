@@ -0,0 +1,18 @@
+package io.lighting.lumen.sql;
+
+/**
+ * 分块批量执行的回调，每向数据库提交一块调用一次。
+ */
+@FunctionalInterface
+public interface BatchChunkListener {
+    /**
+     * @param firstRow     本块首行在整个批次中的序号（从 0 开始）
+     * @param updateCounts 本块各行的影响行数，语义同 {@link java.sql.Statement#executeBatch()}
+     */
+    void onChunk(long firstRow, int[] updateCounts);
+
+    static BatchChunkListener none() {
+        return (firstRow, updateCounts) -> {
+        };
+    }
+}
@@ -4,12 +4,25 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
+/**
+ * 批量执行的语句模板与各行绑定参数。
+ * <p>
+ * 开启 {@link #multiRowInsert()} 且模板为单行 INSERT 时，执行端会把多行合并为
+ * {@code INSERT ... VALUES (...), (...)}，每条语句的行数受 {@link #batchSize()} 与方言的绑定参数上限约束；
+ * 模板无法改写时按普通 JDBC 批处理执行。
+ */
 public final class BatchSql {
     private final RenderedSql template;
     private final List<List<Bind>> batches;
     private final int batchSize;
+    private final boolean multiRowInsert;
 
     public BatchSql(RenderedSql template, List<List<Bind>> batches, int batchSize) {
+        this(template, batches, batchSize, false);
+    }
+
+    public BatchSql(RenderedSql template, List<List<Bind>> batches, int batchSize, boolean multiRowInsert) {
+        this.multiRowInsert = multiRowInsert;
         this.template = Objects.requireNonNull(template, "template");
         this.batches = List.copyOf(Objects.requireNonNull(batches, "batches"));
         if (batchSize < 1) {
@@ -37,6 +50,10 @@ public final class BatchSql {
         return batches.size();
     }
 
+    public boolean multiRowInsert() {
+        return multiRowInsert;
+    }
+
     public static Builder builder(RenderedSql template) {
         return new Builder(template);
     }
@@ -45,6 +62,7 @@ public final class BatchSql {
         private final RenderedSql template;
         private final List<List<Bind>> batches = new ArrayList<>();
         private int batchSize = 1000;
+        private boolean multiRowInsert;
 
         private Builder(RenderedSql template) {
             this.template = Objects.requireNonNull(template, "template");
@@ -63,11 +81,19 @@ public final class BatchSql {
             return this;
         }
 
+        /**
+         * 允许将单行 INSERT 模板改写为多行 VALUES 执行。
+         */
+        public Builder multiRowInsert(boolean enabled) {
+            this.multiRowInsert = enabled;
+            return this;
+        }
+
         public BatchSql build() {
             if (batches.isEmpty()) {
                 throw new IllegalArgumentException("Batch binds must not be empty");
             }
-            return new BatchSql(template, batches, batchSize);
+            return new BatchSql(template, batches, batchSize, multiRowInsert);
         }
     }
 }
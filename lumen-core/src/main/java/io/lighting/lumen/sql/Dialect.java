@@ -13,6 +13,34 @@ public interface Dialect {
 
     RenderedPagination renderPagination(int page, int pageSize, List<OrderItem> orderBy);
 
+    /**
+     * 是否支持行值比较 {@code (a, b) > (?, ?)}；不支持时渲染为等价的逐列展开条件。
+     */
+    default boolean supportsRowValueComparison() {
+        return false;
+    }
+
+    /**
+     * 单条语句允许的绑定参数上限，多行 INSERT 按此拆分语句。
+     */
+    default int maxBindParameters() {
+        return 2000;
+    }
+
+    /**
+     * 单条 {@code INSERT ... VALUES} 允许的行数上限；返回 1 表示不支持多行 VALUES。
+     */
+    default int maxInsertRows() {
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * 批量插入返回生成主键时采用的方式。
+     */
+    default GeneratedKeyStrategy generatedKeyStrategy() {
+        return GeneratedKeyStrategy.JDBC_BATCH;
+    }
+
     default RenderedSql renderFunction(String name, List<RenderedSql> args) {
         Objects.requireNonNull(name, "name");
         Objects.requireNonNull(args, "args");
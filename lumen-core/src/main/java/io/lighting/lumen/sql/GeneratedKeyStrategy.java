@@ -0,0 +1,29 @@
+package io.lighting.lumen.sql;
+
+/**
+ * 批量插入时获取数据库生成主键的方式，由 {@link Dialect#generatedKeyStrategy()} 按驱动能力选择。
+ * <p>
+ * 主键按结果顺序对应输入行，因此 {@link #RETURNING} 与 {@link #OUTPUT_INSERTED} 只能用于保证结果行与 VALUES
+ * 顺序一致的数据库；SQLite 与 SQL Server 不作此保证，内置方言对它们使用 {@link #PER_ROW}。
+ * <p>
+ * 内置方言不会选择 {@link #RETURNING} 与 {@link #OUTPUT_INSERTED}，两者是留给自定义方言的扩展点：
+ * 通过 {@code LimitOffsetDialect}/{@code OffsetFetchDialect} 的构造参数或自行实现 {@link Dialect#generatedKeyStrategy()} 启用。
+ */
+public enum GeneratedKeyStrategy {
+    /**
+     * {@code prepareStatement(sql, columnNames)} 批量执行后通过 {@code getGeneratedKeys()} 读取整批主键。
+     */
+    JDBC_BATCH,
+    /**
+     * 多行 {@code INSERT ... VALUES ... RETURNING col}，以结果集读取主键。
+     */
+    RETURNING,
+    /**
+     * 多行 {@code INSERT ... OUTPUT INSERTED.col VALUES ...}；目标表存在触发器时不可用。
+     */
+    OUTPUT_INSERTED,
+    /**
+     * 逐行执行并读取主键，用于驱动既不支持批量主键也没有保序改写形式的场景（如 Oracle、SQL Server、SQLite）。
+     */
+    PER_ROW
+}
@@ -0,0 +1,199 @@
+package io.lighting.lumen.sql;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * 单行 {@code INSERT ... VALUES (...)} 模板的多行改写。
+ * <p>
+ * 模板须以一个 VALUES 行组结尾，且占位符只出现在该行组内（至少一个）；改写时按行数重复行组，
+ * 各行绑定参数依次拼接。{@code INSERT ... SELECT}、带 {@code ON DUPLICATE KEY UPDATE}/{@code ON CONFLICT}/
+ * {@code RETURNING} 等后缀的语句不可改写，{@link #parse} 返回 {@code null}。
+ */
+public final class MultiRowInsert {
+    private final String head;
+    private final String row;
+    private final String tail;
+    private final int paramsPerRow;
+
+    private MultiRowInsert(String head, String row, String tail, int paramsPerRow) {
+        this.head = head;
+        this.row = row;
+        this.tail = tail;
+        this.paramsPerRow = paramsPerRow;
+    }
+
+    public static MultiRowInsert parse(String sql) {
+        Objects.requireNonNull(sql, "sql");
+        String trimmed = sql.strip();
+        if (!trimmed.regionMatches(true, 0, "INSERT", 0, "INSERT".length())) {
+            return null;
+        }
+        int values = findValuesKeyword(trimmed);
+        if (values < 0) {
+            return null;
+        }
+        int open = values + "VALUES".length();
+        while (open < trimmed.length() && Character.isWhitespace(trimmed.charAt(open))) {
+            open++;
+        }
+        if (open == trimmed.length() || trimmed.charAt(open) != '(') {
+            return null;
+        }
+        // 行组必须是语句的最后一部分：ON DUPLICATE KEY UPDATE 中的 VALUES(col)、ON CONFLICT、RETURNING 等后缀均不改写
+        int close = matchingClose(trimmed, open);
+        if (close != trimmed.length() - 1) {
+            return null;
+        }
+        String head = trimmed.substring(0, values + "VALUES".length());
+        if (countPlaceholders(head) != 0) {
+            return null;
+        }
+        String row = trimmed.substring(open);
+        int params = countPlaceholders(row);
+        if (params <= 0) {
+            return null;
+        }
+        return new MultiRowInsert(head + " ", row, "", params);
+    }
+
+    /**
+     * 返回在结果集中输出 {@code quotedColumn} 的改写：{@link GeneratedKeyStrategy#RETURNING} 追加
+     * {@code RETURNING}，{@link GeneratedKeyStrategy#OUTPUT_INSERTED} 在 {@code VALUES} 前插入 {@code OUTPUT INSERTED}。
+     * 仅在自定义方言选择这两种策略时使用。
+     */
+    public MultiRowInsert returning(GeneratedKeyStrategy strategy, String quotedColumn) {
+        Objects.requireNonNull(strategy, "strategy");
+        Objects.requireNonNull(quotedColumn, "quotedColumn");
+        return switch (strategy) {
+            case RETURNING -> new MultiRowInsert(head, row, tail + " RETURNING " + quotedColumn, paramsPerRow);
+            case OUTPUT_INSERTED -> {
+                String columns = head.substring(0, head.length() - "VALUES ".length()).stripTrailing();
+                yield new MultiRowInsert(
+                    columns + " OUTPUT INSERTED." + quotedColumn + " VALUES ",
+                    row,
+                    tail,
+                    paramsPerRow
+                );
+            }
+            default -> throw new IllegalArgumentException("Unsupported returning strategy: " + strategy);
+        };
+    }
+
+    public int paramsPerRow() {
+        return paramsPerRow;
+    }
+
+    /**
+     * 生成包含 {@code rows} 个行组的语句。
+     */
+    public String sql(int rows) {
+        if (rows < 1) {
+            throw new IllegalArgumentException("rows must be >= 1");
+        }
+        StringBuilder sql = new StringBuilder(head.length() + rows * (row.length() + 2) + tail.length());
+        sql.append(head);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(row);
+        }
+        sql.append(tail);
+        return sql.toString();
+    }
+
+    /**
+     * 将多行绑定参数合并为一条语句；每行参数个数必须与模板行组一致。
+     */
+    public RenderedSql render(List<List<Bind>> rows) {
+        Objects.requireNonNull(rows, "rows");
+        List<Bind> binds = new ArrayList<>(rows.size() * paramsPerRow);
+        for (List<Bind> rowBinds : rows) {
+            if (rowBinds.size() != paramsPerRow) {
+                throw new IllegalArgumentException(
+                    "Insert row expects " + paramsPerRow + " binds but got " + rowBinds.size()
+                );
+            }
+            binds.addAll(rowBinds);
+        }
+        return new RenderedSql(sql(rows.size()), binds);
+    }
+
+    /**
+     * 在给定的每语句参数上限、行数上限与期望行数下，计算每条语句合并的行数。
+     */
+    public int rowsPerStatement(int maxBindParameters, int maxRows, int preferredRows) {
+        int byParams = maxBindParameters / paramsPerRow;
+        return Math.max(1, Math.min(byParams, Math.min(maxRows, preferredRows)));
+    }
+
+    /**
+     * 查找第一个不在引号或括号内的 {@code VALUES} 关键字，返回其起始位置；找不到时返回 -1。
+     */
+    private static int findValuesKeyword(String sql) {
+        int depth = 0;
+        char quote = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            char ch = sql.charAt(i);
+            if (quote != 0) {
+                if (ch == quote) {
+                    quote = 0;
+                }
+            } else if (ch == '\'' || ch == '"' || ch == '`') {
+                quote = ch;
+            } else if (ch == '[') {
+                quote = ']';
+            } else if (ch == '(') {
+                depth++;
+            } else if (ch == ')') {
+                depth--;
+            } else if (depth == 0
+                && sql.regionMatches(true, i, "VALUES", 0, "VALUES".length())
+                && (i == 0 || !isIdentifierPart(sql.charAt(i - 1)))
+                && (i + "VALUES".length() == sql.length() || !isIdentifierPart(sql.charAt(i + "VALUES".length())))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isIdentifierPart(char ch) {
+        return Character.isLetterOrDigit(ch) || ch == '_' || ch == '$';
+    }
+
+    private static int matchingClose(String sql, int open) {
+        int depth = 0;
+        boolean quoted = false;
+        for (int i = open; i < sql.length(); i++) {
+            char ch = sql.charAt(i);
+            if (ch == '\'') {
+                quoted = !quoted;
+            } else if (!quoted && ch == '(') {
+                depth++;
+            } else if (!quoted && ch == ')') {
+                depth--;
+                if (depth == 0) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static int countPlaceholders(String fragment) {
+        int count = 0;
+        boolean quoted = false;
+        for (int i = 0; i < fragment.length(); i++) {
+            char ch = fragment.charAt(i);
+            if (ch == '\'') {
+                quoted = !quoted;
+            } else if (!quoted && ch == '?') {
+                count++;
+            }
+        }
+        return quoted ? -1 : count;
+    }
+}
@@ -24,6 +24,10 @@ public final class SqlRenderer {
         this.dialect = Objects.requireNonNull(dialect, "dialect");
     }
 
+    public Dialect dialect() {
+        return dialect;
+    }
+
     public RenderedSql render(Stmt stmt, Bindings bindings) {
         Objects.requireNonNull(stmt, "stmt");
         Objects.requireNonNull(bindings, "bindings");
@@ -43,6 +47,18 @@ public final class SqlRenderer {
         return new RenderedSql(sql.toString(), binds);
     }
 
+    /**
+     * 渲染单个条件表达式，供模板指令等在语句外拼接条件使用。
+     */
+    public RenderedSql render(Expr expr, Bindings bindings) {
+        Objects.requireNonNull(expr, "expr");
+        Objects.requireNonNull(bindings, "bindings");
+        StringBuilder sql = new StringBuilder();
+        List<Bind> binds = new ArrayList<>();
+        renderExpr(expr, bindings, sql, binds);
+        return new RenderedSql(sql.toString(), binds);
+    }
+
     private void renderSelect(SelectStmt stmt, Bindings bindings, StringBuilder sql, List<Bind> binds) {
         if (stmt.select().isEmpty()) {
             throw new IllegalArgumentException("Select list must not be empty");
@@ -189,6 +205,9 @@ public final class SqlRenderer {
         } else if (expr instanceof Expr.Not not) {
             sql.append("NOT ");
             renderWrapped(not.item(), bindings, sql, binds);
+        } else if (expr instanceof Expr.Compare compare
+            && compare.left() instanceof Expr.Row left && compare.right() instanceof Expr.Row right) {
+            renderRowCompare(left, compare.op(), right, bindings, sql, binds);
         } else if (expr instanceof Expr.Compare compare) {
             renderExpr(compare.left(), bindings, sql, binds);
             sql.append(' ').append(compareOp(compare.op())).append(' ');
@@ -199,6 +218,15 @@ public final class SqlRenderer {
             renderExpr(like.left(), bindings, sql, binds);
             sql.append(" LIKE ");
             renderExpr(like.pattern(), bindings, sql, binds);
+        } else if (expr instanceof Expr.Row row) {
+            sql.append('(');
+            for (int i = 0; i < row.items().size(); i++) {
+                if (i > 0) {
+                    sql.append(", ");
+                }
+                renderExpr(row.items().get(i), bindings, sql, binds);
+            }
+            sql.append(')');
         } else if (expr instanceof Expr.Func func) {
             List<RenderedSql> args = new ArrayList<>();
             for (Expr arg : func.args()) {
@@ -263,6 +291,58 @@ public final class SqlRenderer {
         sql.append(')');
     }
 
+    /**
+     * 行值比较：方言支持时原样输出，否则展开。{@code (a, b) > (x, y)} 展开为
+     * {@code a >= x AND (a > x OR (a = x AND b > y))}，首列的冗余范围条件便于按索引定位起点。
+     */
+    private void renderRowCompare(
+        Expr.Row left,
+        Expr.Op op,
+        Expr.Row right,
+        Bindings bindings,
+        StringBuilder sql,
+        List<Bind> binds
+    ) {
+        int size = left.items().size();
+        if (size != right.items().size()) {
+            throw new IllegalArgumentException("Row comparison needs rows of equal size: " + size + " vs " + right.items().size());
+        }
+        if (size == 1) {
+            renderExpr(new Expr.Compare(left.items().get(0), op, right.items().get(0)), bindings, sql, binds);
+            return;
+        }
+        if (dialect.supportsRowValueComparison()) {
+            renderExpr(left, bindings, sql, binds);
+            sql.append(' ').append(compareOp(op)).append(' ');
+            renderExpr(right, bindings, sql, binds);
+            return;
+        }
+        if (op == Expr.Op.EQ || op == Expr.Op.NE) {
+            List<Expr> items = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                items.add(new Expr.Compare(left.items().get(i), op, right.items().get(i)));
+            }
+            renderExpr(op == Expr.Op.EQ ? new Expr.And(items) : new Expr.Or(items), bindings, sql, binds);
+            return;
+        }
+        Expr.Op strict = op == Expr.Op.GE ? Expr.Op.GT : op == Expr.Op.LE ? Expr.Op.LT : op;
+        Expr.Op leading = strict == Expr.Op.GT ? Expr.Op.GE : Expr.Op.LE;
+        List<Expr> alternatives = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            List<Expr> terms = new ArrayList<>(i + 1);
+            for (int j = 0; j < i; j++) {
+                terms.add(new Expr.Compare(left.items().get(j), Expr.Op.EQ, right.items().get(j)));
+            }
+            Expr.Op last = i == size - 1 ? op : strict;
+            terms.add(new Expr.Compare(left.items().get(i), last, right.items().get(i)));
+            alternatives.add(terms.size() == 1 ? terms.get(0) : new Expr.And(terms));
+        }
+        renderExpr(new Expr.And(List.of(
+            new Expr.Compare(left.items().get(0), leading, right.items().get(0)),
+            new Expr.Or(alternatives)
+        )), bindings, sql, binds);
+    }
+
     private void renderIn(Expr.In in, Bindings bindings, StringBuilder sql, List<Bind> binds) {
         if (in.rights().isEmpty()) {
             sql.append("1=0");
@@ -0,0 +1,185 @@
+package io.lighting.lumen.sql;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 从 SQL 文本中提取引用的表名。
+ * <p>
+ * 识别 {@code FROM}/{@code JOIN}/{@code INTO}/{@code UPDATE}/{@code TABLE}/{@code USING}/{@code COPY}/{@code TRUNCATE}
+ * 之后的标识符（含 {@code FROM a, b} 形式的逗号列表与子查询）。表名去掉引号与 schema 前缀后转为小写。
+ * 结果偏向多报：函数名或 {@code EXTRACT(... FROM col)} 中的列名也可能被当作表名，适用于缓存失效这类宁多勿少的场景。
+ */
+public final class SqlTables {
+    private static final Set<String> TABLE_KEYWORDS = Set.of(
+        "FROM", "JOIN", "INTO", "UPDATE", "TABLE", "USING", "COPY", "TRUNCATE"
+    );
+    private static final Set<String> CLAUSE_KEYWORDS = Set.of(
+        "WHERE", "GROUP", "ORDER", "HAVING", "LIMIT", "OFFSET", "FETCH", "FOR", "WINDOW", "JOIN", "LEFT", "RIGHT",
+        "INNER", "OUTER", "FULL", "CROSS", "NATURAL", "ON", "USING", "UNION", "EXCEPT", "INTERSECT", "MINUS",
+        "SET", "VALUES", "SELECT", "RETURNING", "WITH", "WHEN", "LOCK", "STRAIGHT_JOIN"
+    );
+    private static final Set<String> SKIPPED_MODIFIERS = Set.of("ONLY", "LATERAL", "TABLE", "IF", "NOT", "EXISTS");
+
+    private SqlTables() {
+    }
+
+    /**
+     * 返回 SQL 中引用的表名，按出现顺序去重。
+     */
+    public static Set<String> of(String sql) {
+        Objects.requireNonNull(sql, "sql");
+        List<String> tokens = tokenize(sql);
+        Set<String> tables = new LinkedHashSet<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            String keyword = tokens.get(i).toUpperCase(Locale.ROOT);
+            if (!TABLE_KEYWORDS.contains(keyword)) {
+                continue;
+            }
+            int next = i + 1;
+            while (true) {
+                while (next < tokens.size() && SKIPPED_MODIFIERS.contains(tokens.get(next).toUpperCase(Locale.ROOT))) {
+                    next++;
+                }
+                if (next >= tokens.size() || !isIdentifier(tokens.get(next))
+                    || CLAUSE_KEYWORDS.contains(tokens.get(next).toUpperCase(Locale.ROOT))) {
+                    break;
+                }
+                tables.add(normalize(tokens.get(next)));
+                next++;
+                if (!keyword.equals("FROM")) {
+                    break;
+                }
+                if (next < tokens.size() && tokens.get(next).equalsIgnoreCase("AS")) {
+                    next++;
+                }
+                if (next < tokens.size() && isIdentifier(tokens.get(next))
+                    && !CLAUSE_KEYWORDS.contains(tokens.get(next).toUpperCase(Locale.ROOT))) {
+                    next++;
+                }
+                if (next >= tokens.size() || !tokens.get(next).equals(",")) {
+                    break;
+                }
+                next++;
+            }
+        }
+        return tables;
+    }
+
+    /**
+     * 规范化表名：去掉引号与 schema 前缀并转为小写，便于与 {@link #of} 的结果比较。
+     */
+    public static String normalize(String table) {
+        Objects.requireNonNull(table, "table");
+        String name = table;
+        int dot = lastUnquotedDot(name);
+        if (dot >= 0) {
+            name = name.substring(dot + 1);
+        }
+        if (name.length() >= 2) {
+            char first = name.charAt(0);
+            char last = name.charAt(name.length() - 1);
+            if ((first == '"' && last == '"') || (first == '`' && last == '`') || (first == '[' && last == ']')) {
+                name = name.substring(1, name.length() - 1);
+            }
+        }
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    private static int lastUnquotedDot(String name) {
+        char quote = 0;
+        int dot = -1;
+        for (int i = 0; i < name.length(); i++) {
+            char ch = name.charAt(i);
+            if (quote != 0) {
+                if (ch == quote) {
+                    quote = 0;
+                }
+            } else if (ch == '"' || ch == '`') {
+                quote = ch;
+            } else if (ch == '[') {
+                quote = ']';
+            } else if (ch == '.') {
+                dot = i;
+            }
+        }
+        return dot;
+    }
+
+    private static boolean isIdentifier(String token) {
+        char first = token.charAt(0);
+        return Character.isLetter(first) || first == '_' || first == '"' || first == '`' || first == '[';
+    }
+
+    private static List<String> tokenize(String sql) {
+        List<String> tokens = new ArrayList<>();
+        int length = sql.length();
+        int i = 0;
+        while (i < length) {
+            char ch = sql.charAt(i);
+            if (Character.isWhitespace(ch)) {
+                i++;
+            } else if (ch == '\'') {
+                i = skipString(sql, i);
+            } else if (ch == '-' && i + 1 < length && sql.charAt(i + 1) == '-') {
+                int end = sql.indexOf('\n', i);
+                i = end < 0 ? length : end + 1;
+            } else if (ch == '/' && i + 1 < length && sql.charAt(i + 1) == '*') {
+                int end = sql.indexOf("*/", i + 2);
+                i = end < 0 ? length : end + 2;
+            } else if (Character.isLetter(ch) || ch == '_' || ch == '"' || ch == '`' || ch == '[') {
+                int end = identifierEnd(sql, i);
+                tokens.add(sql.substring(i, end));
+                i = end;
+            } else {
+                tokens.add(String.valueOf(ch));
+                i++;
+            }
+        }
+        return tokens;
+    }
+
+    private static int skipString(String sql, int start) {
+        int i = start + 1;
+        while (i < sql.length()) {
+            if (sql.charAt(i) == '\'') {
+                if (i + 1 < sql.length() && sql.charAt(i + 1) == '\'') {
+                    i += 2;
+                    continue;
+                }
+                return i + 1;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    private static int identifierEnd(String sql, int start) {
+        int i = start;
+        while (i < sql.length()) {
+            char ch = sql.charAt(i);
+            if (ch == '"' || ch == '`' || ch == '[') {
+                char close = ch == '[' ? ']' : ch;
+                int end = sql.indexOf(close, i + 1);
+                i = end < 0 ? sql.length() : end + 1;
+            } else {
+                while (i < sql.length()
+                    && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '_' || sql.charAt(i) == '$')) {
+                    i++;
+                }
+            }
+            if (i < sql.length() && sql.charAt(i) == '.' && i + 1 < sql.length()
+                && (Character.isLetter(sql.charAt(i + 1)) || sql.charAt(i + 1) == '_'
+                || sql.charAt(i + 1) == '"' || sql.charAt(i + 1) == '`' || sql.charAt(i + 1) == '[')) {
+                i++;
+                continue;
+            }
+            return i;
+        }
+        return i;
+    }
+}
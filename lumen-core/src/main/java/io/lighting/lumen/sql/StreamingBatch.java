@@ -0,0 +1,118 @@
+package io.lighting.lumen.sql;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * 以迭代器提供行绑定参数的批量执行。
+ * <p>
+ * 与 {@link BatchSql} 不同，行数据不会预先物化：执行端每攒满 {@link #batchSize()} 行提交一次，
+ * 内存占用只与块大小有关，适合导入大数据量。迭代器只能消费一次，基于 {@link Stream} 构建时由调用方负责关闭流。
+ */
+public final class StreamingBatch {
+    private final RenderedSql template;
+    private final Iterator<? extends List<Bind>> rows;
+    private final int batchSize;
+    private final boolean multiRowInsert;
+
+    private StreamingBatch(
+        RenderedSql template,
+        Iterator<? extends List<Bind>> rows,
+        int batchSize,
+        boolean multiRowInsert
+    ) {
+        this.template = template;
+        this.rows = rows;
+        this.batchSize = batchSize;
+        this.multiRowInsert = multiRowInsert;
+    }
+
+    public RenderedSql template() {
+        return template;
+    }
+
+    public Iterator<? extends List<Bind>> rows() {
+        return rows;
+    }
+
+    public int batchSize() {
+        return batchSize;
+    }
+
+    public boolean multiRowInsert() {
+        return multiRowInsert;
+    }
+
+    public static Builder builder(RenderedSql template) {
+        return new Builder(template);
+    }
+
+    public static final class Builder {
+        private final RenderedSql template;
+        private Iterator<? extends List<Bind>> rows;
+        private int batchSize = 1000;
+        private boolean multiRowInsert;
+
+        private Builder(RenderedSql template) {
+            this.template = Objects.requireNonNull(template, "template");
+        }
+
+        public Builder rows(Iterator<? extends List<Bind>> rows) {
+            this.rows = Objects.requireNonNull(rows, "rows");
+            return this;
+        }
+
+        public Builder rows(Stream<? extends List<Bind>> rows) {
+            return rows(Objects.requireNonNull(rows, "rows").iterator());
+        }
+
+        /**
+         * 逐个对象调用 {@code binder} 生成行绑定参数，例如从实体或 CSV 记录转换。
+         */
+        public <T> Builder rows(Iterator<? extends T> items, Function<? super T, ? extends List<Bind>> binder) {
+            Objects.requireNonNull(items, "items");
+            Objects.requireNonNull(binder, "binder");
+            return rows(new Iterator<List<Bind>>() {
+                @Override
+                public boolean hasNext() {
+                    return items.hasNext();
+                }
+
+                @Override
+                public List<Bind> next() {
+                    return binder.apply(items.next());
+                }
+            });
+        }
+
+        public <T> Builder rows(Stream<? extends T> items, Function<? super T, ? extends List<Bind>> binder) {
+            return rows(Objects.requireNonNull(items, "items").iterator(), binder);
+        }
+
+        public Builder batchSize(int size) {
+            if (size < 1) {
+                throw new IllegalArgumentException("batchSize must be >= 1");
+            }
+            this.batchSize = size;
+            return this;
+        }
+
+        /**
+         * 允许将单行 INSERT 模板改写为多行 VALUES 执行，规则同 {@link BatchSql#multiRowInsert()}。
+         */
+        public Builder multiRowInsert(boolean enabled) {
+            this.multiRowInsert = enabled;
+            return this;
+        }
+
+        public StreamingBatch build() {
+            if (rows == null) {
+                throw new IllegalStateException("Batch rows are required");
+            }
+            return new StreamingBatch(template, rows, batchSize, multiRowInsert);
+        }
+    }
+}
@@ -5,7 +5,7 @@ import java.util.Objects;
 
 public sealed interface Expr permits
     Expr.And, Expr.Or, Expr.Not,
-    Expr.Compare, Expr.In, Expr.Like,
+    Expr.Compare, Expr.In, Expr.Like, Expr.Row,
     Expr.Func, Expr.Param, Expr.Column, Expr.Literal, Expr.RawSql, Expr.True, Expr.False {
 
     record And(List<Expr> items) implements Expr {
@@ -51,6 +51,19 @@ public sealed interface Expr permits
         }
     }
 
+    /**
+     * 行值 {@code (a, b)}；两个行值的 {@link Compare} 在不支持行值比较的方言中展开为逐列条件。
+     */
+    record Row(List<Expr> items) implements Expr {
+        public Row {
+            Objects.requireNonNull(items, "items");
+            if (items.isEmpty()) {
+                throw new IllegalArgumentException("items must not be empty");
+            }
+            items = List.copyOf(items);
+        }
+    }
+
     record Func(String name, List<Expr> args) implements Expr {
         public Func {
             Objects.requireNonNull(name, "name");
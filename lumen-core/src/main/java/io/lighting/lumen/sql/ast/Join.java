@@ -2,10 +2,23 @@ package io.lighting.lumen.sql.ast;
 
 import java.util.Objects;
 
-public record Join(JoinType type, TableRef table, Expr on) {
+/**
+ * 连接子句。
+ *
+ * @param type  连接类型
+ * @param table 被连接的表
+ * @param on    连接条件
+ * @param toOne 连接条件是否以被连接表的唯一键做等值匹配（每行至多匹配一行）；
+ *              为 {@code true} 且未被引用的 {@code LEFT JOIN} 可在 count 查询中省略
+ */
+public record Join(JoinType type, TableRef table, Expr on, boolean toOne) {
     public Join {
         Objects.requireNonNull(type, "type");
         Objects.requireNonNull(table, "table");
         Objects.requireNonNull(on, "on");
     }
+
+    public Join(JoinType type, TableRef table, Expr on) {
+        this(type, table, on, false);
+    }
 }
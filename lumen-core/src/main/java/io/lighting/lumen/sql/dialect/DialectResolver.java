@@ -1,6 +1,7 @@
 package io.lighting.lumen.sql.dialect;
 
 import io.lighting.lumen.sql.Dialect;
+import io.lighting.lumen.sql.GeneratedKeyStrategy;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.SQLException;
@@ -22,30 +23,38 @@ public final class DialectResolver {
         }
     }
 
+    /**
+     * 按数据库识别方言；绑定参数与多行 INSERT 上限取各数据库/驱动的硬限制
+     * （SQL Server 留出余量；Oracle 不支持多行 VALUES，SQL Server 单条 VALUES 最多 1000 行）。
+     * 主键需要按位置回填到实体，SQLite 的 RETURNING 与 SQL Server 的 OUTPUT INSERTED 都不保证结果行与 VALUES
+     * 顺序一致，驱动也不支持批量 {@code getGeneratedKeys()}，因此这两者与 Oracle 一样逐行获取。
+     */
     static Dialect resolve(String productName, String driverName, String url) {
         String product = normalize(productName);
         String driver = normalize(driverName);
         String jdbcUrl = normalize(url);
         if (matches(product, driver, jdbcUrl, "mariadb")) {
-            return new LimitOffsetDialect("mariadb", "`");
+            return new LimitOffsetDialect("mariadb", "`", 65535);
         }
         if (matches(product, driver, jdbcUrl, "mysql")) {
-            return new LimitOffsetDialect("mysql", "`");
+            return new LimitOffsetDialect("mysql", "`", 65535);
         }
         if (matches(product, driver, jdbcUrl, "postgres")) {
-            return new LimitOffsetDialect("postgres", "\"");
+            return new LimitOffsetDialect("postgres", "\"", 32767);
         }
         if (matches(product, driver, jdbcUrl, "h2")) {
-            return new LimitOffsetDialect("h2", "\"");
+            return new LimitOffsetDialect("h2", "\"", 32767);
         }
         if (matches(product, driver, jdbcUrl, "sqlite")) {
-            return new LimitOffsetDialect("sqlite", "\"");
+            return new LimitOffsetDialect("sqlite", "\"", 999, GeneratedKeyStrategy.PER_ROW);
         }
         if (matches(product, driver, jdbcUrl, "oracle")) {
-            return new OffsetFetchDialect("oracle", "\"", "\"", false);
+            return new OffsetFetchDialect("oracle", "\"", "\"", false, 65535, 1, GeneratedKeyStrategy.PER_ROW);
         }
         if (matches(product, driver, jdbcUrl, "sql server") || matches(product, driver, jdbcUrl, "sqlserver")) {
-            return new OffsetFetchDialect("sqlserver", "[", "]", true);
+            return new OffsetFetchDialect(
+                "sqlserver", "[", "]", true, 2000, 1000, GeneratedKeyStrategy.PER_ROW
+            );
         }
         return new LimitOffsetDialect("ansi", "\"");
     }
@@ -2,6 +2,7 @@ package io.lighting.lumen.sql.dialect;
 
 import io.lighting.lumen.sql.Bind;
 import io.lighting.lumen.sql.Dialect;
+import io.lighting.lumen.sql.GeneratedKeyStrategy;
 import io.lighting.lumen.sql.RenderedPagination;
 import io.lighting.lumen.sql.ast.OrderItem;
 import java.util.List;
@@ -10,12 +11,27 @@ import java.util.Objects;
 public final class LimitOffsetDialect implements Dialect {
     private final String id;
     private final String quote;
+    private final int maxBindParameters;
+    private final GeneratedKeyStrategy generatedKeyStrategy;
 
     public LimitOffsetDialect(String quote) {
         this("limit-offset", quote);
     }
 
     public LimitOffsetDialect(String id, String quote) {
+        this(id, quote, 2000);
+    }
+
+    public LimitOffsetDialect(String id, String quote, int maxBindParameters) {
+        this(id, quote, maxBindParameters, GeneratedKeyStrategy.JDBC_BATCH);
+    }
+
+    public LimitOffsetDialect(
+        String id,
+        String quote,
+        int maxBindParameters,
+        GeneratedKeyStrategy generatedKeyStrategy
+    ) {
         this.id = Objects.requireNonNull(id, "id");
         this.quote = Objects.requireNonNull(quote, "quote");
         if (this.id.isBlank()) {
@@ -24,6 +40,11 @@ public final class LimitOffsetDialect implements Dialect {
         if (this.quote.isBlank()) {
             throw new IllegalArgumentException("quote must not be blank");
         }
+        if (maxBindParameters < 1) {
+            throw new IllegalArgumentException("maxBindParameters must be >= 1");
+        }
+        this.maxBindParameters = maxBindParameters;
+        this.generatedKeyStrategy = Objects.requireNonNull(generatedKeyStrategy, "generatedKeyStrategy");
     }
 
     @Override
@@ -40,6 +61,24 @@ public final class LimitOffsetDialect implements Dialect {
         return quote + ident + quote;
     }
 
+    @Override
+    public int maxBindParameters() {
+        return maxBindParameters;
+    }
+
+    /**
+     * MySQL、PostgreSQL、H2、SQLite 均支持行值比较。
+     */
+    @Override
+    public boolean supportsRowValueComparison() {
+        return true;
+    }
+
+    @Override
+    public GeneratedKeyStrategy generatedKeyStrategy() {
+        return generatedKeyStrategy;
+    }
+
     @Override
     public RenderedPagination renderPagination(int page, int pageSize, List<OrderItem> orderBy) {
         if (page < 1) {
@@ -2,6 +2,7 @@ package io.lighting.lumen.sql.dialect;
 
 import io.lighting.lumen.sql.Bind;
 import io.lighting.lumen.sql.Dialect;
+import io.lighting.lumen.sql.GeneratedKeyStrategy;
 import io.lighting.lumen.sql.RenderedPagination;
 import io.lighting.lumen.sql.ast.OrderItem;
 import java.util.List;
@@ -12,8 +13,42 @@ public final class OffsetFetchDialect implements Dialect {
     private final String quoteStart;
     private final String quoteEnd;
     private final boolean requireOrderBy;
+    private final int maxBindParameters;
+    private final int maxInsertRows;
+    private final GeneratedKeyStrategy generatedKeyStrategy;
 
     public OffsetFetchDialect(String id, String quoteStart, String quoteEnd, boolean requireOrderBy) {
+        this(id, quoteStart, quoteEnd, requireOrderBy, 2000, Integer.MAX_VALUE);
+    }
+
+    public OffsetFetchDialect(
+        String id,
+        String quoteStart,
+        String quoteEnd,
+        boolean requireOrderBy,
+        int maxBindParameters,
+        int maxInsertRows
+    ) {
+        this(
+            id,
+            quoteStart,
+            quoteEnd,
+            requireOrderBy,
+            maxBindParameters,
+            maxInsertRows,
+            GeneratedKeyStrategy.JDBC_BATCH
+        );
+    }
+
+    public OffsetFetchDialect(
+        String id,
+        String quoteStart,
+        String quoteEnd,
+        boolean requireOrderBy,
+        int maxBindParameters,
+        int maxInsertRows,
+        GeneratedKeyStrategy generatedKeyStrategy
+    ) {
         this.id = Objects.requireNonNull(id, "id");
         this.quoteStart = Objects.requireNonNull(quoteStart, "quoteStart");
         this.quoteEnd = Objects.requireNonNull(quoteEnd, "quoteEnd");
@@ -24,6 +59,15 @@ public final class OffsetFetchDialect implements Dialect {
         if (this.quoteStart.isBlank() || this.quoteEnd.isBlank()) {
             throw new IllegalArgumentException("quote must not be blank");
         }
+        if (maxBindParameters < 1) {
+            throw new IllegalArgumentException("maxBindParameters must be >= 1");
+        }
+        if (maxInsertRows < 1) {
+            throw new IllegalArgumentException("maxInsertRows must be >= 1");
+        }
+        this.maxBindParameters = maxBindParameters;
+        this.maxInsertRows = maxInsertRows;
+        this.generatedKeyStrategy = Objects.requireNonNull(generatedKeyStrategy, "generatedKeyStrategy");
     }
 
     @Override
@@ -40,6 +84,21 @@ public final class OffsetFetchDialect implements Dialect {
         return quoteStart + ident + quoteEnd;
     }
 
+    @Override
+    public int maxBindParameters() {
+        return maxBindParameters;
+    }
+
+    @Override
+    public int maxInsertRows() {
+        return maxInsertRows;
+    }
+
+    @Override
+    public GeneratedKeyStrategy generatedKeyStrategy() {
+        return generatedKeyStrategy;
+    }
+
     @Override
     public RenderedPagination renderPagination(int page, int pageSize, List<OrderItem> orderBy) {
         if (page < 1) {
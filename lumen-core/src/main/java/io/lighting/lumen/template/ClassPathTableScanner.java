@@ -1,8 +1,12 @@
 package io.lighting.lumen.template;
 
 import io.lighting.lumen.meta.Table;
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -16,9 +20,54 @@ import java.util.jar.JarFile;
 import java.util.stream.Stream;
 
 final class ClassPathTableScanner {
+    /**
+     * 编译期由 {@code EntityMetaProcessor} 生成的实体索引，每行 {@code 简单名=二进制类名}。
+     */
+    static final String ENTITY_INDEX = "META-INF/lumen/entities.idx";
+
     record ScanResult(Map<String, Class<?>> entities, Map<String, List<String>> conflicts) {
     }
 
+    /**
+     * 读取类路径上所有实体索引并合并；没有任何索引时返回 {@code null}。
+     * <p>
+     * 只加载索引中列出的类，不遍历类路径。
+     */
+    static ScanResult scanIndex(ClassLoader classLoader) {
+        Enumeration<URL> resources;
+        try {
+            resources = classLoader.getResources(ENTITY_INDEX);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Failed to locate " + ENTITY_INDEX, ex);
+        }
+        if (!resources.hasMoreElements()) {
+            return null;
+        }
+        Map<String, Class<?>> entities = new LinkedHashMap<>();
+        Map<String, List<String>> conflicts = new LinkedHashMap<>();
+        while (resources.hasMoreElements()) {
+            URL url = resources.nextElement();
+            try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(url.openStream(), StandardCharsets.UTF_8)
+            )) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    line = line.trim();
+                    int separator = line.indexOf('=');
+                    if (line.isEmpty() || line.startsWith("#") || separator <= 0) {
+                        continue;
+                    }
+                    String name = line.substring(0, separator).trim();
+                    String className = line.substring(separator + 1).trim();
+                    registerCandidate(name, className, classLoader, entities, conflicts);
+                }
+            } catch (IOException ex) {
+                throw new IllegalStateException("Failed to read entity index: " + url, ex);
+            }
+        }
+        return new ScanResult(Map.copyOf(entities), copyConflicts(conflicts));
+    }
+
     static ScanResult scan(ClassLoader classLoader) {
         String classPath = System.getProperty("java.class.path");
         if (classPath == null || classPath.isBlank()) {
@@ -110,7 +159,35 @@ final class ClassPathTableScanner {
         if (type.getAnnotation(Table.class) == null) {
             return;
         }
-        String simpleName = type.getSimpleName();
+        register(type.getSimpleName(), type, entities, conflicts);
+    }
+
+    private static void registerCandidate(
+        String name,
+        String className,
+        ClassLoader classLoader,
+        Map<String, Class<?>> entities,
+        Map<String, List<String>> conflicts
+    ) {
+        if (className.isEmpty()) {
+            return;
+        }
+        Class<?> type;
+        try {
+            type = Class.forName(className, false, classLoader);
+        } catch (ClassNotFoundException | LinkageError ex) {
+            // 索引残留（类已删除）时忽略该条目
+            return;
+        }
+        register(name, type, entities, conflicts);
+    }
+
+    private static void register(
+        String simpleName,
+        Class<?> type,
+        Map<String, Class<?>> entities,
+        Map<String, List<String>> conflicts
+    ) {
         if (simpleName == null || simpleName.isBlank()) {
             return;
         }
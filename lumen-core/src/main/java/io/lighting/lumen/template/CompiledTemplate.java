@@ -0,0 +1,654 @@
+package io.lighting.lumen.template;
+
+import io.lighting.lumen.page.KeysetCursor;
+import io.lighting.lumen.page.KeysetPageRequest;
+import io.lighting.lumen.page.KeysetSql;
+import io.lighting.lumen.page.Sort;
+import io.lighting.lumen.page.SortDirection;
+import io.lighting.lumen.page.SortItem;
+import io.lighting.lumen.sql.Bind;
+import io.lighting.lumen.sql.Bindings;
+import io.lighting.lumen.sql.RenderedPagination;
+import io.lighting.lumen.sql.RenderedSql;
+import io.lighting.lumen.sql.SqlRenderer;
+import io.lighting.lumen.sql.ast.Expr;
+import io.lighting.lumen.sql.ast.OrderItem;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 编译后的 SQL 模板。
+ * <p>
+ * 解析得到的 {@link TemplateNode} 在编译时转换为预绑定的渲染函数树：
+ * 相邻静态文本预先拼接并算好空白合并后的两种形态，常量条件的 {@code @if} 直接折叠，
+ * 全静态的 {@code @where}/{@code @having} 与 {@code @orderBy} 片段在编译期求值，
+ * 紧跟静态文本的参数在编译期完成标识符位置校验。
+ * 其余块直接写入同一个 {@link TemplateBuffer}，连接词剥离在缓冲区内原地完成。
+ */
+final class CompiledTemplate {
+    private final Op[] ops;
+    private final int capacity;
+
+    private CompiledTemplate(Op[] ops, int capacity) {
+        this.ops = ops;
+        this.capacity = capacity;
+    }
+
+    static CompiledTemplate compile(List<TemplateNode> nodes) {
+        Op[] ops = compileNodes(nodes);
+        return new CompiledTemplate(ops, Math.max(16, staticLength(ops) + 32));
+    }
+
+    RenderedSql render(TemplateContext context) {
+        TemplateBuffer buffer = new TemplateBuffer(capacity);
+        renderOps(ops, context, buffer);
+        return new RenderedSql(buffer.sql.toString(), buffer.binds);
+    }
+
+    private static void renderOps(Op[] ops, TemplateContext context, TemplateBuffer buffer) {
+        for (Op op : ops) {
+            op.render(context, buffer);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Op {
+        void render(TemplateContext context, TemplateBuffer buffer);
+    }
+
+    // ---------------------------------------------------------------- compilation
+
+    private static Op[] compileNodes(List<TemplateNode> nodes) {
+        List<Op> ops = new ArrayList<>(nodes.size());
+        for (TemplateNode node : nodes) {
+            compileNode(node, ops);
+        }
+        return ops.toArray(new Op[0]);
+    }
+
+    private static void compileNode(TemplateNode node, List<Op> ops) {
+        if (node instanceof TextNode text) {
+            addText(ops, TextOp.of(text.text()));
+        } else if (node instanceof ParamNode param) {
+            ops.add(compileParam(param.expression(), ops));
+        } else if (node instanceof IfNode ifNode) {
+            if (ifNode.condition() instanceof LiteralExpression literal) {
+                if (TemplateExpression.toBoolean(literal.value())) {
+                    for (Op op : compileNodes(ifNode.body())) {
+                        add(ops, op);
+                    }
+                }
+                return;
+            }
+            Op[] body = compileNodes(ifNode.body());
+            if (body.length > 0) {
+                ops.add(new IfOp(ifNode.condition(), body));
+            }
+        } else if (node instanceof ForNode forNode) {
+            ops.add(new ForOp(forNode.variable(), forNode.source(), compileNodes(forNode.body())));
+        } else if (node instanceof ClauseNode clause) {
+            compileClause(clause, ops);
+        } else if (node instanceof OrNode orNode) {
+            ops.add(new OrOp(compileNodes(orNode.body())));
+        } else if (node instanceof InNode inNode) {
+            ops.add(new InOp(inNode.source()));
+        } else if (node instanceof TableNode tableNode) {
+            String entityName = tableNode.entityName();
+            ops.add((context, buffer) -> buffer.appendFragment(
+                context.macros().table(context.resolveEntity(entityName))
+            ));
+        } else if (node instanceof ColumnNode columnNode) {
+            String entityName = columnNode.entityName();
+            String fieldName = columnNode.fieldName();
+            ops.add((context, buffer) -> buffer.appendFragment(
+                context.macros().column(context.resolveEntity(entityName), fieldName)
+            ));
+        } else if (node instanceof PageNode pageNode) {
+            ops.add(new PageOp(pageNode.page(), pageNode.pageSize()));
+        } else if (node instanceof OrderByNode orderByNode) {
+            ops.add(OrderByOp.compile(orderByNode));
+        } else if (node instanceof SeekNode seekNode) {
+            ops.add(SeekOp.compile(seekNode));
+        } else {
+            throw new IllegalArgumentException("Unsupported template node: " + node.getClass().getSimpleName());
+        }
+    }
+
+    private static void add(List<Op> ops, Op op) {
+        if (op instanceof TextOp text) {
+            addText(ops, text);
+        } else {
+            ops.add(op);
+        }
+    }
+
+    private static void addText(List<Op> ops, TextOp text) {
+        int last = ops.size() - 1;
+        if (last >= 0 && ops.get(last) instanceof TextOp previous) {
+            ops.set(last, previous.join(text));
+        } else {
+            ops.add(text);
+        }
+    }
+
+    private static Op compileParam(TemplateExpression expression, List<Op> preceding) {
+        int check = TemplateBuffer.CHECK_UNKNOWN;
+        if (!preceding.isEmpty() && preceding.get(preceding.size() - 1) instanceof TextOp text) {
+            check = TemplateBuffer.checkParamPosition(text.full, 0, text.full.length(), false);
+        }
+        if (check == TemplateBuffer.CHECK_OK) {
+            return (context, buffer) -> buffer.appendBind(expression.evaluate(context));
+        }
+        if (check == TemplateBuffer.CHECK_FAIL) {
+            return (context, buffer) -> {
+                throw TemplateBuffer.paramInIdentifierPosition();
+            };
+        }
+        return (context, buffer) -> {
+            buffer.ensureParamNotIdentifierPosition();
+            buffer.appendBind(expression.evaluate(context));
+        };
+    }
+
+    private static void compileClause(ClauseNode clause, List<Op> ops) {
+        Op[] body = compileNodes(clause.body());
+        if (body.length == 0) {
+            return;
+        }
+        if (body.length == 1 && body[0] instanceof TextOp text) {
+            String trimmed = stripLeadingConjunction(text.full.trim());
+            if (!trimmed.isBlank()) {
+                addText(ops, TextOp.of(clause.keyword() + " " + trimmed));
+            }
+            return;
+        }
+        ops.add(new ClauseOp(clause.keyword(), body));
+    }
+
+    private static int staticLength(Op[] ops) {
+        int length = 0;
+        for (Op op : ops) {
+            if (op instanceof TextOp text) {
+                length += text.full.length();
+            } else if (op instanceof Container container) {
+                length += staticLength(container.body());
+            }
+        }
+        return length;
+    }
+
+    static String stripLeadingConjunction(String trimmed) {
+        int start = conjunctionEnd(trimmed, 0, trimmed.length());
+        return start == 0 ? trimmed : trimmed.substring(start).trim();
+    }
+
+    /**
+     * 若 {@code text[start, end)} 以 AND/OR 加空白开头，返回连接词之后的位置；否则返回 {@code start}。
+     * 与连接词完全相同的片段返回 {@code end}。
+     */
+    private static int conjunctionEnd(CharSequence text, int start, int end) {
+        int keywordLength;
+        if (end - start >= 3 && TemplateBuffer.regionIs(text, start, 3, "AND")) {
+            keywordLength = 3;
+        } else if (end - start >= 2 && TemplateBuffer.regionIs(text, start, 2, "OR")) {
+            keywordLength = 2;
+        } else {
+            return start;
+        }
+        if (end - start == keywordLength) {
+            return end;
+        }
+        if (Character.isWhitespace(text.charAt(start + keywordLength))) {
+            return start + keywordLength + 1;
+        }
+        return start;
+    }
+
+    private static int trimStart(CharSequence text, int start, int end) {
+        while (start < end && text.charAt(start) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    private static int trimEnd(CharSequence text, int start, int end) {
+        while (end > start && text.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+
+    private static boolean isBlank(CharSequence text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!Character.isWhitespace(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 将 {@code [mark, end)} 中子块的输出裁剪为 {@code [start, contentEnd)}，并在前面写入 {@code prefix}。
+     */
+    private static void rewriteBlock(TemplateBuffer buffer, int mark, int start, int contentEnd, String prefix) {
+        StringBuilder sql = buffer.sql;
+        sql.setLength(contentEnd);
+        sql.replace(mark, start, prefix);
+    }
+
+    private static void discardBlock(TemplateBuffer buffer, int mark, int bindMark) {
+        buffer.sql.setLength(mark);
+        List<Bind> binds = buffer.binds;
+        while (binds.size() > bindMark) {
+            binds.remove(binds.size() - 1);
+        }
+    }
+
+    /**
+     * 按外层缓冲区的空白合并规则，选择块前缀的两种形态之一。
+     */
+    private static String blockPrefix(TemplateBuffer buffer, int mark, int outerFloor, String full, String stripped) {
+        if (mark == outerFloor || !Character.isWhitespace(buffer.sql.charAt(mark - 1))) {
+            return full;
+        }
+        return stripped;
+    }
+
+    private static Iterable<?> toIterable(Object value, String name) {
+        if (value == null) {
+            throw new IllegalArgumentException("Iterable source '" + name + "' is null");
+        }
+        if (value instanceof Iterable<?> iterable) {
+            return iterable;
+        }
+        if (value.getClass().isArray()) {
+            int length = Array.getLength(value);
+            List<Object> items = new ArrayList<>(length);
+            for (int i = 0; i < length; i++) {
+                items.add(Array.get(value, i));
+            }
+            return items;
+        }
+        throw new IllegalArgumentException("Expected iterable for '" + name + "' but got " + value.getClass().getName());
+    }
+
+    private static int toInt(Object value, String name) {
+        if (value instanceof Number number) {
+            return number.intValue();
+        }
+        throw new IllegalArgumentException("Expected numeric value for '" + name + "'");
+    }
+
+    // ---------------------------------------------------------------- ops
+
+    private interface Container extends Op {
+        Op[] body();
+    }
+
+    private static final class TextOp implements Op {
+        private final String full;
+        private final String stripped;
+
+        private TextOp(String full, String stripped) {
+            this.full = full;
+            this.stripped = stripped;
+        }
+
+        private static TextOp of(String text) {
+            return new TextOp(text, TemplateBuffer.stripLeadingWhitespace(text));
+        }
+
+        private TextOp join(TextOp next) {
+            String tail = TemplateBuffer.endsWithWhitespace(full) ? next.stripped : next.full;
+            String joinedFull = full + tail;
+            String joinedStripped = stripped.isEmpty() ? next.stripped : stripped + tail;
+            return new TextOp(joinedFull, joinedStripped);
+        }
+
+        @Override
+        public void render(TemplateContext context, TemplateBuffer buffer) {
+            buffer.appendText(full, stripped);
+        }
+    }
+
+    private record IfOp(TemplateExpression condition, Op[] body) implements Container {
+        @Override
+        public void render(TemplateContext context, TemplateBuffer buffer) {
+            if (TemplateExpression.toBoolean(condition.evaluate(context))) {
+                renderOps(body, context, buffer);
+            }
+        }
+    }
+
+    private record ForOp(String variable, TemplateExpression source, Op[] body) implements Container {
+        @Override
+        public void render(TemplateContext context, TemplateBuffer buffer) {
+            for (Object item : toIterable(source.evaluate(context), variable)) {
+                renderOps(body, context.withLocal(variable, item), buffer);
+            }
+        }
+    }
+
+    private static final class ClauseOp implements Container {
+        private final Op[] body;
+        private final String keywordFull;
+        private final String keywordStripped;
+
+        private ClauseOp(String keyword, Op[] body) {
+            this.body = body;
+            this.keywordFull = keyword + " ";
+            this.keywordStripped = TemplateBuffer.stripLeadingWhitespace(keywordFull);
+        }
+
+        @Override
+        public Op[] body() {
+            return body;
+        }
+
+        @Override
+        public void render(TemplateContext context, TemplateBuffer buffer) {
+            int outerFloor = buffer.floor;
+            int mark = buffer.sql.length();
+            int bindMark = buffer.binds.size();
+            buffer.floor = mark;
+            try {
+                renderOps(body, context, buffer);
+            } finally {
+                buffer.floor = outerFloor;
+            }
+            StringBuilder sql = buffer.sql;
+            int end = trimEnd(sql, mark, sql.length());
+            int start = trimStart(sql, mark, end);
+            int afterConjunction = conjunctionEnd(sql, start, end);
+            if (afterConjunction != start) {
+                start = trimStart(sql, afterConjunction, end);
+            }
+            if (isBlank(sql, start, end)) {
+                discardBlock(buffer, mark, bindMark);
+                return;
+            }
+            rewriteBlock(buffer, mark, start, end, blockPrefix(buffer, mark, outerFloor, keywordFull, keywordStripped));
+        }
+    }
+
+    private record OrOp(Op[] body) implements Container {
+        @Override
+        public void render(TemplateContext context, TemplateBuffer buffer) {
+            int outerFloor = buffer.floor;
+            int mark = buffer.sql.length();
+            int bindMark = buffer.binds.size();
+            buffer.floor = mark;
+            try {
+                renderOps(body, context, buffer);
+            } finally {
+                buffer.floor = outerFloor;
+            }
+            StringBuilder sql = buffer.sql;
+            int end = trimEnd(sql, mark, sql.length());
+            int start = trimStart(sql, mark, end);
+            if (isBlank(sql, start, end)) {
+                discardBlock(buffer, mark, bindMark);
+                return;
+            }
+            String prefix = buffer.shouldPrefixOr(mark) ? "OR " : "";
+            rewriteBlock(buffer, mark, start, end, prefix);
+        }
+    }
+
+    private record InOp(TemplateExpression source) implements Op {
+        @Override
+        public void render(TemplateContext context, TemplateBuffer buffer) {
+            Iterator<?> items = toIterable(source.evaluate(context), "in").iterator();
+            if (!items.hasNext()) {
+                renderEmpty(context, buffer);
+                return;
+            }
+            StringBuilder sql = buffer.sql;
+            sql.append('(');
+            buffer.appendBind(items.next());
+            while (items.hasNext()) {
+                sql.append(", ");
+                buffer.appendBind(items.next());
+            }
+            sql.append(')');
+        }
+
+        private static void renderEmpty(TemplateContext context, TemplateBuffer buffer) {
+            switch (context.emptyInStrategy()) {
+                case NULL -> buffer.sql.append("(NULL)");
+                case ERROR -> throw new IllegalArgumentException("IN list is empty");
+                case FALSE -> {
+                    int start = buffer.findPredicateStart();
+                    if (start < 0) {
+                        throw new IllegalArgumentException(
+                            "Cannot apply empty-IN strategy FALSE outside predicate context"
+                        );
+                    }
+                    buffer.sql.setLength(start);
+                    buffer.appendFragment("1=0");
+                }
+            }
+        }
+    }
+
+    private record PageOp(TemplateExpression page, TemplateExpression pageSize) implements Op {
+        @Override
+        public void render(TemplateContext context, TemplateBuffer buffer) {
+            int pageValue = toInt(page.evaluate(context), "page");
+            int pageSizeValue = toInt(pageSize.evaluate(context), "pageSize");
+            RenderedPagination pagination = context.dialect().renderPagination(pageValue, pageSizeValue, List.of());
+            if (!pagination.sqlFragment().isBlank()) {
+                buffer.appendFragment(pagination.sqlFragment());
+            }
+            buffer.binds.addAll(pagination.binds());
+        }
+    }
+
+    /**
+     * {@code @seek}：游标为空时输出恒真条件，否则按方言输出行值比较或其展开形式。
+     */
+    private record SeekOp(TemplateExpression cursor, List<OrderItem> keys) implements Op {
+        private static SeekOp compile(SeekNode node) {
+            List<OrderItem> keys = new ArrayList<>(node.keys().size());
+            for (SeekKey key : node.keys()) {
+                keys.add(new OrderItem(new Expr.RawSql(key.sql()), key.asc()));
+            }
+            return new SeekOp(node.cursor(), List.copyOf(keys));
+        }
+
+        @Override
+        public void render(TemplateContext context, TemplateBuffer buffer) {
+            Object value = cursor.evaluate(context);
+            String token;
+            if (value instanceof KeysetPageRequest request) {
+                token = request.cursor();
+            } else if (value == null || value instanceof String) {
+                token = (String) value;
+            } else {
+                throw new IllegalArgumentException("@seek cursor must be a String or KeysetPageRequest: " + value);
+            }
+            if (token == null || token.isBlank()) {
+                buffer.appendFragment("1=1");
+                return;
+            }
+            RenderedSql seek = new SqlRenderer(context.dialect())
+                .render(KeysetSql.seek(keys, KeysetCursor.decode(token)), Bindings.empty());
+            buffer.appendFragment(seek.sql());
+            buffer.binds.addAll(seek.binds());
+        }
+    }
+
+    private static final class OrderByOp implements Op {
+        private final TemplateExpression selection;
+        private final Map<String, OrderFragment> allowed;
+        private final String defaultKey;
+
+        private OrderByOp(TemplateExpression selection, Map<String, OrderFragment> allowed, String defaultKey) {
+            this.selection = selection;
+            this.allowed = allowed;
+            this.defaultKey = defaultKey;
+        }
+
+        private static OrderByOp compile(OrderByNode node) {
+            Map<String, OrderFragment> allowed = new LinkedHashMap<>();
+            for (Map.Entry<String, List<TemplateNode>> entry : node.allowed().entrySet()) {
+                Op[] ops = compileNodes(entry.getValue());
+                if (ops.length == 0) {
+                    allowed.put(entry.getKey(), new OrderFragment(null, ""));
+                } else if (ops.length == 1 && ops[0] instanceof TextOp text) {
+                    allowed.put(entry.getKey(), new OrderFragment(null, stripOrderByPrefix(text.full.trim())));
+                } else {
+                    allowed.put(entry.getKey(), new OrderFragment(ops, null));
+                }
+            }
+            return new OrderByOp(node.selection(), allowed, node.defaultKey());
+        }
+
+        @Override
+        public void render(TemplateContext context, TemplateBuffer buffer) {
+            List<OrderSelection> selections = resolveOrderSelections(selection.evaluate(context));
+            if (selections == null || selections.isEmpty()) {
+                if (defaultKey == null) {
+                    return;
+                }
+                selections = List.of(new OrderSelection(defaultKey, null));
+            }
+            List<String> fragments = new ArrayList<>(selections.size());
+            for (OrderSelection selection : selections) {
+                String key = selection.key();
+                if (key == null || key.isBlank()) {
+                    continue;
+                }
+                OrderFragment fragment = allowed.get(key);
+                if (fragment == null) {
+                    throw new IllegalArgumentException("@orderBy selection not allowed: " + key);
+                }
+                String text = fragment.resolve(context);
+                if (text.isBlank()) {
+                    continue;
+                }
+                SortDirection direction = selection.direction();
+                if (direction != null && !hasTrailingDirection(text)) {
+                    text = text + " " + direction.name();
+                }
+                fragments.add(text);
+            }
+            if (fragments.isEmpty()) {
+                return;
+            }
+            buffer.appendFragment(" ORDER BY " + String.join(", ", fragments));
+        }
+
+        private static String stripOrderByPrefix(String trimmed) {
+            int length = "ORDER BY".length();
+            if (trimmed.length() < length || !trimmed.regionMatches(true, 0, "ORDER BY", 0, length)) {
+                return trimmed;
+            }
+            if (trimmed.length() == length) {
+                return "";
+            }
+            if (Character.isWhitespace(trimmed.charAt(length))) {
+                return trimmed.substring(length + 1).trim();
+            }
+            return trimmed;
+        }
+
+        private static boolean hasTrailingDirection(String fragment) {
+            String trimmed = fragment.trim();
+            int lastSpace = trimmed.lastIndexOf(' ');
+            if (lastSpace < 0) {
+                return false;
+            }
+            int length = trimmed.length() - lastSpace - 1;
+            return TemplateBuffer.regionIs(trimmed, lastSpace + 1, length, "ASC")
+                || TemplateBuffer.regionIs(trimmed, lastSpace + 1, length, "DESC");
+        }
+
+        private static List<OrderSelection> resolveOrderSelections(Object value) {
+            if (value == null) {
+                return null;
+            }
+            List<OrderSelection> selections = new ArrayList<>();
+            if (value instanceof Sort sort) {
+                for (SortItem item : sort.items()) {
+                    selections.add(new OrderSelection(item.key(), item.direction()));
+                }
+                return selections;
+            }
+            if (value instanceof SortItem item) {
+                selections.add(new OrderSelection(item.key(), item.direction()));
+                return selections;
+            }
+            if (value instanceof Iterable<?> iterable) {
+                for (Object item : iterable) {
+                    addSelection(selections, item);
+                }
+                return selections;
+            }
+            if (value.getClass().isArray()) {
+                int length = Array.getLength(value);
+                for (int i = 0; i < length; i++) {
+                    addSelection(selections, Array.get(value, i));
+                }
+                return selections;
+            }
+            addSelection(selections, value);
+            return selections;
+        }
+
+        private static void addSelection(List<OrderSelection> selections, Object value) {
+            if (value == null) {
+                return;
+            }
+            if (value instanceof Sort sort) {
+                for (SortItem item : sort.items()) {
+                    selections.add(new OrderSelection(item.key(), item.direction()));
+                }
+                return;
+            }
+            if (value instanceof SortItem item) {
+                selections.add(new OrderSelection(item.key(), item.direction()));
+                return;
+            }
+            String key = resolveOrderKey(value);
+            if (key != null) {
+                selections.add(new OrderSelection(key, null));
+            }
+        }
+
+        private static String resolveOrderKey(Object value) {
+            if (value instanceof CharSequence sequence) {
+                String key = sequence.toString().trim();
+                return key.isEmpty() ? null : key;
+            }
+            if (value instanceof Enum<?> enumValue) {
+                return enumValue.name();
+            }
+            return value.toString();
+        }
+    }
+
+    /**
+     * {@code @orderBy} 的候选片段：全静态时 {@code text} 已在编译期裁剪好，否则渲染 {@code ops}。
+     */
+    private record OrderFragment(Op[] ops, String text) {
+        private String resolve(TemplateContext context) {
+            if (ops == null) {
+                return text;
+            }
+            TemplateBuffer fragment = new TemplateBuffer(32);
+            renderOps(ops, context, fragment);
+            if (!fragment.binds.isEmpty()) {
+                throw new IllegalArgumentException("@orderBy fragments must not use parameters");
+            }
+            return OrderByOp.stripOrderByPrefix(fragment.sql.toString().trim());
+        }
+    }
+
+    private record OrderSelection(String key, SortDirection direction) {
+    }
+}
@@ -50,12 +50,20 @@ public final class EntityNameResolvers {
         };
     }
 
+    /**
+     * 按简单类名解析 {@code @Table} 实体。
+     * <p>
+     * 创建时读取编译期生成的 {@code META-INF/lumen/entities.idx}；索引中找不到的名称
+     * （如未启用注解处理器的模块）才会触发一次完整的类路径扫描。
+     */
     private static final class AutoEntityNameResolver implements EntityNameResolver {
         private final ClassLoader classLoader;
+        private final ClassPathTableScanner.ScanResult indexResult;
         private volatile ClassPathTableScanner.ScanResult scanResult;
 
         private AutoEntityNameResolver(ClassLoader classLoader) {
             this.classLoader = classLoader;
+            this.indexResult = ClassPathTableScanner.scanIndex(classLoader);
         }
 
         @Override
@@ -64,6 +72,16 @@ public final class EntityNameResolvers {
             if (name.contains(".")) {
                 return loadClass(name);
             }
+            if (indexResult != null) {
+                Class<?> indexed = indexResult.entities().get(name);
+                if (indexed != null) {
+                    return indexed;
+                }
+                java.util.List<String> candidates = indexResult.conflicts().get(name);
+                if (candidates != null && !candidates.isEmpty()) {
+                    throw new IllegalArgumentException("Ambiguous entity type: " + name + ", candidates: " + candidates);
+                }
+            }
             ClassPathTableScanner.ScanResult result = scanResult;
             if (result == null) {
                 synchronized (this) {
@@ -8,15 +8,17 @@ import java.util.Objects;
  * SQL 模板对象。
  * <p>
  * 该类代表已经解析完成的模板 AST，可被多次渲染以生成 {@link RenderedSql}。
- * 模板语法由 {@link SqlTemplateParser} 解析，渲染时由 {@link SqlTemplateRenderer}
- * 结合 {@link TemplateContext} 完成参数绑定与 SQL 片段拼装。
+ * 模板语法由 {@link SqlTemplateParser} 解析，解析结果随即编译为 {@link CompiledTemplate}，
+ * 渲染时结合 {@link TemplateContext} 完成参数绑定与 SQL 片段拼装。
  *
  */
 public final class SqlTemplate {
     private final List<TemplateNode> nodes;
+    private final CompiledTemplate compiled;
 
     SqlTemplate(List<TemplateNode> nodes) {
         this.nodes = List.copyOf(nodes);
+        this.compiled = CompiledTemplate.compile(this.nodes);
     }
 
     public static SqlTemplate parse(String template) {
@@ -32,7 +34,7 @@ public final class SqlTemplate {
      */
     public RenderedSql render(TemplateContext context) {
         Objects.requireNonNull(context, "context");
-        return new SqlTemplateRenderer().render(nodes, context);
+        return compiled.render(context);
     }
 
     List<TemplateNode> nodes() {
@@ -52,6 +52,8 @@ public final class SqlTemplateAnalyzer {
             } else if (node instanceof PageNode pageNode) {
                 collectExpression(pageNode.page(), locals, bindings);
                 collectExpression(pageNode.pageSize(), locals, bindings);
+            } else if (node instanceof SeekNode seekNode) {
+                collectExpression(seekNode.cursor(), locals, bindings);
             } else if (node instanceof OrderByNode orderByNode) {
                 collectExpression(orderByNode.selection(), locals, bindings);
                 for (List<TemplateNode> allowedNodes : orderByNode.allowed().values()) {
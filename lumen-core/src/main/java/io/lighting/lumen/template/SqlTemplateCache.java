@@ -0,0 +1,165 @@
+package io.lighting.lumen.template;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 已解析 {@link SqlTemplate} 的有界并发缓存，以模板文本为键。
+ * <p>
+ * 超出容量时淘汰最久未访问的条目；可选按空闲时间过期。{@code maxSize = 0} 表示不缓存，每次都重新解析。
+ * 解析失败的模板不会进入缓存。
+ */
+public final class SqlTemplateCache {
+    public static final int DEFAULT_MAX_SIZE = 256;
+
+    private final int maxSize;
+    private final long expireAfterAccessNanos;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Object evictionLock = new Object();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private SqlTemplateCache(Builder builder) {
+        this.maxSize = builder.maxSize;
+        this.expireAfterAccessNanos = builder.expireAfterAccess == null ? 0L : builder.expireAfterAccess.toNanos();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static SqlTemplateCache withMaxSize(int maxSize) {
+        return builder().maxSize(maxSize).build();
+    }
+
+    public static SqlTemplateCache disabled() {
+        return builder().maxSize(0).build();
+    }
+
+    /**
+     * 返回模板文本对应的已解析模板，未命中时解析并缓存。
+     */
+    public SqlTemplate get(String template) {
+        Objects.requireNonNull(template, "template");
+        if (maxSize == 0) {
+            misses.increment();
+            return SqlTemplate.parse(template);
+        }
+        long now = System.nanoTime();
+        Entry entry = entries.get(template);
+        if (entry != null) {
+            if (!isExpired(entry, now)) {
+                entry.lastAccess = now;
+                hits.increment();
+                return entry.template;
+            }
+            if (entries.remove(template, entry)) {
+                evictions.increment();
+            }
+        }
+        misses.increment();
+        SqlTemplate parsed = SqlTemplate.parse(template);
+        Entry existing = entries.putIfAbsent(template, new Entry(parsed, now));
+        if (existing != null) {
+            return existing.template;
+        }
+        if (entries.size() > maxSize) {
+            evict(now);
+        }
+        return parsed;
+    }
+
+    public int maxSize() {
+        return maxSize;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public SqlTemplateCacheStats stats() {
+        return new SqlTemplateCacheStats(hits.sum(), misses.sum(), evictions.sum(), entries.size());
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        return expireAfterAccessNanos > 0 && now - entry.lastAccess > expireAfterAccessNanos;
+    }
+
+    private void evict(long now) {
+        synchronized (evictionLock) {
+            while (entries.size() > maxSize) {
+                Map.Entry<String, Entry> oldest = null;
+                for (Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator(); it.hasNext(); ) {
+                    Map.Entry<String, Entry> candidate = it.next();
+                    if (isExpired(candidate.getValue(), now)) {
+                        it.remove();
+                        evictions.increment();
+                        continue;
+                    }
+                    if (oldest == null || candidate.getValue().lastAccess - oldest.getValue().lastAccess < 0) {
+                        oldest = candidate;
+                    }
+                }
+                if (entries.size() <= maxSize || oldest == null) {
+                    return;
+                }
+                if (entries.remove(oldest.getKey(), oldest.getValue())) {
+                    evictions.increment();
+                }
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final SqlTemplate template;
+        private volatile long lastAccess;
+
+        private Entry(SqlTemplate template, long lastAccess) {
+            this.template = template;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+    public static final class Builder {
+        private int maxSize = DEFAULT_MAX_SIZE;
+        private Duration expireAfterAccess;
+
+        private Builder() {
+        }
+
+        /**
+         * 最大缓存条目数，0 表示禁用缓存。
+         */
+        public Builder maxSize(int maxSize) {
+            if (maxSize < 0) {
+                throw new IllegalArgumentException("maxSize must be >= 0");
+            }
+            this.maxSize = maxSize;
+            return this;
+        }
+
+        /**
+         * 条目空闲超过该时长后过期；{@code null} 表示不过期。
+         */
+        public Builder expireAfterAccess(Duration expireAfterAccess) {
+            if (expireAfterAccess != null && (expireAfterAccess.isNegative() || expireAfterAccess.isZero())) {
+                throw new IllegalArgumentException("expireAfterAccess must be positive");
+            }
+            this.expireAfterAccess = expireAfterAccess;
+            return this;
+        }
+
+        public SqlTemplateCache build() {
+            return new SqlTemplateCache(this);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package io.lighting.lumen.template;
+
+/**
+ * {@link SqlTemplateCache} 的统计快照。
+ */
+public record SqlTemplateCacheStats(long hits, long misses, long evictions, int size) {
+    public long requests() {
+        return hits + misses;
+    }
+
+    public double hitRate() {
+        long requests = requests();
+        return requests == 0 ? 0d : (double) hits / requests;
+    }
+}
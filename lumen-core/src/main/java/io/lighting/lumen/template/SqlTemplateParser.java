@@ -67,6 +67,7 @@ final class SqlTemplateParser {
             case "col" -> parseColumn();
             case "page" -> parsePage();
             case "orderBy" -> parseOrderBy();
+            case "seek" -> parseSeek();
             default -> throw new IllegalArgumentException("Unknown directive @" + name);
         };
     }
@@ -137,6 +138,31 @@ final class SqlTemplateParser {
         return new PageNode(parseExpression(page), parseExpression(pageSize));
     }
 
+    private TemplateNode parseSeek() {
+        String contents = parseParenContents();
+        List<String> parts = splitTopLevel(contents, ',');
+        if (parts.size() < 2 || parts.get(0).isBlank()) {
+            throw new IllegalArgumentException("@seek requires (cursor, key [ASC|DESC], ...)");
+        }
+        List<SeekKey> keys = new ArrayList<>(parts.size() - 1);
+        for (int i = 1; i < parts.size(); i++) {
+            String key = parts.get(i).trim();
+            boolean asc = true;
+            String upper = key.toUpperCase(java.util.Locale.ROOT);
+            if (upper.endsWith(" DESC")) {
+                asc = false;
+                key = key.substring(0, key.length() - 5).trim();
+            } else if (upper.endsWith(" ASC")) {
+                key = key.substring(0, key.length() - 4).trim();
+            }
+            if (key.isEmpty()) {
+                throw new IllegalArgumentException("@seek key must not be blank: " + contents);
+            }
+            keys.add(new SeekKey(key, asc));
+        }
+        return new SeekNode(parseExpression(parts.get(0).trim()), keys);
+    }
+
     private TemplateNode parseOrderBy() {
         String contents = parseParenContents();
         List<String> parts = splitTopLevel(contents, ',');
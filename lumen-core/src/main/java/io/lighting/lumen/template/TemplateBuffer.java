@@ -0,0 +1,274 @@
+package io.lighting.lumen.template;
+
+import io.lighting.lumen.sql.Bind;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 编译模板的渲染缓冲区。
+ * <p>
+ * {@code @where}/{@code @or} 等块直接写入同一个缓冲区，{@link #floor} 标记当前块的起点：
+ * 空白合并与回溯扫描都不会越过它，效果等同于在独立缓冲区中渲染子块，但不产生临时对象。
+ */
+final class TemplateBuffer {
+    static final int CHECK_OK = 0;
+    static final int CHECK_FAIL = 1;
+    static final int CHECK_UNKNOWN = 2;
+
+    final StringBuilder sql;
+    final List<Bind> binds = new ArrayList<>();
+    int floor;
+
+    TemplateBuffer(int capacity) {
+        this.sql = new StringBuilder(capacity);
+    }
+
+    /**
+     * 追加预先计算好的文本片段；{@code stripped} 为去掉前导空白后的版本，缓冲区以空白结尾时使用。
+     */
+    void appendText(String full, String stripped) {
+        int length = sql.length();
+        if (length == floor || !Character.isWhitespace(sql.charAt(length - 1))) {
+            sql.append(full);
+        } else {
+            sql.append(stripped);
+        }
+    }
+
+    /**
+     * 追加运行时产生的片段，空白合并规则与 {@link #appendText} 相同。
+     */
+    void appendFragment(String fragment) {
+        int length = sql.length();
+        if (fragment.isEmpty()) {
+            return;
+        }
+        if (length == floor || !Character.isWhitespace(sql.charAt(length - 1))) {
+            sql.append(fragment);
+            return;
+        }
+        int start = skipLeadingWhitespace(fragment);
+        if (start < fragment.length()) {
+            sql.append(fragment, start, fragment.length());
+        }
+    }
+
+    void appendBind(Object value) {
+        sql.append('?');
+        binds.add(toBind(value));
+    }
+
+    static Bind toBind(Object value) {
+        if (value instanceof Bind bind) {
+            return bind;
+        }
+        if (value == null) {
+            return new Bind.NullValue(0);
+        }
+        return new Bind.Value(value, 0);
+    }
+
+    static String stripLeadingWhitespace(String text) {
+        int start = skipLeadingWhitespace(text);
+        return start == 0 ? text : text.substring(start);
+    }
+
+    static int skipLeadingWhitespace(CharSequence text) {
+        int start = 0;
+        while (start < text.length() && Character.isWhitespace(text.charAt(start))) {
+            start++;
+        }
+        return start;
+    }
+
+    static boolean endsWithWhitespace(String text) {
+        return !text.isEmpty() && Character.isWhitespace(text.charAt(text.length() - 1));
+    }
+
+    void ensureParamNotIdentifierPosition() {
+        if (checkParamPosition(sql, floor, sql.length(), true) == CHECK_FAIL) {
+            throw paramInIdentifierPosition();
+        }
+    }
+
+    static IllegalArgumentException paramInIdentifierPosition() {
+        return new IllegalArgumentException("Parameters are not allowed in identifier positions");
+    }
+
+    /**
+     * 判断参数占位符能否出现在 {@code text[floor, end)} 之后。
+     * <p>
+     * {@code boundaryIsStart = false} 用于编译期判断：扫描一旦需要越过 {@code floor} 之前的内容，
+     * 就返回 {@link #CHECK_UNKNOWN}，交给运行时处理。
+     */
+    static int checkParamPosition(CharSequence text, int floor, int end, boolean boundaryIsStart) {
+        TokenCursor cursor = new TokenCursor(text, floor, end);
+        char last = cursor.peekNonWhitespace();
+        if (last == '\0') {
+            return boundaryIsStart ? CHECK_OK : CHECK_UNKNOWN;
+        }
+        if (last == '.' || last == '"' || last == '`' || last == '[') {
+            return CHECK_FAIL;
+        }
+        boolean found = cursor.readToken();
+        if (cursor.touchedFloor && !boundaryIsStart) {
+            return CHECK_UNKNOWN;
+        }
+        if (!found) {
+            return CHECK_OK;
+        }
+        if (isIdentifierKeyword(cursor)) {
+            return CHECK_FAIL;
+        }
+        if (cursor.tokenIs("BY")) {
+            boolean hasPrev = cursor.readToken();
+            if (cursor.touchedFloor && !boundaryIsStart) {
+                return CHECK_UNKNOWN;
+            }
+            if (hasPrev && (cursor.tokenIs("ORDER") || cursor.tokenIs("GROUP"))) {
+                return CHECK_FAIL;
+            }
+        }
+        boolean hasPrev = cursor.readToken();
+        if (cursor.touchedFloor && !boundaryIsStart) {
+            return CHECK_UNKNOWN;
+        }
+        if (hasPrev && isIdentifierKeyword(cursor)) {
+            return CHECK_FAIL;
+        }
+        return CHECK_OK;
+    }
+
+    private static boolean isIdentifierKeyword(TokenCursor cursor) {
+        return cursor.tokenIs("FROM")
+            || cursor.tokenIs("JOIN")
+            || cursor.tokenIs("UPDATE")
+            || cursor.tokenIs("INTO")
+            || cursor.tokenIs("TABLE")
+            || cursor.tokenIs("SET");
+    }
+
+    /**
+     * {@code @or} 块是否需要补 {@code OR} 前缀：看 {@code [floor, end)} 的最后一个词。
+     */
+    boolean shouldPrefixOr(int end) {
+        TokenCursor cursor = new TokenCursor(sql, floor, end);
+        char last = cursor.peekNonWhitespace();
+        if (last == '\0' || last == '(') {
+            return false;
+        }
+        if (!cursor.readToken()) {
+            return true;
+        }
+        return !(cursor.tokenIs("AND") || cursor.tokenIs("OR") || cursor.tokenIs("WHERE"));
+    }
+
+    /**
+     * 空 IN 列表按 FALSE 策略处理时，定位当前谓词的起点；找不到返回 -1。
+     */
+    int findPredicateStart() {
+        int index = sql.length() - 1;
+        while (index >= floor && Character.isWhitespace(sql.charAt(index))) {
+            index--;
+        }
+        while (index >= floor) {
+            char ch = sql.charAt(index);
+            if (ch == '(') {
+                return index + 1;
+            }
+            if (isTokenChar(ch)) {
+                int end = index;
+                while (index >= floor && isTokenChar(sql.charAt(index))) {
+                    index--;
+                }
+                int tokenStart = index + 1;
+                int tokenLength = end - index;
+                if (regionIs(sql, tokenStart, tokenLength, "WHERE")
+                    || regionIs(sql, tokenStart, tokenLength, "AND")
+                    || regionIs(sql, tokenStart, tokenLength, "OR")) {
+                    int start = end + 1;
+                    while (start < sql.length() && Character.isWhitespace(sql.charAt(start))) {
+                        start++;
+                    }
+                    return start;
+                }
+            } else {
+                index--;
+            }
+        }
+        return -1;
+    }
+
+    static boolean isTokenChar(char ch) {
+        return Character.isLetterOrDigit(ch) || ch == '_';
+    }
+
+    static boolean regionIs(CharSequence text, int start, int length, String keyword) {
+        if (length != keyword.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (Character.toUpperCase(text.charAt(start + i)) != keyword.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class TokenCursor {
+        private final CharSequence text;
+        private final int floor;
+        private int index;
+        private int tokenStart;
+        private int tokenLength;
+        private boolean touchedFloor;
+
+        private TokenCursor(CharSequence text, int floor, int end) {
+            this.text = text;
+            this.floor = floor;
+            this.index = end - 1;
+        }
+
+        private char peekNonWhitespace() {
+            int pos = skipWhitespace(index);
+            if (pos < floor) {
+                touchedFloor = true;
+                return '\0';
+            }
+            return text.charAt(pos);
+        }
+
+        private boolean readToken() {
+            index = skipWhitespace(index);
+            if (index < floor) {
+                touchedFloor = true;
+                return false;
+            }
+            int end = index;
+            while (index >= floor && isTokenChar(text.charAt(index))) {
+                index--;
+            }
+            if (end == index) {
+                return false;
+            }
+            if (index < floor) {
+                touchedFloor = true;
+            }
+            tokenStart = index + 1;
+            tokenLength = end - index;
+            return true;
+        }
+
+        private boolean tokenIs(String keyword) {
+            return regionIs(text, tokenStart, tokenLength, keyword);
+        }
+
+        private int skipWhitespace(int start) {
+            int pos = start;
+            while (pos >= floor && Character.isWhitespace(text.charAt(pos))) {
+                pos--;
+            }
+            return pos;
+        }
+    }
+}
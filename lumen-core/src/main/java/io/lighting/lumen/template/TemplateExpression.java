@@ -31,9 +31,7 @@ interface TemplateExpression {
             throw new IllegalArgumentException("Cannot compare null values");
         }
         if (left instanceof Number leftNum && right instanceof Number rightNum) {
-            BigDecimal leftDec = new BigDecimal(leftNum.toString());
-            BigDecimal rightDec = new BigDecimal(rightNum.toString());
-            return leftDec.compareTo(rightDec);
+            return compareNumbers(leftNum, rightNum);
         }
         if (left instanceof Comparable<?> comparable && left.getClass().isInstance(right)) {
             @SuppressWarnings("unchecked")
@@ -45,6 +43,46 @@ interface TemplateExpression {
                 + " and " + right.getClass().getSimpleName()
         );
     }
+
+    /**
+     * 数值比较。常见组合走原生比较，结果与按十进制字符串构造 {@link BigDecimal} 比较一致：
+     * 整型之间用 {@code long}；同为 Double 或同为 Float 的有限值、以及整型（绝对值不超过 2^53）与有限 Double
+     * 之间用 {@code double}（最短十进制表示与原值保序）。其余情况回退到 {@link BigDecimal}。
+     */
+    static int compareNumbers(Number left, Number right) {
+        boolean leftIntegral = isIntegral(left);
+        boolean rightIntegral = isIntegral(right);
+        if (leftIntegral && rightIntegral) {
+            return Long.compare(left.longValue(), right.longValue());
+        }
+        if (left instanceof BigDecimal leftDec && right instanceof BigDecimal rightDec) {
+            return leftDec.compareTo(rightDec);
+        }
+        boolean sameFloating = (left instanceof Double && right instanceof Double)
+            || (left instanceof Float && right instanceof Float);
+        if (sameFloating || (leftIntegral && right instanceof Double) || (left instanceof Double && rightIntegral)) {
+            double leftValue = left.doubleValue();
+            double rightValue = right.doubleValue();
+            if (isExactDouble(left, leftValue) && isExactDouble(right, rightValue)) {
+                return leftValue < rightValue ? -1 : (leftValue > rightValue ? 1 : 0);
+            }
+        }
+        BigDecimal leftDec = new BigDecimal(left.toString());
+        BigDecimal rightDec = new BigDecimal(right.toString());
+        return leftDec.compareTo(rightDec);
+    }
+
+    private static boolean isIntegral(Number value) {
+        return value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte;
+    }
+
+    private static boolean isExactDouble(Number source, double value) {
+        if (isIntegral(source)) {
+            long raw = source.longValue();
+            return raw >= -(1L << 53) && raw <= (1L << 53);
+        }
+        return Double.isFinite(value);
+    }
 }
 
 final class LiteralExpression implements TemplateExpression {
@@ -58,6 +96,10 @@ final class LiteralExpression implements TemplateExpression {
     public Object evaluate(TemplateContext context) {
         return value;
     }
+
+    Object value() {
+        return value;
+    }
 }
 
 final class PathExpression implements TemplateExpression {
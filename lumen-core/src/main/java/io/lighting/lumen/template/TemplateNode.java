@@ -4,7 +4,7 @@ import java.util.List;
 import java.util.Objects;
 
 sealed interface TemplateNode permits TextNode, ParamNode, IfNode, ForNode, ClauseNode,
-    OrNode, InNode, TableNode, ColumnNode, PageNode, OrderByNode {
+    OrNode, InNode, TableNode, ColumnNode, PageNode, OrderByNode, SeekNode {
 }
 
 record TextNode(String text) implements TemplateNode {
@@ -83,3 +83,17 @@ record OrderByNode(
         Objects.requireNonNull(allowed, "allowed");
     }
 }
+
+record SeekNode(TemplateExpression cursor, List<SeekKey> keys) implements TemplateNode {
+    SeekNode {
+        Objects.requireNonNull(cursor, "cursor");
+        Objects.requireNonNull(keys, "keys");
+        keys = List.copyOf(keys);
+    }
+}
+
+record SeekKey(String sql, boolean asc) {
+    SeekKey {
+        Objects.requireNonNull(sql, "sql");
+    }
+}
@@ -0,0 +1,300 @@
+package io.lighting.lumen.apt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.lighting.lumen.jdbc.JdbcTypeAdapter;
+import io.lighting.lumen.jdbc.JdbcTypeAdapters;
+import io.lighting.lumen.jdbc.RowMapper;
+import io.lighting.lumen.jdbc.RowMappers;
+import io.lighting.lumen.meta.EntityBinder;
+import io.lighting.lumen.meta.EntityBinders;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import org.h2.tools.SimpleResultSet;
+import org.junit.jupiter.api.Test;
+
+class EntityCodecGeneratorTest {
+    private static final String ORDER = """
+        package example;
+
+        import io.lighting.lumen.meta.Column;
+        import io.lighting.lumen.meta.Id;
+        import io.lighting.lumen.meta.Table;
+        import java.util.List;
+
+        @Table(name = "orders")
+        public class Order {
+            @Id
+            private long id;
+            @Column(name = "order_no")
+            String orderNo;
+            private List<Long> tags;
+            private Integer qty;
+            private boolean paid;
+            transient String note;
+
+            public long getId() {
+                return id;
+            }
+
+            public void setId(long id) {
+                this.id = id;
+            }
+
+            public Integer getQty() {
+                return qty;
+            }
+
+            public void setQty(Integer qty) {
+                this.qty = qty;
+            }
+
+            public boolean isPaid() {
+                return paid;
+            }
+
+            public void setPaid(boolean paid) {
+                this.paid = paid;
+            }
+
+            public List<Long> tags() {
+                return tags;
+            }
+        }
+        """;
+
+    private static final String ITEM = """
+        package example;
+
+        import io.lighting.lumen.meta.Column;
+        import io.lighting.lumen.meta.Table;
+        import java.math.BigDecimal;
+
+        @Table(name = "items")
+        public record Item(long id, @Column(name = "sku_code") String sku, BigDecimal price, Status status) {
+            public enum Status {
+                ACTIVE,
+                RETIRED
+            }
+        }
+        """;
+
+    private static final String HOLDER = """
+        package example;
+
+        import io.lighting.lumen.meta.Id;
+        import io.lighting.lumen.meta.Table;
+
+        public class Holder {
+            @Table(name = "lines")
+            public static class Line {
+                @Id
+                public Long id;
+            }
+
+            @Table(name = "hidden")
+            private static class Hidden {
+                @Id
+                Long id;
+            }
+        }
+        """;
+
+    private static final String GAUGE = """
+        package example;
+
+        import io.lighting.lumen.meta.Id;
+        import io.lighting.lumen.meta.Table;
+
+        @Table(name = "gauges")
+        public class Gauge {
+            @Id
+            public long id;
+            public short level;
+            public Boolean active;
+        }
+        """;
+
+    @Test
+    void generatedMapperHonorsTypeAdaptersAndConversionRules() throws Exception {
+        JdbcTypeAdapters.register(Short.class, new JdbcTypeAdapter<Short>() {
+            @Override
+            public Short read(ResultSet resultSet, int index, Type targetType) throws SQLException {
+                String raw = resultSet.getString(index);
+                return raw == null ? null : Short.valueOf(raw.substring(1));
+            }
+        });
+        Path output = compile(List.of(new StringJavaFileObject("example.Gauge", GAUGE)));
+        String mapperSource = Files.readString(output.resolve("example").resolve("Gauge_RowMapper.java"));
+        assertFalse(mapperSource.contains("getBoolean"));
+
+        try (URLClassLoader loader = new URLClassLoader(
+            new java.net.URL[] { output.toUri().toURL() },
+            getClass().getClassLoader()
+        )) {
+            Class<?> gaugeType = loader.loadClass("example.Gauge");
+            RowMapper<?> mapper = RowMappers.auto(gaugeType);
+            assertEquals("example.Gauge_RowMapper", mapper.getClass().getName());
+
+            SimpleResultSet gauges = new SimpleResultSet();
+            gauges.addColumn("ID", Types.BIGINT, 0, 0);
+            gauges.addColumn("LEVEL", Types.VARCHAR, 0, 0);
+            gauges.addColumn("ACTIVE", Types.VARCHAR, 0, 0);
+            gauges.addRow(3L, "L7", "yes");
+            gauges.next();
+            Object gauge = mapper.map(gauges);
+
+            @SuppressWarnings("unchecked")
+            EntityBinder<Object> binder = (EntityBinder<Object>) EntityBinders.of(gaugeType);
+            assertEquals(3L, binder.get(gauge, "id"));
+            assertEquals((short) 7, binder.get(gauge, "level"));
+            assertEquals(true, binder.get(gauge, "active"));
+
+            binder.set(gauge, "id", 'A');
+            assertEquals(65L, binder.get(gauge, "id"));
+            assertThrows(IllegalArgumentException.class, () -> binder.set(gauge, "id", new BigDecimal("1.5")));
+            assertThrows(IllegalArgumentException.class, () -> binder.set(gauge, "id", BigInteger.TEN));
+            assertThrows(IllegalArgumentException.class, () -> binder.set(gauge, "level", 70_000));
+        }
+    }
+
+    @Test
+    void generatesStraightLineMappersAndBinders() throws Exception {
+        Path output = compile(List.of(
+            new StringJavaFileObject("example.Order", ORDER),
+            new StringJavaFileObject("example.Item", ITEM),
+            new StringJavaFileObject("example.Holder", HOLDER)
+        ));
+        Path pkg = output.resolve("example");
+        String mapperSource = Files.readString(pkg.resolve("Order_RowMapper.java"));
+        assertTrue(mapperSource.contains("entity.setId(value);"));
+        assertTrue(mapperSource.contains("entity.orderNo = value;"));
+        assertTrue(mapperSource.contains("FIELD_TAGS.set(entity"));
+        assertFalse(mapperSource.contains("\"note\""));
+        assertTrue(Files.exists(pkg.resolve("Holder_Line_RowMapper.java")));
+        assertFalse(Files.exists(pkg.resolve("Holder_Hidden_RowMapper.java")));
+
+        try (URLClassLoader loader = new URLClassLoader(
+            new java.net.URL[] { output.toUri().toURL() },
+            getClass().getClassLoader()
+        )) {
+            Class<?> orderType = loader.loadClass("example.Order");
+            RowMapper<?> orderMapper = RowMappers.auto(orderType);
+            assertEquals("example.Order_RowMapper", orderMapper.getClass().getName());
+
+            SimpleResultSet orders = new SimpleResultSet();
+            orders.addColumn("ID", Types.BIGINT, 0, 0);
+            orders.addColumn("ORDER_NO", Types.VARCHAR, 0, 0);
+            orders.addColumn("TAGS", Types.ARRAY, 0, 0);
+            orders.addColumn("QTY", Types.INTEGER, 0, 0);
+            orders.addColumn("PAID", Types.BOOLEAN, 0, 0);
+            orders.addRow(7L, "NO-7", new Object[] { 1L, 2L }, null, true);
+            orders.next();
+            Object order = orderMapper.map(orders);
+
+            @SuppressWarnings("unchecked")
+            EntityBinder<Object> binder = (EntityBinder<Object>) EntityBinders.of(orderType);
+            assertEquals("example.Order_Binder", binder.getClass().getName());
+            assertEquals(7L, binder.get(order, "id"));
+            assertEquals("NO-7", binder.get(order, "orderNo"));
+            assertEquals(List.of(1L, 2L), binder.get(order, "tags"));
+            assertNull(binder.get(order, "qty"));
+            assertEquals(true, binder.get(order, "paid"));
+
+            binder.set(order, "id", 9);
+            binder.set(order, "qty", 3);
+            assertEquals(9L, binder.get(order, "id"));
+            assertEquals(3, binder.get(order, "qty"));
+            assertEquals(long.class, binder.fieldType("id"));
+            assertThrows(IllegalArgumentException.class, () -> binder.set(order, "id", null));
+            assertThrows(IllegalArgumentException.class, () -> binder.set(order, "orderNo", 1));
+            assertThrows(IllegalArgumentException.class, () -> binder.get(order, "missing"));
+
+            Class<?> itemType = loader.loadClass("example.Item");
+            RowMapper<?> itemMapper = RowMappers.auto(itemType);
+            assertEquals("example.Item_RowMapper", itemMapper.getClass().getName());
+            SimpleResultSet items = new SimpleResultSet();
+            items.addColumn("SKU_CODE", Types.VARCHAR, 0, 0);
+            items.addColumn("PRICE", Types.DECIMAL, 10, 2);
+            items.addColumn("STATUS", Types.VARCHAR, 0, 0);
+            items.addRow("S-1", new BigDecimal("9.50"), "RETIRED");
+            items.next();
+            Object item = itemMapper.map(items);
+            assertEquals("Item[id=0, sku=S-1, price=9.50, status=RETIRED]", item.toString());
+
+            Class<?> lineType = loader.loadClass("example.Holder$Line");
+            assertEquals("example.Holder_Line_RowMapper", RowMappers.auto(lineType).getClass().getName());
+        }
+    }
+
+    private Path compile(List<JavaFileObject> sources) throws IOException, SQLException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assertTrue(compiler != null, "JavaCompiler must be available");
+        Path outputDir = Files.createTempDirectory("lumen-apt-codec");
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null)) {
+            fileManager.setLocation(StandardLocation.SOURCE_OUTPUT, List.of(outputDir.toFile()));
+            fileManager.setLocation(StandardLocation.CLASS_OUTPUT, List.of(outputDir.toFile()));
+            List<String> options = List.of(
+                "-classpath",
+                System.getProperty("java.class.path"),
+                "--release",
+                "17",
+                "-Xlint:unchecked",
+                "-Werror"
+            );
+            JavaCompiler.CompilationTask task = compiler.getTask(
+                null,
+                fileManager,
+                diagnostics,
+                options,
+                null,
+                sources
+            );
+            task.setProcessors(List.of(new EntityMetaProcessor()));
+            boolean success = task.call();
+            List<Diagnostic<? extends JavaFileObject>> errors = diagnostics.getDiagnostics().stream()
+                .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR
+                    || diagnostic.getKind() == Diagnostic.Kind.WARNING)
+                .toList();
+            assertTrue(success && errors.isEmpty(), () -> errors.toString());
+        }
+        return outputDir;
+    }
+
+    private static final class StringJavaFileObject extends SimpleJavaFileObject {
+        private final String content;
+
+        private StringJavaFileObject(String name, String content) {
+            super(URI.create("string:///" + name.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+            this.content = content;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return content;
+        }
+    }
+}
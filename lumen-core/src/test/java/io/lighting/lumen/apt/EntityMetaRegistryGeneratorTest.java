@@ -0,0 +1,190 @@
+package io.lighting.lumen.apt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.lighting.lumen.meta.EntityMeta;
+import io.lighting.lumen.meta.EntityMetaRegistries;
+import io.lighting.lumen.meta.EntityMetaRegistry;
+import io.lighting.lumen.meta.IdMeta;
+import io.lighting.lumen.meta.IdStrategy;
+import io.lighting.lumen.meta.LogicDeleteMeta;
+import io.lighting.lumen.meta.ReflectionEntityMetaRegistry;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import org.junit.jupiter.api.Test;
+
+class EntityMetaRegistryGeneratorTest {
+    private static final String BASE = """
+        package shop;
+
+        import io.lighting.lumen.meta.Column;
+        import io.lighting.lumen.meta.LogicDelete;
+
+        public abstract class Base {
+            @Column(name = "created_by")
+            String createdBy;
+            @LogicDelete(active = "no", deleted = "yes")
+            boolean deleted;
+        }
+        """;
+
+    private static final String ACCOUNT = """
+        package shop;
+
+        import io.lighting.lumen.meta.Column;
+        import io.lighting.lumen.meta.Id;
+        import io.lighting.lumen.meta.IdStrategy;
+        import io.lighting.lumen.meta.Table;
+
+        @Table(name = "accounts")
+        public class Account extends Base {
+            @Id(strategy = IdStrategy.SNOWFLAKE)
+            Long id;
+            @Column(name = "display_name")
+            String name;
+            String ignored;
+        }
+        """;
+
+    private static final String AUDIT = """
+        package shop.audit;
+
+        import io.lighting.lumen.meta.Column;
+        import io.lighting.lumen.meta.LogicDelete;
+        import io.lighting.lumen.meta.Table;
+
+        @Table(name = "audit_log")
+        class Audit {
+            @Column(name = "message")
+            String message;
+            @LogicDelete(active = "0", deleted = "-1")
+            long state;
+            @LogicDelete
+            static String ignored;
+
+            @Table(name = "audit_hidden")
+            private static class Hidden {
+                @Column(name = "x")
+                String x;
+            }
+        }
+        """;
+
+    @Test
+    void generatesRegistryPerPackageAndServiceIndex() throws Exception {
+        Path output = compile(List.of(
+            new StringJavaFileObject("shop.Base", BASE),
+            new StringJavaFileObject("shop.Account", ACCOUNT),
+            new StringJavaFileObject("shop.audit.Audit", AUDIT)
+        ));
+        List<String> services = Files.readAllLines(output.resolve(EntityMetaRegistryGenerator.SERVICE_FILE));
+        assertEquals(2, services.size());
+        assertTrue(services.stream().anyMatch(name -> name.startsWith("shop.Lumen_EntityMetaRegistry_")));
+        assertTrue(services.stream().anyMatch(name -> name.startsWith("shop.audit.Lumen_EntityMetaRegistry_")));
+        assertEquals(
+            List.of("Account=shop.Account", "Audit=shop.audit.Audit", "Hidden=shop.audit.Audit$Hidden"),
+            Files.readAllLines(output.resolve(EntityMetaProcessor.ENTITY_INDEX))
+        );
+
+        try (URLClassLoader loader = new URLClassLoader(
+            new java.net.URL[] { output.toUri().toURL() },
+            getClass().getClassLoader()
+        )) {
+            Class<?> accountType = loader.loadClass("shop.Account");
+            Class<?> auditType = loader.loadClass("shop.audit.Audit");
+            Map<Class<?>, EntityMeta> generated = EntityMetaRegistries.loadGenerated(loader);
+            assertEquals(2, generated.size());
+            assertFalse(generated.containsKey(loader.loadClass("shop.audit.Audit$Hidden")));
+
+            EntityMeta account = generated.get(accountType);
+            assertEquals("accounts", account.table());
+            assertEquals(
+                Map.of("id", "id", "name", "display_name", "createdBy", "created_by", "deleted", "deleted"),
+                account.fieldToColumn()
+            );
+            assertEquals(new IdMeta("id", "id", IdStrategy.SNOWFLAKE), account.idMeta().orElseThrow());
+            assertEquals(new LogicDeleteMeta("deleted", "deleted", false, true), account.logicDeleteMeta().orElseThrow());
+
+            EntityMeta audit = generated.get(auditType);
+            assertTrue(audit.idMeta().isEmpty());
+            assertEquals(new LogicDeleteMeta("state", "state", 0L, -1L), audit.logicDeleteMeta().orElseThrow());
+
+            EntityMetaRegistry registry = EntityMetaRegistries.defaults(loader);
+            ReflectionEntityMetaRegistry reflection = new ReflectionEntityMetaRegistry();
+            for (Class<?> type : List.of(accountType, auditType)) {
+                EntityMeta expected = reflection.metaOf(type);
+                EntityMeta actual = registry.metaOf(type);
+                assertEquals(expected.table(), actual.table());
+                assertEquals(expected.fieldToColumn(), actual.fieldToColumn());
+                assertEquals(expected.idMeta(), actual.idMeta());
+                assertEquals(expected.logicDeleteMeta(), actual.logicDeleteMeta());
+            }
+
+            Class<?> hiddenType = loader.loadClass("shop.audit.Audit$Hidden");
+            assertEquals("audit_hidden", registry.metaOf(hiddenType).table());
+        }
+    }
+
+    private Path compile(List<JavaFileObject> sources) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assertTrue(compiler != null, "JavaCompiler must be available");
+        Path outputDir = Files.createTempDirectory("lumen-apt-registry");
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null)) {
+            fileManager.setLocation(StandardLocation.SOURCE_OUTPUT, List.of(outputDir.toFile()));
+            fileManager.setLocation(StandardLocation.CLASS_OUTPUT, List.of(outputDir.toFile()));
+            List<String> options = List.of(
+                "-classpath",
+                System.getProperty("java.class.path"),
+                "--release",
+                "17",
+                "-Werror"
+            );
+            JavaCompiler.CompilationTask task = compiler.getTask(
+                null,
+                fileManager,
+                diagnostics,
+                options,
+                null,
+                sources
+            );
+            task.setProcessors(List.of(new EntityMetaProcessor()));
+            boolean success = task.call();
+            List<Diagnostic<? extends JavaFileObject>> errors = diagnostics.getDiagnostics().stream()
+                .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR
+                    || diagnostic.getKind() == Diagnostic.Kind.WARNING)
+                .toList();
+            assertTrue(success && errors.isEmpty(), () -> errors.toString());
+        }
+        return outputDir;
+    }
+
+    private static final class StringJavaFileObject extends SimpleJavaFileObject {
+        private final String content;
+
+        private StringJavaFileObject(String name, String content) {
+            super(URI.create("string:///" + name.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+            this.content = content;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return content;
+        }
+    }
+}
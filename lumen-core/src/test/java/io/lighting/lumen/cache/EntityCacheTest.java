@@ -0,0 +1,289 @@
+package io.lighting.lumen.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.lighting.lumen.Lumen;
+import io.lighting.lumen.dao.BaseDao;
+import io.lighting.lumen.dao.DaoContext;
+import io.lighting.lumen.dao.DaoContextProvider;
+import io.lighting.lumen.db.Command;
+import io.lighting.lumen.meta.Cacheable;
+import io.lighting.lumen.meta.Column;
+import io.lighting.lumen.meta.Id;
+import io.lighting.lumen.meta.LogicDelete;
+import io.lighting.lumen.meta.Table;
+import io.lighting.lumen.sql.Bind;
+import io.lighting.lumen.sql.RenderedSql;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+
+class EntityCacheTest {
+    @Test
+    void cachesAnnotatedTypesAndReturnsCopies() throws SQLException {
+        EntityCache cache = EntityCache.builder().build();
+        AtomicInteger loads = new AtomicInteger();
+
+        Country first = cache.get(Country.class, 1, () -> country(loads, 1L, "CN"));
+        first.code = "mutated";
+        Country second = cache.get(Country.class, 1L, () -> country(loads, 1L, "CN"));
+        assertEquals(1, loads.get());
+        assertEquals("CN", second.code);
+        assertNotSame(first, second);
+
+        assertNull(cache.get(Country.class, 2L, () -> null));
+        assertNull(cache.get(Country.class, 2L, () -> null));
+        assertEquals(new EntityCacheStats(1, 3, 0, 0, 1), cache.stats(Country.class));
+
+        assertFalse(cache.isCached(Plain.class));
+        cache.get(Plain.class, 1L, () -> new Plain());
+        cache.get(Plain.class, 1L, () -> new Plain());
+        assertEquals(EntityCacheStats.EMPTY, cache.stats(Plain.class));
+
+        EntityCache disabled = EntityCache.disabled();
+        assertFalse(disabled.isCached(Country.class));
+        disabled.get(Country.class, 1L, () -> country(loads, 1L, "CN"));
+        disabled.get(Country.class, 1L, () -> country(loads, 1L, "CN"));
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void evictsBySizeAndTtl() throws SQLException {
+        AtomicLong now = new AtomicLong();
+        EntityCache cache = EntityCache.builder().ticker(now::get).build();
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(Country.class, 1L, () -> country(loads, 1L, "CN"));
+        now.addAndGet(TimeUnit.SECONDS.toNanos(59));
+        cache.get(Country.class, 1L, () -> country(loads, 1L, "CN"));
+        assertEquals(1, loads.get());
+        now.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        cache.get(Country.class, 1L, () -> country(loads, 1L, "CN"));
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.stats(Country.class).evictions());
+
+        for (long id = 2; id <= 4; id++) {
+            now.incrementAndGet();
+            long value = id;
+            cache.get(Country.class, value, () -> country(loads, value, "C" + value));
+        }
+        EntityCacheStats stats = cache.stats(Country.class);
+        assertEquals(3, stats.size());
+        assertEquals(2, stats.evictions());
+        cache.get(Country.class, 1L, () -> country(loads, 1L, "CN"));
+        assertEquals(6, loads.get());
+    }
+
+    @Test
+    void evictionKeepsRecentlyHitEntries() throws SQLException {
+        EntityCache cache = EntityCache.builder().build();
+        AtomicInteger loads = new AtomicInteger();
+        for (long id = 1; id <= 3; id++) {
+            long value = id;
+            cache.get(Country.class, value, () -> country(loads, value, "C" + value));
+        }
+        cache.get(Country.class, 1L, () -> country(loads, 1L, "C1"));
+
+        for (long id = 4; id <= 5; id++) {
+            long value = id;
+            cache.get(Country.class, value, () -> country(loads, value, "C" + value));
+        }
+        assertEquals(5, loads.get());
+        cache.get(Country.class, 1L, () -> country(loads, 1L, "C1"));
+        assertEquals(5, loads.get());
+        cache.get(Country.class, 2L, () -> country(loads, 2L, "C2"));
+        assertEquals(6, loads.get());
+        assertEquals(3, cache.stats(Country.class).size());
+
+        for (int round = 0; round < 100; round++) {
+            cache.evict(Country.class, 1L);
+            cache.get(Country.class, 1L, () -> country(loads, 1L, "C1"));
+        }
+        assertEquals(3, cache.stats(Country.class).size());
+    }
+
+    @Test
+    void writesDuringLoadKeepStaleValueOut() throws SQLException {
+        EntityCache cache = EntityCache.builder().build();
+        AtomicInteger loads = new AtomicInteger();
+
+        Country stale = cache.get(Country.class, 1L, () -> {
+            Country loaded = country(loads, 1L, "old");
+            cache.evict(Country.class, 1L);
+            return loaded;
+        });
+        assertEquals("old", stale.code);
+        assertEquals(0, cache.stats(Country.class).size());
+        assertEquals("new", cache.get(Country.class, 1L, () -> country(loads, 1L, "new")).code);
+
+        cache.get(Country.class, 2L, () -> country(loads, 2L, "x"));
+        cache.evictAll(Country.class);
+        assertEquals(new EntityCacheStats(0, 3, 0, 2, 0), cache.stats(Country.class));
+    }
+
+    @Test
+    void daoSelectByIdHitsCacheUntilWritesInvalidate() throws SQLException {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:entity_cache_dao;DB_CLOSE_DELAY=-1");
+        Lumen lumen = Lumen.builder().dataSource(dataSource).build();
+        lumen.db().execute(Command.of(new RenderedSql(
+            "CREATE TABLE COUNTRIES (ID BIGINT PRIMARY KEY, CODE VARCHAR(8), DELETED INT)",
+            List.of()
+        )));
+        EntityCache cache = EntityCache.builder().build();
+        CountryDao dao = new CountryDao(DaoContext.of(lumen.db(), lumen.renderer(), lumen.metaRegistry(), true, cache));
+        dao.insert(new Country(1L, "CN"));
+        dao.insert(new Country(2L, "US"));
+
+        assertEquals("CN", dao.selectById(1L).code);
+        rawUpdate(lumen, "JP", 1L);
+        assertEquals("CN", dao.selectById(1L).code);
+
+        Country updated = new Country(1L, "DE");
+        dao.updateById(updated);
+        assertEquals("DE", dao.selectById(1L).code);
+
+        assertEquals("US", dao.selectById(2L).code);
+        dao.deleteById(2L);
+        assertNull(dao.selectById(2L));
+
+        dao.selectById(1L);
+        dao.deleteBatchIds(List.of(1L));
+        assertNull(dao.selectById(1L));
+
+        EntityCacheStats stats = cache.stats();
+        assertEquals(2, stats.hits());
+        assertEquals(5, stats.misses());
+        assertEquals(3, stats.invalidations());
+        assertTrue(stats.hitRate() > 0.28 && stats.hitRate() < 0.29);
+    }
+
+    @Test
+    void transactionsBypassCacheAndEvictAgainAfterCompletion() throws SQLException {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:entity_cache_tx;DB_CLOSE_DELAY=-1");
+        Lumen lumen = Lumen.builder().dataSource(dataSource).build();
+        EntityCache cache = EntityCache.builder().build();
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(Country.class, 1L, () -> country(loads, 1L, "CN"));
+
+        lumen.transactionManager().inTransaction(db -> {
+            assertEquals("uncommitted", cache.get(Country.class, 2L, () -> country(loads, 2L, "uncommitted")).code);
+            assertEquals("tx", cache.get(Country.class, 1L, () -> country(loads, 1L, "tx")).code);
+            cache.evict(Country.class, 1L);
+            CompletableFuture.runAsync(() -> {
+                try {
+                    cache.get(Country.class, 1L, () -> country(loads, 1L, "stale"));
+                } catch (SQLException ex) {
+                    throw new IllegalStateException(ex);
+                }
+            }).join();
+            assertEquals(1, cache.stats(Country.class).size());
+            return null;
+        });
+
+        assertEquals(0, cache.stats(Country.class).size());
+        assertEquals(4, loads.get());
+        assertEquals("CN", cache.get(Country.class, 1L, () -> country(loads, 1L, "CN")).code);
+    }
+
+    @Test
+    void defaultCacheIsScopedPerDb() {
+        JdbcDataSource first = new JdbcDataSource();
+        first.setURL("jdbc:h2:mem:entity_cache_scope_a;DB_CLOSE_DELAY=-1");
+        JdbcDataSource second = new JdbcDataSource();
+        second.setURL("jdbc:h2:mem:entity_cache_scope_b;DB_CLOSE_DELAY=-1");
+        Lumen a = Lumen.builder().dataSource(first).build();
+        Lumen b = Lumen.builder().dataSource(second).build();
+
+        assertSame(EntityCache.forDb(a.db()), EntityCache.forDb(a.db()));
+        assertNotSame(EntityCache.forDb(a.db()), EntityCache.forDb(b.db()));
+        assertSame(
+            EntityCache.forDb(a.db()),
+            DaoContext.of(a.db(), a.renderer(), a.metaRegistry()).entityCache()
+        );
+    }
+
+    @Test
+    void transactionalDbSharesDefaultCacheOfItsDataSource() throws SQLException {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:entity_cache_tx_scope;DB_CLOSE_DELAY=-1");
+        Lumen lumen = Lumen.builder().dataSource(dataSource).build();
+        EntityCache shared = EntityCache.forDb(lumen.db());
+
+        EntityCache transactional = lumen.transactionManager().inTransaction(
+            db -> DaoContext.of(db, lumen.renderer(), lumen.metaRegistry()).entityCache()
+        );
+
+        assertSame(shared, transactional);
+    }
+
+    private static void rawUpdate(Lumen lumen, String code, long id) throws SQLException {
+        lumen.db().execute(Command.of(new RenderedSql(
+            "UPDATE COUNTRIES SET CODE = ? WHERE ID = ?",
+            List.of(new Bind.Value(code, 0), new Bind.Value(id, 0))
+        )));
+    }
+
+    private static Country country(AtomicInteger loads, long id, String code) {
+        loads.incrementAndGet();
+        return new Country(id, code);
+    }
+
+    static final class CountryDao implements BaseDao<Country>, DaoContextProvider {
+        private final DaoContext context;
+
+        CountryDao(DaoContext context) {
+            this.context = context;
+        }
+
+        @Override
+        public DaoContext daoContext() {
+            return context;
+        }
+
+        @Override
+        public Class<Country> entityType() {
+            return Country.class;
+        }
+    }
+
+    @Table(name = "COUNTRIES")
+    @Cacheable(maxSize = 3, ttlSeconds = 60)
+    static final class Country {
+        @Id
+        @Column(name = "ID")
+        Long id;
+
+        @Column(name = "CODE")
+        String code;
+
+        @LogicDelete
+        @Column(name = "DELETED")
+        Integer deleted;
+
+        Country() {
+        }
+
+        Country(Long id, String code) {
+            this.id = id;
+            this.code = code;
+        }
+    }
+
+    @Table(name = "PLAIN")
+    static final class Plain {
+        @Id
+        Long id;
+    }
+}
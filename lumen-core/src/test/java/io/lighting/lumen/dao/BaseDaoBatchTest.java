@@ -0,0 +1,380 @@
+package io.lighting.lumen.dao;
+
+import io.lighting.lumen.Lumen;
+import io.lighting.lumen.db.Command;
+import io.lighting.lumen.id.IdGeneratorProvider;
+import io.lighting.lumen.id.SnowflakeIdGenerator;
+import io.lighting.lumen.meta.Column;
+import io.lighting.lumen.meta.Id;
+import io.lighting.lumen.meta.IdStrategy;
+import io.lighting.lumen.meta.LogicDelete;
+import io.lighting.lumen.meta.Table;
+import io.lighting.lumen.sql.GeneratedKeyStrategy;
+import io.lighting.lumen.sql.RenderedSql;
+import io.lighting.lumen.sql.dialect.LimitOffsetDialect;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BaseDaoBatchTest {
+    @Test
+    void insertBatchUsesChunkedMultiRowValues() throws SQLException {
+        List<String> prepared = new ArrayList<>();
+        Lumen lumen = Lumen.builder()
+            .dataSource(recording(dataSource("base_dao_batch_insert"), prepared))
+            // 每行 4 个参数，上限 9 时每条语句合并 2 行
+            .dialect(new LimitOffsetDialect("h2", "\"", 9))
+            .build();
+        lumen.db().execute(Command.of(new RenderedSql(
+            "CREATE TABLE BATCH_ITEMS (ID BIGINT AUTO_INCREMENT PRIMARY KEY, NAME VARCHAR(50), QTY INT, DELETED INT)",
+            List.of()
+        )));
+        ItemDao dao = new ItemDao(lumen);
+        prepared.clear();
+
+        List<BatchItem> items = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            BatchItem item = new BatchItem("item-" + i, i == 3 ? null : i);
+            item.id = (long) i;
+            items.add(item);
+        }
+        assertEquals(5, dao.insertBatch(items));
+        assertEquals(0, dao.insertBatch(List.of()));
+
+        assertEquals(List.of(2, 2, 1), prepared.stream().map(BaseDaoBatchTest::rowGroups).toList());
+        assertTrue(prepared.stream().allMatch(sql -> sql.startsWith("INSERT INTO \"BATCH_ITEMS\"")));
+        List<BatchItem> stored = dao.selectList();
+        assertEquals(5, stored.size());
+        assertEquals(List.of("item-1", "item-2", "item-3", "item-4", "item-5"),
+            stored.stream().map(item -> item.name).sorted().toList());
+        assertEquals(1, stored.stream().filter(item -> item.qty == null).count());
+        assertEquals(0, stored.stream().filter(item -> item.deleted != 0).count());
+    }
+
+    @Test
+    void insertBatchKeepsExplicitAndDatabaseIdsInSeparateStatements() throws SQLException {
+        List<String> prepared = new ArrayList<>();
+        Lumen lumen = Lumen.builder()
+            .dataSource(recording(dataSource("base_dao_batch_mixed"), prepared))
+            .build();
+        lumen.db().execute(Command.of(new RenderedSql(
+            "CREATE TABLE BATCH_ITEMS (ID BIGINT AUTO_INCREMENT PRIMARY KEY, NAME VARCHAR(50), QTY INT, DELETED INT)",
+            List.of()
+        )));
+        ItemDao dao = new ItemDao(lumen);
+        prepared.clear();
+
+        BatchItem explicit = new BatchItem("explicit", 1);
+        explicit.id = 100L;
+        BatchItem first = new BatchItem("a", 1);
+        BatchItem second = new BatchItem("b", 2);
+        assertEquals(3, dao.insertBatch(List.of(first, explicit, second)));
+        assertEquals(List.of(1, 1), prepared.stream().map(BaseDaoBatchTest::rowGroups).toList());
+        assertTrue(prepared.get(0).contains("\"ID\""));
+        assertFalse(prepared.get(1).contains("\"ID\""));
+        assertEquals("explicit", dao.selectById(100L).name);
+        // AUTO 主键按行顺序回填
+        assertTrue(first.id != null && second.id != null && first.id < second.id);
+        assertEquals("a", dao.selectById(first.id).name);
+        assertEquals("b", dao.selectById(second.id).name);
+    }
+
+    @Test
+    void insertBatchFallsBackToPerRowGeneratedKeys() throws SQLException {
+        List<String> prepared = new ArrayList<>();
+        Lumen lumen = Lumen.builder()
+            .dataSource(recording(dataSource("base_dao_batch_per_row_keys"), prepared))
+            .dialect(new LimitOffsetDialect("h2", "\"", 32767, GeneratedKeyStrategy.PER_ROW))
+            .build();
+        lumen.db().execute(Command.of(new RenderedSql(
+            "CREATE TABLE BATCH_ITEMS (ID BIGINT AUTO_INCREMENT PRIMARY KEY, NAME VARCHAR(50), QTY INT, DELETED INT)",
+            List.of()
+        )));
+        ItemDao dao = new ItemDao(lumen);
+        prepared.clear();
+
+        List<BatchItem> items = List.of(new BatchItem("x", 1), new BatchItem("y", 2), new BatchItem("z", 3));
+        assertEquals(3, dao.insertBatch(items));
+        assertEquals(3, prepared.size());
+        for (BatchItem item : items) {
+            assertEquals(item.name, dao.selectById(item.id).name);
+        }
+    }
+
+    @Test
+    void batchIdOperationsChunkInListsAndHonourLogicalDelete() throws SQLException {
+        List<String> prepared = new ArrayList<>();
+        Lumen lumen = Lumen.builder()
+            .dataSource(recording(dataSource("base_dao_batch_ids"), prepared))
+            // 上限 7 扣除预留后每段 3 个主键
+            .dialect(new LimitOffsetDialect("h2", "\"", 7))
+            .build();
+        lumen.db().execute(Command.of(new RenderedSql(
+            "CREATE TABLE BATCH_ITEMS (ID BIGINT AUTO_INCREMENT PRIMARY KEY, NAME VARCHAR(50), QTY INT, DELETED INT)",
+            List.of()
+        )));
+        ItemDao dao = new ItemDao(lumen);
+        List<BatchItem> items = new ArrayList<>();
+        for (int i = 1; i <= 7; i++) {
+            BatchItem item = new BatchItem("item-" + i, i);
+            item.id = (long) i;
+            items.add(item);
+        }
+        dao.insertBatch(items);
+        prepared.clear();
+
+        List<BatchItem> selected = dao.selectBatchIds(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 7L, 99L));
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L), selected.stream().map(item -> item.id).sorted().toList());
+        assertEquals(3, prepared.size());
+        assertTrue(prepared.stream().allMatch(sql -> sql.startsWith("SELECT")));
+        assertEquals(List.of(), dao.selectBatchIds(List.of()));
+
+        prepared.clear();
+        assertEquals(4, dao.deleteBatchIds(List.of(1L, 2L, 3L, 4L)));
+        assertEquals(2, prepared.size());
+        assertTrue(prepared.stream().allMatch(sql -> sql.startsWith("UPDATE")));
+        assertEquals(0, dao.deleteBatchIds(List.of(1L, 2L)));
+        assertEquals(List.of(5L, 6L, 7L), dao.selectBatchIds(List.of(1L, 5L, 6L, 7L)).stream()
+            .map(item -> item.id).sorted().toList());
+        assertThrows(IllegalArgumentException.class, () -> dao.deleteBatchIds(java.util.Arrays.asList(5L, null)));
+
+        PlainDao plainDao = new PlainDao(lumen);
+        lumen.db().execute(Command.of(new RenderedSql(
+            "CREATE TABLE PLAIN_ITEMS (ID BIGINT PRIMARY KEY, NAME VARCHAR(50))",
+            List.of()
+        )));
+        lumen.db().execute(Command.of(new RenderedSql(
+            "INSERT INTO PLAIN_ITEMS (ID, NAME) VALUES (1, 'a'), (2, 'b'), (3, 'c'), (4, 'd')",
+            List.of()
+        )));
+        prepared.clear();
+        assertEquals(3, plainDao.deleteBatchIds(List.of(1L, 2L, 3L)));
+        assertEquals(List.of("DELETE"), prepared.stream().map(sql -> sql.substring(0, 6)).distinct().toList());
+        assertEquals(1, plainDao.selectList().size());
+    }
+
+    @Test
+    void updateBatchByIdReusesOneTemplate() throws SQLException {
+        List<String> prepared = new ArrayList<>();
+        Lumen lumen = Lumen.builder()
+            .dataSource(recording(dataSource("base_dao_batch_update"), prepared))
+            .build();
+        lumen.db().execute(Command.of(new RenderedSql(
+            "CREATE TABLE BATCH_ITEMS (ID BIGINT AUTO_INCREMENT PRIMARY KEY, NAME VARCHAR(50), QTY INT, DELETED INT)",
+            List.of()
+        )));
+        ItemDao dao = new ItemDao(lumen);
+        List<BatchItem> items = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            BatchItem item = new BatchItem("item-" + i, i);
+            item.id = (long) i;
+            items.add(item);
+        }
+        dao.insertBatch(items);
+        dao.deleteById(3L);
+        prepared.clear();
+
+        for (BatchItem item : items) {
+            item.name = item.name + "-updated";
+            item.qty = item.id == 2L ? null : item.qty * 10;
+        }
+        // 已逻辑删除的第 3 行不会被更新
+        assertEquals(2, dao.updateBatchById(items));
+        assertEquals(1, prepared.size());
+        assertTrue(prepared.get(0).startsWith("UPDATE"));
+        assertEquals(0, dao.updateBatchById(List.of()));
+
+        BatchItem first = dao.selectById(1L);
+        assertEquals("item-1-updated", first.name);
+        assertEquals(10, first.qty);
+        BatchItem second = dao.selectById(2L);
+        assertEquals("item-2-updated", second.name);
+        assertEquals(null, second.qty);
+        assertEquals(null, dao.selectById(3L));
+
+        BatchItem missingId = new BatchItem("x", 1);
+        assertThrows(IllegalStateException.class, () -> dao.updateBatchById(List.of(missingId)));
+    }
+
+    @Test
+    void insertBatchLeasesSnowflakeIdsOnlyForEntitiesWithoutId() throws SQLException {
+        Lumen lumen = Lumen.builder().dataSource(dataSource("base_dao_batch_snowflake")).build();
+        lumen.db().execute(Command.of(new RenderedSql(
+            "CREATE TABLE SNOWFLAKE_ITEMS (ID BIGINT PRIMARY KEY, NAME VARCHAR(50))",
+            List.of()
+        )));
+        SnowflakeIdGenerator snowflake = SnowflakeIdGenerator.builder().epoch(0).clock(() -> 1_000L).build();
+        SnowflakeDao dao = new SnowflakeDao(lumen, strategy -> snowflake);
+
+        List<SnowflakeItem> items = List.of(new SnowflakeItem(1L, "a"), new SnowflakeItem(null, "b"),
+            new SnowflakeItem(2L, "c"));
+        assertEquals(3, dao.insertBatch(items));
+        assertEquals(List.of(1L, 2L), List.of(items.get(0).id, items.get(2).id));
+        // 只租出 1 个号，下一个号紧接其后
+        assertEquals(items.get(1).id + 1, snowflake.nextLong());
+
+        assertEquals(1, dao.insertBatch(List.of(new SnowflakeItem(3L, "d"))));
+        assertEquals(items.get(1).id + 2, snowflake.nextLong());
+    }
+
+    private static int rowGroups(String sql) {
+        return sql.split("\\), \\(", -1).length;
+    }
+
+    private static DataSource recording(DataSource target, List<String> prepared) {
+        return (DataSource) Proxy.newProxyInstance(
+            DataSource.class.getClassLoader(),
+            new Class<?>[] { DataSource.class },
+            (proxy, method, args) -> {
+                Object result = invoke(method, target, args);
+                if (!(result instanceof Connection connection)) {
+                    return result;
+                }
+                return Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[] { Connection.class },
+                    (connProxy, connMethod, connArgs) -> {
+                        if (connMethod.getName().equals("prepareStatement")) {
+                            prepared.add((String) connArgs[0]);
+                        }
+                        return invoke(connMethod, connection, connArgs);
+                    }
+                );
+            }
+        );
+    }
+
+    private static Object invoke(java.lang.reflect.Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    private static DataSource dataSource(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        dataSource.setPassword("sa");
+        return dataSource;
+    }
+
+    static final class ItemDao implements BaseDao<BatchItem>, DaoContextProvider {
+        private final DaoContext context;
+
+        ItemDao(Lumen lumen) {
+            this.context = DaoContext.of(lumen.db(), lumen.renderer(), lumen.metaRegistry());
+        }
+
+        @Override
+        public DaoContext daoContext() {
+            return context;
+        }
+
+        @Override
+        public Class<BatchItem> entityType() {
+            return BatchItem.class;
+        }
+    }
+
+    static final class PlainDao implements BaseDao<PlainItem>, DaoContextProvider {
+        private final DaoContext context;
+
+        PlainDao(Lumen lumen) {
+            this.context = DaoContext.of(lumen.db(), lumen.renderer(), lumen.metaRegistry());
+        }
+
+        @Override
+        public DaoContext daoContext() {
+            return context;
+        }
+
+        @Override
+        public Class<PlainItem> entityType() {
+            return PlainItem.class;
+        }
+    }
+
+    static final class SnowflakeDao implements BaseDao<SnowflakeItem>, DaoContextProvider {
+        private final DaoContext context;
+
+        SnowflakeDao(Lumen lumen, IdGeneratorProvider ids) {
+            this.context = DaoContext.of(lumen.db(), lumen.renderer(), lumen.metaRegistry(), ids);
+        }
+
+        @Override
+        public DaoContext daoContext() {
+            return context;
+        }
+
+        @Override
+        public Class<SnowflakeItem> entityType() {
+            return SnowflakeItem.class;
+        }
+    }
+
+    @Table(name = "SNOWFLAKE_ITEMS")
+    static final class SnowflakeItem {
+        @Id(strategy = IdStrategy.SNOWFLAKE)
+        @Column(name = "ID")
+        Long id;
+
+        @Column(name = "NAME")
+        String name;
+
+        SnowflakeItem() {
+        }
+
+        SnowflakeItem(Long id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+    }
+
+    @Table(name = "PLAIN_ITEMS")
+    static final class PlainItem {
+        @Id
+        @Column(name = "ID")
+        Long id;
+
+        @Column(name = "NAME")
+        String name;
+    }
+
+    @Table(name = "BATCH_ITEMS")
+    static final class BatchItem {
+        @Id(strategy = IdStrategy.AUTO)
+        @Column(name = "ID")
+        Long id;
+
+        @Column(name = "NAME")
+        String name;
+
+        @Column(name = "QTY")
+        Integer qty;
+
+        @LogicDelete(active = "0", deleted = "1")
+        @Column(name = "DELETED")
+        Integer deleted;
+
+        BatchItem() {
+        }
+
+        BatchItem(String name, Integer qty) {
+            this.name = name;
+            this.qty = qty;
+        }
+    }
+}
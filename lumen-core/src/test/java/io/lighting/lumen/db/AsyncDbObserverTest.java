@@ -0,0 +1,152 @@
+package io.lighting.lumen.db;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.lighting.lumen.sql.RenderedSql;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class AsyncDbObserverTest {
+    private static final RenderedSql SQL = new RenderedSql("SELECT 1", List.of());
+
+    @Test
+    void deliversEventsInOrderOnBackgroundThread() {
+        List<String> events = new CopyOnWriteArrayList<>();
+        DbObserver recorder = new DbObserver() {
+            @Override
+            public void afterExecute(DbOperation operation, Object source, RenderedSql rendered, long elapsed, int rows) {
+                events.add(Thread.currentThread().getName() + ":" + rows);
+            }
+        };
+        DbObserver failing = new DbObserver() {
+            @Override
+            public void afterExecute(DbOperation operation, Object source, RenderedSql rendered, long elapsed, int rows) {
+                throw new IllegalStateException("boom");
+            }
+        };
+        AsyncDbObserver async = AsyncDbObserver.builder(recorder, failing).capacity(100).build();
+        for (int i = 0; i < 50; i++) {
+            async.afterExecute(DbOperation.QUERY, null, SQL, 0L, i);
+        }
+        async.close();
+
+        assertEquals(50, events.size());
+        for (int i = 0; i < 50; i++) {
+            assertTrue(events.get(i).startsWith("lumen-observer-"), events.get(i));
+            assertTrue(events.get(i).endsWith(":" + i), events.get(i));
+        }
+        AsyncObserverStats stats = async.stats();
+        assertEquals(50, stats.published());
+        assertEquals(50, stats.delivered());
+        assertEquals(50, stats.failures());
+        assertEquals(0, stats.dropped());
+    }
+
+    @Test
+    void appliesOverflowPolicyWhenQueueIsFull() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> threads = new CopyOnWriteArrayList<>();
+        DbObserver blocking = new DbObserver() {
+            @Override
+            public void beforeExecute(DbOperation operation, Object source, RenderedSql rendered) {
+                threads.add(Thread.currentThread().getName());
+                started.countDown();
+                if (Thread.currentThread().getName().startsWith("lumen-observer-")) {
+                    await(release);
+                }
+            }
+        };
+
+        AsyncDbObserver dropping = AsyncDbObserver.builder(blocking).capacity(4).build();
+        dropping.beforeExecute(DbOperation.QUERY, null, SQL);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 10; i++) {
+            dropping.beforeExecute(DbOperation.QUERY, null, SQL);
+        }
+        release.countDown();
+        dropping.close();
+        AsyncObserverStats dropped = dropping.stats();
+        assertEquals(5, dropped.published());
+        assertEquals(6, dropped.dropped());
+        assertEquals(5, threads.size());
+
+        threads.clear();
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch unblock = new CountDownLatch(1);
+        DbObserver gate = new DbObserver() {
+            @Override
+            public void beforeExecute(DbOperation operation, Object source, RenderedSql rendered) {
+                threads.add(Thread.currentThread().getName());
+                if (Thread.currentThread().getName().startsWith("lumen-observer-")) {
+                    blocked.countDown();
+                    await(unblock);
+                }
+            }
+        };
+        AsyncDbObserver callerRuns = AsyncDbObserver.builder(gate)
+            .capacity(2)
+            .overflowPolicy(AsyncDbObserver.OverflowPolicy.CALLER_RUNS)
+            .build();
+        callerRuns.beforeExecute(DbOperation.QUERY, null, SQL);
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 3; i++) {
+            callerRuns.beforeExecute(DbOperation.QUERY, null, SQL);
+        }
+        assertEquals(Thread.currentThread().getName(), threads.get(1));
+        unblock.countDown();
+        callerRuns.close();
+        assertEquals(1, callerRuns.stats().callerRuns());
+        assertEquals(4, threads.size());
+    }
+
+    @Test
+    void closeDeliversEventsPublishedConcurrently() throws InterruptedException {
+        AtomicInteger delivered = new AtomicInteger();
+        DbObserver counter = new DbObserver() {
+            @Override
+            public void afterExecute(DbOperation operation, Object source, RenderedSql rendered, long elapsed, int rows) {
+                delivered.incrementAndGet();
+            }
+        };
+        AsyncDbObserver async = AsyncDbObserver.builder(counter).capacity(1 << 16).build();
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch running = new CountDownLatch(4);
+        List<Thread> publishers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread publisher = new Thread(() -> {
+                for (int i = 0; i < 5_000; i++) {
+                    async.afterExecute(DbOperation.QUERY, null, SQL, 0L, i);
+                    calls.incrementAndGet();
+                    if (i == 100) {
+                        running.countDown();
+                    }
+                }
+            });
+            publishers.add(publisher);
+            publisher.start();
+        }
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        async.close();
+        for (Thread publisher : publishers) {
+            publisher.join();
+        }
+
+        assertEquals(calls.get(), delivered.get() + async.stats().dropped());
+        assertEquals(async.stats().published(), async.stats().delivered());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
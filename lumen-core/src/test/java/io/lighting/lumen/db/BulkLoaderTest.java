@@ -0,0 +1,223 @@
+package io.lighting.lumen.db;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.lighting.lumen.Lumen;
+import io.lighting.lumen.meta.Column;
+import io.lighting.lumen.meta.Id;
+import io.lighting.lumen.meta.IdStrategy;
+import io.lighting.lumen.meta.LogicDelete;
+import io.lighting.lumen.meta.Table;
+import io.lighting.lumen.sql.Bindings;
+import io.lighting.lumen.sql.Dialect;
+import io.lighting.lumen.sql.RenderedSql;
+import io.lighting.lumen.sql.dialect.LimitOffsetDialect;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+
+class BulkLoaderTest {
+    @Test
+    void loadsEntitiesThroughCsvReadOnH2() throws SQLException {
+        List<BulkLoadStats> reported = new ArrayList<>();
+        Lumen lumen = lumen("bulk_loader_csvread", new LimitOffsetDialect("h2", "\""), reported);
+        Iterator<Metric> metrics = IntStream.rangeClosed(1, 500)
+            .mapToObj(i -> new Metric(i % 7 == 0 ? null : "m-" + i + (i == 1 ? ", \"quoted\"\n中\t" : ""), i))
+            .iterator();
+
+        BulkLoadStats stats = lumen.db().bulkLoader().load(Metric.class, metrics);
+
+        assertEquals(BulkLoadMethod.CSVREAD, stats.method());
+        assertEquals("BULK_METRICS", stats.table());
+        assertEquals(500L, stats.rows());
+        assertTrue(stats.bytes() > 0 && stats.rowsPerSecond() > 0 && stats.bytesPerSecond() > 0);
+        assertEquals(List.of(stats), reported);
+        assertEquals(List.of(500L), count(lumen, "SELECT COUNT(*) FROM BULK_METRICS WHERE DELETED = 0"));
+        assertEquals(List.of(71L), count(lumen, "SELECT COUNT(*) FROM BULK_METRICS WHERE NAME IS NULL"));
+        assertEquals(
+            List.of("m-1, \"quoted\"\n中\t"),
+            lumen.db().run("SELECT NAME FROM BULK_METRICS WHERE VAL = 1", Bindings.empty(), rs -> rs.getString(1))
+        );
+    }
+
+    @Test
+    void fallsBackToMultiRowValues() throws SQLException {
+        List<BulkLoadStats> reported = new ArrayList<>();
+        Lumen lumen = lumen("bulk_loader_values", new LimitOffsetDialect("ansi", "\""), reported);
+
+        BulkLoadStats stats = lumen.db().bulkLoader()
+            .batchSize(4)
+            .load("BULK_METRICS", List.of("NAME", "VAL", "DELETED"), List.of(
+                new Object[] { "a", 1, 0 },
+                new Object[] { null, 2, 0 },
+                new Object[] { "c", 3, 1 }
+            ).iterator());
+
+        assertEquals(BulkLoadMethod.MULTI_ROW_VALUES, stats.method());
+        assertEquals(3L, stats.rows());
+        assertEquals(0L, stats.bytes());
+        assertEquals(List.of(stats), reported);
+        assertEquals(List.of(3L), count(lumen, "SELECT COUNT(*) FROM BULK_METRICS"));
+        assertThrows(IllegalArgumentException.class, () -> lumen.db().bulkLoader()
+            .load("BULK_METRICS", List.of("NAME", "VAL"), List.<Object[]>of(new Object[] { "x" }).iterator()));
+    }
+
+    @Test
+    void encodesCopyTextFormat() throws IOException {
+        BulkLoader.RowEncoder encoder = new BulkLoader.RowEncoder(
+            BulkLoader.Format.TEXT,
+            List.<Object[]>of(
+                new Object[] { "a\tb\\c\nd", null, true },
+                new Object[] { "", 42L, IdStrategy.AUTO }
+            ).iterator(),
+            3
+        );
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        encoder.transferTo(out);
+
+        assertEquals("a\\tb\\\\c\\nd\t\\N\t1\n\t42\tAUTO\n", out.toString(StandardCharsets.UTF_8));
+        assertEquals(2L, encoder.rows());
+        assertEquals(out.size(), encoder.bytes());
+    }
+
+    @Test
+    void encodesTemporalValuesInIsoFormat() throws IOException {
+        BulkLoader.RowEncoder encoder = new BulkLoader.RowEncoder(
+            BulkLoader.Format.CSV,
+            List.<Object[]>of(new Object[] {
+                LocalDate.of(2024, 1, 2),
+                LocalTime.of(10, 0),
+                LocalDateTime.of(2024, 1, 2, 3, 4),
+                LocalDateTime.of(2024, 1, 2, 3, 4, 5, 120_000_000),
+                OffsetDateTime.of(2024, 1, 2, 3, 4, 5, 0, ZoneOffset.ofHours(8)),
+                Instant.EPOCH,
+                Timestamp.valueOf("2024-01-02 03:04:05")
+            }).iterator(),
+            7
+        );
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        encoder.transferTo(out);
+
+        assertEquals(
+            "\"2024-01-02\",\"10:00:00\",\"2024-01-02 03:04:00\",\"2024-01-02 03:04:05.12\","
+                + "\"2024-01-02 03:04:05+08:00\",\"1970-01-01 00:00:00+00:00\",\"2024-01-02 03:04:05\"\n",
+            out.toString(StandardCharsets.UTF_8)
+        );
+    }
+
+    @Test
+    void usesCsvReadOnlyForEmbeddedH2() {
+        assertTrue(BulkLoader.isEmbeddedH2("jdbc:h2:mem:bulk"));
+        assertTrue(BulkLoader.isEmbeddedH2("jdbc:h2:file:/tmp/bulk;AUTO_SERVER=TRUE"));
+        assertTrue(BulkLoader.isEmbeddedH2("jdbc:h2:~/bulk"));
+        assertFalse(BulkLoader.isEmbeddedH2("jdbc:h2:tcp://db-host:9092/bulk"));
+        assertFalse(BulkLoader.isEmbeddedH2("jdbc:h2:ssl://db-host/bulk"));
+        assertFalse(BulkLoader.isEmbeddedH2(null));
+    }
+
+    @Test
+    void generatesIdsWithTheLumenIdGeneratorProvider() throws SQLException {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:bulk_loader_ids;DB_CLOSE_DELAY=-1");
+        AtomicLong next = new AtomicLong(1000L);
+        Lumen lumen = Lumen.builder()
+            .dataSource(dataSource)
+            .idGeneratorProvider(strategy -> next::incrementAndGet)
+            .build();
+        lumen.db().execute(Command.of(new RenderedSql(
+            "CREATE TABLE BULK_KEYED (ID BIGINT PRIMARY KEY, NAME VARCHAR(16))",
+            List.of()
+        )));
+
+        lumen.db().bulkLoader().load(Keyed.class, List.of(new Keyed("a"), new Keyed("b")).iterator());
+        lumen.transactionManager().inTransaction(db -> db.bulkLoader().load(Keyed.class, List.of(new Keyed("c")).iterator()));
+
+        assertEquals(List.of(1001L, 1002L, 1003L), count(lumen, "SELECT ID FROM BULK_KEYED ORDER BY ID"));
+    }
+
+    private static List<Long> count(Lumen lumen, String sql) throws SQLException {
+        return lumen.db().run(sql, Bindings.empty(), rs -> rs.getLong(1));
+    }
+
+    private static Lumen lumen(String name, Dialect dialect, List<BulkLoadStats> reported) throws SQLException {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        dataSource.setPassword("sa");
+        Lumen lumen = Lumen.builder()
+            .dataSource(dataSource)
+            .dialect(dialect)
+            .observers(List.of(new DbObserver() {
+                @Override
+                public void onBulkLoad(BulkLoadStats stats) {
+                    reported.add(stats);
+                }
+            }))
+            .build();
+        lumen.db().execute(Command.of(new RenderedSql(
+            "CREATE TABLE BULK_METRICS (ID BIGINT AUTO_INCREMENT PRIMARY KEY, NAME VARCHAR(64), VAL INT, DELETED INT)",
+            List.of()
+        )));
+        return lumen;
+    }
+
+    @Table(name = "BULK_KEYED")
+    static final class Keyed {
+        @Id(strategy = IdStrategy.SNOWFLAKE)
+        @Column(name = "ID")
+        Long id;
+
+        @Column(name = "NAME")
+        String name;
+
+        Keyed() {
+        }
+
+        Keyed(String name) {
+            this.name = name;
+        }
+    }
+
+    @Table(name = "BULK_METRICS")
+    static final class Metric {
+        @Id(strategy = IdStrategy.AUTO)
+        @Column(name = "ID")
+        Long id;
+
+        @Column(name = "NAME")
+        String name;
+
+        @Column(name = "VAL")
+        Integer val;
+
+        @LogicDelete(active = "0", deleted = "1")
+        @Column(name = "DELETED")
+        Integer deleted;
+
+        Metric() {
+        }
+
+        Metric(String name, Integer val) {
+            this.name = name;
+            this.val = val;
+        }
+    }
+}
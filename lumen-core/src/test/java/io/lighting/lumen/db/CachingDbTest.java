@@ -0,0 +1,168 @@
+package io.lighting.lumen.db;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.lighting.lumen.Lumen;
+import io.lighting.lumen.jdbc.RowMapper;
+import io.lighting.lumen.meta.Column;
+import io.lighting.lumen.meta.Id;
+import io.lighting.lumen.meta.Table;
+import io.lighting.lumen.sql.Bind;
+import io.lighting.lumen.sql.BatchSql;
+import io.lighting.lumen.sql.RenderedSql;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+
+class CachingDbTest {
+    private static final RowMapper<Long> LONG = rs -> rs.getLong(1);
+
+    @Test
+    void cachesReadsUntilWritesTouchTheirTables() throws SQLException {
+        Lumen lumen = lumen("caching_db_tags");
+        CachingDb db = CachingDb.builder(lumen.db(), lumen.renderer()).metaRegistry(lumen.metaRegistry()).build();
+        Query total = query("SELECT SUM(AMOUNT) FROM CACHE_ORDERS WHERE STATUS = ?", "PAID");
+        Query users = query("SELECT COUNT(*) FROM CACHE_USERS");
+
+        List<Long> first = db.fetch(total, LONG);
+        assertEquals(List.of(30L), first);
+        assertEquals(List.of(2L), db.fetch(users, LONG));
+        lumen.db().execute(command("UPDATE CACHE_ORDERS SET AMOUNT = 100 WHERE ID = 1"));
+        List<Long> cached = db.fetch(total, LONG);
+        assertEquals(List.of(30L), cached);
+        assertNotSame(first, cached);
+        assertEquals(List.of(30L), db.fetch(query("SELECT SUM(AMOUNT) FROM CACHE_ORDERS WHERE STATUS = ?", "PAID"), LONG));
+        assertEquals(List.of(0L), db.fetch(query("SELECT SUM(AMOUNT) FROM CACHE_ORDERS WHERE STATUS = ?", "NEW"),
+            rs -> 0L));
+
+        db.execute(command("UPDATE CACHE_ORDERS SET AMOUNT = 110 WHERE ID = 2"));
+        assertEquals(List.of(210L), db.fetch(total, LONG));
+        assertEquals(List.of(2L), db.fetch(users, LONG));
+
+        db.executeBatch(BatchSql.builder(new RenderedSql("INSERT INTO CACHE_USERS (ID, NAME) VALUES (?, ?)", List.of()))
+            .add(List.of(new Bind.Value(3L, 0), new Bind.Value("c", 0)))
+            .build());
+        assertEquals(List.of(3L), db.fetch(users, LONG));
+        assertEquals(List.of(210L), db.fetch(total, LONG));
+
+        db.fetch(query("SELECT ID FROM CACHE_USERS WHERE ID = 1 FOR UPDATE"), LONG);
+        db.fetch(query("SELECT 1"), LONG);
+
+        QueryCacheStats stats = db.stats();
+        assertEquals(4, stats.hits());
+        assertEquals(5, stats.misses());
+        assertEquals(3, stats.invalidations());
+        assertEquals(2, stats.size());
+        assertTrue(stats.bytes() > 0);
+
+        for (int i = 0; i < 2; i++) {
+            List<CacheUser> found = db.dsl()
+                .select(CacheUser.class, CacheUser::getId, CacheUser::getName)
+                .from(CacheUser.class)
+                .where()
+                .equals(CacheUser::getId, 1L)
+                .toList();
+            assertEquals("a", found.get(0).getName());
+        }
+        assertEquals(5, db.stats().hits());
+        db.invalidateAll();
+        assertEquals(0, db.stats().size());
+    }
+
+    @Test
+    void boundsEntriesBytesAndAge() throws SQLException {
+        Lumen lumen = lumen("caching_db_bounds");
+        AtomicLong now = new AtomicLong();
+        CachingDb db = CachingDb.builder(lumen.db(), lumen.renderer())
+            .maxEntries(2)
+            .maxBytes(1024)
+            .expireAfterWrite(Duration.ofSeconds(10))
+            .ticker(now::get)
+            .build();
+        for (long id = 1; id <= 3; id++) {
+            db.fetch(query("SELECT ID FROM CACHE_USERS WHERE ID = ?", id), LONG);
+        }
+        assertEquals(2, db.stats().size());
+        assertEquals(1, db.stats().evictions());
+
+        db.fetch(query("SELECT REPEAT('x', 2000) FROM CACHE_USERS"), rs -> rs.getString(1));
+        assertEquals(2, db.stats().size());
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(11));
+        db.fetch(query("SELECT ID FROM CACHE_USERS WHERE ID = ?", 3L), LONG);
+        assertEquals(2, db.stats().evictions());
+        assertEquals(0, db.stats().hits());
+    }
+
+    @Test
+    void keysOnMapperIdentityAndReturnsCopiedRows() throws SQLException {
+        Lumen lumen = lumen("caching_db_mappers");
+        CachingDb db = CachingDb.builder(lumen.db(), lumen.renderer()).build();
+        Query total = query("SELECT SUM(AMOUNT) FROM CACHE_ORDERS WHERE STATUS = ?", "PAID");
+        for (long offset = 1; offset <= 2; offset++) {
+            long captured = offset;
+            assertEquals(List.of(30L + captured), db.fetch(total, rs -> rs.getLong(1) + captured));
+        }
+        assertEquals(0, db.stats().size());
+
+        assertEquals(List.of(31L), db.fetch(total, "total+1", rs -> rs.getLong(1) + 1));
+        assertEquals(List.of(31L), db.fetch(total, "total+1", rs -> rs.getLong(1) + 1));
+        assertEquals(List.of(30L), db.fetch(total, LONG));
+        assertEquals(1, db.stats().hits());
+        assertEquals(2, db.stats().size());
+
+        Query user = query("SELECT ID, NAME FROM CACHE_USERS WHERE ID = ?", 1L);
+        List<CacheUser> first = db.fetch(user, CacheUser.class);
+        assertThrows(UnsupportedOperationException.class, () -> first.add(new CacheUser()));
+        first.get(0).name = "changed";
+        List<CacheUser> second = db.fetch(user, CacheUser.class);
+        assertEquals("a", second.get(0).getName());
+        assertNotSame(first.get(0), second.get(0));
+        assertEquals(2, db.stats().hits());
+    }
+
+    private static Query query(String sql, Object... args) {
+        List<Bind> binds = java.util.Arrays.stream(args).<Bind>map(arg -> new Bind.Value(arg, 0)).toList();
+        return Query.of(new RenderedSql(sql, binds));
+    }
+
+    private static Command command(String sql) {
+        return Command.of(new RenderedSql(sql, List.of()));
+    }
+
+    private static Lumen lumen(String name) throws SQLException {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        Lumen lumen = Lumen.builder().dataSource(dataSource).build();
+        lumen.db().execute(command("CREATE TABLE CACHE_ORDERS (ID BIGINT PRIMARY KEY, STATUS VARCHAR(8), AMOUNT BIGINT)"));
+        lumen.db().execute(command("CREATE TABLE CACHE_USERS (ID BIGINT PRIMARY KEY, NAME VARCHAR(8))"));
+        lumen.db().execute(command("INSERT INTO CACHE_ORDERS VALUES (1, 'PAID', 10), (2, 'PAID', 20), (3, 'NEW', 5)"));
+        lumen.db().execute(command("INSERT INTO CACHE_USERS VALUES (1, 'a'), (2, 'b')"));
+        return lumen;
+    }
+
+    @Table(name = "CACHE_USERS")
+    static final class CacheUser {
+        @Id
+        @Column(name = "ID")
+        Long id;
+
+        @Column(name = "NAME")
+        String name;
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package io.lighting.lumen.db;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.lighting.lumen.Lumen;
+import io.lighting.lumen.page.PageRequest;
+import io.lighting.lumen.page.PageResult;
+import io.lighting.lumen.sql.Bind;
+import io.lighting.lumen.sql.RenderedSql;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+
+class ConcurrentPageTest {
+    private static final Query PAGE = Query.of(new RenderedSql(
+        "SELECT ID FROM PAGED ORDER BY ID LIMIT ? OFFSET ?",
+        List.of(new Bind.Value(3, 0), new Bind.Value(0, 0))
+    ));
+    private static final Query COUNT = Query.count(Query.of(new RenderedSql("SELECT ID FROM PAGED", List.of())));
+
+    @Test
+    void runsCountAlongsidePageQueryOutsideTransactions() throws SQLException {
+        CountDownLatch countStarted = new CountDownLatch(1);
+        ThreadRecorder recorder = new ThreadRecorder(countStarted);
+        Lumen lumen = lumen(recorder);
+
+        PageResult<Long> page = lumen.db().page(PAGE, COUNT, PageRequest.of(1, 3), rs -> rs.getLong(1));
+
+        assertEquals(List.of(1L, 2L, 3L), page.items());
+        assertEquals(7L, page.total());
+        assertTrue(recorder.pageSawCountStarted);
+        assertSame(Thread.currentThread(), recorder.threads.get("page"));
+        assertNotSame(Thread.currentThread(), recorder.threads.get("count"));
+    }
+
+    @Test
+    void staysSequentialInsideTransactions() throws SQLException {
+        ThreadRecorder recorder = new ThreadRecorder(null);
+        Lumen lumen = lumen(recorder);
+
+        PageResult<Long> page = lumen.transactionManager().inTransaction(
+            db -> db.page(PAGE, COUNT, PageRequest.of(1, 3), rs -> rs.getLong(1))
+        );
+
+        assertEquals(7L, page.total());
+        assertSame(Thread.currentThread(), recorder.threads.get("page"));
+        assertSame(Thread.currentThread(), recorder.threads.get("count"));
+    }
+
+    @Test
+    void defaultExecutorsUseVirtualThreadsWhenAvailable() throws Exception {
+        assertNotSame(QueryExecutors.pageCount(), QueryExecutors.sharding());
+        assertEquals(Runtime.version().feature() >= 21, QueryExecutors.virtualThreads());
+
+        FutureTask<Thread> task = new FutureTask<>(Thread::currentThread);
+        QueryExecutors.pageCount().execute(task);
+        Thread thread = task.get(5, TimeUnit.SECONDS);
+        assertTrue(thread.isDaemon());
+        if (!QueryExecutors.virtualThreads()) {
+            assertTrue(thread.getName().startsWith("lumen-count-"));
+        }
+    }
+
+    private static Lumen lumen(DbObserver observer) throws SQLException {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:concurrent_page;DB_CLOSE_DELAY=-1");
+        Lumen setup = Lumen.builder().dataSource(dataSource).startupLogEnabled(false).build();
+        setup.db().execute(Command.of(new RenderedSql("DROP TABLE IF EXISTS PAGED", List.of())));
+        setup.db().execute(Command.of(new RenderedSql("CREATE TABLE PAGED (ID BIGINT PRIMARY KEY)", List.of())));
+        for (long id = 1; id <= 7; id++) {
+            setup.db().execute(Command.of(new RenderedSql(
+                "INSERT INTO PAGED (ID) VALUES (?)",
+                List.of(new Bind.Value(id, 0))
+            )));
+        }
+        return Lumen.builder()
+            .dataSource(dataSource)
+            .observers(List.of(observer))
+            .concurrentPageCount(true)
+            .startupLogEnabled(false)
+            .build();
+    }
+
+    private static final class ThreadRecorder implements DbObserver {
+        private final Map<String, Thread> threads = new ConcurrentHashMap<>();
+        private final CountDownLatch countStarted;
+        private volatile boolean pageSawCountStarted;
+
+        private ThreadRecorder(CountDownLatch countStarted) {
+            this.countStarted = countStarted;
+        }
+
+        @Override
+        public void beforeExecute(DbOperation operation, Object source, RenderedSql rendered) {
+            boolean count = rendered.sql().startsWith("SELECT COUNT(*)");
+            threads.put(count ? "count" : "page", Thread.currentThread());
+            if (countStarted == null) {
+                return;
+            }
+            if (count) {
+                countStarted.countDown();
+                return;
+            }
+            try {
+                pageSawCountStarted = countStarted.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
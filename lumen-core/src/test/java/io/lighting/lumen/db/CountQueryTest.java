@@ -0,0 +1,166 @@
+package io.lighting.lumen.db;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.lighting.lumen.Lumen;
+import io.lighting.lumen.dsl.Dsl;
+import io.lighting.lumen.dsl.Table;
+import io.lighting.lumen.meta.Column;
+import io.lighting.lumen.meta.Id;
+import io.lighting.lumen.meta.TestEntityMetaRegistry;
+import io.lighting.lumen.page.PageRequest;
+import io.lighting.lumen.page.PageResult;
+import io.lighting.lumen.sql.Bind;
+import io.lighting.lumen.sql.Bindings;
+import io.lighting.lumen.sql.RenderedSql;
+import io.lighting.lumen.sql.SqlRenderer;
+import io.lighting.lumen.sql.ast.Expr;
+import io.lighting.lumen.sql.ast.SelectStmt;
+import io.lighting.lumen.sql.dialect.LimitOffsetDialect;
+import java.sql.SQLException;
+import java.util.List;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+
+class CountQueryTest {
+    private final SqlRenderer renderer = new SqlRenderer(new LimitOffsetDialect("\""));
+    private final Dsl dsl = new Dsl(new TestEntityMetaRegistry());
+    private final Table orders = dsl.table(OrderEntity.class).as("o");
+    private final Table customers = dsl.table(CustomerEntity.class).as("c");
+    private final Table items = dsl.table(ItemEntity.class).as("i");
+
+    @Test
+    void countsDirectlyWithoutOrderByAndUnusedToOneJoins() {
+        SelectStmt stmt = dsl.select(orders.col("id").select(), customers.col("name").select())
+            .from(orders)
+            .leftJoin(customers).on(orders.col("customerId").eq(customers.col("id").expr()))
+            .leftJoin(items).on(items.col("orderId").eq(orders.col("id").expr()))
+            .where(where -> where.and(orders.col("status").eq(Dsl.param("status"))))
+            .orderBy(orders.col("id").desc())
+            .build();
+
+        RenderedSql count = Query.count(Query.of(stmt, Bindings.of("status", "PAID"))).render(renderer);
+
+        assertEquals(
+            "SELECT COUNT(*) FROM \"orders\" \"o\" "
+                + "LEFT JOIN \"items\" \"i\" ON \"i\".\"order_id\" = \"o\".\"id\" "
+                + "WHERE \"o\".\"status\" = ?",
+            count.sql()
+        );
+        assertEquals(List.of(new Bind.Value("PAID", 0)), count.binds());
+
+        SelectStmt filtered = dsl.select(orders.col("id").select())
+            .from(orders)
+            .leftJoin(customers).on(orders.col("customerId").eq(customers.col("id").expr()))
+            .where(where -> where.and(customers.col("name").eq(Dsl.param("name"))))
+            .build();
+        assertEquals(
+            "SELECT COUNT(*) FROM \"orders\" \"o\" "
+                + "LEFT JOIN \"customers\" \"c\" ON \"o\".\"customer_id\" = \"c\".\"id\" "
+                + "WHERE \"c\".\"name\" = ?",
+            Query.count(Query.of(filtered, Bindings.of("name", "acme"))).render(renderer).sql()
+        );
+    }
+
+    @Test
+    void wrapsGroupedAggregatedAndPagedSources() {
+        SelectStmt grouped = dsl.select(orders.col("customerId").select())
+            .from(orders)
+            .groupBy(orders.col("customerId").expr())
+            .orderBy(orders.col("customerId").asc())
+            .build();
+        assertEquals(
+            "SELECT COUNT(*) FROM (SELECT \"o\".\"customer_id\" FROM \"orders\" \"o\" "
+                + "GROUP BY \"o\".\"customer_id\") AS count_src",
+            Query.count(Query.of(grouped, Bindings.empty())).render(renderer).sql()
+        );
+
+        SelectStmt distinct = dsl.select(new Expr.RawSql("DISTINCT o.status"))
+            .from(orders)
+            .build();
+        assertEquals(
+            "SELECT COUNT(*) FROM (SELECT DISTINCT o.status FROM \"orders\" \"o\") AS count_src",
+            Query.count(Query.of(distinct, Bindings.empty())).render(renderer).sql()
+        );
+
+        SelectStmt paged = dsl.select(orders.col("id").select()).from(orders).page(1, 5).build();
+        assertEquals(
+            "SELECT COUNT(*) FROM (SELECT \"o\".\"id\" FROM \"orders\" \"o\" LIMIT ? OFFSET ?) AS count_src",
+            Query.count(Query.of(paged, Bindings.empty())).render(renderer).sql()
+        );
+    }
+
+    @Test
+    void skipsCountWhenPageIsShort() throws SQLException {
+        Db db = lumen().db();
+        Query broken = Query.of(new RenderedSql("SELECT COUNT(*) FROM MISSING_TABLE", List.of()));
+
+        PageResult<Long> short1 = db.page(pageQuery(1, 10), broken, PageRequest.of(1, 10), rs -> rs.getLong(1));
+        assertEquals(7L, short1.total());
+        PageResult<Long> last = db.page(pageQuery(2, 5), broken, PageRequest.of(2, 5), rs -> rs.getLong(1));
+        assertEquals(List.of(6L, 7L), last.items());
+        assertEquals(7L, last.total());
+
+        assertThrows(SQLException.class,
+            () -> db.page(pageQuery(1, 5), broken, PageRequest.of(1, 5), rs -> rs.getLong(1)));
+        Query count = Query.count(Query.of(new RenderedSql("SELECT ID FROM COUNTED", List.of())));
+        assertEquals(7L, db.page(pageQuery(1, 5), count, PageRequest.of(1, 5), rs -> rs.getLong(1)).total());
+        assertEquals(7L, db.page(pageQuery(3, 5), count, PageRequest.of(3, 5), rs -> rs.getLong(1)).total());
+    }
+
+    private static Query pageQuery(int page, int pageSize) {
+        return Query.of(new RenderedSql(
+            "SELECT ID FROM COUNTED ORDER BY ID LIMIT ? OFFSET ?",
+            List.of(new Bind.Value(pageSize, 0), new Bind.Value((page - 1) * pageSize, 0))
+        ));
+    }
+
+    private static Lumen lumen() throws SQLException {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:count_query;DB_CLOSE_DELAY=-1");
+        Lumen lumen = Lumen.builder().dataSource(dataSource).startupLogEnabled(false).build();
+        lumen.db().execute(Command.of(new RenderedSql("DROP TABLE IF EXISTS COUNTED", List.of())));
+        lumen.db().execute(Command.of(new RenderedSql("CREATE TABLE COUNTED (ID BIGINT PRIMARY KEY)", List.of())));
+        for (long id = 1; id <= 7; id++) {
+            lumen.db().execute(Command.of(new RenderedSql(
+                "INSERT INTO COUNTED (ID) VALUES (?)",
+                List.of(new Bind.Value(id, 0))
+            )));
+        }
+        return lumen;
+    }
+
+    @io.lighting.lumen.meta.Table(name = "orders")
+    static final class OrderEntity {
+        @Id
+        @Column(name = "id")
+        long id;
+
+        @Column(name = "status")
+        String status;
+
+        @Column(name = "customer_id")
+        long customerId;
+    }
+
+    @io.lighting.lumen.meta.Table(name = "customers")
+    static final class CustomerEntity {
+        @Id
+        @Column(name = "id")
+        long id;
+
+        @Column(name = "name")
+        String name;
+    }
+
+    @io.lighting.lumen.meta.Table(name = "items")
+    static final class ItemEntity {
+        @Id
+        @Column(name = "id")
+        long id;
+
+        @Column(name = "order_id")
+        long orderId;
+    }
+}
@@ -5,8 +5,11 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import io.lighting.lumen.jdbc.JdbcExecutor;
 import io.lighting.lumen.meta.TestEntityMetaRegistry;
+import io.lighting.lumen.sql.BatchSql;
 import io.lighting.lumen.sql.Bind;
 import io.lighting.lumen.sql.Bindings;
+import io.lighting.lumen.sql.Dialect;
+import io.lighting.lumen.sql.GeneratedKeyStrategy;
 import io.lighting.lumen.sql.RenderedSql;
 import io.lighting.lumen.sql.SqlRenderer;
 import io.lighting.lumen.sql.ast.Expr;
@@ -14,6 +17,7 @@ import io.lighting.lumen.sql.ast.SelectItem;
 import io.lighting.lumen.sql.ast.SelectStmt;
 import io.lighting.lumen.sql.ast.TableRef;
 import io.lighting.lumen.sql.dialect.LimitOffsetDialect;
+import io.lighting.lumen.sql.dialect.OffsetFetchDialect;
 import io.lighting.lumen.template.EntityNameResolvers;
 import java.io.PrintWriter;
 import java.lang.reflect.InvocationHandler;
@@ -72,6 +76,22 @@ class DefaultDbTest {
         assertEquals(List.of(new BoundParam(3, 0, "setObject")), statementHandler.boundParams());
     }
 
+    @Test
+    void runReusesParsedTemplate() throws SQLException {
+        AtomicReference<String> sqlCapture = new AtomicReference<>();
+        ResultSetHandler resultSetHandler = new ResultSetHandler(List.<Object[]>of(new Object[] { "ok" }));
+        PreparedStatementHandler statementHandler = new PreparedStatementHandler(resultSetHandler.proxy(), 0);
+        ConnectionHandler connectionHandler = new ConnectionHandler(statementHandler.proxy(), sqlCapture);
+        DefaultDb db = createDb(connectionHandler.proxy());
+
+        db.run("SELECT :id", Bindings.of("id", 3), rs -> rs.getObject(1));
+        db.run("SELECT :id", Bindings.of("id", 4), rs -> rs.getObject(1));
+
+        assertEquals(1, db.templateCache().stats().hits());
+        assertEquals(1, db.templateCache().stats().misses());
+        assertEquals("SELECT ?", sqlCapture.get());
+    }
+
     @Test
     void executeUsesCommand() throws SQLException {
         AtomicReference<String> sqlCapture = new AtomicReference<>();
@@ -166,14 +186,69 @@ class DefaultDbTest {
         );
     }
 
+    @Test
+    void customDialectReadsKeysThroughReturningInsert() throws SQLException {
+        AtomicReference<String> sqlCapture = new AtomicReference<>();
+        ResultSetHandler keys = new ResultSetHandler(List.<Object[]>of(
+            new Object[] { 1L }, new Object[] { 2L }, new Object[] { 3L }
+        ));
+        PreparedStatementHandler statementHandler = new PreparedStatementHandler(keys.proxy(), 0);
+        ConnectionHandler connectionHandler = new ConnectionHandler(statementHandler.proxy(), sqlCapture);
+        DefaultDb db = createDb(
+            connectionHandler.proxy(),
+            new LimitOffsetDialect("custom", "\"", 2000, GeneratedKeyStrategy.RETURNING),
+            null
+        );
+
+        List<Object> ids = db.executeBatchAndReturnGeneratedKeys(threeRowInsert(), "id", rs -> rs.getObject(1));
+
+        assertEquals(List.of(1L, 2L, 3L), ids);
+        assertEquals("INSERT INTO \"t\" (\"v\") VALUES (?), (?), (?) RETURNING \"id\"", sqlCapture.get());
+        assertEquals(3, statementHandler.boundParams().size());
+    }
+
+    @Test
+    void customDialectReadsKeysThroughOutputInserted() throws SQLException {
+        AtomicReference<String> sqlCapture = new AtomicReference<>();
+        ResultSetHandler keys = new ResultSetHandler(List.<Object[]>of(
+            new Object[] { 1L }, new Object[] { 2L }, new Object[] { 3L }
+        ));
+        PreparedStatementHandler statementHandler = new PreparedStatementHandler(keys.proxy(), 0);
+        ConnectionHandler connectionHandler = new ConnectionHandler(statementHandler.proxy(), sqlCapture);
+        DefaultDb db = createDb(
+            connectionHandler.proxy(),
+            new OffsetFetchDialect("custom", "\"", "\"", false, 2000, 1000, GeneratedKeyStrategy.OUTPUT_INSERTED),
+            null
+        );
+
+        List<Object> ids = db.executeBatchAndReturnGeneratedKeys(threeRowInsert(), "id", rs -> rs.getObject(1));
+
+        assertEquals(List.of(1L, 2L, 3L), ids);
+        assertEquals(
+            "INSERT INTO \"t\" (\"v\") OUTPUT INSERTED.\"id\" VALUES (?), (?), (?)",
+            sqlCapture.get()
+        );
+    }
+
+    private static BatchSql threeRowInsert() {
+        return BatchSql.builder(new RenderedSql("INSERT INTO \"t\" (\"v\") VALUES (?)", List.of()))
+            .add(List.of(new Bind.Value("a", 0)))
+            .add(List.of(new Bind.Value("b", 0)))
+            .add(List.of(new Bind.Value("c", 0)))
+            .build();
+    }
+
     private DefaultDb createDb(Connection connection) {
         return createDb(connection, null);
     }
 
     private DefaultDb createDb(Connection connection, DbObserver observer) {
+        return createDb(connection, new LimitOffsetDialect("\""), observer);
+    }
+
+    private DefaultDb createDb(Connection connection, Dialect dialect, DbObserver observer) {
         DataSource dataSource = new DataSourceHandler(connection).proxy();
         JdbcExecutor executor = new JdbcExecutor(dataSource);
-        LimitOffsetDialect dialect = new LimitOffsetDialect("\"");
         SqlRenderer renderer = new SqlRenderer(dialect);
         List<DbObserver> observers = observer == null ? List.of() : List.of(observer);
         return new DefaultDb(
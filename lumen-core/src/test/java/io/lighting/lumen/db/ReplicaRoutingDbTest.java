@@ -0,0 +1,137 @@
+package io.lighting.lumen.db;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.lighting.lumen.Lumen;
+import io.lighting.lumen.jdbc.ResultStream;
+import io.lighting.lumen.sql.Bind;
+import io.lighting.lumen.sql.RenderedSql;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.sql.DataSource;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+
+class ReplicaRoutingDbTest {
+    private static final Query WHO = Query.of(new RenderedSql("SELECT NAME FROM NODES", List.of()));
+
+    @Test
+    void routesReadsToReplicasAndEverythingElseToPrimary() throws Exception {
+        Lumen lumen = Lumen.builder()
+            .dataSource(node("routing_primary"))
+            .replicas(List.of(node("routing_r1"), node("routing_r2")))
+            .replicaStickyWindow(Duration.ZERO)
+            .startupLogEnabled(false)
+            .build();
+        ReplicaRoutingDb db = assertInstanceOf(ReplicaRoutingDb.class, lumen.db());
+
+        assertEquals(List.of("routing_r1", "routing_r2", "routing_r1"), List.of(who(db), who(db), who(db)));
+        assertEquals("routing_primary", single(db.fetch(
+            Query.of(new RenderedSql("SELECT NAME FROM NODES FOR UPDATE", List.of())),
+            rs -> rs.getString(1)
+        )));
+
+        db.execute(Command.of(new RenderedSql(
+            "INSERT INTO NODES (NAME) VALUES (?)",
+            List.of(new Bind.Value("written", 0))
+        )));
+        assertEquals(2, count(db.primary()));
+        assertEquals(1, count(db.replicas().get(0)));
+        assertEquals("routing_r2", who(db));
+
+        String inTransaction = lumen.transactionManager().inTransaction(tx -> {
+            tx.execute(Command.of(new RenderedSql("UPDATE NODES SET NAME = NAME", List.of())));
+            return who(lumen.db());
+        });
+        assertEquals("routing_primary", inTransaction);
+    }
+
+    @Test
+    void leastInFlightSkipsReplicasHoldingOpenStreams() throws SQLException {
+        Lumen lumen = Lumen.builder()
+            .dataSource(node("inflight_primary"))
+            .addReplica(node("inflight_r1"))
+            .addReplica(node("inflight_r2"))
+            .replicaBalancer(ReplicaBalancer.leastInFlight())
+            .replicaStickyWindow(Duration.ZERO)
+            .startupLogEnabled(false)
+            .build();
+        ReplicaRoutingDb db = (ReplicaRoutingDb) lumen.db();
+
+        List<String> served = new ArrayList<>();
+        try (ResultStream<String> stream = db.fetchStream(WHO, rs -> rs.getString(1), 10)) {
+            served.add(stream.nextRow());
+            assertEquals(1, db.inFlight(0));
+            served.add(who(db));
+            served.add(who(db));
+        }
+        assertEquals(List.of("inflight_r1", "inflight_r2", "inflight_r2"), served);
+        assertEquals(0, db.inFlight(0));
+        assertEquals(0, db.inFlight(1));
+    }
+
+    @Test
+    void stickyWindowKeepsTheWritingThreadOnPrimary() throws Exception {
+        Lumen lumen = Lumen.builder()
+            .dataSource(node("sticky_primary"))
+            .addReplica(node("sticky_r1"))
+            .replicaStickyWindow(Duration.ofMinutes(1))
+            .startupLogEnabled(false)
+            .build();
+        Db db = lumen.db();
+
+        db.execute(Command.of(new RenderedSql("UPDATE NODES SET NAME = NAME", List.of())));
+        assertEquals("sticky_primary", who(db));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            assertEquals("sticky_r1", executor.submit(() -> who(db)).get());
+            String afterTransaction = executor.submit(() -> {
+                lumen.transactionManager().inTransaction(tx -> tx.execute(
+                    Command.of(new RenderedSql("UPDATE NODES SET NAME = NAME", List.of()))
+                ));
+                return who(db);
+            }).get();
+            assertEquals("sticky_primary", afterTransaction);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThrows(IllegalStateException.class, () -> Lumen.builder()
+            .db(db)
+            .addReplica(node("sticky_r1"))
+            .startupLogEnabled(false)
+            .build());
+    }
+
+    private static String who(Db db) throws SQLException {
+        return db.fetch(WHO, rs -> rs.getString(1)).get(0);
+    }
+
+    private static long count(Db db) throws SQLException {
+        return single(db.fetch(Query.of(new RenderedSql("SELECT COUNT(*) FROM NODES", List.of())), rs -> rs.getLong(1)));
+    }
+
+    private static <T> T single(List<T> rows) {
+        assertEquals(1, rows.size());
+        return rows.get(0);
+    }
+
+    private static DataSource node(String name) throws SQLException {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        Db db = Lumen.builder().dataSource(dataSource).startupLogEnabled(false).build().db();
+        db.execute(Command.of(new RenderedSql("DROP TABLE IF EXISTS NODES", List.of())));
+        db.execute(Command.of(new RenderedSql("CREATE TABLE NODES (NAME VARCHAR(32))", List.of())));
+        db.execute(Command.of(new RenderedSql(
+            "INSERT INTO NODES (NAME) VALUES (?)",
+            List.of(new Bind.Value(name, 0))
+        )));
+        return dataSource;
+    }
+}
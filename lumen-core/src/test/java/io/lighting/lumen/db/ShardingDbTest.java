@@ -0,0 +1,276 @@
+package io.lighting.lumen.db;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.lighting.lumen.Lumen;
+import io.lighting.lumen.dao.BaseDao;
+import io.lighting.lumen.dao.DaoContext;
+import io.lighting.lumen.dao.DaoContextProvider;
+import io.lighting.lumen.dsl.Dsl;
+import io.lighting.lumen.meta.Column;
+import io.lighting.lumen.meta.Id;
+import io.lighting.lumen.meta.Table;
+import io.lighting.lumen.page.PageRequest;
+import io.lighting.lumen.page.PageResult;
+import io.lighting.lumen.page.Sort;
+import io.lighting.lumen.sql.Bind;
+import io.lighting.lumen.sql.BatchSql;
+import io.lighting.lumen.sql.Bindings;
+import io.lighting.lumen.sql.RenderedSql;
+import io.lighting.lumen.template.EntityNameResolvers;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+
+class ShardingDbTest {
+    @Test
+    void routesDaoCrudByShardKeyAndMergesScatteredPages() throws SQLException {
+        Lumen first = shard("sharding_dao_0", "ORDERS_0", "ORDERS_1");
+        Lumen second = shard("sharding_dao_1", "ORDERS_2", "ORDERS_3");
+        AtomicInteger secondFetches = new AtomicInteger();
+        ShardingRule rule = ShardingRule.builder(first.metaRegistry().metaOf(Order.class), "userId")
+            .node(0, "ORDERS_0")
+            .node(0, "ORDERS_1")
+            .node(1, "ORDERS_2")
+            .node(1, "ORDERS_3")
+            .build();
+        ShardingDb db = ShardingDb.builder(first.renderer())
+            .addDb(first.db())
+            .addDb(counting(second.db(), secondFetches))
+            .rule(rule)
+            .metaRegistry(first.metaRegistry())
+            .entityNameResolver(EntityNameResolvers.from(Map.of("Order", Order.class)))
+            .build();
+        OrderDao dao = new OrderDao(DaoContext.of(db, first.renderer(), first.metaRegistry()));
+
+        for (long id = 1; id <= 8; id++) {
+            dao.insert(new Order(id, id, (int) (id * 10)));
+        }
+        assertEquals(List.of(4L, 8L), ids(first.db(), "ORDERS_0"));
+        assertEquals(List.of(1L, 5L), ids(first.db(), "ORDERS_1"));
+        assertEquals(List.of(2L, 6L), ids(second.db(), "ORDERS_2"));
+        assertEquals(List.of(3L, 7L), ids(second.db(), "ORDERS_3"));
+
+        Dsl dsl = new Dsl(first.metaRegistry());
+        io.lighting.lumen.dsl.Table orders = dsl.table(Order.class);
+        List<Order> owned = db.fetch(
+            Query.of(dsl.select(orders.col("id").expr(), orders.col("userId").expr(), orders.col("amount").expr())
+                .from(orders)
+                .where(orders.col("userId").in(1L, 5L))
+                .build(), Bindings.empty()),
+            Order.class
+        );
+        assertEquals(List.of(1L, 5L), owned.stream().map(order -> order.id).toList());
+        assertEquals(0, secondFetches.get());
+
+        Order order = dao.selectById(6L);
+        assertEquals(60, order.amount);
+        order.amount = 61;
+        assertEquals(1, dao.updateById(order));
+        assertEquals(61, dao.selectById(6L).amount);
+        Command move = Command.of(dsl.update(orders)
+            .set(orders.col("userId"), 7L)
+            .where(orders.col("userId").eq(6L))
+            .build(), Bindings.empty());
+        assertThrows(IllegalArgumentException.class, () -> db.execute(move));
+        Command keep = Command.of(dsl.update(orders)
+            .set(orders.col("userId"), 6L)
+            .set(orders.col("amount"), 62)
+            .where(orders.col("userId").eq(6L))
+            .build(), Bindings.empty());
+        assertEquals(1, db.execute(keep));
+        assertEquals(62, dao.selectById(6L).amount);
+
+        PageResult<Order> page = dao.selectPage(PageRequest.of(2, 3, Sort.desc("amount")));
+        assertEquals(8, page.total());
+        assertEquals(List.of(5L, 4L, 3L), page.items().stream().map(item -> item.id).toList());
+
+        assertEquals(1, dao.deleteById(7L));
+        assertNull(dao.selectById(7L));
+        assertEquals(2, dao.deleteBatchIds(List.of(1L, 2L)));
+        assertEquals(5, dao.selectList().size());
+
+        List<Long> large = new ArrayList<>(db.run(
+            "SELECT ID FROM @table(Order) WHERE AMOUNT > :min",
+            Bindings.of("min", 45),
+            rs -> rs.getLong(1)
+        ));
+        large.sort(null);
+        assertEquals(List.of(5L, 6L, 8L), large);
+        assertThrows(UnsupportedOperationException.class, () -> db.bulkLoader().load(
+            Order.class,
+            List.of(new Order(9L, 9L, 90)).iterator()
+        ));
+    }
+
+    @Test
+    void routesRenderedBatchesAndBroadcastsUnroutedWrites() throws SQLException {
+        Lumen first = shard("sharding_batch_0", "ORDERS_0");
+        Lumen second = shard("sharding_batch_1", "ORDERS_1");
+        ShardingDb db = ShardingDb.builder(first.renderer())
+            .addDb(first.db())
+            .addDb(second.db())
+            .rule(ShardingRule.builder("ORDERS", "USER_ID")
+                .strategy(ShardStrategy.range(100L))
+                .node(0, "ORDERS_0")
+                .node(1, "ORDERS_1")
+                .build())
+            .build();
+
+        BatchSql batch = BatchSql.builder(new RenderedSql(
+                "INSERT INTO \"ORDERS\" (\"ID\", \"USER_ID\", \"AMOUNT\") VALUES (?, ?, ?)",
+                List.of()
+            ))
+            .add(row(1L, 10L, 1))
+            .add(row(2L, 150L, 2))
+            .add(row(3L, 99L, 3))
+            .build();
+        assertArrayEquals(new int[] {1, 1, 1}, db.executeBatch(batch));
+        assertEquals(List.of(1L, 3L), ids(first.db(), "ORDERS_0"));
+        assertEquals(List.of(2L), ids(second.db(), "ORDERS_1"));
+
+        int updated = db.execute(Command.of(new RenderedSql(
+            "UPDATE ORDERS SET AMOUNT = AMOUNT + 1 WHERE AMOUNT < ?",
+            List.of(new Bind.Value(3, 0))
+        )));
+        assertEquals(2, updated);
+        List<Integer> amounts = db.fetch(
+            Query.of(new RenderedSql("SELECT AMOUNT FROM ORDERS ORDER BY AMOUNT", List.of())),
+            rs -> rs.getInt(1)
+        );
+        assertEquals(List.of(2, 3, 3), amounts);
+
+        assertThrows(IllegalArgumentException.class, () -> db.execute(Command.of(new RenderedSql(
+            "INSERT INTO ORDERS (ID, USER_ID, AMOUNT) VALUES (?, ?, ?), (?, ?, ?)",
+            List.of(
+                new Bind.Value(4L, 0), new Bind.Value(1L, 0), new Bind.Value(0, 0),
+                new Bind.Value(5L, 0), new Bind.Value(500L, 0), new Bind.Value(0, 0)
+            )
+        ))));
+        assertThrows(IllegalStateException.class, () -> ShardStrategy.range(100L).shardOf(1L, 3));
+    }
+
+    @Test
+    void hashesOnlyKeysWithStableHashes() {
+        ShardStrategy hash = ShardStrategy.hash();
+        assertEquals(3, hash.shardOf(-1L, 4));
+        assertEquals(1, hash.shardOf(java.math.BigInteger.valueOf(9), 4));
+        assertEquals(Math.floorMod("user-1".hashCode(), 4), hash.shardOf("user-1", 4));
+        assertEquals(Math.floorMod("PAID".hashCode(), 4), hash.shardOf(Status.PAID, 4));
+        java.util.UUID uuid = new java.util.UUID(5L, 3L);
+        assertEquals(2, hash.shardOf(uuid, 4));
+        assertThrows(IllegalArgumentException.class, () -> hash.shardOf(1.5d, 4));
+        assertThrows(IllegalArgumentException.class, () -> hash.shardOf(new Object(), 4));
+    }
+
+    private enum Status {
+        NEW,
+        PAID
+    }
+
+    @Test
+    void renamesOnlyIdentifiersOutsideLiterals() {
+        assertEquals(
+            "SELECT o.ID FROM \"ORDERS_1\" o WHERE o.NOTE = 'orders' -- orders\n",
+            ShardingDb.renameTables(
+                "SELECT o.ID FROM \"ORDERS\" o WHERE o.NOTE = 'orders' -- orders\n",
+                Map.of("orders", "ORDERS_1")
+            )
+        );
+    }
+
+    private static List<Bind> row(Object... values) {
+        List<Bind> binds = new ArrayList<>(values.length);
+        for (Object value : values) {
+            binds.add(new Bind.Value(value, 0));
+        }
+        return binds;
+    }
+
+    private static List<Long> ids(Db db, String table) throws SQLException {
+        return db.fetch(
+            Query.of(new RenderedSql("SELECT ID FROM " + table + " ORDER BY ID", List.of())),
+            rs -> rs.getLong(1)
+        );
+    }
+
+    private static Db counting(Db db, AtomicInteger fetches) {
+        return (Db) Proxy.newProxyInstance(
+            Db.class.getClassLoader(),
+            new Class<?>[] {Db.class},
+            (proxy, method, args) -> {
+                if (method.getName().equals("fetch")) {
+                    fetches.incrementAndGet();
+                }
+                try {
+                    return method.invoke(db, args);
+                } catch (InvocationTargetException ex) {
+                    throw ex.getCause();
+                }
+            }
+        );
+    }
+
+    private static Lumen shard(String name, String... tables) throws SQLException {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        Lumen lumen = Lumen.builder().dataSource(dataSource).startupLogEnabled(false).build();
+        for (String table : tables) {
+            lumen.db().execute(Command.of(new RenderedSql("DROP TABLE IF EXISTS " + table, List.of())));
+            lumen.db().execute(Command.of(new RenderedSql(
+                "CREATE TABLE " + table + " (ID BIGINT PRIMARY KEY, USER_ID BIGINT, AMOUNT INT)",
+                List.of()
+            )));
+        }
+        return lumen;
+    }
+
+    static final class OrderDao implements BaseDao<Order>, DaoContextProvider {
+        private final DaoContext context;
+
+        OrderDao(DaoContext context) {
+            this.context = context;
+        }
+
+        @Override
+        public DaoContext daoContext() {
+            return context;
+        }
+
+        @Override
+        public Class<Order> entityType() {
+            return Order.class;
+        }
+    }
+
+    @Table(name = "ORDERS")
+    public static final class Order {
+        @Id
+        @Column(name = "ID")
+        public Long id;
+
+        @Column(name = "USER_ID")
+        public Long userId;
+
+        @Column(name = "AMOUNT")
+        public Integer amount;
+
+        public Order() {
+        }
+
+        Order(Long id, Long userId, Integer amount) {
+            this.id = id;
+            this.userId = userId;
+            this.amount = amount;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package io.lighting.lumen.db;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.lighting.lumen.sql.RenderedSql;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class SqlLogTest {
+    private static final RenderedSql SQL = new RenderedSql("SELECT 1", List.of());
+
+    @Test
+    void samplingKeepsSlowStatementsOnly() {
+        List<String> lines = new ArrayList<>();
+        SqlLog log = SqlLog.builder()
+            .slowThreshold(Duration.ofMillis(100))
+            .includeElapsed(true)
+            .sink(lines::add)
+            .build();
+        log.beforeExecute(DbOperation.QUERY, null, SQL);
+        log.afterExecute(DbOperation.QUERY, null, SQL, Duration.ofMillis(5).toNanos(), 1);
+        log.beforeExecute(DbOperation.QUERY, null, SQL);
+        log.afterExecute(DbOperation.QUERY, null, SQL, Duration.ofMillis(150).toNanos(), 1);
+        assertEquals(List.of("SQL: [QUERY] SELECT 1 | binds=[] | elapsed=150000000ns | slow"), lines);
+
+        lines.clear();
+        SqlLog sampled = SqlLog.builder().sampleRate(0.0).sink(lines::add).build();
+        sampled.afterExecute(DbOperation.QUERY, null, SQL, Duration.ofSeconds(10).toNanos(), 1);
+        assertEquals(List.of(), lines);
+        SqlLog all = SqlLog.builder().sampleRate(1.0).sink(lines::add).build();
+        all.beforeExecute(DbOperation.QUERY, null, SQL);
+        all.afterExecute(DbOperation.QUERY, null, SQL, 0L, 1);
+        assertEquals(List.of("SQL: [QUERY] SELECT 1 | binds=[]"), lines);
+    }
+
+    @Test
+    void renderLogIsNotSampled() {
+        List<String> lines = new ArrayList<>();
+        SqlLog log = SqlLog.builder()
+            .logOnRender(true)
+            .logOnExecute(false)
+            .slowThreshold(Duration.ofMillis(100))
+            .sink(lines::add)
+            .build();
+        log.afterRender(DbOperation.QUERY, null, SQL, 0L);
+        assertEquals(List.of("SQL: [QUERY] SELECT 1 | binds=[]"), lines);
+
+        lines.clear();
+        SqlLog sampled = SqlLog.builder().logOnRender(true).sampleRate(0.0).sink(lines::add).build();
+        sampled.afterRender(DbOperation.QUERY, null, SQL, 0L);
+        sampled.afterExecute(DbOperation.QUERY, null, SQL, 0L, 1);
+        assertEquals(List.of("SQL: [QUERY] SELECT 1 | binds=[]"), lines);
+    }
+}
@@ -0,0 +1,136 @@
+package io.lighting.lumen.db;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.lighting.lumen.Lumen;
+import io.lighting.lumen.sql.Bind;
+import io.lighting.lumen.sql.RenderedSql;
+import java.sql.SQLException;
+import java.util.List;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+
+class SqlMetricsTest {
+
+    @Test
+    void fingerprintsNormalizeLiteralsListsAndWhitespace() {
+        assertEquals(
+            "SELECT \"id\" FROM t WHERE name = ? AND age > ? AND id IN (...)",
+            SqlMetrics.fingerprint("SELECT  \"id\"\n FROM t -- trailing\nWHERE name = 'O''Brien' AND age > 42 AND id IN (1, 2, 3)")
+        );
+        assertEquals(
+            SqlMetrics.fingerprint("INSERT INTO t (a, b) VALUES (?, ?)"),
+            SqlMetrics.fingerprint("INSERT INTO t (a, b) VALUES (?, ?), (?, ?), (?, ?)")
+        );
+        assertEquals(
+            "SELECT * FROM t1 WHERE id IN (...) LIMIT ?",
+            SqlMetrics.fingerprint("SELECT * FROM t1 /* hint */ WHERE id IN (?, ?) LIMIT 10")
+        );
+        assertEquals(
+            "INSERT INTO t VALUES (...) ON DUPLICATE KEY UPDATE a = VALUES(a)",
+            SqlMetrics.fingerprint("INSERT INTO t VALUES (?, 'x'),(1,2) ON DUPLICATE KEY UPDATE a = VALUES(a)")
+        );
+        assertEquals(
+            "SELECT (? + ?), \"(?)\" FROM t WHERE (a, b) IN ((...))",
+            SqlMetrics.fingerprint("SELECT (? + 1), \"(?)\" FROM t WHERE (a, b) IN ((?, ?), (?, ?))")
+        );
+    }
+
+    @Test
+    void sqlTextCacheIsBoundedByCharacters() {
+        SqlMetrics metrics = SqlMetrics.builder().maxStatements(1).build();
+        for (int i = 0; i < 100; i++) {
+            RenderedSql sql = new RenderedSql("SELECT * FROM t WHERE id = " + i + " AND note = '" + "x".repeat(200) + "'", List.of());
+            metrics.afterExecute(DbOperation.QUERY, null, sql, 10L, 1);
+        }
+        long cached = metrics.cachedSqlChars();
+        assertTrue(cached > 0 && cached <= SqlMetrics.CACHED_CHARS_PER_STATEMENT);
+        assertEquals(100, metrics.stats("SELECT * FROM t WHERE id = 1 AND note = 'y'").orElseThrow().executions());
+
+        RenderedSql huge = new RenderedSql(
+            "SELECT * FROM t WHERE id IN (" + "?, ".repeat(SqlMetrics.MAX_CACHED_SQL_LENGTH) + "?)",
+            List.of()
+        );
+        metrics.afterExecute(DbOperation.QUERY, null, huge, 10L, 1);
+        assertEquals(cached, metrics.cachedSqlChars());
+    }
+
+    @Test
+    void histogramPercentilesStayWithinBucketError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 1000; micros++) {
+            histogram.record(micros * 1000);
+        }
+        SqlStatementStats.Latency latency = histogram.snapshot();
+        assertEquals(1000, latency.count());
+        assertEquals(1_000_000L, latency.maxNanos());
+        assertEquals(500_500L, latency.meanNanos());
+        assertWithin(500_000L, latency.p50Nanos());
+        assertWithin(950_000L, latency.p95Nanos());
+        assertWithin(990_000L, latency.p99Nanos());
+        for (long value : new long[] {1L, 1023L, 1024L, 1025L, 123_456_789L}) {
+            long upper = LatencyHistogram.upperBound(LatencyHistogram.index(value));
+            assertTrue(value <= upper && upper - value <= Math.max(1023L, value / 8), value + " -> " + upper);
+        }
+        long lastRegular = (1L << 43) - 1;
+        assertEquals(lastRegular, LatencyHistogram.upperBound(LatencyHistogram.index(lastRegular)));
+        assertTrue(LatencyHistogram.index(lastRegular) < LatencyHistogram.index(1L << 43));
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.upperBound(LatencyHistogram.index(Long.MAX_VALUE)));
+    }
+
+    @Test
+    void aggregatesExecutionsRowsAndErrorsPerStatement() throws SQLException {
+        SqlMetrics metrics = SqlMetrics.builder().maxStatements(2).build();
+        Lumen lumen = lumen(metrics);
+        for (long id = 1; id <= 3; id++) {
+            lumen.db().execute(Command.of(new RenderedSql(
+                "INSERT INTO METRICS (ID) VALUES (?)",
+                List.of(new Bind.Value(id, 0))
+            )));
+        }
+        for (int i = 0; i < 4; i++) {
+            lumen.db().fetch(Query.of(new RenderedSql("SELECT ID FROM METRICS", List.of())), rs -> rs.getLong(1));
+        }
+        assertThrows(SQLException.class, () -> lumen.db().fetch(
+            Query.of(new RenderedSql("SELECT NOPE FROM METRICS", List.of())),
+            rs -> rs.getLong(1)
+        ));
+
+        SqlStatementStats insert = metrics.stats("INSERT INTO METRICS (ID) VALUES (42)").orElseThrow();
+        assertEquals(3, insert.executions());
+        assertEquals(3, insert.rows());
+        assertEquals(3, insert.render().count());
+        SqlStatementStats select = metrics.stats("SELECT ID FROM METRICS").orElseThrow();
+        assertEquals(4, select.executions());
+        assertEquals(12, select.rows());
+        assertTrue(select.execute().p99Nanos() <= select.execute().maxNanos());
+        SqlStatementStats other = metrics.snapshot().stream()
+            .filter(stats -> stats.fingerprint().equals(SqlMetrics.OTHER))
+            .findFirst()
+            .orElseThrow();
+        assertEquals(1, other.errors());
+        assertEquals(3, metrics.snapshot().size());
+
+        metrics.reset();
+        assertEquals(List.of(), metrics.snapshot());
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(Math.abs(actual - expected) <= expected / 8, "expected ~" + expected + " but was " + actual);
+    }
+
+    private static Lumen lumen(SqlMetrics metrics) throws SQLException {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:sql_metrics;DB_CLOSE_DELAY=-1");
+        Lumen setup = Lumen.builder().dataSource(dataSource).startupLogEnabled(false).build();
+        setup.db().execute(Command.of(new RenderedSql("DROP TABLE IF EXISTS METRICS", List.of())));
+        setup.db().execute(Command.of(new RenderedSql("CREATE TABLE METRICS (ID BIGINT PRIMARY KEY)", List.of())));
+        return Lumen.builder()
+            .dataSource(dataSource)
+            .observers(List.of(metrics))
+            .startupLogEnabled(false)
+            .build();
+    }
+}
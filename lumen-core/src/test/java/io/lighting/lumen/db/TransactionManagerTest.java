@@ -2,6 +2,9 @@ package io.lighting.lumen.db;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -11,6 +14,8 @@ import io.lighting.lumen.sql.RenderedSql;
 import io.lighting.lumen.sql.SqlRenderer;
 import io.lighting.lumen.sql.dialect.LimitOffsetDialect;
 import io.lighting.lumen.template.EntityNameResolvers;
+import io.lighting.lumen.template.SqlTemplateCache;
+import java.lang.reflect.Field;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
@@ -57,6 +62,57 @@ class TransactionManagerTest {
         assertEquals(List.of(false, true), connectionHandler.autoCommitChanges());
     }
 
+    @Test
+    void clearsThreadScopeWhenOutermostTransactionEnds() throws Exception {
+        PreparedStatementHandler statementHandler = new PreparedStatementHandler(1);
+        ConnectionHandler connectionHandler = new ConnectionHandler(statementHandler.proxy());
+        TransactionManager manager = createManager(connectionHandler.proxy());
+        Field field = TransactionManager.class.getDeclaredField("SCOPE");
+        field.setAccessible(true);
+        ThreadLocal<?> scope = (ThreadLocal<?>) field.get(null);
+
+        manager.inTransaction(outer -> {
+            manager.inTransaction(inner -> null);
+            assertTrue(TransactionManager.isActive());
+            assertNotNull(scope.get());
+            return null;
+        });
+
+        assertFalse(TransactionManager.isActive());
+        assertNull(scope.get());
+        assertNotNull(TransactionManager.lastCompletedNanos());
+    }
+
+    @Test
+    void builderPassesOptionsToTransactionalDb() throws SQLException {
+        PreparedStatementHandler statementHandler = new PreparedStatementHandler(1);
+        ConnectionHandler connectionHandler = new ConnectionHandler(statementHandler.proxy());
+        DataSource dataSource = new DataSourceHandler(connectionHandler.proxy()).proxy();
+        LimitOffsetDialect dialect = new LimitOffsetDialect("\"");
+        SqlTemplateCache templateCache = SqlTemplateCache.builder().build();
+        TransactionManager manager = TransactionManager.builder(
+                dataSource,
+                new SqlRenderer(dialect),
+                dialect,
+                new TestEntityMetaRegistry(),
+                EntityNameResolvers.from(Map.of())
+            )
+            .statementCacheSize(0)
+            .templateCache(templateCache)
+            .build();
+
+        SqlTemplateCache used = manager.inTransaction(db -> ((DefaultDb) db).templateCache());
+
+        assertSame(templateCache, used);
+        assertThrows(IllegalArgumentException.class, () -> TransactionManager.builder(
+            dataSource,
+            new SqlRenderer(dialect),
+            dialect,
+            new TestEntityMetaRegistry(),
+            EntityNameResolvers.from(Map.of())
+        ).statementCacheSize(-1));
+    }
+
     private TransactionManager createManager(Connection connection) {
         DataSource dataSource = new DataSourceHandler(connection).proxy();
         LimitOffsetDialect dialect = new LimitOffsetDialect("\"");
@@ -1,12 +1,21 @@
 package io.lighting.lumen.id;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
 import org.junit.jupiter.api.Test;
 
 class IdGeneratorsTest {
@@ -51,6 +60,76 @@ class IdGeneratorsTest {
         assertThrows(IllegalStateException.class, generator::nextId);
     }
 
+    @Test
+    void snowflakeKeepsBitLayoutAndLeasesContiguousRanges() {
+        TestClock clock = new TestClock(1_000);
+        SnowflakeIdGenerator generator = SnowflakeIdGenerator.builder()
+            .clock(clock::get)
+            .epoch(0)
+            .workerId(3)
+            .datacenterId(2)
+            .build();
+
+        long node = (2L << 17) | (3L << 12);
+        assertEquals((1_000L << 22) | node, generator.nextLong());
+        long[] ids = generator.nextIds(4_096);
+        assertEquals((1_000L << 22) | node | 1, ids[0]);
+        assertEquals((1_001L << 22) | node, ids[4_095]);
+        for (int i = 1; i < ids.length; i++) {
+            assertTrue(ids[i] > ids[i - 1]);
+        }
+        LongSupplier lease = generator.lease(2);
+        assertEquals(ids[4_095] + 1, lease.getAsLong());
+        assertEquals(ids[4_095] + 2, lease.getAsLong());
+        assertEquals(ids[4_095] + 3, generator.nextLong());
+        assertEquals(ids[4_095] + 4, lease.getAsLong());
+
+        clock.set(1_002);
+        assertEquals((1_002L << 22) | node, generator.nextLong());
+        assertThrows(IllegalArgumentException.class, () -> generator.nextIds(4_097));
+        assertThrows(IllegalArgumentException.class, () -> generator.nextIds(0));
+    }
+
+    @Test
+    void snowflakeWaitsInsteadOfRunningAheadOfTheClock() throws Exception {
+        TestClock clock = new TestClock(1_000);
+        SnowflakeIdGenerator generator = SnowflakeIdGenerator.builder()
+            .clock(clock::get)
+            .epoch(0)
+            .build();
+        generator.nextIds(4_096);
+        generator.nextIds(4_096);
+
+        CompletableFuture<long[]> third = CompletableFuture.supplyAsync(() -> generator.nextIds(4_096));
+        Thread.sleep(50);
+        assertFalse(third.isDone());
+        clock.set(1_001);
+        assertEquals(1_002L, third.get(5, TimeUnit.SECONDS)[4_095] >>> 22);
+    }
+
+    @Test
+    void snowflakeIsUniqueAcrossThreads() throws InterruptedException {
+        SnowflakeIdGenerator generator = SnowflakeIdGenerator.builder().build();
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            boolean leased = t % 2 == 0;
+            threads.add(new Thread(() -> {
+                LongSupplier lease = generator.lease(64);
+                for (int i = 0; i < 10_000; i++) {
+                    ids.add(leased ? lease.getAsLong() : generator.nextLong());
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(80_000, ids.size());
+    }
+
     @Test
     void strategyMappingResolvesGenerators() {
         assertNull(IdGenerators.forStrategy(io.lighting.lumen.meta.IdStrategy.AUTO).nextId());
@@ -59,7 +138,7 @@ class IdGeneratorsTest {
     }
 
     private static final class TestClock {
-        private long value;
+        private volatile long value;
 
         private TestClock(long value) {
             this.value = value;
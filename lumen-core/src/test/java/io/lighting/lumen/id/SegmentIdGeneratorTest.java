@@ -0,0 +1,170 @@
+package io.lighting.lumen.id;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.lighting.lumen.Lumen;
+import io.lighting.lumen.dao.BaseDao;
+import io.lighting.lumen.dao.DaoContext;
+import io.lighting.lumen.dao.DaoContextProvider;
+import io.lighting.lumen.db.Command;
+import io.lighting.lumen.db.Query;
+import io.lighting.lumen.meta.Column;
+import io.lighting.lumen.meta.Id;
+import io.lighting.lumen.meta.IdStrategy;
+import io.lighting.lumen.meta.Table;
+import io.lighting.lumen.sql.Bind;
+import io.lighting.lumen.sql.RenderedSql;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+
+class SegmentIdGeneratorTest {
+
+    @Test
+    void allocatesBlocksAndPrefetchesNextBlockInBackground() throws Exception {
+        JdbcDataSource dataSource = dataSource("segment_prefetch");
+        Lumen lumen = lumen(dataSource);
+        CountDownLatch prefetched = new CountDownLatch(1);
+        SegmentIdGenerator generator = SegmentIdGenerator.builder(dataSource)
+            .name("orders")
+            .step(10)
+            .executor(task -> new Thread(() -> {
+                task.run();
+                prefetched.countDown();
+            }).start())
+            .build();
+        SegmentIdGenerator other = SegmentIdGenerator.builder(dataSource).name("orders").step(10).build();
+
+        for (long expected = 1; expected <= 8; expected++) {
+            assertEquals(expected, generator.nextLong());
+        }
+        assertEquals(11L, nextId(lumen, "orders"));
+        assertEquals(1, prefetched.getCount());
+        assertEquals(9L, generator.nextLong());
+        assertTrue(prefetched.await(5, TimeUnit.SECONDS));
+        assertEquals(21L, nextId(lumen, "orders"));
+
+        // 另一个节点领取的号段与预取段不重叠
+        assertEquals(21L, other.nextLong());
+        assertEquals(10L, generator.nextLong());
+        assertEquals(11L, generator.nextLong());
+        assertEquals(31L, nextId(lumen, "orders"));
+    }
+
+    @Test
+    void issuesUniqueIdsAcrossThreads() throws Exception {
+        JdbcDataSource dataSource = dataSource("segment_threads");
+        lumen(dataSource);
+        SegmentIdGenerator generator = SegmentIdGenerator.builder(dataSource).step(50).build();
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 1_000; i++) {
+                    ids.add(generator.nextLong());
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(8_000, ids.size());
+
+        JdbcDataSource missing = dataSource("segment_missing_table");
+        SegmentIdGenerator broken = SegmentIdGenerator.builder(missing).build();
+        assertThrows(IllegalStateException.class, broken::nextLong);
+        assertThrows(IllegalArgumentException.class, () -> SegmentIdGenerator.builder(missing).table("t; DROP"));
+    }
+
+    @Test
+    void batchInsertAssignsSegmentIdsPerTable() throws SQLException {
+        JdbcDataSource dataSource = dataSource("segment_dao");
+        Lumen lumen = lumen(dataSource);
+        lumen.db().execute(Command.of(new RenderedSql(
+            "CREATE TABLE SEGMENT_ITEMS (ID BIGINT PRIMARY KEY, NAME VARCHAR(50))",
+            List.of()
+        )));
+        SegmentItemDao dao = new SegmentItemDao(lumen);
+
+        List<SegmentItem> items = List.of(new SegmentItem("a"), new SegmentItem("b"), new SegmentItem("c"));
+        assertEquals(3, dao.insertBatch(items));
+        assertEquals(List.of(1L, 2L, 3L), items.stream().map(item -> item.id).toList());
+        SegmentItem single = new SegmentItem("d");
+        dao.insert(single);
+        assertEquals(4L, single.id);
+        assertEquals(1L + SegmentIdGenerator.DEFAULT_STEP, nextId(lumen, "SEGMENT_ITEMS"));
+        assertThrows(IllegalStateException.class,
+            () -> new EntityIdGenerator(lumen.metaRegistry()).generate(SegmentItem.class));
+    }
+
+    private static long nextId(Lumen lumen, String name) throws SQLException {
+        return lumen.db().fetch(
+            Query.of(new RenderedSql(
+                "SELECT next_id FROM lumen_id_segment WHERE id_name = ?",
+                List.of(new Bind.Value(name, 0))
+            )),
+            rs -> rs.getLong(1)
+        ).get(0);
+    }
+
+    private static Lumen lumen(JdbcDataSource dataSource) throws SQLException {
+        Lumen lumen = Lumen.builder().dataSource(dataSource).startupLogEnabled(false).build();
+        lumen.db().execute(Command.of(new RenderedSql(
+            "CREATE TABLE lumen_id_segment (id_name VARCHAR(128) PRIMARY KEY, next_id BIGINT NOT NULL)",
+            List.of()
+        )));
+        return lumen;
+    }
+
+    private static JdbcDataSource dataSource(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        return dataSource;
+    }
+
+    static final class SegmentItemDao implements BaseDao<SegmentItem>, DaoContextProvider {
+        private final DaoContext context;
+
+        SegmentItemDao(Lumen lumen) {
+            this.context = DaoContext.of(lumen.db(), lumen.renderer(), lumen.metaRegistry(), lumen.idGeneratorProvider());
+        }
+
+        @Override
+        public DaoContext daoContext() {
+            return context;
+        }
+
+        @Override
+        public Class<SegmentItem> entityType() {
+            return SegmentItem.class;
+        }
+    }
+
+    @Table(name = "SEGMENT_ITEMS")
+    static final class SegmentItem {
+        @Id(strategy = IdStrategy.SEGMENT)
+        @Column(name = "ID")
+        Long id;
+
+        @Column(name = "NAME")
+        String name;
+
+        SegmentItem() {
+        }
+
+        SegmentItem(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -12,6 +12,8 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 import javax.sql.DataSource;
 import org.junit.jupiter.api.Test;
@@ -62,6 +64,40 @@ class JdbcExecutorBatchTest {
         assertEquals(0, statementHandler.executeBatchCalls());
     }
 
+    @Test
+    void streamsRowsAndReportsEachChunk() throws SQLException {
+        PreparedStatementHandler statementHandler = new PreparedStatementHandler(
+            List.of(new int[] { 1, 1 }, new int[] { 1, 0 }, new int[] { 1 })
+        );
+        ConnectionHandler connectionHandler = new ConnectionHandler(statementHandler.proxy());
+        JdbcExecutor executor = new JdbcExecutor(new DataSourceHandler(connectionHandler.proxy()).proxy());
+        RenderedSql template = new RenderedSql("UPDATE t SET v=?", List.of());
+        int[] produced = new int[1];
+        Iterator<List<Bind>> rows = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return produced[0] < 5;
+            }
+
+            @Override
+            public List<Bind> next() {
+                produced[0]++;
+                return List.of(new Bind.Value(produced[0], 0));
+            }
+        };
+        List<String> chunks = new ArrayList<>();
+
+        long submitted = executor.executeBatch(template, rows, 2, (firstRow, counts) -> {
+            // 每块提交时迭代器只前进到当前块末尾
+            assertEquals(firstRow + counts.length, produced[0]);
+            chunks.add(firstRow + ":" + Arrays.toString(counts));
+        });
+
+        assertEquals(5L, submitted);
+        assertEquals(List.of("0:[1, 1]", "2:[1, 0]", "4:[1]"), chunks);
+        assertEquals(3, statementHandler.executeBatchCalls());
+    }
+
     private record BoundParam(Object value, int jdbcType, String method) {
     }
 
@@ -4,6 +4,8 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import io.lighting.lumen.sql.Bind;
+import io.lighting.lumen.sql.GeneratedKeyStrategy;
+import io.lighting.lumen.sql.MultiRowInsert;
 import io.lighting.lumen.sql.RenderedSql;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
@@ -12,6 +14,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 import javax.sql.DataSource;
 import org.junit.jupiter.api.Test;
@@ -49,6 +52,29 @@ class JdbcExecutorGeneratedKeyTest {
         );
     }
 
+    @Test
+    void readsKeysFromReturningInsertChunks() throws SQLException {
+        ResultSetHandler keys = new ResultSetHandler(List.<Object[]>of(
+            new Object[] { 1L }, new Object[] { 2L }, new Object[] { 3L }
+        ));
+        PreparedStatementHandler statementHandler = new PreparedStatementHandler(keys.proxy());
+        ConnectionHandler connectionHandler = new ConnectionHandler(statementHandler);
+        JdbcExecutor executor = new JdbcExecutor(new DataSourceHandler(connectionHandler.proxy()).proxy());
+        MultiRowInsert insert = MultiRowInsert.parse("INSERT INTO t(v) VALUES (?)")
+            .returning(GeneratedKeyStrategy.RETURNING, "id");
+
+        List<Long> ids = executor.executeReturningInsert(
+            insert,
+            List.of(List.of(new Bind.Value("a", 0)), List.of(new Bind.Value("b", 0)), List.of(new Bind.Value("c", 0))),
+            3,
+            rs -> rs.getLong(1)
+        );
+
+        assertEquals(List.of(1L, 2L, 3L), ids);
+        assertEquals(List.of("INSERT INTO t(v) VALUES (?), (?), (?) RETURNING id"), connectionHandler.preparedSql());
+        assertEquals(true, keys.closed());
+    }
+
     private static final class ResultSetHandler implements InvocationHandler {
         private final List<Object[]> rows;
         private int index = -1;
@@ -141,7 +167,7 @@ class JdbcExecutorGeneratedKeyTest {
                     executeUpdateCalls++;
                     yield 1;
                 }
-                case "getGeneratedKeys" -> generatedKeys;
+                case "getGeneratedKeys", "executeQuery" -> generatedKeys;
                 case "close" -> {
                     closed = true;
                     yield null;
@@ -154,12 +180,17 @@ class JdbcExecutorGeneratedKeyTest {
 
     private static final class ConnectionHandler implements InvocationHandler {
         private final PreparedStatementHandler statementHandler;
+        private final List<String> preparedSql = new ArrayList<>();
         private boolean closed;
 
         private ConnectionHandler(PreparedStatementHandler statementHandler) {
             this.statementHandler = statementHandler;
         }
 
+        private List<String> preparedSql() {
+            return preparedSql;
+        }
+
         private Connection proxy() {
             return (Connection) Proxy.newProxyInstance(
                 Connection.class.getClassLoader(),
@@ -180,6 +211,10 @@ class JdbcExecutorGeneratedKeyTest {
                 statementHandler.setGeneratedColumns(cols);
                 return statementHandler.proxy();
             }
+            if (method.getName().equals("prepareStatement") && args.length == 1) {
+                preparedSql.add((String) args[0]);
+                return statementHandler.proxy();
+            }
             return switch (method.getName()) {
                 case "close" -> {
                     closed = true;
@@ -0,0 +1,102 @@
+package io.lighting.lumen.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.lighting.lumen.meta.Column;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.h2.tools.SimpleResultSet;
+import org.junit.jupiter.api.Test;
+
+class RowMappersPlanTest {
+    @Test
+    void readsMetadataOncePerResultSet() throws SQLException {
+        AtomicInteger metadataCalls = new AtomicInteger();
+        ResultSet resultSet = countingMetadata(rows(3), metadataCalls);
+
+        RowMapper<PlanRecord> mapper = RowMappers.auto(PlanRecord.class).forResultSet(resultSet);
+        List<PlanRecord> records = new ArrayList<>();
+        while (resultSet.next()) {
+            records.add(mapper.map(resultSet));
+        }
+
+        assertEquals(1, metadataCalls.get());
+        assertEquals(List.of(new PlanRecord(1L, "n1"), new PlanRecord(2L, "n2"), new PlanRecord(3L, "n3")), records);
+    }
+
+    @Test
+    void reusesPlanForDirectCallsUntilResultSetChanges() throws SQLException {
+        RowMapper<PlanBean> mapper = RowMappers.auto(PlanBean.class);
+        AtomicInteger metadataCalls = new AtomicInteger();
+        ResultSet first = countingMetadata(rows(2), metadataCalls);
+        while (first.next()) {
+            mapper.map(first);
+        }
+        assertEquals(1, metadataCalls.get());
+
+        ResultSet second = countingMetadata(rows(1), metadataCalls);
+        second.next();
+        PlanBean bean = mapper.map(second);
+
+        assertEquals(2, metadataCalls.get());
+        assertEquals(1L, bean.id);
+        assertEquals("n1", bean.name);
+    }
+
+    @Test
+    void leavesUnmatchedSlotsAtDefaults() throws SQLException {
+        SimpleResultSet resultSet = new SimpleResultSet();
+        resultSet.addColumn("ID", Types.BIGINT, 0, 0);
+        resultSet.addRow(7L);
+        resultSet.next();
+
+        PlanRecord record = RowMappers.auto(PlanRecord.class).map(resultSet);
+        PlanBean bean = RowMappers.auto(PlanBean.class).map(resultSet);
+
+        assertEquals(new PlanRecord(7L, null), record);
+        assertEquals(7L, bean.id);
+        assertEquals(null, bean.name);
+    }
+
+    private static SimpleResultSet rows(int count) {
+        SimpleResultSet resultSet = new SimpleResultSet();
+        resultSet.addColumn("ID", Types.BIGINT, 0, 0);
+        resultSet.addColumn("ORDER_NAME", Types.VARCHAR, 0, 0);
+        for (int i = 1; i <= count; i++) {
+            resultSet.addRow((long) i, "n" + i);
+        }
+        return resultSet;
+    }
+
+    private static ResultSet countingMetadata(ResultSet delegate, AtomicInteger calls) {
+        return (ResultSet) Proxy.newProxyInstance(
+            ResultSet.class.getClassLoader(),
+            new Class<?>[] { ResultSet.class },
+            (proxy, method, args) -> {
+                if (method.getName().equals("getMetaData")) {
+                    calls.incrementAndGet();
+                }
+                try {
+                    return method.invoke(delegate, args);
+                } catch (InvocationTargetException ex) {
+                    throw ex.getCause();
+                }
+            }
+        );
+    }
+
+    record PlanRecord(long id, @Column(name = "order_name") String name) {
+    }
+
+    static class PlanBean {
+        long id;
+        @Column(name = "order_name")
+        String name;
+    }
+}
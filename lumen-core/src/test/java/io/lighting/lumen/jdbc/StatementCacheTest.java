@@ -0,0 +1,136 @@
+package io.lighting.lumen.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.lighting.lumen.db.Command;
+import io.lighting.lumen.db.Query;
+import io.lighting.lumen.db.TransactionManager;
+import io.lighting.lumen.meta.TestEntityMetaRegistry;
+import io.lighting.lumen.sql.Bind;
+import io.lighting.lumen.sql.RenderedSql;
+import io.lighting.lumen.sql.SqlRenderer;
+import io.lighting.lumen.sql.dialect.LimitOffsetDialect;
+import io.lighting.lumen.template.EntityNameResolvers;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class StatementCacheTest {
+    private JdbcDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:statement_cache;DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS items");
+            statement.execute("CREATE TABLE items (id INT PRIMARY KEY, name VARCHAR(32))");
+        }
+    }
+
+    @Test
+    void reusesStatementsOnBoundConnection() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            JdbcExecutor executor = new JdbcExecutor(connection, 8);
+            for (int i = 1; i <= 5; i++) {
+                executor.execute(new RenderedSql(
+                    "INSERT INTO items(id, name) VALUES (?, ?)",
+                    List.of(new Bind.Value(i, 0), new Bind.Value("n" + i, 0))
+                ));
+            }
+            RenderedSql select = new RenderedSql("SELECT name FROM items WHERE id = ?", List.of(new Bind.Value(3, 0)));
+            assertEquals(List.of("n3"), executor.fetch(select, rs -> rs.getString(1)));
+            assertEquals(List.of("n3"), executor.fetch(select, rs -> rs.getString(1)));
+            executor.executeBatch(
+                new RenderedSql("UPDATE items SET name = ? WHERE id = ?", List.of()),
+                List.of(
+                    List.of(new Bind.Value("x", 0), new Bind.Value(1, 0)),
+                    List.of(new Bind.Value("y", 0), new Bind.Value(2, 0))
+                ),
+                10
+            );
+
+            assertEquals(new StatementCacheStats(5, 3, 0), executor.statementCacheStats());
+            executor.closeStatementCache();
+        }
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedStatement() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            StatementCache cache = new StatementCache(2);
+            PreparedStatement a = cache.acquire(connection, "SELECT 1");
+            cache.release("SELECT 1", a);
+            PreparedStatement b = cache.acquire(connection, "SELECT 2");
+            cache.release("SELECT 2", b);
+            cache.release("SELECT 1", cache.acquire(connection, "SELECT 1"));
+            PreparedStatement c = cache.acquire(connection, "SELECT 3");
+            cache.release("SELECT 3", c);
+
+            assertTrue(b.isClosed());
+            assertFalse(a.isClosed());
+            assertEquals(2, cache.size());
+            assertEquals(new StatementCacheStats(1, 3, 1), cache.stats());
+
+            cache.close();
+            assertTrue(a.isClosed());
+            assertTrue(c.isClosed());
+            assertEquals(0, cache.size());
+        }
+    }
+
+    @Test
+    void nestedUseOfSameSqlPreparesSeparateStatement() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            StatementCache cache = new StatementCache(4);
+            PreparedStatement outer = cache.acquire(connection, "SELECT 1");
+            PreparedStatement inner = cache.acquire(connection, "SELECT 1");
+            cache.release("SELECT 1", inner);
+            cache.release("SELECT 1", outer);
+
+            assertFalse(outer == inner);
+            assertFalse(inner.isClosed());
+            assertTrue(outer.isClosed());
+            assertEquals(1, cache.size());
+            cache.close();
+        }
+    }
+
+    @Test
+    void transactionManagerAccumulatesCacheStats() throws SQLException {
+        LimitOffsetDialect dialect = new LimitOffsetDialect("\"");
+        TransactionManager manager = new TransactionManager(
+            dataSource,
+            new SqlRenderer(dialect),
+            dialect,
+            new TestEntityMetaRegistry(),
+            EntityNameResolvers.from(Map.of())
+        );
+
+        int total = manager.inTransaction(db -> {
+            int rows = 0;
+            for (int i = 1; i <= 10; i++) {
+                rows += db.execute(Command.of(new RenderedSql(
+                    "INSERT INTO items(id, name) VALUES (?, ?)",
+                    List.of(new Bind.Value(i, 0), new Bind.Value("n" + i, 0))
+                )));
+            }
+            return rows + db.fetch(
+                Query.of(new RenderedSql("SELECT id FROM items", List.of())),
+                rs -> rs.getInt(1)
+            ).size();
+        });
+
+        assertEquals(20, total);
+        assertEquals(new StatementCacheStats(9, 2, 0), manager.statementCacheStats());
+    }
+}
@@ -0,0 +1,64 @@
+package io.lighting.lumen.meta;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class EntityAccessorsTest {
+    @Test
+    void createsInstancesAndAccessesInheritedFields() {
+        EntityAccessors<Child> accessors = EntityAccessors.of(Child.class);
+
+        Child child = accessors.newInstance();
+        accessors.field("id").set(child, 42);
+        accessors.field("name").set(child, "lumen");
+        accessors.field("score").setDouble(child, 1.5d);
+
+        assertSame(accessors, EntityAccessors.of(Child.class));
+        assertEquals(42L, child.id);
+        assertEquals("lumen", accessors.field("name").get(child));
+        assertEquals(1.5d, child.score);
+        assertEquals(List.of("name", "score", "id"), accessors.fields().stream().map(FieldAccessor::name).toList());
+        assertNull(accessors.findField("COUNTER"));
+    }
+
+    @Test
+    void rejectsIncompatibleValuesLikeFieldSet() {
+        EntityAccessors<Child> accessors = EntityAccessors.of(Child.class);
+        Child child = accessors.newInstance();
+
+        assertThrows(IllegalArgumentException.class, () -> accessors.field("id").set(child, "x"));
+        assertThrows(IllegalArgumentException.class, () -> accessors.field("id").set(child, null));
+        assertThrows(IllegalArgumentException.class, () -> accessors.field("score").setLong(child, 1L));
+        assertThrows(IllegalArgumentException.class, () -> accessors.field("missing"));
+    }
+
+    @Test
+    void invokesAllArgsConstructorsWithUnboxing() {
+        ConstructorAccessor<Point> ctor = EntityAccessors.of(Point.class).constructor(long.class, String.class);
+
+        assertEquals(new Point(3L, "p"), ctor.newInstance(3L, "p"));
+        assertThrows(IllegalStateException.class, () -> EntityAccessors.of(Point.class).newInstance());
+        assertThrows(IllegalStateException.class, () -> EntityAccessors.of(Point.class).field("id").set(new Point(1L, "a"), 2L));
+    }
+
+    static class Base {
+        static int COUNTER;
+        long id;
+    }
+
+    static class Child extends Base {
+        private String name;
+        private double score;
+
+        private Child() {
+        }
+    }
+
+    record Point(long id, String label) {
+    }
+}
@@ -0,0 +1,178 @@
+package io.lighting.lumen.page;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.lighting.lumen.Lumen;
+import io.lighting.lumen.dao.BaseDao;
+import io.lighting.lumen.dao.DaoContext;
+import io.lighting.lumen.dao.DaoContextProvider;
+import io.lighting.lumen.db.Command;
+import io.lighting.lumen.meta.Column;
+import io.lighting.lumen.meta.Id;
+import io.lighting.lumen.meta.Table;
+import io.lighting.lumen.sql.Bind;
+import io.lighting.lumen.sql.Bindings;
+import io.lighting.lumen.sql.RenderedSql;
+import io.lighting.lumen.sql.SqlRenderer;
+import io.lighting.lumen.sql.ast.Expr;
+import io.lighting.lumen.sql.ast.OrderItem;
+import io.lighting.lumen.sql.dialect.LimitOffsetDialect;
+import io.lighting.lumen.sql.dialect.OffsetFetchDialect;
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+
+class KeysetPaginationTest {
+    private static final List<Long> BY_SCORE_DESC = List.of(6L, 3L, 5L, 1L, 7L, 4L, 2L);
+
+    @Test
+    void cursorRoundTripsTypedValues() {
+        List<Object> values = List.of(
+            42, 7L, new BigDecimal("1.50"), "naïve", true,
+            UUID.fromString("123e4567-e89b-12d3-a456-426614174000"),
+            Timestamp.valueOf("2024-01-02 03:04:05.123456789"), LocalDate.of(2024, 2, 29)
+        );
+        assertEquals(values, KeysetCursor.decode(KeysetCursor.encode(values)));
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("not-a-cursor"));
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.encode(1L, null));
+    }
+
+    @Test
+    void rendersRowValuesOrExpandedFormPerDialect() {
+        List<OrderItem> keys = List.of(
+            new OrderItem(new Expr.Column(null, "SCORE"), false),
+            new OrderItem(new Expr.Column(null, "ID"), false)
+        );
+        Expr seek = KeysetSql.seek(keys, List.of(10, 5L));
+
+        RenderedSql rowValue = new SqlRenderer(new LimitOffsetDialect("\"")).render(seek, Bindings.empty());
+        assertEquals("(\"SCORE\", \"ID\") < (?, ?)", rowValue.sql());
+
+        RenderedSql expanded = new SqlRenderer(new OffsetFetchDialect("oracle", "\"", "\"", false))
+            .render(seek, Bindings.empty());
+        assertEquals("(\"SCORE\" <= ? AND (\"SCORE\" < ? OR (\"SCORE\" = ? AND \"ID\" < ?)))", expanded.sql());
+        assertEquals(
+            List.of(new Bind.Value(10, 0), new Bind.Value(10, 0), new Bind.Value(10, 0), new Bind.Value(5L, 0)),
+            expanded.binds()
+        );
+
+        Expr mixed = KeysetSql.seek(
+            List.of(keys.get(0), new OrderItem(new Expr.Column(null, "ID"), true)),
+            List.of(10, 5L)
+        );
+        assertEquals(
+            "(\"SCORE\" <= ? AND (\"SCORE\" < ? OR (\"SCORE\" = ? AND \"ID\" > ?)))",
+            new SqlRenderer(new LimitOffsetDialect("\"")).render(mixed, Bindings.empty()).sql()
+        );
+        assertThrows(IllegalArgumentException.class, () -> KeysetSql.seek(keys, List.of(10)));
+    }
+
+    @Test
+    void walksDaoDslAndTemplatePagesWithoutOffset() throws SQLException {
+        Lumen lumen = lumen();
+        EventDao dao = new EventDao(DaoContext.of(lumen.db(), lumen.renderer(), lumen.metaRegistry()));
+
+        List<Long> daoIds = new ArrayList<>();
+        KeysetPageRequest request = KeysetPageRequest.first(3, Sort.desc("score"));
+        KeysetPage<Event> page;
+        do {
+            page = dao.selectKeysetPage(request);
+            page.items().forEach(event -> daoIds.add(event.id));
+            request = page.hasNext() ? request.next(page.nextCursor()) : null;
+        } while (request != null);
+        assertEquals(BY_SCORE_DESC, daoIds);
+        assertEquals(1, page.items().size());
+
+        KeysetPage<EventRow> first = lumen.db().dsl()
+            .select(EventRow.class, Event::getId)
+            .from(Event.class)
+            .orderBy(Event::getScore, Event::getId)
+            .toKeysetPage(KeysetPageRequest.first(4));
+        assertEquals(List.of(2L, 4L, 7L, 1L), first.items().stream().map(EventRow::id).toList());
+        KeysetPage<EventRow> second = lumen.db().dsl()
+            .select(EventRow.class, Event::getId)
+            .from(Event.class)
+            .where()
+            .greaterThan(Event::getId, 1L)
+            .toKeysetPage(KeysetPageRequest.after(4, Sort.asc("score").and(SortItem.asc("id")), first.nextCursor()));
+        assertEquals(List.of(5L, 3L, 6L), second.items().stream().map(EventRow::id).toList());
+        assertFalse(second.hasNext());
+
+        String template = "SELECT ID FROM EVENTS @where { @seek(:cursor, SCORE DESC, ID ASC) } "
+            + "ORDER BY SCORE DESC, ID ASC @page(1, :size)";
+        List<Long> firstRows = lumen.db().run(template, Bindings.of("cursor", null, "size", 3), rs -> rs.getLong(1));
+        assertEquals(List.of(6L, 3L, 1L), firstRows);
+        List<Long> nextRows = lumen.db().run(
+            template,
+            Bindings.of("cursor", KeysetCursor.encode(20, 1L), "size", 3),
+            rs -> rs.getLong(1)
+        );
+        assertEquals(List.of(5L, 2L, 4L), nextRows);
+    }
+
+    private static Lumen lumen() throws SQLException {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:keyset_pages;DB_CLOSE_DELAY=-1");
+        Lumen lumen = Lumen.builder().dataSource(dataSource).startupLogEnabled(false).build();
+        lumen.db().execute(Command.of(new RenderedSql("DROP TABLE IF EXISTS EVENTS", List.of())));
+        lumen.db().execute(Command.of(new RenderedSql(
+            "CREATE TABLE EVENTS (ID BIGINT PRIMARY KEY, SCORE INT NOT NULL)",
+            List.of()
+        )));
+        int[] scores = {20, 10, 30, 10, 20, 40, 10};
+        for (int i = 0; i < scores.length; i++) {
+            lumen.db().execute(Command.of(new RenderedSql(
+                "INSERT INTO EVENTS (ID, SCORE) VALUES (?, ?)",
+                List.of(new Bind.Value(i + 1L, 0), new Bind.Value(scores[i], 0))
+            )));
+        }
+        return lumen;
+    }
+
+    static final class EventDao implements BaseDao<Event>, DaoContextProvider {
+        private final DaoContext context;
+
+        EventDao(DaoContext context) {
+            this.context = context;
+        }
+
+        @Override
+        public DaoContext daoContext() {
+            return context;
+        }
+
+        @Override
+        public Class<Event> entityType() {
+            return Event.class;
+        }
+    }
+
+    @Table(name = "EVENTS")
+    public static final class Event {
+        @Id
+        @Column(name = "ID")
+        public Long id;
+
+        @Column(name = "SCORE")
+        public Integer score;
+
+        public Long getId() {
+            return id;
+        }
+
+        public Integer getScore() {
+            return score;
+        }
+    }
+
+    public record EventRow(Long id) {
+    }
+}
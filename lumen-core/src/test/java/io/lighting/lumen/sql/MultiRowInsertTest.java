@@ -0,0 +1,81 @@
+package io.lighting.lumen.sql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class MultiRowInsertTest {
+    @Test
+    void rewritesSingleRowInsertIntoMultipleRows() {
+        MultiRowInsert insert = MultiRowInsert.parse("INSERT INTO \"t\" (\"a\", \"b\", \"c\") VALUES (?, 'x?', ?)");
+        assertEquals(2, insert.paramsPerRow());
+
+        RenderedSql rendered = insert.render(List.of(
+            List.of(new Bind.Value(1, 0), new Bind.NullValue(0)),
+            List.of(new Bind.Value(2, 0), new Bind.Value("b", 0))
+        ));
+        assertEquals("INSERT INTO \"t\" (\"a\", \"b\", \"c\") VALUES (?, 'x?', ?), (?, 'x?', ?)", rendered.sql());
+        assertEquals(
+            List.of(new Bind.Value(1, 0), new Bind.NullValue(0), new Bind.Value(2, 0), new Bind.Value("b", 0)),
+            rendered.binds()
+        );
+        assertThrows(IllegalArgumentException.class, () -> insert.render(List.of(List.of(new Bind.Value(1, 0)))));
+    }
+
+    @Test
+    void appendsReturningOrOutputClause() {
+        MultiRowInsert insert = MultiRowInsert.parse("INSERT INTO \"t\" (\"a\") VALUES (?)");
+        assertEquals(
+            "INSERT INTO \"t\" (\"a\") VALUES (?), (?) RETURNING \"id\"",
+            insert.returning(GeneratedKeyStrategy.RETURNING, "\"id\"").sql(2)
+        );
+        assertEquals(
+            "INSERT INTO [t] ([a]) OUTPUT INSERTED.[id] VALUES (?), (?)",
+            MultiRowInsert.parse("INSERT INTO [t] ([a]) values (?)")
+                .returning(GeneratedKeyStrategy.OUTPUT_INSERTED, "[id]")
+                .sql(2)
+        );
+        assertThrows(IllegalArgumentException.class, () -> insert.returning(GeneratedKeyStrategy.PER_ROW, "id"));
+    }
+
+    @Test
+    void rejectsStatementsThatCannotBeRepeated() {
+        assertNull(MultiRowInsert.parse("UPDATE t SET v = ?"));
+        assertNull(MultiRowInsert.parse("INSERT INTO t (a) SELECT a FROM s WHERE a IN (?)"));
+        assertNull(MultiRowInsert.parse("INSERT INTO t (a) VALUES (?) ON CONFLICT DO NOTHING"));
+        assertNull(MultiRowInsert.parse("INSERT INTO t (a) VALUES (?) RETURNING id"));
+        assertNull(MultiRowInsert.parse("INSERT INTO t (a) VALUES (?), (?)"));
+    }
+
+    @Test
+    void doesNotTakeValuesFunctionInUpsertClauseAsRowGroup() {
+        assertNull(MultiRowInsert.parse("INSERT INTO t (a) VALUES (?) ON DUPLICATE KEY UPDATE a = VALUES(a)"));
+        assertNull(MultiRowInsert.parse("INSERT INTO t (a) VALUES (1) ON DUPLICATE KEY UPDATE a = VALUES(a)"));
+    }
+
+    @Test
+    void requiresPlaceholdersInRowGroup() {
+        assertNull(MultiRowInsert.parse("INSERT INTO t (a) VALUES (1)"));
+        MultiRowInsert insert = MultiRowInsert.parse(
+            "INSERT INTO t (`values`, a) VALUES (?, (SELECT max(x) FROM y WHERE z = ?))"
+        );
+        assertEquals(2, insert.paramsPerRow());
+        assertEquals(
+            "INSERT INTO t (`values`, a) VALUES (?, (SELECT max(x) FROM y WHERE z = ?)), "
+                + "(?, (SELECT max(x) FROM y WHERE z = ?))",
+            insert.sql(2)
+        );
+    }
+
+    @Test
+    void sizesStatementsByBindLimitRowLimitAndBatchSize() {
+        MultiRowInsert insert = MultiRowInsert.parse("insert into t (a, b, c) values (?, ?, ?)");
+        assertEquals(333, insert.rowsPerStatement(999, Integer.MAX_VALUE, 1000));
+        assertEquals(100, insert.rowsPerStatement(65535, Integer.MAX_VALUE, 100));
+        assertEquals(1000, insert.rowsPerStatement(65535, 1000, 5000));
+        assertEquals(1, insert.rowsPerStatement(2, Integer.MAX_VALUE, 1000));
+    }
+}
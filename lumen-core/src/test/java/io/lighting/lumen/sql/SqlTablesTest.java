@@ -0,0 +1,28 @@
+package io.lighting.lumen.sql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class SqlTablesTest {
+    @Test
+    void extractsTablesFromReadsAndWrites() {
+        assertEquals(
+            Set.of("orders", "order_items", "users"),
+            SqlTables.of("SELECT o.id FROM \"orders\" o LEFT JOIN order_items i ON i.order_id = o.id "
+                + "WHERE o.user_id IN (SELECT id FROM app.users WHERE name = 'from x')")
+        );
+        assertEquals(Set.of("a", "b", "c"), SqlTables.of("select * from a x, b as y, `c` -- from d\nwhere 1 = 1"));
+        assertEquals(Set.of("pets"), SqlTables.of("INSERT INTO [dbo].[Pets] (id) VALUES (?)"));
+        assertEquals(Set.of("pets"), SqlTables.of("UPDATE pets SET name = ? WHERE id = ?"));
+        assertEquals(Set.of("pets"), SqlTables.of("DELETE FROM ONLY pets /* from audit */ WHERE id = ?"));
+        assertEquals(Set.of("pets"), SqlTables.of("TRUNCATE TABLE pets"));
+        assertTrue(SqlTables.of("COPY metrics (a, b) FROM STDIN").contains("metrics"));
+        assertEquals(Set.of(), SqlTables.of("SELECT 1"));
+        assertEquals(List.of("orders"), List.copyOf(SqlTables.of("SELECT * FROM orders FOR UPDATE")));
+        assertEquals("orders", SqlTables.normalize("\"Shop\".\"ORDERS\""));
+    }
+}
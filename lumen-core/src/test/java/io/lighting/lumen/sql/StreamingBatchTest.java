@@ -0,0 +1,116 @@
+package io.lighting.lumen.sql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.lighting.lumen.Lumen;
+import io.lighting.lumen.db.Command;
+import io.lighting.lumen.db.Db;
+import io.lighting.lumen.db.Query;
+import io.lighting.lumen.jdbc.GeneratedKeyMapper;
+import io.lighting.lumen.jdbc.ResultStream;
+import io.lighting.lumen.jdbc.RowMapper;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+
+class StreamingBatchTest {
+    private static final RenderedSql INSERT = new RenderedSql("INSERT INTO stream_rows (id, name) VALUES (?, ?)", List.of());
+
+    @Test
+    void streamsRowsThroughMultiRowInsert() throws SQLException {
+        Lumen lumen = lumen("streaming_batch_multi_row");
+        List<Long> chunkStarts = new ArrayList<>();
+        int[] inserted = new int[1];
+
+        StreamingBatch batch = StreamingBatch.builder(INSERT)
+            .rows(
+                IntStream.rangeClosed(1, 10).boxed(),
+                id -> List.of(new Bind.Value(id, 0), new Bind.Value("row-" + id, 0))
+            )
+            .batchSize(4)
+            .multiRowInsert(true)
+            .build();
+        long submitted = lumen.db().executeBatch(batch, (firstRow, counts) -> {
+            chunkStarts.add(firstRow);
+            for (int count : counts) {
+                inserted[0] += count;
+            }
+        });
+
+        assertEquals(10L, submitted);
+        assertEquals(List.of(0L, 4L, 8L), chunkStarts);
+        assertEquals(10, inserted[0]);
+        assertEquals(
+            List.of(10L),
+            lumen.db().run("SELECT COUNT(*) FROM stream_rows", Bindings.empty(), rs -> rs.getLong(1))
+        );
+        assertEquals(0L, lumen.db().executeBatch(StreamingBatch.builder(INSERT).rows(Stream.<List<Bind>>empty()).build()));
+        assertThrows(IllegalStateException.class, () -> StreamingBatch.builder(INSERT).build());
+    }
+
+    @Test
+    void defaultImplementationMaterializesOneChunkAtATime() throws SQLException {
+        Db target = lumen("streaming_batch_default").db();
+        List<Integer> chunkSizes = new ArrayList<>();
+        Db db = new Db() {
+            @Override
+            public <T> List<T> fetch(Query query, RowMapper<T> mapper) throws SQLException {
+                return target.fetch(query, mapper);
+            }
+
+            @Override
+            public int execute(Command command) throws SQLException {
+                return target.execute(command);
+            }
+
+            @Override
+            public int[] executeBatch(BatchSql batchSql) throws SQLException {
+                chunkSizes.add(batchSql.totalBatches());
+                return target.executeBatch(batchSql);
+            }
+
+            @Override
+            public <T> ResultStream<T> fetchStream(Query query, RowMapper<T> mapper, int fetchSize)
+                throws SQLException {
+                return target.fetchStream(query, mapper, fetchSize);
+            }
+
+            @Override
+            public <T> List<T> run(String sqlText, Bindings bindings, RowMapper<T> mapper) throws SQLException {
+                return target.run(sqlText, bindings, mapper);
+            }
+
+            @Override
+            public <T> T executeAndReturnGeneratedKey(Command command, String columnLabel, GeneratedKeyMapper<T> mapper)
+                throws SQLException {
+                return target.executeAndReturnGeneratedKey(command, columnLabel, mapper);
+            }
+        };
+
+        long submitted = db.executeBatch(StreamingBatch.builder(INSERT)
+            .rows(IntStream.range(0, 5).mapToObj(id -> List.<Bind>of(new Bind.Value(id, 0), new Bind.NullValue(0))))
+            .batchSize(2)
+            .build());
+
+        assertEquals(5L, submitted);
+        assertEquals(List.of(2, 2, 1), chunkSizes);
+    }
+
+    private static Lumen lumen(String name) throws SQLException {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        dataSource.setPassword("sa");
+        Lumen lumen = Lumen.builder().dataSource(dataSource).build();
+        lumen.db().execute(Command.of(new RenderedSql(
+            "CREATE TABLE stream_rows (id INT PRIMARY KEY, name VARCHAR(32))",
+            List.of()
+        )));
+        return lumen;
+    }
+}
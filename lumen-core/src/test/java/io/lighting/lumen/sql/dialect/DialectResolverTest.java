@@ -1,6 +1,7 @@
 package io.lighting.lumen.sql.dialect;
 
 import io.lighting.lumen.sql.Dialect;
+import io.lighting.lumen.sql.GeneratedKeyStrategy;
 import io.lighting.lumen.sql.RenderedPagination;
 import io.lighting.lumen.sql.ast.Expr;
 import io.lighting.lumen.sql.ast.OrderItem;
@@ -20,6 +21,39 @@ class DialectResolverTest {
         assertDialect("sqlite", "SQLite", "SQLite JDBC", "jdbc:sqlite::memory:", "\"id\"");
     }
 
+    @Test
+    void exposesInsertBatchLimits() {
+        Dialect mysql = DialectResolver.resolve("MySQL", "MySQL Connector/J", "jdbc:mysql://");
+        assertEquals(65535, mysql.maxBindParameters());
+        assertEquals(Integer.MAX_VALUE, mysql.maxInsertRows());
+        assertEquals(999, DialectResolver.resolve("SQLite", "SQLite JDBC", "jdbc:sqlite::memory:").maxBindParameters());
+        assertEquals(1, DialectResolver.resolve("Oracle", "Oracle JDBC", "jdbc:oracle:thin:@localhost").maxInsertRows());
+        Dialect sqlServer = DialectResolver.resolve("Microsoft SQL Server", "mssql-jdbc", "jdbc:sqlserver://localhost");
+        assertEquals(2000, sqlServer.maxBindParameters());
+        assertEquals(1000, sqlServer.maxInsertRows());
+    }
+
+    @Test
+    void selectsGeneratedKeyStrategy() {
+        assertEquals(
+            GeneratedKeyStrategy.JDBC_BATCH,
+            DialectResolver.resolve("PostgreSQL", "PostgreSQL JDBC Driver", "jdbc:postgresql://").generatedKeyStrategy()
+        );
+        assertEquals(
+            GeneratedKeyStrategy.PER_ROW,
+            DialectResolver.resolve("SQLite", "SQLite JDBC", "jdbc:sqlite::memory:").generatedKeyStrategy()
+        );
+        assertEquals(
+            GeneratedKeyStrategy.PER_ROW,
+            DialectResolver.resolve("Oracle", "Oracle JDBC", "jdbc:oracle:thin:@localhost").generatedKeyStrategy()
+        );
+        assertEquals(
+            GeneratedKeyStrategy.PER_ROW,
+            DialectResolver.resolve("Microsoft SQL Server", "mssql-jdbc", "jdbc:sqlserver://localhost")
+                .generatedKeyStrategy()
+        );
+    }
+
     @Test
     void resolvesOracleDialect() {
         Dialect dialect = DialectResolver.resolve("Oracle", "Oracle JDBC", "jdbc:oracle:thin:@localhost");
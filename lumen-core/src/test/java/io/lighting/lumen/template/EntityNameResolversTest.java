@@ -1,9 +1,15 @@
 package io.lighting.lumen.template;
 
 import io.lighting.lumen.meta.Table;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class EntityNameResolversTest {
     @Test
@@ -12,7 +18,39 @@ class EntityNameResolversTest {
         assertEquals(AutoScanEntity.class, resolver.resolve("AutoScanEntity"));
     }
 
+    @Test
+    void autoResolvesFromCompileTimeIndex() throws Exception {
+        Path root = Files.createTempDirectory("lumen-entity-index");
+        Path index = root.resolve(ClassPathTableScanner.ENTITY_INDEX);
+        Files.createDirectories(index.getParent());
+        Files.writeString(index, String.join("\n",
+            "# generated",
+            "Indexed=" + AutoScanEntity.class.getName(),
+            "Twin=" + AutoScanEntity.class.getName(),
+            "Twin=" + OtherEntity.class.getName(),
+            "Stale=example.Removed",
+            ""
+        ));
+        try (URLClassLoader loader = new URLClassLoader(new URL[] { root.toUri().toURL() }, getClass().getClassLoader())) {
+            EntityNameResolver resolver = EntityNameResolvers.auto(loader);
+            // 索引中的名称无需扫描即可解析
+            assertEquals(AutoScanEntity.class, resolver.resolve("Indexed"));
+            IllegalArgumentException ambiguous = assertThrows(
+                IllegalArgumentException.class,
+                () -> resolver.resolve("Twin")
+            );
+            assertTrue(ambiguous.getMessage().startsWith("Ambiguous entity type: Twin"));
+            // 未收录的名称回退到类路径扫描
+            assertEquals(OtherEntity.class, resolver.resolve("OtherEntity"));
+            assertThrows(IllegalArgumentException.class, () -> resolver.resolve("Stale"));
+        }
+    }
+
     @Table(name = "auto_scan")
     static class AutoScanEntity {
     }
+
+    @Table(name = "other_scan")
+    static class OtherEntity {
+    }
 }
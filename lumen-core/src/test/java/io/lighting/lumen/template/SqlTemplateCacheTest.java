@@ -0,0 +1,102 @@
+package io.lighting.lumen.template;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+class SqlTemplateCacheTest {
+
+    @Test
+    void returnsSameParsedTemplateForSameText() {
+        SqlTemplateCache cache = SqlTemplateCache.withMaxSize(4);
+
+        SqlTemplate first = cache.get("SELECT * FROM t WHERE id = :id");
+        SqlTemplate second = cache.get("SELECT * FROM t WHERE id = :id");
+
+        assertSame(first, second);
+        assertEquals(new SqlTemplateCacheStats(1, 1, 0, 1), cache.stats());
+    }
+
+    @Test
+    void evictsLeastRecentlyAccessedWhenFull() throws InterruptedException {
+        SqlTemplateCache cache = SqlTemplateCache.withMaxSize(2);
+        SqlTemplate a = cache.get("SELECT 1");
+        Thread.sleep(1);
+        cache.get("SELECT 2");
+        Thread.sleep(1);
+        cache.get("SELECT 1");
+        Thread.sleep(1);
+        cache.get("SELECT 3");
+
+        assertEquals(2, cache.size());
+        assertSame(a, cache.get("SELECT 1"));
+        SqlTemplateCacheStats stats = cache.stats();
+        assertEquals(1, stats.evictions());
+        assertEquals(2, stats.hits());
+        assertEquals(3, stats.misses());
+    }
+
+    @Test
+    void expiresIdleEntries() throws InterruptedException {
+        SqlTemplateCache cache = SqlTemplateCache.builder()
+            .maxSize(8)
+            .expireAfterAccess(Duration.ofMillis(5))
+            .build();
+        SqlTemplate first = cache.get("SELECT 1");
+        Thread.sleep(20);
+
+        assertNotSame(first, cache.get("SELECT 1"));
+        assertEquals(1, cache.stats().evictions());
+    }
+
+    @Test
+    void disabledCacheAlwaysParses() {
+        SqlTemplateCache cache = SqlTemplateCache.disabled();
+
+        assertNotSame(cache.get("SELECT 1"), cache.get("SELECT 1"));
+        assertEquals(new SqlTemplateCacheStats(0, 2, 0, 0), cache.stats());
+    }
+
+    @Test
+    void doesNotCacheParseFailures() {
+        SqlTemplateCache cache = SqlTemplateCache.withMaxSize(4);
+
+        assertThrows(IllegalArgumentException.class, () -> cache.get("SELECT * FROM t @if(:a) {"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void staysBoundedUnderConcurrentAccess() throws Exception {
+        SqlTemplateCache cache = SqlTemplateCache.withMaxSize(16);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int offset = t;
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        cache.get("SELECT " + ((i + offset) % 40));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(2000, cache.stats().requests());
+        assertTrue(cache.size() <= 16);
+    }
+}
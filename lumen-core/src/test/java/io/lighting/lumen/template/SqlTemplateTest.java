@@ -119,6 +119,47 @@ class SqlTemplateTest {
         assertEquals(List.of(new Bind.Value("lamp", 0)), rendered.binds());
     }
 
+    @Test
+    void stripsConjunctionsInsideNestedBlocksWithoutLeakingBinds() {
+        String template = "SELECT * FROM t @where {"
+            + " @if(:a) { AND a = :a }"
+            + " @if(:tags) { AND ( @for(tag : :tags) { @or { t.tag = :tag } } ) }"
+            + " }"
+            + " @having { @if(:min) { AND cnt > :min } }";
+        SqlTemplate sqlTemplate = SqlTemplate.parse(template);
+
+        RenderedSql full = sqlTemplate.render(context(Bindings.of("a", 1, "tags", List.of("x", "y"), "min", 0)));
+        assertEquals("SELECT * FROM t WHERE a = ? AND ( t.tag = ? OR t.tag = ? ) ", full.sql());
+        assertEquals(
+            List.of(new Bind.Value(1, 0), new Bind.Value("x", 0), new Bind.Value("y", 0)),
+            full.binds()
+        );
+
+        RenderedSql partial = sqlTemplate.render(context(Bindings.of("a", 0, "tags", List.of("z"), "min", 3)));
+        assertEquals("SELECT * FROM t WHERE ( t.tag = ? ) HAVING cnt > ?", partial.sql());
+        assertEquals(List.of(new Bind.Value("z", 0), new Bind.Value(3, 0)), partial.binds());
+    }
+
+    @Test
+    void foldsConstantBlocksAtCompileTime() {
+        String template = "SELECT * FROM t @where { AND deleted = 0 } @if(true) { ORDER BY id }";
+        SqlTemplate sqlTemplate = SqlTemplate.parse(template);
+
+        assertEquals("SELECT * FROM t WHERE deleted = 0 ORDER BY id ", sqlTemplate.render(context(Bindings.empty())).sql());
+    }
+
+    @Test
+    void rejectsParamsInIdentifierPositionsInsideBlocks() {
+        SqlTemplate direct = SqlTemplate.parse("SELECT * FROM :table");
+        SqlTemplate nested = SqlTemplate.parse("SELECT * FROM @if(:flag) { :table }");
+
+        assertThrows(IllegalArgumentException.class, () -> direct.render(context(Bindings.of("table", "t"))));
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> nested.render(context(Bindings.of("flag", true, "table", "t")))
+        );
+    }
+
     @Test
     void rendersOrderBySelectionFromWhitelist() {
         String template = "SELECT * FROM orders o "
@@ -0,0 +1,41 @@
+package io.lighting.lumen.template;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import org.junit.jupiter.api.Test;
+
+class TemplateExpressionTest {
+
+    @Test
+    void comparesIntegralTypesWithoutDecimalConversion() {
+        assertEquals(-1, Integer.signum(TemplateExpression.compareValues(1, 2L)));
+        assertEquals(0, TemplateExpression.compareValues((short) 7, (byte) 7));
+        assertEquals(1, Integer.signum(TemplateExpression.compareValues(Long.MAX_VALUE, Long.MAX_VALUE - 1)));
+    }
+
+    @Test
+    void comparesFloatingValuesConsistentlyWithDecimalSemantics() {
+        assertEquals(0, TemplateExpression.compareValues(0.0d, -0.0d));
+        assertEquals(0, TemplateExpression.compareValues(2, 2.0d));
+        assertEquals(-1, Integer.signum(TemplateExpression.compareValues(0.1d, 0.2d)));
+        assertEquals(1, Integer.signum(TemplateExpression.compareValues(3, 2.5d)));
+        // Float vs Double compares the decimal representations: 0.1f and 0.1d are equal here.
+        assertEquals(0, TemplateExpression.compareValues(0.1f, 0.1d));
+        assertEquals(-1, Integer.signum(TemplateExpression.compareValues(1_073_741_889, 1.07374189E9f)));
+    }
+
+    @Test
+    void comparesBigNumbers() {
+        assertEquals(0, TemplateExpression.compareValues(new BigDecimal("1.50"), new BigDecimal("1.5")));
+        assertEquals(1, Integer.signum(TemplateExpression.compareValues(new BigInteger("10000000000000000000"), 1L)));
+        assertEquals(-1, Integer.signum(TemplateExpression.compareValues(new BigDecimal("0.5"), 1)));
+    }
+
+    @Test
+    void rejectsNonFiniteDoubles() {
+        assertThrows(NumberFormatException.class, () -> TemplateExpression.compareValues(Double.NaN, 1));
+    }
+}
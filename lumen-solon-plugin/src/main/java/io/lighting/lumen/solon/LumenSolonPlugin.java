@@ -4,17 +4,19 @@ import io.lighting.lumen.Lumen;
 import io.lighting.lumen.db.Db;
 import io.lighting.lumen.db.DbObserver;
 import io.lighting.lumen.db.SqlLog;
-import io.lighting.lumen.meta.EntityMeta;
+import io.lighting.lumen.meta.EntityMetaRegistries;
 import io.lighting.lumen.meta.EntityMetaRegistry;
 import io.lighting.lumen.sql.Dialect;
 import io.lighting.lumen.sql.SqlRenderer;
 import io.lighting.lumen.template.EntityNameResolver;
 import io.lighting.lumen.template.EntityNameResolvers;
+import io.lighting.lumen.template.SqlTemplateCache;
 import org.noear.solon.annotation.Bean;
 import org.noear.solon.annotation.Configuration;
 import org.noear.solon.annotation.Inject;
 
 import javax.sql.DataSource;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -49,7 +51,8 @@ public class LumenSolonPlugin {
 
         @Bean
         public EntityMetaRegistry entityMetaRegistry() {
-            return new ReflectionEntityMetaRegistry();
+            // Compile-time metadata from EntityMetaProcessor, with reflection only for unprocessed entities
+            return EntityMetaRegistries.defaults();
         }
 
         @Bean
@@ -62,22 +65,54 @@ public class LumenSolonPlugin {
             return new SqlRenderer(dialect);
         }
 
+        /**
+         * SQL log observer; {@code lumen.sql.slow-threshold-ms} logs only statements at least that slow,
+         * and {@code lumen.sql.sample-rate} (0..1) additionally logs that fraction of the rest.
+         */
         @Bean
-        public List<DbObserver> dbObservers() {
+        public List<DbObserver> dbObservers(
+            @Inject("${lumen.sql.sample-rate:-1}") double sampleRate,
+            @Inject("${lumen.sql.slow-threshold-ms:0}") long slowThresholdMs
+        ) {
             java.util.logging.Logger logger = java.util.logging.Logger.getLogger(LumenSolonPlugin.class.getName());
-            SqlLog sqlLog = SqlLog.builder()
+            SqlLog.Builder builder = SqlLog.builder()
                 .mode(SqlLog.Mode.SEPARATE)
                 .logOnExecute(true)
                 .includeOperation(true)
                 .prefix("SQL:")
-                .sink(logger::info)
-                .build();
+                .sink(logger::info);
+            if (sampleRate >= 0) {
+                builder.sampleRate(sampleRate);
+            }
+            if (slowThresholdMs > 0) {
+                builder.includeElapsed(true).slowThreshold(Duration.ofMillis(slowThresholdMs));
+            }
+            SqlLog sqlLog = builder.build();
 
             List<DbObserver> observers = new ArrayList<>();
             observers.add(sqlLog);
             return observers;
         }
 
+        /**
+         * Parsed SQL template cache for {@code Db.run}; configured by
+         * {@code lumen.template-cache.max-size} (0 disables) and
+         * {@code lumen.template-cache.expire-after-access-seconds} (0 never expires).
+         */
+        @Bean
+        public SqlTemplateCache sqlTemplateCache(
+            @Inject("${lumen.template-cache.max-size:256}") int maxSize,
+            @Inject("${lumen.template-cache.expire-after-access-seconds:0}") long expireAfterAccessSeconds
+        ) {
+            return SqlTemplateCache.builder()
+                .maxSize(maxSize)
+                .expireAfterAccess(expireAfterAccessSeconds > 0 ? Duration.ofSeconds(expireAfterAccessSeconds) : null)
+                .build();
+        }
+
+        /**
+         * {@code lumen.page.concurrent-count=true} runs page and count queries concurrently outside transactions.
+         */
         @Bean
         public Lumen lumen(
             @Inject DataSource dataSource,
@@ -85,7 +120,9 @@ public class LumenSolonPlugin {
             EntityMetaRegistry metaRegistry,
             EntityNameResolver entityNameResolver,
             SqlRenderer renderer,
-            List<DbObserver> observers
+            List<DbObserver> observers,
+            SqlTemplateCache templateCache,
+            @Inject("${lumen.page.concurrent-count:false}") boolean concurrentPageCount
         ) {
             return Lumen.builder()
                 .dataSource(dataSource)
@@ -94,6 +131,8 @@ public class LumenSolonPlugin {
                 .entityNameResolver(entityNameResolver)
                 .renderer(renderer)
                 .observers(observers)
+                .templateCache(templateCache)
+                .concurrentPageCount(concurrentPageCount)
                 .build();
         }
 
@@ -102,112 +141,4 @@ public class LumenSolonPlugin {
             return lumen.db();
         }
     }
-
-    /**
-     * Simple EntityMetaRegistry implementation using reflection.
-     * Production code should use APT-generated entity metadata classes.
-     */
-    private static final class ReflectionEntityMetaRegistry implements EntityMetaRegistry {
-        private final java.util.concurrent.ConcurrentMap<Class<?>, EntityMeta> cache =
-            new java.util.concurrent.ConcurrentHashMap<>();
-
-        @Override
-        public EntityMeta metaOf(Class<?> entityType) {
-            if (entityType == null) {
-                throw new IllegalArgumentException("entityType must not be null");
-            }
-            return cache.computeIfAbsent(entityType, this::buildMeta);
-        }
-
-        private EntityMeta buildMeta(Class<?> entityType) {
-            io.lighting.lumen.meta.Table table = entityType.getAnnotation(io.lighting.lumen.meta.Table.class);
-            if (table == null) {
-                throw new IllegalArgumentException("Missing @Table on " + entityType.getName());
-            }
-            if (table.name().isBlank()) {
-                throw new IllegalArgumentException("Table name must not be blank: " + entityType.getName());
-            }
-
-            java.util.Map<String, String> fieldToColumn = new java.util.LinkedHashMap<>();
-            java.util.Set<String> columns = new java.util.LinkedHashSet<>();
-            io.lighting.lumen.meta.IdMeta idMeta = null;
-            io.lighting.lumen.meta.LogicDeleteMeta logicDeleteMeta = null;
-
-            for (Class<?> type = entityType; type != null && type != Object.class; type = type.getSuperclass()) {
-                for (java.lang.reflect.Field field : type.getDeclaredFields()) {
-                    if (java.lang.reflect.Modifier.isStatic(field.getModifiers())
-                        || java.lang.reflect.Modifier.isTransient(field.getModifiers())
-                    ) {
-                        continue;
-                    }
-
-                    io.lighting.lumen.meta.Column column = field.getAnnotation(io.lighting.lumen.meta.Column.class);
-                    io.lighting.lumen.meta.Id id = field.getAnnotation(io.lighting.lumen.meta.Id.class);
-                    io.lighting.lumen.meta.LogicDelete logicDelete = field.getAnnotation(io.lighting.lumen.meta.LogicDelete.class);
-
-                    if (column == null && id == null && logicDelete == null) {
-                        continue;
-                    }
-
-                    String columnName = column != null ? column.name() : field.getName();
-                    if (columnName.isBlank()) {
-                        throw new IllegalArgumentException(
-                            "Column name must not be blank: " + entityType.getName() + "." + field.getName()
-                        );
-                    }
-
-                    String fieldName = field.getName();
-                    if (!columns.add(columnName)) {
-                        throw new IllegalArgumentException("Duplicate column mapping: " + columnName);
-                    }
-                    fieldToColumn.put(fieldName, columnName);
-
-                    if (id != null) {
-                        if (idMeta != null) {
-                            throw new IllegalArgumentException("Duplicate @Id on " + entityType.getName());
-                        }
-                        idMeta = new io.lighting.lumen.meta.IdMeta(fieldName, columnName, id.strategy());
-                    }
-
-                    if (logicDelete != null) {
-                        if (logicDeleteMeta != null) {
-                            throw new IllegalArgumentException("Duplicate @LogicDelete on " + entityType.getName());
-                        }
-                        Object active = parseLogicValue(logicDelete.active(), field, "active");
-                        Object deleted = parseLogicValue(logicDelete.deleted(), field, "deleted");
-                        logicDeleteMeta = new io.lighting.lumen.meta.LogicDeleteMeta(fieldName, columnName, active, deleted);
-                    }
-                }
-            }
-
-            return new io.lighting.lumen.meta.EntityMeta(table.name(), fieldToColumn, idMeta, logicDeleteMeta);
-        }
-
-        private Object parseLogicValue(String raw, java.lang.reflect.Field field, String label) {
-            if (raw == null || raw.isBlank()) {
-                throw new IllegalArgumentException("LogicDelete " + label + " value must not be blank");
-            }
-            Class<?> type = field.getType();
-            if (type == String.class) {
-                return raw;
-            }
-            if (type == boolean.class || type == Boolean.class) {
-                String normalized = raw.trim().toLowerCase();
-                if ("1".equals(normalized) || "true".equals(normalized) || "yes".equals(normalized)) {
-                    return true;
-                }
-                if ("0".equals(normalized) || "false".equals(normalized) || "no".equals(normalized)) {
-                    return false;
-                }
-                throw new IllegalArgumentException("Invalid boolean value: " + raw);
-            }
-            if (type == int.class || type == Integer.class) {
-                return Integer.parseInt(raw);
-            }
-            if (type == long.class || type == Long.class) {
-                return Long.parseLong(raw);
-            }
-            throw new IllegalArgumentException("Unsupported @LogicDelete type: " + type.getName());
-        }
-    }
 }
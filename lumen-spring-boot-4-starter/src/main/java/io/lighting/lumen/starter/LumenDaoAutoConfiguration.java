@@ -3,6 +3,7 @@ package io.lighting.lumen.starter;
 import io.lighting.lumen.Lumen;
 import io.lighting.lumen.dao.BaseDao;
 import io.lighting.lumen.db.Db;
+import io.lighting.lumen.id.IdGeneratorProvider;
 import io.lighting.lumen.meta.EntityMetaRegistry;
 import io.lighting.lumen.sql.Dialect;
 import io.lighting.lumen.sql.SqlRenderer;
@@ -36,6 +37,16 @@ import org.springframework.core.type.filter.TypeFilter;
  */
 public class LumenDaoAutoConfiguration {
 
+    /**
+     * Generated constructor signatures, newest first.
+     */
+    private static final Class<?>[][] CONSTRUCTOR_SIGNATURES = {
+        {Db.class, Dialect.class, EntityMetaRegistry.class, EntityNameResolver.class, SqlRenderer.class,
+            IdGeneratorProvider.class},
+        {Db.class, Dialect.class, EntityMetaRegistry.class, EntityNameResolver.class, SqlRenderer.class},
+        {Db.class, Dialect.class, EntityMetaRegistry.class, EntityNameResolver.class}
+    };
+
     /**
      * Configure component scanning for DAO interfaces.
      * <p>
@@ -101,35 +112,33 @@ public class LumenDaoAutoConfiguration {
     }
 
     private static Constructor<?> findConstructor(Class<?> implClass, Lumen lumen) {
-        for (Constructor<?> ctor : implClass.getConstructors()) {
-            Class<?>[] paramTypes = ctor.getParameterTypes();
-            if (paramTypes.length == 5
-                && Db.class.isAssignableFrom(paramTypes[0])
-                && Dialect.class.isAssignableFrom(paramTypes[1])
-                && EntityMetaRegistry.class.isAssignableFrom(paramTypes[2])
-                && EntityNameResolver.class.isAssignableFrom(paramTypes[3])
-                && SqlRenderer.class.isAssignableFrom(paramTypes[4])
-            ) {
-                return ctor;
-            }
-        }
-
-        for (Constructor<?> ctor : implClass.getConstructors()) {
-            if (ctor.getParameterCount() == 4
-                && Db.class.isAssignableFrom(ctor.getParameterTypes()[0])
-                && Dialect.class.isAssignableFrom(ctor.getParameterTypes()[1])
-                && EntityMetaRegistry.class.isAssignableFrom(ctor.getParameterTypes()[2])
-                && EntityNameResolver.class.isAssignableFrom(ctor.getParameterTypes()[3])
-            ) {
-                return ctor;
+        for (Class<?>[] signature : CONSTRUCTOR_SIGNATURES) {
+            try {
+                return implClass.getConstructor(signature);
+            } catch (NoSuchMethodException ignored) {
+                // try the next, older signature
             }
         }
-
         throw new IllegalStateException(
             "No suitable constructor found in " + implClass.getName()
         );
     }
 
+    /**
+     * Instantiates an APT-generated _Impl class the same way {@link Lumen#dao(Class)} does.
+     * <p>
+     * Prefers the constructor that takes an {@link IdGeneratorProvider}, so DAOs use
+     * {@link Lumen#idGeneratorProvider()}; falls back to the constructors generated by older versions.
+     */
+    static Object newDaoInstance(Class<?> implClass, Lumen lumen) throws ReflectiveOperationException {
+        Constructor<?> ctor = findConstructor(implClass, lumen);
+        Object[] args = {
+            lumen.db(), lumen.dialect(), lumen.metaRegistry(),
+            lumen.entityNameResolver(), lumen.renderer(), lumen.idGeneratorProvider()
+        };
+        return ctor.newInstance(Arrays.copyOf(args, ctor.getParameterCount()));
+    }
+
     /**
      * Factory bean for APT-generated DAO implementations.
      * <p>
@@ -172,11 +181,7 @@ public class LumenDaoAutoConfiguration {
                 String implClassName = daoInterface.getName() + "_Impl";
                 Class<?> implClass = Class.forName(implClassName);
 
-                Constructor<?> ctor = findCompatibleConstructor(implClass, lumen);
-                return (T) ctor.newInstance(
-                    lumen.db(), lumen.dialect(), lumen.metaRegistry(),
-                    lumen.entityNameResolver(), lumen.renderer()
-                );
+                return (T) newDaoInstance(implClass, lumen);
             } catch (Exception e) {
                 throw new IllegalStateException(
                     "Failed to create DAO instance for " + daoInterface.getName(), e
@@ -184,36 +189,6 @@ public class LumenDaoAutoConfiguration {
             }
         }
 
-        private Constructor<?> findCompatibleConstructor(Class<?> implClass, Lumen lumen) {
-            for (Constructor<?> ctor : implClass.getConstructors()) {
-                Class<?>[] types = ctor.getParameterTypes();
-                if (types.length == 5
-                    && Db.class.isAssignableFrom(types[0])
-                    && Dialect.class.isAssignableFrom(types[1])
-                    && EntityMetaRegistry.class.isAssignableFrom(types[2])
-                    && EntityNameResolver.class.isAssignableFrom(types[3])
-                    && SqlRenderer.class.isAssignableFrom(types[4])
-                ) {
-                    return ctor;
-                }
-            }
-
-            for (Constructor<?> ctor : implClass.getConstructors()) {
-                if (ctor.getParameterCount() == 4
-                    && Db.class.isAssignableFrom(ctor.getParameterTypes()[0])
-                    && Dialect.class.isAssignableFrom(ctor.getParameterTypes()[1])
-                    && EntityMetaRegistry.class.isAssignableFrom(ctor.getParameterTypes()[2])
-                    && EntityNameResolver.class.isAssignableFrom(ctor.getParameterTypes()[3])
-                ) {
-                    return ctor;
-                }
-            }
-
-            throw new IllegalStateException(
-                "No compatible constructor in " + implClass.getName()
-            );
-        }
-
         private Lumen getLumen() {
             return Objects.requireNonNull(
                 ApplicationContextHolder.getBean(Lumen.class),
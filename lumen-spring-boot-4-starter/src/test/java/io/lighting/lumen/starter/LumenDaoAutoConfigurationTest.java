@@ -0,0 +1,72 @@
+package io.lighting.lumen.starter;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.lighting.lumen.Lumen;
+import io.lighting.lumen.db.Db;
+import io.lighting.lumen.id.IdGeneratorProvider;
+import io.lighting.lumen.id.IdGenerators;
+import io.lighting.lumen.meta.EntityMetaRegistry;
+import io.lighting.lumen.sql.Dialect;
+import io.lighting.lumen.sql.SqlRenderer;
+import io.lighting.lumen.template.EntityNameResolver;
+import java.lang.reflect.Proxy;
+import org.junit.jupiter.api.Test;
+
+class LumenDaoAutoConfigurationTest {
+    private static final IdGeneratorProvider IDS = IdGenerators::forStrategy;
+
+    @Test
+    void prefersConstructorWithIdGeneratorProvider() throws ReflectiveOperationException {
+        Lumen lumen = lumen();
+
+        CurrentDao_Impl current = (CurrentDao_Impl) LumenDaoAutoConfiguration.newDaoInstance(CurrentDao_Impl.class, lumen);
+        assertSame(lumen.db(), current.db);
+        assertSame(IDS, current.ids);
+
+        LegacyDao_Impl legacy = (LegacyDao_Impl) LumenDaoAutoConfiguration.newDaoInstance(LegacyDao_Impl.class, lumen);
+        assertSame(lumen.renderer(), legacy.renderer);
+
+        assertThrows(IllegalStateException.class,
+            () -> LumenDaoAutoConfiguration.newDaoInstance(LumenDaoAutoConfigurationTest.class, lumen));
+    }
+
+    private static Lumen lumen() {
+        Db db = (Db) Proxy.newProxyInstance(
+            Db.class.getClassLoader(),
+            new Class<?>[] {Db.class},
+            (proxy, method, args) -> {
+                throw new UnsupportedOperationException(method.getName());
+            }
+        );
+        return Lumen.builder().db(db).idGeneratorProvider(IDS).startupLogEnabled(false).build();
+    }
+
+    public static final class CurrentDao_Impl {
+        final Db db;
+        final IdGeneratorProvider ids;
+
+        public CurrentDao_Impl(Db db, Dialect dialect, EntityMetaRegistry metaRegistry,
+                               EntityNameResolver entityNameResolver, SqlRenderer renderer) {
+            this.db = db;
+            this.ids = null;
+        }
+
+        public CurrentDao_Impl(Db db, Dialect dialect, EntityMetaRegistry metaRegistry,
+                               EntityNameResolver entityNameResolver, SqlRenderer renderer,
+                               IdGeneratorProvider ids) {
+            this.db = db;
+            this.ids = ids;
+        }
+    }
+
+    public static final class LegacyDao_Impl {
+        final SqlRenderer renderer;
+
+        public LegacyDao_Impl(Db db, Dialect dialect, EntityMetaRegistry metaRegistry,
+                              EntityNameResolver entityNameResolver, SqlRenderer renderer) {
+            this.renderer = renderer;
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package io.lighting.lumen.starter;
 
 import io.lighting.lumen.db.SqlLog;
+import io.lighting.lumen.template.SqlTemplateCache;
+import java.time.Duration;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -14,6 +16,11 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  *       enabled: true
  *       mode: SEPARATE
  *       include-elapsed: true
+ *   template-cache:
+ *     max-size: 256
+ *     expire-after-access: 30m
+ *   page:
+ *     concurrent-count: true
  * }</pre>
  */
 @ConfigurationProperties(prefix = "lumen")
@@ -21,6 +28,10 @@ public class LumenProperties {
 
     private SqlLogProperties sql = new SqlLogProperties();
 
+    private TemplateCacheProperties templateCache = new TemplateCacheProperties();
+
+    private PageProperties page = new PageProperties();
+
     public SqlLogProperties getSql() {
         return sql;
     }
@@ -29,6 +40,69 @@ public class LumenProperties {
         this.sql = sql;
     }
 
+    public TemplateCacheProperties getTemplateCache() {
+        return templateCache;
+    }
+
+    public void setTemplateCache(TemplateCacheProperties templateCache) {
+        this.templateCache = templateCache;
+    }
+
+    public PageProperties getPage() {
+        return page;
+    }
+
+    public void setPage(PageProperties page) {
+        this.page = page;
+    }
+
+    /**
+     * Offset pagination. With concurrent-count enabled, the page query and its count query run at the
+     * same time on two pooled connections outside transactions.
+     */
+    public static class PageProperties {
+        private boolean concurrentCount = false;
+
+        public boolean isConcurrentCount() {
+            return concurrentCount;
+        }
+
+        public void setConcurrentCount(boolean concurrentCount) {
+            this.concurrentCount = concurrentCount;
+        }
+    }
+
+    /**
+     * Parsed SQL template cache used by {@code Db.run}. A max-size of 0 disables caching.
+     */
+    public static class TemplateCacheProperties {
+        private int maxSize = SqlTemplateCache.DEFAULT_MAX_SIZE;
+        private Duration expireAfterAccess;
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public Duration getExpireAfterAccess() {
+            return expireAfterAccess;
+        }
+
+        public void setExpireAfterAccess(Duration expireAfterAccess) {
+            this.expireAfterAccess = expireAfterAccess;
+        }
+
+        public SqlTemplateCache build() {
+            return SqlTemplateCache.builder()
+                .maxSize(maxSize)
+                .expireAfterAccess(expireAfterAccess)
+                .build();
+        }
+    }
+
     public static class SqlLogProperties {
         private boolean enabled = true;
         private boolean logOnRender = false;
@@ -38,6 +112,8 @@ public class LumenProperties {
         private boolean includeOperation = true;
         private SqlLog.Mode mode = SqlLog.Mode.SEPARATE;
         private String prefix = "SQL:";
+        private Double sampleRate;
+        private Duration slowThreshold;
 
         public boolean isEnabled() {
             return enabled;
@@ -103,11 +179,27 @@ public class LumenProperties {
             this.prefix = prefix;
         }
 
+        public Double getSampleRate() {
+            return sampleRate;
+        }
+
+        public void setSampleRate(Double sampleRate) {
+            this.sampleRate = sampleRate;
+        }
+
+        public Duration getSlowThreshold() {
+            return slowThreshold;
+        }
+
+        public void setSlowThreshold(Duration slowThreshold) {
+            this.slowThreshold = slowThreshold;
+        }
+
         public SqlLog build(java.util.function.Consumer<String> logger) {
             if (!enabled) {
                 return null;
             }
-            return SqlLog.builder()
+            SqlLog.Builder builder = SqlLog.builder()
                 .mode(mode)
                 .logOnRender(logOnRender)
                 .logOnExecute(logOnExecute)
@@ -115,8 +207,14 @@ public class LumenProperties {
                 .includeRowCount(includeRowCount)
                 .includeOperation(includeOperation)
                 .prefix(prefix)
-                .sink(logger)
-                .build();
+                .sink(logger);
+            if (sampleRate != null) {
+                builder.sampleRate(sampleRate);
+            }
+            if (slowThreshold != null) {
+                builder.slowThreshold(slowThreshold);
+            }
+            return builder.build();
         }
     }
 }